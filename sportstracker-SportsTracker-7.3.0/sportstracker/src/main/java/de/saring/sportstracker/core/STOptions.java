@@ -8,8 +8,9 @@ import java.io.Serializable;
 
 /**
  * This class contains all options of the SportsTracker application, it also implements the
- * ExerciseViewer options interface. These options will be persisted by using XmlBeanStorage
- * (which uses the Java Beans Persistence classes XMLEncoder and XMLDecoder).
+ * ExerciseViewer options interface. These options will be persisted by using STOptionsCodec,
+ * new options need to be added there too. The options files of previous versions were persisted
+ * by using XmlBeanStorage (Java Beans Persistence), they are migrated at the first start.
  *
  * @author Stefan Saring
  */
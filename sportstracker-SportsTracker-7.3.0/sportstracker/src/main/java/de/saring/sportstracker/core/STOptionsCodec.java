@@ -0,0 +1,214 @@
+package de.saring.sportstracker.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import de.saring.util.unitcalc.FormatUtils.SpeedView;
+import de.saring.util.unitcalc.FormatUtils.UnitSystem;
+
+/**
+ * Reads and writes the STOptions (including the ExerciseViewer options) from and to a properties
+ * file. The options are read and written directly, no reflection is used (as by the XMLDecoder and
+ * XMLEncoder of the previous XML format), so loading the options at startup is much faster.
+ * <p/>
+ * Missing or invalid values are replaced by the default values, so files of previous versions can
+ * always be read. The file contains a format version, files of newer format versions are rejected.
+ *
+ * @author Stefan Saring
+ */
+public final class STOptionsCodec {
+
+    private static final Logger LOGGER = Logger.getLogger(STOptionsCodec.class.getName());
+
+    /** Version of the options file format. */
+    static final int FORMAT_VERSION = 1;
+
+    static final String KEY_FORMAT_VERSION = "format.version";
+    static final String KEY_INITIAL_VIEW = "initialView";
+    static final String KEY_UNIT_SYSTEM = "unitSystem";
+    static final String KEY_SPEED_VIEW = "speedView";
+    static final String KEY_DEFAULT_AUTO_CALCULATION = "defaultAutoCalculation";
+    static final String KEY_SAVE_ON_EXIT = "saveOnExit";
+    static final String KEY_DISPLAY_SECOND_DIAGRAM = "displaySecondDiagram";
+    static final String KEY_WEEK_START_SUNDAY = "weekStartSunday";
+    static final String KEY_LIST_VIEW_SHOW_AVG_HEARTRATE = "listViewShowAvgHeartrate";
+    static final String KEY_LIST_VIEW_SHOW_ASCENT = "listViewShowAscent";
+    static final String KEY_LIST_VIEW_SHOW_ENERGY = "listViewShowEnergy";
+    static final String KEY_LIST_VIEW_SHOW_EQUIPMENT = "listViewShowEquipment";
+    static final String KEY_LIST_VIEW_SHOW_COMMENT = "listViewShowComment";
+    static final String KEY_PREVIOUS_EXERCISE_DIRECTORY = "previousExerciseDirectory";
+
+    private STOptionsCodec() {
+    }
+
+    /**
+     * Reads the options from the specified properties file.
+     *
+     * @param file options file
+     * @return the read options
+     * @throws IOException on read problems or when the file format version is not supported
+     */
+    public static STOptions read(final Path file) throws IOException {
+
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        final int formatVersion = readInt(properties, KEY_FORMAT_VERSION, FORMAT_VERSION);
+        if (formatVersion > FORMAT_VERSION) {
+            throw new IOException("The options file '" + file + "' has the unsupported format version " +
+                    formatVersion + "!");
+        }
+
+        // the defaults are set by the STOptions c'tor
+        final STOptions options = new STOptions();
+        options.setInitialView(readEnum(properties, KEY_INITIAL_VIEW, STOptions.View.class,
+                options.getInitialView()));
+        options.setUnitSystem(readEnum(properties, KEY_UNIT_SYSTEM, UnitSystem.class, options.getUnitSystem()));
+        options.setSpeedView(readEnum(properties, KEY_SPEED_VIEW, SpeedView.class, options.getSpeedView()));
+        options.setDefaultAutoCalcuation(readEnum(properties, KEY_DEFAULT_AUTO_CALCULATION,
+                STOptions.AutoCalculation.class, options.getDefaultAutoCalcuation()));
+        options.setSaveOnExit(readBoolean(properties, KEY_SAVE_ON_EXIT, options.isSaveOnExit()));
+        options.setDisplaySecondDiagram(readBoolean(properties, KEY_DISPLAY_SECOND_DIAGRAM,
+                options.isDisplaySecondDiagram()));
+        options.setWeekStartSunday(readBoolean(properties, KEY_WEEK_START_SUNDAY, options.isWeekStartSunday()));
+        options.setListViewShowAvgHeartrate(readBoolean(properties, KEY_LIST_VIEW_SHOW_AVG_HEARTRATE,
+                options.isListViewShowAvgHeartrate()));
+        options.setListViewShowAscent(readBoolean(properties, KEY_LIST_VIEW_SHOW_ASCENT,
+                options.isListViewShowAscent()));
+        options.setListViewShowEnergy(readBoolean(properties, KEY_LIST_VIEW_SHOW_ENERGY,
+                options.isListViewShowEnergy()));
+        options.setListViewShowEquipment(readBoolean(properties, KEY_LIST_VIEW_SHOW_EQUIPMENT,
+                options.isListViewShowEquipment()));
+        options.setListViewShowComment(readBoolean(properties, KEY_LIST_VIEW_SHOW_COMMENT,
+                options.isListViewShowComment()));
+        options.setPreviousExerciseDirectory(properties.getProperty(KEY_PREVIOUS_EXERCISE_DIRECTORY));
+        return options;
+    }
+
+    /**
+     * Writes the specified options to the specified properties file. The options are written in
+     * a fixed order, an existing file will be replaced.
+     *
+     * @param options options to write
+     * @param file options file
+     * @throws IOException on write problems
+     */
+    public static void write(final STOptions options, final Path file) throws IOException {
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# SportsTracker options");
+            writer.newLine();
+            writeProperty(writer, KEY_FORMAT_VERSION, String.valueOf(FORMAT_VERSION));
+            writeProperty(writer, KEY_INITIAL_VIEW, options.getInitialView());
+            writeProperty(writer, KEY_UNIT_SYSTEM, options.getUnitSystem());
+            writeProperty(writer, KEY_SPEED_VIEW, options.getSpeedView());
+            writeProperty(writer, KEY_DEFAULT_AUTO_CALCULATION, options.getDefaultAutoCalcuation());
+            writeProperty(writer, KEY_SAVE_ON_EXIT, options.isSaveOnExit());
+            writeProperty(writer, KEY_DISPLAY_SECOND_DIAGRAM, options.isDisplaySecondDiagram());
+            writeProperty(writer, KEY_WEEK_START_SUNDAY, options.isWeekStartSunday());
+            writeProperty(writer, KEY_LIST_VIEW_SHOW_AVG_HEARTRATE, options.isListViewShowAvgHeartrate());
+            writeProperty(writer, KEY_LIST_VIEW_SHOW_ASCENT, options.isListViewShowAscent());
+            writeProperty(writer, KEY_LIST_VIEW_SHOW_ENERGY, options.isListViewShowEnergy());
+            writeProperty(writer, KEY_LIST_VIEW_SHOW_EQUIPMENT, options.isListViewShowEquipment());
+            writeProperty(writer, KEY_LIST_VIEW_SHOW_COMMENT, options.isListViewShowComment());
+            writeProperty(writer, KEY_PREVIOUS_EXERCISE_DIRECTORY, options.getPreviousExerciseDirectory());
+        }
+    }
+
+    private static int readInt(final Properties properties, final String key, final int defaultValue) {
+        final String value = properties.getProperty(key);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logInvalidValue(key, value);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static boolean readBoolean(final Properties properties, final String key, final boolean defaultValue) {
+        final String value = properties.getProperty(key);
+        if (value != null) {
+            if ("true".equalsIgnoreCase(value.trim())) {
+                return true;
+            } else if ("false".equalsIgnoreCase(value.trim())) {
+                return false;
+            }
+            logInvalidValue(key, value);
+        }
+        return defaultValue;
+    }
+
+    private static <E extends Enum<E>> E readEnum(final Properties properties, final String key,
+            final Class<E> enumType, final E defaultValue) {
+        final String value = properties.getProperty(key);
+        if (value != null) {
+            try {
+                return Enum.valueOf(enumType, value.trim());
+            } catch (IllegalArgumentException e) {
+                logInvalidValue(key, value);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static void logInvalidValue(final String key, final String value) {
+        LOGGER.warning("Invalid value '" + value + "' for option '" + key + "', using the default value ...");
+    }
+
+    /**
+     * Writes the property line for the specified key and value, null values are not written.
+     */
+    private static void writeProperty(final BufferedWriter writer, final String key, final Object value)
+            throws IOException {
+        if (value != null) {
+            writer.write(key);
+            writer.write('=');
+            writer.write(escapeValue(value.toString()));
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Escapes the specified value as required by the properties file format, see Properties.load().
+     */
+    static String escapeValue(final String value) {
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                case ' ':
+                    // only leading whitespace gets lost
+                    sb.append(i == 0 ? "\\ " : " ");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,215 @@
+package de.saring.sportstracker.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import de.saring.util.StringUtils;
+
+/**
+ * Inverted index of the entry comments, it maps the comment tokens to the IDs of the entries which
+ * contain them. The comments are case-folded (as by the comment filter) and split into tokens of
+ * letters and digits.
+ * <p/>
+ * The index is used for finding the candidate entries of a comment substring search. The candidates
+ * are a superset of the matching entries, so they still need to be checked by the comment filter.
+ * The index needs to be updated on each change of the indexed entries.
+ *
+ * @author Stefan Saring
+ */
+final class EntryCommentIndex {
+
+    /** Map of all tokens to the IDs of the entries containing them (sorted for prefix lookups). */
+    private final NavigableMap<String, Set<Integer>> postings = new TreeMap<>();
+
+    /** Map of the entry IDs to the indexed (case-folded) comments, needed for removal and updates. */
+    private final Map<Integer, String> indexedComments = new HashMap<>();
+
+    /**
+     * Adds the specified entry to the index, a previously indexed comment of this entry will be replaced.
+     *
+     * @param entry entry to index
+     */
+    synchronized void put(final Entry entry) {
+        final String comment = foldComment(entry.getComment());
+        final String indexedComment = indexedComments.get(entry.getId());
+        if (comment.equals(indexedComment)) {
+            return;
+        }
+
+        if (indexedComment != null) {
+            remove(entry.getId());
+        }
+
+        indexedComments.put(entry.getId(), comment);
+        for (String token : tokenize(comment)) {
+            postings.computeIfAbsent(token, t -> new HashSet<>()).add(entry.getId());
+        }
+    }
+
+    /**
+     * Removes the entry with the specified ID from the index.
+     *
+     * @param id ID of the entry to remove
+     */
+    synchronized void remove(final int id) {
+        final String indexedComment = indexedComments.remove(id);
+        if (indexedComment != null) {
+            for (String token : tokenize(indexedComment)) {
+                final Set<Integer> ids = postings.get(token);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the index for the specified entries, they are the complete content of the indexed list.
+     * Entries not contained anymore will be removed, new and modified entries will be (re)indexed.
+     *
+     * @param entries all entries of the indexed list
+     */
+    synchronized void update(final Collection<? extends Entry> entries) {
+        final Set<Integer> entryIds = new HashSet<>();
+        entries.forEach(entry -> entryIds.add(entry.getId()));
+
+        new ArrayList<>(indexedComments.keySet()).stream()
+                .filter(id -> !entryIds.contains(id))
+                .forEach(this::remove);
+        entries.forEach(this::put);
+    }
+
+    /**
+     * Returns the IDs of all entries which can contain the specified substring in their comment. The
+     * substring must be case-folded by String.toLowerCase() like the comments.
+     *
+     * @param foldedSubString the case-folded substring to search for
+     * @return the IDs of the candidate entries or null when the substring contains no tokens, then all
+     *         entries are candidates
+     */
+    synchronized Set<Integer> findCandidates(final String foldedSubString) {
+
+        // a token of the substring must be a complete comment token when surrounded by separators,
+        // otherwise it can be the start, the end or any part of a comment token
+        final List<Set<Integer>> tokenCandidates = new ArrayList<>();
+        int tokenStart = -1;
+        for (int i = 0; i <= foldedSubString.length(); i++) {
+            final boolean tokenChar = i < foldedSubString.length() &&
+                    Character.isLetterOrDigit(foldedSubString.charAt(i));
+
+            if (tokenChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!tokenChar && tokenStart >= 0) {
+                final String token = foldedSubString.substring(tokenStart, i);
+                final boolean tokenBegin = tokenStart > 0;
+                final boolean tokenEnd = i < foldedSubString.length();
+
+                final Set<Integer> candidates = findTokenCandidates(token, tokenBegin, tokenEnd);
+                if (candidates.isEmpty()) {
+                    return candidates;
+                }
+                tokenCandidates.add(candidates);
+                tokenStart = -1;
+            }
+        }
+
+        if (tokenCandidates.isEmpty()) {
+            return null;
+        }
+
+        // intersect the candidates, start with the smallest set
+        tokenCandidates.sort(Comparator.comparingInt(Set::size));
+        final Set<Integer> result = new HashSet<>(tokenCandidates.get(0));
+        for (int i = 1; i < tokenCandidates.size() && !result.isEmpty(); i++) {
+            result.retainAll(tokenCandidates.get(i));
+        }
+        return result;
+    }
+
+    private Set<Integer> findTokenCandidates(final String token, final boolean tokenBegin, final boolean tokenEnd) {
+        if (tokenBegin && tokenEnd) {
+            final Set<Integer> ids = postings.get(token);
+            return ids == null ? new HashSet<>() : ids;
+        }
+
+        final Collection<Map.Entry<String, Set<Integer>>> matchingPostings;
+        if (tokenBegin) {
+            matchingPostings = postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet();
+        } else {
+            final Predicate<String> tokenMatcher = tokenEnd ? t -> t.endsWith(token) : t -> t.contains(token);
+            matchingPostings = new ArrayList<>();
+            postings.entrySet().stream()
+                    .filter(posting -> tokenMatcher.test(posting.getKey()))
+                    .forEach(matchingPostings::add);
+        }
+
+        final Set<Integer> ids = new HashSet<>();
+        matchingPostings.forEach(posting -> ids.addAll(posting.getValue()));
+        return ids;
+    }
+
+    /**
+     * Returns the literal prefix of the specified regular expression, which needs to be contained in all
+     * matching texts. The prefix is limited to ASCII characters, so it can be case-folded like the comments.
+     *
+     * @param regex the regular expression
+     * @return the literal prefix (can be empty)
+     */
+    static String getLiteralPrefix(final String regex) {
+
+        // alternatives can match without the prefix
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+
+        final int start = regex.startsWith("^") ? 1 : 0;
+        int end = start;
+        while (end < regex.length() && isLiteralChar(regex.charAt(end))) {
+            end++;
+        }
+
+        // the last literal character is optional when followed by one of these quantifiers
+        if (end > start && end < regex.length() && "*?{".indexOf(regex.charAt(end)) >= 0) {
+            end--;
+        }
+        return regex.substring(start, end);
+    }
+
+    private static boolean isLiteralChar(final char c) {
+        return c < 128 && ".[]{}()*+?^$|\\".indexOf(c) < 0;
+    }
+
+    /**
+     * Splits the specified text into the tokens of letters and digits.
+     *
+     * @param text text to split
+     * @return set of the tokens
+     */
+    static Set<String> tokenize(final String text) {
+        final Set<String> tokens = new HashSet<>();
+        int tokenStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            final boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!tokenChar && tokenStart >= 0) {
+                tokens.add(text.substring(tokenStart, i));
+                tokenStart = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String foldComment(final String comment) {
+        return StringUtils.isNullOrEmpty(comment) ? "" : comment.toLowerCase();
+    }
+}
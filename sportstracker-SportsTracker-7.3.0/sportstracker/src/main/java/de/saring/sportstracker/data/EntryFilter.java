@@ -4,6 +4,8 @@ import de.saring.sportstracker.data.Exercise.IntensityType;
 
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * This class defines the criteria for filtering the entry list (e.g. for creation of statistics).
@@ -85,6 +87,12 @@ public final class EntryFilter {
      */
     private boolean regularExpressionMode = false;
 
+    /**
+     * The compiled regular expression of the comment substring, it will be created on first usage
+     * (must be reset when the comment substring has changed).
+     */
+    private Pattern commentPattern = null;
+
     public LocalDate getDateStart() {
         return dateStart;
     }
@@ -155,6 +163,21 @@ public final class EntryFilter {
 
     public void setCommentSubString(String commentSubString) {
         this.commentSubString = commentSubString;
+        this.commentPattern = null;
+    }
+
+    /**
+     * Returns the compiled regular expression of the trimmed comment substring, so it doesn't need to be
+     * compiled again for each filtered entry.
+     *
+     * @return the compiled comment pattern
+     * @throws PatternSyntaxException thrown on parsing problems of the regular expression
+     */
+    Pattern getCommentPattern() throws PatternSyntaxException {
+        if (commentPattern == null) {
+            commentPattern = Pattern.compile(commentSubString.trim());
+        }
+        return commentPattern;
     }
 
     /**
@@ -1,22 +1,47 @@
 package de.saring.sportstracker.data;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import de.saring.util.StringUtils;
 import de.saring.util.data.IdDateObjectList;
+import de.saring.util.data.IdObject;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.Timer;
 
 /**
  * This list extends IdDateObjectList and contains unique instances of Entry subclasses. It provides common
- * filtering for entries of all types.
+ * filtering for entries of all types.<br/>
+ * The comment filtering uses an inverted index of all entry comments, it will be created on the first
+ * filtering by comment and is updated on each list change. So the entry comments must not be modified
+ * without storing the entry in the list again.
  *
  * @param <T> the object type to store in this list, must be a subclass of Entry
  * @author Stefan Saring
  */
 public class EntryList<T extends Entry> extends IdDateObjectList<T> {
 
+    private static final Timer FILTER_TIMER = Metrics.timer("filter.evaluation");
+
+    /** Default minimum number of filter candidates for the parallel filter evaluation. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    /** Minimum number of entries in a chunk of the parallel filter evaluation. */
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    /** Index of the entry comments, it's null until the first filtering by comment. */
+    private EntryCommentIndex commentIndex;
+
+    /** Minimum number of filter candidates for the parallel filter evaluation. */
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
     /**
      * This method searches through the whole entry list and returns an list of all notes which are fulfilling
      * all the specified filter criteria. The comment filter is optional. The filtering by a comment substring
@@ -41,11 +66,146 @@ public class EntryList<T extends Entry> extends IdDateObjectList<T> {
         }
 
         final EntryList<T> foundEntries = new EntryList<>();
-        stream().filter(note -> filterEntry(note, filter))
-                .forEach(foundEntries::set);
+        try (Timer.Context ignored = FILTER_TIMER.start()) {
+            final Set<Integer> candidateIds = findCommentCandidates(filter);
+            final Predicate<T> predicate = entry ->
+                    (candidateIds == null || candidateIds.contains(entry.getId())) && filterEntry(entry, filter);
+
+            final List<T> candidates = getFilterCandidates(filter);
+            final List<T> matchingEntries = candidates.size() >= parallelThreshold ?
+                    ForkJoinPool.commonPool().invoke(new FilterTask<>(candidates, 0, candidates.size(),
+                            getChunkSize(candidates.size()), predicate)) :
+                    filterEntries(candidates, 0, candidates.size(), predicate);
+
+            // the found entries are already sorted by date, so they don't need to be inserted or sorted
+            foundEntries.getIDObjects().addAll(matchingEntries);
+        }
         return foundEntries;
     }
 
+    /**
+     * Sets the minimum number of filter candidates for evaluating the filter in parallel. The parallel
+     * evaluation uses the common fork/join pool, it's only faster for large lists on multiple processors.
+     *
+     * @param parallelThreshold minimum number of candidates (Integer.MAX_VALUE disables the parallel mode)
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns the entries to be checked by the specified filter, sorted by date. This implementation
+     * returns all entries, subclasses can use indexes for a preselection. The returned list must not
+     * be modified.
+     *
+     * @param filter the entry filter criteria
+     * @return list of the candidate entries
+     */
+    protected List<T> getFilterCandidates(EntryFilter filter) {
+        return getIDObjects();
+    }
+
+    /**
+     * Returns the chunk size for the parallel filtering, so each worker thread gets multiple chunks.
+     */
+    private static int getChunkSize(final int candidateCount) {
+        return Math.max(MIN_CHUNK_SIZE, candidateCount / (ForkJoinPool.getCommonPoolParallelism() * 4));
+    }
+
+    private static <T> List<T> filterEntries(final List<T> entries, final int from, final int to,
+            final Predicate<T> predicate) {
+        final List<T> matchingEntries = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            final T entry = entries.get(i);
+            if (predicate.test(entry)) {
+                matchingEntries.add(entry);
+            }
+        }
+        return matchingEntries;
+    }
+
+    /**
+     * Fork/join task for filtering a range of the entries. Ranges larger than the chunk size are split
+     * in halves, the results are concatenated in entry order.
+     */
+    private static final class FilterTask<T> extends RecursiveTask<List<T>> {
+
+        private final List<T> entries;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Predicate<T> predicate;
+
+        FilterTask(final List<T> entries, final int from, final int to, final int chunkSize,
+                final Predicate<T> predicate) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= chunkSize) {
+                return filterEntries(entries, from, to, predicate);
+            }
+
+            final int middle = (from + to) >>> 1;
+            final FilterTask<T> leftTask = new FilterTask<>(entries, from, middle, chunkSize, predicate);
+            leftTask.fork();
+            final List<T> rightEntries = new FilterTask<>(entries, middle, to, chunkSize, predicate).compute();
+            final List<T> leftEntries = leftTask.join();
+
+            leftEntries.addAll(rightEntries);
+            return leftEntries;
+        }
+    }
+
+    /**
+     * Returns the IDs of all entries which can match the comment criteria of the specified filter. They
+     * are determined by the comment index, in regular expression mode only the literal prefix of the
+     * expression can be used.
+     *
+     * @param filter the entry filter criteria
+     * @return the IDs of the candidate entries or null when all entries are candidates
+     */
+    private Set<Integer> findCommentCandidates(final EntryFilter filter) {
+        if (StringUtils.isNullOrEmpty(filter.getCommentSubString())) {
+            return null;
+        }
+
+        String strCommentSubString = filter.getCommentSubString().trim();
+        if (filter.isRegularExpressionMode()) {
+            // invalid expressions must be reported also when there are no candidates
+            filter.getCommentPattern();
+            strCommentSubString = EntryCommentIndex.getLiteralPrefix(strCommentSubString);
+        }
+        return getCommentIndex().findCandidates(strCommentSubString.toLowerCase());
+    }
+
+    private synchronized EntryCommentIndex getCommentIndex() {
+        if (commentIndex == null) {
+            commentIndex = new EntryCommentIndex();
+            commentIndex.update(getIDObjects());
+        }
+        return commentIndex;
+    }
+
+    @Override
+    protected void notifyAllListChangelisteners(IdObject changedObject) {
+        synchronized (this) {
+            if (commentIndex != null) {
+                if (changedObject != null) {
+                    commentIndex.put((Entry) changedObject);
+                } else {
+                    commentIndex.update(getIDObjects());
+                }
+            }
+        }
+        super.notifyAllListChangelisteners(changedObject);
+    }
+
     /**
      * Checks whether the specified entry matches the comment of the filter. It filters the entry date
      * and the entry comment (if present).
@@ -91,8 +251,7 @@ public class EntryList<T extends Entry> extends IdDateObjectList<T> {
             }
         } else {
             // regular expression searching for substring (is case sensitive !)
-            Pattern ptnCommentSubString = Pattern.compile(strCommentSubString);
-            Matcher matcher = ptnCommentSubString.matcher(entry.getComment());
+            Matcher matcher = filter.getCommentPattern().matcher(entry.getComment());
             if (!matcher.find()) {
                 return false;
             }
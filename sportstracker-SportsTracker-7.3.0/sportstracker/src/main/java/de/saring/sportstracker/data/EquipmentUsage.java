@@ -0,0 +1,72 @@
+package de.saring.sportstracker.data;
+
+import java.time.LocalDate;
+
+/**
+ * This class contains the usage summary of an equipment: the total distance and duration of all
+ * exercises with this equipment, the number of these exercises and the dates of the first and last
+ * usage. Instances are immutable.
+ *
+ * @author Stefan Saring
+ */
+public final class EquipmentUsage {
+
+    /** Usage of an equipment which is not used in any exercise. */
+    public static final EquipmentUsage UNUSED = new EquipmentUsage(0, 0, 0, null, null);
+
+    private final double distance;
+    private final long duration;
+    private final int exerciseCount;
+    private final LocalDate firstUse;
+    private final LocalDate lastUse;
+
+    /**
+     * Standard c'tor.
+     *
+     * @param distance total distance in km
+     * @param duration total duration in seconds
+     * @param exerciseCount number of exercises
+     * @param firstUse date of the first exercise (null when unused)
+     * @param lastUse date of the last exercise (null when unused)
+     */
+    public EquipmentUsage(double distance, long duration, int exerciseCount, LocalDate firstUse, LocalDate lastUse) {
+        this.distance = distance;
+        this.duration = duration;
+        this.exerciseCount = exerciseCount;
+        this.firstUse = firstUse;
+        this.lastUse = lastUse;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public int getExerciseCount() {
+        return exerciseCount;
+    }
+
+    public LocalDate getFirstUse() {
+        return firstUse;
+    }
+
+    public LocalDate getLastUse() {
+        return lastUse;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sBuilder = new StringBuilder();
+        sBuilder.append(this.getClass().getName()).append(":\n");
+        sBuilder.append(" [distance=").append(this.distance).append("\n");
+        sBuilder.append("  duration=").append(this.duration).append("\n");
+        sBuilder.append("  exerciseCount=").append(this.exerciseCount).append("\n");
+        sBuilder.append("  firstUse=").append(this.firstUse).append("\n");
+        sBuilder.append("  lastUse=").append(this.lastUse).append("]\n");
+        return sBuilder.toString();
+    }
+}
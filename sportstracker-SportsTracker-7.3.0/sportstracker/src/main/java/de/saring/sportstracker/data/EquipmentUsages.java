@@ -0,0 +1,212 @@
+package de.saring.sportstracker.data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import de.saring.util.data.IdObject;
+import de.saring.util.data.IdObjectListChangeListener;
+
+/**
+ * This class contains the usage of all equipment in the exercises of an ExerciseList. The usages
+ * (distance, duration and exercise count) are aggregated per equipment, the distances also per day.
+ * So the total usage and the distance in a date range can be queried without processing the exercises.
+ * <p/>
+ * The usages are updated incrementally on each change of the exercise list, so the exercises must
+ * not be modified without storing them in the list again. The equipment is identified by the sport
+ * type ID and the equipment ID, so editing sport types does not affect the usages. The exercises
+ * without equipment are aggregated per sport type too.
+ *
+ * @author Stefan Saring
+ */
+public final class EquipmentUsages implements IdObjectListChangeListener {
+
+    private final ExerciseList exerciseList;
+
+    /** Map of the equipment keys to the usage aggregates. */
+    private final Map<Long, UsageAggregate> aggregates = new HashMap<>();
+
+    /** Map of the exercise IDs to their contained usage contributions. */
+    private final Map<Integer, Contribution> contributions = new HashMap<>();
+
+    /**
+     * Creates the equipment usages for all exercises of the specified list. This instance will be
+     * registered as a change listener of the list.
+     *
+     * @param exerciseList the exercise list
+     */
+    public EquipmentUsages(final ExerciseList exerciseList) {
+        this.exerciseList = exerciseList;
+        exerciseList.forEach(this::put);
+        exerciseList.addListChangeListener(this);
+    }
+
+    /**
+     * Returns the total usage of the specified equipment.
+     *
+     * @param sportType the sport type of the equipment
+     * @param equipment the equipment (null for all exercises of the sport type without equipment)
+     * @return the usage of the equipment
+     */
+    public synchronized EquipmentUsage getUsage(final SportType sportType, final Equipment equipment) {
+        final UsageAggregate aggregate = aggregates.get(createKey(sportType, equipment));
+        return aggregate == null ? EquipmentUsage.UNUSED : aggregate.toEquipmentUsage();
+    }
+
+    /**
+     * Returns the total distance of the specified equipment in the specified date range.
+     *
+     * @param sportType the sport type of the equipment
+     * @param equipment the equipment (null for all exercises of the sport type without equipment)
+     * @param dateStart start date of the range (inclusive)
+     * @param dateEnd end date of the range (inclusive)
+     * @return the distance in km
+     */
+    public synchronized double getDistance(final SportType sportType, final Equipment equipment,
+            final LocalDate dateStart, final LocalDate dateEnd) {
+
+        final UsageAggregate aggregate = aggregates.get(createKey(sportType, equipment));
+        if (aggregate == null || dateStart.isAfter(dateEnd)) {
+            return 0d;
+        }
+
+        double distance = 0d;
+        for (DayUsage dayUsage : aggregate.dayUsages.subMap(dateStart, true, dateEnd, true).values()) {
+            distance += dayUsage.distance;
+        }
+        return distance;
+    }
+
+    @Override
+    public synchronized void listChanged(final IdObject changedObject) {
+        if (changedObject != null) {
+            put((Exercise) changedObject);
+        } else {
+            // exercises have been removed or the list content has been replaced
+            final Set<Integer> exerciseIds = new HashSet<>();
+            exerciseList.forEach(exercise -> exerciseIds.add(exercise.getId()));
+
+            new ArrayList<>(contributions.keySet()).stream()
+                    .filter(id -> !exerciseIds.contains(id))
+                    .forEach(this::remove);
+            exerciseList.forEach(this::put);
+        }
+    }
+
+    private void put(final Exercise exercise) {
+        final Contribution newContribution = new Contribution(exercise);
+        final Contribution oldContribution = contributions.get(exercise.getId());
+        if (newContribution.equals(oldContribution)) {
+            return;
+        }
+
+        if (oldContribution != null) {
+            remove(exercise.getId());
+        }
+
+        if (newContribution.key != null) {
+            contributions.put(exercise.getId(), newContribution);
+            aggregates.computeIfAbsent(newContribution.key, k -> new UsageAggregate()).add(newContribution, 1);
+        }
+    }
+
+    private void remove(final int exerciseId) {
+        final Contribution contribution = contributions.remove(exerciseId);
+        if (contribution != null) {
+            final UsageAggregate aggregate = aggregates.get(contribution.key);
+            aggregate.add(contribution, -1);
+            if (aggregate.exerciseCount == 0) {
+                aggregates.remove(contribution.key);
+            }
+        }
+    }
+
+    private static Long createKey(final SportType sportType, final Equipment equipment) {
+        if (sportType == null) {
+            return null;
+        }
+        final int equipmentId = equipment == null ? 0 : equipment.getId();
+        return ((long) sportType.getId() << 32) | (equipmentId & 0xffffffffL);
+    }
+
+    /**
+     * The usage contribution of a single exercise.
+     */
+    private static final class Contribution {
+
+        private final Exercise exercise;
+        private final Long key;
+        private final LocalDate date;
+        private final double distance;
+        private final int duration;
+
+        Contribution(final Exercise exercise) {
+            this.exercise = exercise;
+            this.key = createKey(exercise.getSportType(), exercise.getEquipment());
+            this.date = exercise.getDateTime().toLocalDate();
+            this.distance = exercise.getDistance();
+            this.duration = exercise.getDuration();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Contribution)) {
+                return false;
+            }
+
+            final Contribution other = (Contribution) o;
+            return exercise == other.exercise && Objects.equals(key, other.key) && date.equals(other.date) &&
+                    distance == other.distance && duration == other.duration;
+        }
+
+        @Override
+        public int hashCode() {
+            return exercise.getId();
+        }
+    }
+
+    /**
+     * The usage of an equipment on a single day.
+     */
+    private static final class DayUsage {
+        private int exerciseCount;
+        private double distance;
+    }
+
+    /**
+     * The total usage of an equipment and the usages per day (sorted by date).
+     */
+    private static final class UsageAggregate {
+
+        private final NavigableMap<LocalDate, DayUsage> dayUsages = new TreeMap<>();
+        private int exerciseCount;
+        private double distance;
+        private long duration;
+
+        /**
+         * Adds (sign = 1) or subtracts (sign = -1) the specified contribution.
+         */
+        void add(final Contribution contribution, final int sign) {
+            exerciseCount += sign;
+            distance += sign * contribution.distance;
+            duration += sign * contribution.duration;
+
+            final DayUsage dayUsage = dayUsages.computeIfAbsent(contribution.date, d -> new DayUsage());
+            dayUsage.exerciseCount += sign;
+            dayUsage.distance += sign * contribution.distance;
+            if (dayUsage.exerciseCount == 0) {
+                dayUsages.remove(contribution.date);
+            }
+        }
+
+        EquipmentUsage toEquipmentUsage() {
+            return new EquipmentUsage(distance, duration, exerciseCount, dayUsages.firstKey(), dayUsages.lastKey());
+        }
+    }
+}
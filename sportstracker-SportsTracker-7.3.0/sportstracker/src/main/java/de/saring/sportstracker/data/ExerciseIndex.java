@@ -0,0 +1,266 @@
+package de.saring.sportstracker.data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import de.saring.sportstracker.data.Exercise.IntensityType;
+
+/**
+ * Secondary indexes of the exercises by sport type, by sport subtype, by equipment and by intensity.
+ * Each index maps the key (the IDs of the referenced objects) to the date-sorted IDs of the exercises.
+ * The subtype and equipment keys contain the sport type ID too, because their IDs are only unique
+ * within the sport type.
+ * <p/>
+ * The indexes are used for finding the candidate exercises of an exercise filter, they need to be
+ * updated on each change of the indexed exercises.
+ *
+ * @author Stefan Saring
+ */
+final class ExerciseIndex {
+
+    /** Map of the exercise IDs to the indexed exercise data. */
+    private final Map<Integer, IndexedExercise> indexedExercises = new HashMap<>();
+
+    private final Map<Integer, DateSortedIds> sportTypeIndex = new HashMap<>();
+    private final Map<Long, DateSortedIds> sportSubTypeIndex = new HashMap<>();
+    private final Map<Long, DateSortedIds> equipmentIndex = new HashMap<>();
+    private final Map<IntensityType, DateSortedIds> intensityIndex = new EnumMap<>(IntensityType.class);
+
+    /**
+     * Adds the specified exercise to the indexes, a previously indexed exercise with the same ID will
+     * be replaced.
+     *
+     * @param exercise exercise to index
+     */
+    synchronized void put(final Exercise exercise) {
+        final IndexedExercise newIndexed = new IndexedExercise(exercise);
+        final IndexedExercise oldIndexed = indexedExercises.get(exercise.getId());
+        if (newIndexed.equals(oldIndexed)) {
+            return;
+        }
+
+        if (oldIndexed != null) {
+            remove(exercise.getId());
+        }
+
+        indexedExercises.put(exercise.getId(), newIndexed);
+        addId(sportTypeIndex, newIndexed.sportTypeKey, newIndexed);
+        addId(sportSubTypeIndex, newIndexed.sportSubTypeKey, newIndexed);
+        addId(equipmentIndex, newIndexed.equipmentKey, newIndexed);
+        addId(intensityIndex, newIndexed.intensity, newIndexed);
+    }
+
+    /**
+     * Removes the exercise with the specified ID from the indexes.
+     *
+     * @param id ID of the exercise to remove
+     */
+    synchronized void remove(final int id) {
+        final IndexedExercise indexed = indexedExercises.get(id);
+        if (indexed != null) {
+            removeId(sportTypeIndex, indexed.sportTypeKey, indexed);
+            removeId(sportSubTypeIndex, indexed.sportSubTypeKey, indexed);
+            removeId(equipmentIndex, indexed.equipmentKey, indexed);
+            removeId(intensityIndex, indexed.intensity, indexed);
+            indexedExercises.remove(id);
+        }
+    }
+
+    /**
+     * Updates the indexes for the specified exercises, they are the complete content of the indexed
+     * list. Exercises not contained anymore will be removed, new and modified exercises will be
+     * (re)indexed.
+     *
+     * @param exercises all exercises of the indexed list
+     */
+    synchronized void update(final Collection<Exercise> exercises) {
+        final Set<Integer> exerciseIds = new HashSet<>();
+        exercises.forEach(exercise -> exerciseIds.add(exercise.getId()));
+
+        new ArrayList<>(indexedExercises.keySet()).stream()
+                .filter(id -> !exerciseIds.contains(id))
+                .forEach(this::remove);
+        exercises.forEach(this::put);
+    }
+
+    /**
+     * Returns the candidate exercises for the specified filter, sorted by date. The query uses the most
+     * selective index for the sport type, subtype, equipment and intensity criteria of the filter. The
+     * candidates still need to be checked by the filter.
+     *
+     * @param filter the exercise filter
+     * @return the candidate exercises or null when the filter contains no indexed criteria
+     */
+    synchronized List<Exercise> findCandidates(final EntryFilter filter) {
+        final List<DateSortedIds> applicableIds = new ArrayList<>();
+
+        final SportType sportType = filter.getSportType();
+        if (sportType != null) {
+            applicableIds.add(sportTypeIndex.get(sportType.getId()));
+            if (filter.getSportSubType() != null) {
+                applicableIds.add(sportSubTypeIndex.get(createKey(sportType, filter.getSportSubType())));
+            }
+            if (filter.getEquipment() != null) {
+                applicableIds.add(equipmentIndex.get(createKey(sportType, filter.getEquipment())));
+            }
+        }
+        if (filter.getIntensity() != null) {
+            applicableIds.add(intensityIndex.get(filter.getIntensity()));
+        }
+
+        if (applicableIds.isEmpty()) {
+            return null;
+        }
+
+        // use the most selective index, a missing index entry means that no exercise matches
+        DateSortedIds selectedIds = null;
+        for (DateSortedIds ids : applicableIds) {
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            if (selectedIds == null || ids.size < selectedIds.size) {
+                selectedIds = ids;
+            }
+        }
+
+        final List<Exercise> candidates = new ArrayList<>(selectedIds.size);
+        for (int i = 0; i < selectedIds.size; i++) {
+            candidates.add(indexedExercises.get(selectedIds.ids[i]).exercise);
+        }
+        return candidates;
+    }
+
+    private <K> void addId(final Map<K, DateSortedIds> index, final K key, final IndexedExercise indexed) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new DateSortedIds()).add(indexed);
+        }
+    }
+
+    private <K> void removeId(final Map<K, DateSortedIds> index, final K key, final IndexedExercise indexed) {
+        if (key != null) {
+            final DateSortedIds ids = index.get(key);
+            if (ids != null && ids.remove(indexed) && ids.size == 0) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Long createKey(final SportType sportType, final SportSubType sportSubType) {
+        return ((long) sportType.getId() << 32) | (sportSubType.getId() & 0xffffffffL);
+    }
+
+    private static Long createKey(final SportType sportType, final Equipment equipment) {
+        return ((long) sportType.getId() << 32) | (equipment.getId() & 0xffffffffL);
+    }
+
+    /**
+     * The indexed data of an exercise: the exercise instance, its date and its index keys (null when
+     * the exercise has no such reference).
+     */
+    private static final class IndexedExercise {
+
+        private final Exercise exercise;
+        private final LocalDateTime dateTime;
+        private final Integer sportTypeKey;
+        private final Long sportSubTypeKey;
+        private final Long equipmentKey;
+        private final IntensityType intensity;
+
+        IndexedExercise(final Exercise exercise) {
+            final SportType sportType = exercise.getSportType();
+
+            this.exercise = exercise;
+            this.dateTime = exercise.getDateTime();
+            this.sportTypeKey = sportType == null ? null : sportType.getId();
+            this.sportSubTypeKey = sportType == null || exercise.getSportSubType() == null ? null :
+                    createKey(sportType, exercise.getSportSubType());
+            this.equipmentKey = sportType == null || exercise.getEquipment() == null ? null :
+                    createKey(sportType, exercise.getEquipment());
+            this.intensity = exercise.getIntensity();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof IndexedExercise)) {
+                return false;
+            }
+
+            final IndexedExercise other = (IndexedExercise) o;
+            return exercise == other.exercise &&
+                    Objects.equals(dateTime, other.dateTime) &&
+                    Objects.equals(sportTypeKey, other.sportTypeKey) &&
+                    Objects.equals(sportSubTypeKey, other.sportSubTypeKey) &&
+                    Objects.equals(equipmentKey, other.equipmentKey) &&
+                    intensity == other.intensity;
+        }
+
+        @Override
+        public int hashCode() {
+            return exercise.getId();
+        }
+    }
+
+    /**
+     * Array of exercise IDs, sorted by the exercise date. Exercises with the same date are sorted
+     * by insertion order, like in the IdDateObjectList.
+     */
+    private final class DateSortedIds {
+
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        void add(final IndexedExercise indexed) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+
+            // insert after all IDs with the same or a previous date
+            final int index = findFirstAfter(indexed.dateTime);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = indexed.exercise.getId();
+            size++;
+        }
+
+        boolean remove(final IndexedExercise indexed) {
+            for (int i = findFirstAfter(indexed.dateTime) - 1;
+                 i >= 0 && !getDateTime(i).isBefore(indexed.dateTime); i--) {
+                if (ids[i] == indexed.exercise.getId()) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the index of the first ID with a date after the specified date (binary search).
+         */
+        private int findFirstAfter(final LocalDateTime dateTime) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (dateTime.isBefore(getDateTime(middle))) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        private LocalDateTime getDateTime(final int index) {
+            return indexedExercises.get(ids[index]).dateTime;
+        }
+    }
+}
@@ -1,22 +1,31 @@
 package de.saring.sportstracker.data;
 
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
+import de.saring.util.data.IdObject;
+
 /**
  * This class contains a list of all exercises of the user and provides access
- * methods to them.
+ * methods to them.<br/>
+ * The filtering by sport type, subtype, equipment and intensity uses secondary
+ * indexes, they will be created on the first filtering by these criteria and are
+ * updated on each list change.
  *
  * @author Stefan Saring
  * @version 1.0
  */
 public final class ExerciseList extends EntryList<Exercise> {
 
+    /** Indexes of the exercises, it's null until the first filtering by indexed criteria. */
+    private ExerciseIndex exerciseIndex;
+
     /**
      * This method updates the sport type, the subtype and the equipment objects
-     * for all exercises. This is necessary when the sport type objects have
-     * been edited, e.g. the name of a sport type has changed. The new sport
-     * type will be a new object and the exercise object which uses it needs to
-     * get the reference to this new object (references the old object before).
+     * for all exercises. This is only necessary when the sport type objects have
+     * been replaced by new objects without using SportTypeList.set() (it updates
+     * edited sport types in place), the exercise objects which use them need to
+     * get the references to the new objects (references the old objects before).
      *
      * @param sportTypeList the sport type list to be used for update
      */
@@ -39,6 +48,52 @@ public final class ExerciseList extends EntryList<Exercise> {
                 exercise.setEquipment(newEquipment);
             }
         });
+
+        // the references can have been changed (e.g. removed equipment), the list listeners are not notified
+        synchronized (this) {
+            if (exerciseIndex != null) {
+                exerciseIndex.update(getIDObjects());
+            }
+        }
+    }
+
+    /**
+     * Returns the candidate exercises of the most selective index for the filter criteria, all
+     * exercises are returned when the filter contains no indexed criteria.
+     *
+     * @param filter the entry filter criteria
+     * @return list of the candidate exercises
+     */
+    @Override
+    protected List<Exercise> getFilterCandidates(EntryFilter filter) {
+        if (filter.getSportType() == null && filter.getIntensity() == null) {
+            return super.getFilterCandidates(filter);
+        }
+
+        final List<Exercise> candidates = getExerciseIndex().findCandidates(filter);
+        return candidates == null ? super.getFilterCandidates(filter) : candidates;
+    }
+
+    private synchronized ExerciseIndex getExerciseIndex() {
+        if (exerciseIndex == null) {
+            exerciseIndex = new ExerciseIndex();
+            exerciseIndex.update(getIDObjects());
+        }
+        return exerciseIndex;
+    }
+
+    @Override
+    protected void notifyAllListChangelisteners(IdObject changedObject) {
+        synchronized (this) {
+            if (exerciseIndex != null) {
+                if (changedObject != null) {
+                    exerciseIndex.put((Exercise) changedObject);
+                } else {
+                    exerciseIndex.update(getIDObjects());
+                }
+            }
+        }
+        super.notifyAllListChangelisteners(changedObject);
     }
 
     /**
@@ -1,5 +1,8 @@
 package de.saring.sportstracker.data;
 
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
 import de.saring.util.data.IdObject;
 import de.saring.util.data.IdObjectList;
 import de.saring.util.data.Nameable;
@@ -95,6 +98,47 @@ public final class SportType extends IdObject implements Nameable, Cloneable {
         return equipmentList;
     }
 
+    /**
+     * Copies the content of the specified sport type into this instance. The subtypes and equipment
+     * with the same ID are updated too, they will not be replaced. New ones are added, missing ones
+     * are removed. So all references to this sport type, its subtypes and equipment remain valid.
+     *
+     * @param sportType sport type with the new content (must have the same ID)
+     */
+    void update(SportType sportType) {
+        if (sportType.getId() != this.getId()) {
+            throw new IllegalArgumentException("The sport type must have the same ID!");
+        }
+
+        this.name = sportType.name;
+        this.recordDistance = sportType.recordDistance;
+        this.icon = sportType.icon;
+        this.color = sportType.color;
+
+        updateList(sportSubTypeList, sportType.sportSubTypeList,
+                (subType, newSubType) -> subType.setName(newSubType.getName()));
+        updateList(equipmentList, sportType.equipmentList,
+                (equipment, newEquipment) -> equipment.setName(newEquipment.getName()));
+    }
+
+    private static <T extends IdObject> void updateList(IdObjectList<T> list, IdObjectList<T> newList,
+            BiConsumer<T, T> updater) {
+
+        list.stream()
+                .filter(entry -> newList.getByID(entry.getId()) == null)
+                .collect(Collectors.toList())
+                .forEach(entry -> list.removeByID(entry.getId()));
+
+        newList.forEach(newEntry -> {
+            final T entry = list.getByID(newEntry.getId());
+            if (entry == null) {
+                list.set(newEntry);
+            } else if (entry != newEntry) {
+                updater.accept(entry, newEntry);
+            }
+        });
+    }
+
     /**
      * Returns a deep clone copy of this SportType object.
      *
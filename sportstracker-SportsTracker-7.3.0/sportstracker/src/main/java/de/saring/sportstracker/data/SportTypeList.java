@@ -4,11 +4,34 @@ import de.saring.util.data.IdObjectList;
 
 /**
  * This class contains the list of all sport types (e.g. cycling, running) of
- * the user and provides access methods to them. It doesn't contain any special
- * functionality yet, but maybe in the future.
+ * the user and provides access methods to them.<br/>
+ * The list contains only one instance for each sport type ID, edited sport types
+ * are copied into the stored instance. So the exercises and filters referencing
+ * the sport types, subtypes and equipment don't need to be updated after editing.
  *
  * @author Stefan Saring
  * @version 1.0
  */
 public final class SportTypeList extends IdObjectList<SportType> {
+
+    /**
+     * Stores the specified SportType in the list. If there is already a SportType
+     * with that ID, then its content (including the subtypes and equipment) will be
+     * updated by the specified SportType, the stored instance will not be replaced.
+     * Otherwise the new one will be added to the end of the list.
+     *
+     * @param sportType the SportType to store (must not be null)
+     */
+    @Override
+    public void set(SportType sportType) {
+        validateEntry(sportType);
+
+        final SportType storedSportType = getByID(sportType.getId());
+        if (storedSportType != null && storedSportType != sportType) {
+            storedSportType.update(sportType);
+            super.set(storedSportType);
+        } else {
+            super.set(sportType);
+        }
+    }
 }
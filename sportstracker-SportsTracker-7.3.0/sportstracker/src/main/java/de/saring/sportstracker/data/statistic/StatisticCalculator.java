@@ -2,6 +2,8 @@ package de.saring.sportstracker.data.statistic;
 
 import de.saring.sportstracker.data.Exercise;
 import de.saring.util.data.IdObjectList;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.Timer;
 
 /**
  * This class is for calculating exercise statistics.
@@ -11,6 +13,8 @@ import de.saring.util.data.IdObjectList;
  */
 public class StatisticCalculator {
 
+    private static final Timer CALCULATION_TIMER = Metrics.timer("statistic.calculation");
+
     /**
      * Number of exercises in this statistic.
      */
@@ -135,6 +139,12 @@ public class StatisticCalculator {
      * @param exercises list of Exercise objects for statistic calculation
      */
     public StatisticCalculator(IdObjectList<Exercise> exercises) {
+        try (Timer.Context ignored = CALCULATION_TIMER.start()) {
+            calculateStatistic(exercises);
+        }
+    }
+
+    private void calculateStatistic(IdObjectList<Exercise> exercises) {
 
         exerciseCount = exercises.size();
         if (exerciseCount == 0) {
@@ -1,5 +1,6 @@
 package de.saring.sportstracker.gui;
 
+import java.nio.file.Paths;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -12,10 +13,14 @@ import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 
 import de.saring.exerciseviewer.gui.EVContext;
+import de.saring.exerciseviewer.gui.panels.track.TileDiskStore;
+import de.saring.exerciseviewer.gui.panels.track.TileFactoryProvider;
+import de.saring.exerciseviewer.parser.ExerciseParseCache;
 import de.saring.sportstracker.core.STException;
 import de.saring.sportstracker.core.STOptions;
 import de.saring.util.gui.javafx.WindowBoundsPersistence;
 import de.saring.util.gui.mac.PlatformUtils;
+import de.saring.util.metrics.StartupTimeline;
 import de.saring.util.unitcalc.FormatUtils;
 
 /**
@@ -27,6 +32,15 @@ public class STApplication extends Application {
 
     private static final Logger LOGGER = Logger.getLogger(STApplication.class.getName());
 
+    /** Name of the directory for cached exercise files (inside the data directory). */
+    private static final String DIRECTORY_EXERCISE_CACHE = "exercise-cache";
+
+    /** Name of the directory for downloaded map tiles (inside the data directory). */
+    private static final String DIRECTORY_MAP_TILES = "map-tiles";
+
+    /** Timeline of the application startup, it starts when this class is loaded. */
+    private static final StartupTimeline STARTUP_TIMELINE = new StartupTimeline();
+
     private STDocument document;
     private STContext context;
     private STController controller;
@@ -35,10 +49,12 @@ public class STApplication extends Application {
 
     @Override
     public void init() throws Exception {
+        STARTUP_TIMELINE.mark("launch");
 
         // setup EasyDI for dependency injection
         final EasyDI easyDI = new EasyDI();
         easyDI.bindInstance(STApplication.class, this);
+        easyDI.bindInstance(StartupTimeline.class, STARTUP_TIMELINE);
         easyDI.bindInterface(IStorage.class, XMLStorage.class);
         easyDI.bindInterface(STContext.class, STContextImpl.class);
         easyDI.bindInterface(EVContext.class, STContextImpl.class);
@@ -48,14 +64,22 @@ public class STApplication extends Application {
         // initialize the document
         document = easyDI.getInstance(STDocument.class);
         document.evaluateCommandLineParameters(getParameters().getRaw());
+        STARTUP_TIMELINE.mark("create document");
         document.loadOptions();
+        STARTUP_TIMELINE.mark("load options");
 
         // initialize the context (set format utils for current configuration)
         context = easyDI.getInstance(STContext.class);
         final STOptions options = document.getOptions();
         context.setFormatUtils(new FormatUtils(options.getUnitSystem(), options.getSpeedView()));
+        context.setExerciseParseCache(new ExerciseParseCache(
+                Paths.get(document.getDataDirectory(), DIRECTORY_EXERCISE_CACHE), ExerciseParseCache.DEFAULT_MAX_SIZE));
+        context.setTileFactoryProvider(new TileFactoryProvider(
+                new TileDiskStore(Paths.get(document.getDataDirectory(), DIRECTORY_MAP_TILES), TileDiskStore.DEFAULT_MAX_SIZE),
+                document.getTileDirectory() == null ? null : Paths.get(document.getTileDirectory())));
 
         controller = easyDI.getInstance(STController.class);
+        STARTUP_TIMELINE.mark("create controllers");
     }
 
     @Override
@@ -65,6 +89,7 @@ public class STApplication extends Application {
 
         // initialize and start the main application window
         controller.initApplicationWindow();
+        STARTUP_TIMELINE.mark("init main window");
 
         primaryStage.setOnShown(this::onShown);
         primaryStage.show();
@@ -92,6 +117,7 @@ public class STApplication extends Application {
      * @param event window event
      */
     private void onShown(final WindowEvent event) {
+        STARTUP_TIMELINE.mark("show main window");
 
         // create application directory
         try {
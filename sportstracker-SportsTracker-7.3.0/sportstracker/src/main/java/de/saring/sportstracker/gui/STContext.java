@@ -3,6 +3,8 @@ package de.saring.sportstracker.gui;
 import javafx.application.HostServices;
 
 import de.saring.exerciseviewer.gui.EVContext;
+import de.saring.exerciseviewer.gui.panels.track.TileFactoryProvider;
+import de.saring.exerciseviewer.parser.ExerciseParseCache;
 import de.saring.util.unitcalc.FormatUtils;
 
 /**
@@ -22,6 +24,20 @@ public interface STContext extends EVContext {
      */
     void setFormatUtils(FormatUtils formatUtils);
 
+    /**
+     * Sets the cache for parsed exercise files which needs to be used by the entire application.
+     *
+     * @param exerciseParseCache the ExerciseParseCache instance to set
+     */
+    void setExerciseParseCache(ExerciseParseCache exerciseParseCache);
+
+    /**
+     * Sets the provider of the map tiles which needs to be used by the entire application.
+     *
+     * @param tileFactoryProvider the TileFactoryProvider instance to set
+     */
+    void setTileFactoryProvider(TileFactoryProvider tileFactoryProvider);
+
     /**
      * Gets the HostServices provider for this application.
      *
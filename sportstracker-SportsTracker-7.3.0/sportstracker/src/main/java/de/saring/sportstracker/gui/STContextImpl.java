@@ -14,6 +14,8 @@ import javafx.stage.Window;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import de.saring.exerciseviewer.gui.panels.track.TileFactoryProvider;
+import de.saring.exerciseviewer.parser.ExerciseParseCache;
 import de.saring.util.AppResources;
 import de.saring.util.unitcalc.FormatUtils;
 
@@ -33,6 +35,12 @@ public class STContextImpl implements STContext {
     /** The format utils for the current unit system. */
     private FormatUtils formatUtils;
 
+    /** The cache for parsed exercise files. */
+    private ExerciseParseCache exerciseParseCache;
+
+    /** The provider of the map tiles. */
+    private TileFactoryProvider tileFactoryProvider;
+
     /** The default Stage event dispatcher (is needed for unblocking). */
     private EventDispatcher primaryStageEventDispatcher = null;
 
@@ -106,6 +114,26 @@ public class STContextImpl implements STContext {
         this.formatUtils = formatUtils;
     }
 
+    @Override
+    public ExerciseParseCache getExerciseParseCache() {
+        return exerciseParseCache;
+    }
+
+    @Override
+    public void setExerciseParseCache(ExerciseParseCache exerciseParseCache) {
+        this.exerciseParseCache = exerciseParseCache;
+    }
+
+    @Override
+    public TileFactoryProvider getTileFactoryProvider() {
+        return tileFactoryProvider;
+    }
+
+    @Override
+    public void setTileFactoryProvider(TileFactoryProvider tileFactoryProvider) {
+        this.tileFactoryProvider = tileFactoryProvider;
+    }
+
     @Override
     public Stage getPrimaryStage() {
         return application.getPrimaryStage();
@@ -116,6 +116,11 @@ public interface STController extends EntryViewEventHandler {
      */
     void onAbout(ActionEvent event);
 
+    /**
+     * Event handler for action "Performance" (only available when the metrics are enabled).
+     */
+    void onPerformance(ActionEvent event);
+
     /**
      * Checks for existing sport types. A message dialog will be displayed when
      * there are no sport types available yet.
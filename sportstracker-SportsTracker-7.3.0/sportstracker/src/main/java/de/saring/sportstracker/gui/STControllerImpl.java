@@ -10,10 +10,12 @@ import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import de.saring.sportstracker.data.Entry;
 import de.saring.sportstracker.data.EntryList;
 import de.saring.sportstracker.storage.SQLiteExporter;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.concurrent.Task;
@@ -39,7 +41,6 @@ import de.saring.sportstracker.data.Exercise;
 import de.saring.sportstracker.data.Note;
 import de.saring.sportstracker.data.SportSubType;
 import de.saring.sportstracker.data.SportType;
-import de.saring.sportstracker.data.SportTypeList;
 import de.saring.sportstracker.data.Weight;
 import de.saring.sportstracker.gui.dialogs.DialogProvider;
 import de.saring.sportstracker.gui.dialogs.FilterDialogController;
@@ -55,6 +56,8 @@ import de.saring.util.StringUtils;
 import de.saring.util.SystemUtils;
 import de.saring.util.gui.javafx.FxmlLoader;
 import de.saring.util.gui.mac.PlatformUtils;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.StartupTimeline;
 import de.saring.util.unitcalc.FormatUtils;
 
 /**
@@ -79,6 +82,7 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
     private WeightListViewController weightListViewController;
     private StatusBarController statusBarController;
     private DialogProvider dialogProvider;
+    private StartupTimeline startupTimeline;
 
     /** The controller of the currently displayed view. */
     private EntryViewController currentViewController;
@@ -106,6 +110,8 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
     private MenuItem miWeightListView;
     @FXML
     private MenuItem miFilterDisable;
+    @FXML
+    private MenuItem miPerformance;
 
     // list of all toolbar buttons
     @FXML
@@ -177,6 +183,7 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
      * @param weightListViewController controller of the weight list view
      * @param statusBarController controller of the status bar
      * @param dialogProvider provider of all dialogs
+     * @param startupTimeline timeline of the application startup
      */
     @Inject
     public STControllerImpl(final STContext context, final STDocument document, final SQLiteExporter exporter,
@@ -185,7 +192,8 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
                             final NoteListViewController noteListViewController,
                             final WeightListViewController weightListViewController,
                             final StatusBarController statusBarController,
-                            final DialogProvider dialogProvider) {
+                            final DialogProvider dialogProvider,
+                            final StartupTimeline startupTimeline) {
         this.context = context;
         this.document = document;
         this.exporter = exporter;
@@ -195,6 +203,7 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
         this.weightListViewController = weightListViewController;
         this.statusBarController = statusBarController;
         this.dialogProvider = dialogProvider;
+        this.startupTimeline = startupTimeline;
     }
 
     @Override
@@ -221,15 +230,9 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
         setupActionBindings();
         setupMacSpecificUI();
 
-        // setup all views
-        calendarViewController.initAndSetupViewContent(this);
-        exerciseListViewController.initAndSetupViewContent(this);
-        noteListViewController.initAndSetupViewContent(this);
-        weightListViewController.initAndSetupViewContent(this);
-
         statusBarController.setStatusBar(laStatusBar);
 
-        // set initial view
+        // set initial view (the content of the other views will be created on first display)
         if (document.getOptions().getInitialView() == STOptions.View.Calendar) {
             switchToView(EntryViewController.ViewType.CALENDAR);
         } else {
@@ -444,12 +447,9 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
     public void onSportTypeEditor(final ActionEvent event) {
         dialogProvider.prSportTypeListDialogController.get().show(context.getPrimaryStage());
 
-        // sport type and subtype objects may have been changed => these will be new objects
-        // => update all exercises and the current filter when the dialog closes, they need
-        // to reference to these new objects
-        final SportTypeList stList = document.getSportTypeList();
-        document.getExerciseList().updateSportTypes(stList);
-        document.getCurrentFilter().updateSportTypes(stList);
+        // edited sport types are updated in place, so the exercises don't need to be updated
+        // => only the current filter needs to be updated, its sport type may have been deleted
+        document.getCurrentFilter().updateSportTypes(document.getSportTypeList());
         updateView();
     }
 
@@ -481,6 +481,11 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
         dialogProvider.prAboutDialogController.get().show(context.getPrimaryStage());
     }
 
+    @Override
+    public void onPerformance(final ActionEvent event) {
+        dialogProvider.prPerformanceDialogController.get().show(context.getPrimaryStage());
+    }
+
     @Override
     public void onAddExerciseForDroppedHrmFile(final String hrmFilePath) {
         if (checkForExistingSportTypes()) {
@@ -569,6 +574,9 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
 
         miFilterDisable.disableProperty().bind(actionFilterDisableDisabled);
         btFilterDisable.disableProperty().bind(actionFilterDisableDisabled);
+
+        // the performance dialog is only available when the metrics are enabled (hidden feature)
+        miPerformance.setVisible(Metrics.isEnabled());
     }
 
     private void setupMacSpecificUI() {
@@ -733,6 +741,11 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
                 throw new IllegalArgumentException("Invalid ViewType " + viewType + "!");
         }
 
+        // create the view content on first display
+        if (currentViewController.getRootNode() == null) {
+            currentViewController.initAndSetupViewContent(this);
+        }
+
         // update and display the new view
         currentViewController.removeSelection();
         updateView();
@@ -844,19 +857,69 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
         dialogProvider.prWeightDialogController.get().show(context.getPrimaryStage(), copiedWeight);
     }
 
+    /**
+     * Displays a warning message for the specified exercises with missing exercise files (if there are some).
+     *
+     * @param corruptExercises list of exercises with missing exercise files (can be null)
+     */
+    private void displayCorruptExercises(final List<Exercise> corruptExercises) {
+        if (corruptExercises != null && !corruptExercises.isEmpty()) {
+
+            final StringBuilder sb = new StringBuilder();
+            final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM);
+
+            for (int i = 0; i < corruptExercises.size(); i++) {
+                if (i > 15) {
+                    sb.append("...\n");
+                    break;
+                }
+
+                sb.append(corruptExercises.get(i).getDateTime().format(dateTimeFormatter));
+                sb.append("\n");
+            }
+
+            context.showMessageDialog(context.getPrimaryStage(), Alert.AlertType.WARNING, //
+                    "common.warning", "st.main.error.missing_exercise_files", sb.toString());
+        }
+    }
+
+    /**
+     * Preloads the content of the most used dialogs in the FX application thread, so their first
+     * display is faster. Each dialog is loaded separately, so the UI is not blocked meanwhile. The
+     * startup timeline will be logged afterwards.
+     */
+    private void preloadDialogsAndLogStartup() {
+        Platform.runLater(() -> dialogProvider.prExerciseDialogController.get().preload());
+        Platform.runLater(() -> dialogProvider.prNoteDialogController.get().preload());
+        Platform.runLater(() -> dialogProvider.prWeightDialogController.get().preload());
+        Platform.runLater(() -> {
+            startupTimeline.mark("preload dialogs");
+            LOGGER.info(startupTimeline.createReport());
+        });
+    }
+
     /**
      * This class executes the loading action inside a background task without blocking the UI thread.
-     * It also checks the existence of all attached exercise files.
+     * It also checks the existence of all attached exercise files. In fast-start mode this check will
+     * be done afterwards in a separate task, the main window can be used meanwhile.
      */
     private class LoadTask extends Task<Void> {
 
+        private List<Exercise> exercisesToCheck;
         private List<Exercise> corruptExercises;
 
         @Override
         protected Void call() throws Exception {
             LOGGER.info("Loading application data...");
             document.readApplicationData();
-            corruptExercises = document.checkExerciseFiles();
+            startupTimeline.mark("read data");
+
+            // the copy of the exercises can be checked in background, even when the list gets modified
+            exercisesToCheck = document.getExerciseList().stream().collect(Collectors.toList());
+            if (!document.isFastStart()) {
+                corruptExercises = document.checkExerciseFiles(exercisesToCheck);
+                startupTimeline.mark("check exercise files");
+            }
             return null;
         }
 
@@ -866,7 +929,12 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
             context.blockMainWindow(false);
 
             updateFinally();
-            displayCorruptExercises();
+            if (document.isFastStart()) {
+                new Thread(new CheckExerciseFilesTask(exercisesToCheck)).start();
+            } else {
+                displayCorruptExercises(corruptExercises);
+                LOGGER.info(startupTimeline.createReport());
+            }
             addInitialSportTypesIfMissing();
         }
 
@@ -885,27 +953,45 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
             updateView();
             // listener must be registered after loading data, because new lists are created
             registerListenerForDataChanges();
+            startupTimeline.mark("display data");
         }
+    }
+
+    /**
+     * This class checks the existence of the attached exercise files inside a background task (in
+     * fast-start mode only). Afterwards the most used dialogs will be preloaded.
+     */
+    private class CheckExerciseFilesTask extends Task<List<Exercise>> {
 
-        private void displayCorruptExercises() {
-            if (corruptExercises != null && !corruptExercises.isEmpty()) {
+        private final List<Exercise> exercisesToCheck;
 
-                final StringBuilder sb = new StringBuilder();
-                final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM);
+        /**
+         * Standard c'tor.
+         *
+         * @param exercisesToCheck list of exercises to check
+         */
+        public CheckExerciseFilesTask(final List<Exercise> exercisesToCheck) {
+            this.exercisesToCheck = exercisesToCheck;
+        }
 
-                for (int i = 0; i < corruptExercises.size(); i++) {
-                    if (i > 15) {
-                        sb.append("...\n");
-                        break;
-                    }
+        @Override
+        protected List<Exercise> call() throws Exception {
+            final List<Exercise> corruptExercises = document.checkExerciseFiles(exercisesToCheck);
+            startupTimeline.mark("check exercise files");
+            return corruptExercises;
+        }
 
-                    sb.append(corruptExercises.get(i).getDateTime().format(dateTimeFormatter));
-                    sb.append("\n");
-                }
+        @Override
+        protected void succeeded() {
+            super.succeeded();
+            preloadDialogsAndLogStartup();
+            displayCorruptExercises(getValue());
+        }
 
-                context.showMessageDialog(context.getPrimaryStage(), Alert.AlertType.WARNING, //
-                        "common.warning", "st.main.error.missing_exercise_files", sb.toString());
-            }
+        @Override
+        protected void failed() {
+            super.failed();
+            LOGGER.log(Level.WARNING, "Failed to check the exercise files!", getException());
         }
     }
 
@@ -7,6 +7,7 @@ import de.saring.sportstracker.core.STOptions;
 import de.saring.sportstracker.data.EntryList;
 import de.saring.sportstracker.data.Exercise;
 import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.EquipmentUsages;
 import de.saring.sportstracker.data.ExerciseList;
 import de.saring.sportstracker.data.Note;
 import de.saring.sportstracker.data.NoteList;
@@ -26,6 +27,18 @@ public interface STDocument extends IdObjectListChangeListener {
     /** Command line parameter for a specific data directory (optional). */
     String PARAMETER_DATA_DIR = "--datadir=";
 
+    /** Command line parameter for a local map tile directory (optional). */
+    String PARAMETER_TILE_DIR = "--tiledir=";
+
+    /** Command line parameter for enabling the performance metrics (optional). */
+    String PARAMETER_METRICS = "--metrics";
+
+    /** Command line parameter for enabling the performance metrics and their JMX MBean (optional). */
+    String PARAMETER_METRICS_JMX = "--metrics=jmx";
+
+    /** Command line parameter for enabling the fast-start mode (optional). */
+    String PARAMETER_FAST_START = "--faststart";
+
     // //// BEGIN: Getters and Setters for application data
 
     SportTypeList getSportTypeList();
@@ -36,6 +49,14 @@ public interface STDocument extends IdObjectListChangeListener {
 
     WeightList getWeightList();
 
+    /**
+     * Returns the usages of all equipment in the exercise list, they are updated on each
+     * change of the exercise list.
+     *
+     * @return the equipment usages
+     */
+    EquipmentUsages getEquipmentUsages();
+
     STOptions getOptions();
 
     boolean isDirtyData();
@@ -50,6 +71,22 @@ public interface STDocument extends IdObjectListChangeListener {
 
     String getDataDirectory();
 
+    /**
+     * Returns the directory containing local map tiles, specified by command line parameter.
+     *
+     * @return the tile directory or null when the map tiles are downloaded
+     */
+    String getTileDirectory();
+
+    /**
+     * Returns true when the fast-start mode has been enabled by command line parameter. The main
+     * window will then be usable directly after reading the application data, the check of the
+     * exercise files and the preloading of dialogs are done in background afterwards.
+     *
+     * @return true for fast-start mode
+     */
+    boolean isFastStart();
+
     // //// END: Getters and Setters for application data
 
     /**
@@ -120,12 +157,14 @@ public interface STDocument extends IdObjectListChangeListener {
     void storeApplicationData() throws STException;
 
     /**
-     * Checks all exercises for the existence of the attached exercise files
-     * (if there is one).
+     * Checks the specified exercises for the existence of the attached exercise files
+     * (if there is one). The check can be executed in a background thread, so a copy
+     * of the exercise list needs to be passed.
      *
+     * @param exercises list of exercises to check
      * @return List of Exercise objects, where the specified file is missing
      */
-    List<Exercise> checkExerciseFiles();
+    List<Exercise> checkExerciseFiles(List<Exercise> exercises);
 
     /**
      * Register the specified IdObjectListChangeListener on all stored data lists
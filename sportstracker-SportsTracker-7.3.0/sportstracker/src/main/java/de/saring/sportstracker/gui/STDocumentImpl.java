@@ -2,6 +2,7 @@ package de.saring.sportstracker.gui;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.logging.Level;
@@ -14,8 +15,10 @@ import javax.inject.Singleton;
 import de.saring.sportstracker.core.STException;
 import de.saring.sportstracker.core.STExceptionID;
 import de.saring.sportstracker.core.STOptions;
+import de.saring.sportstracker.core.STOptionsCodec;
 import de.saring.sportstracker.data.EntryFilter;
 import de.saring.sportstracker.data.EntryList;
+import de.saring.sportstracker.data.EquipmentUsages;
 import de.saring.sportstracker.data.Exercise;
 import de.saring.sportstracker.data.ExerciseList;
 import de.saring.sportstracker.data.Note;
@@ -27,6 +30,8 @@ import de.saring.sportstracker.storage.IStorage;
 import de.saring.util.XmlBeanStorage;
 import de.saring.util.data.IdObject;
 import de.saring.util.data.IdObjectListChangeListener;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.Timer;
 
 /**
  * This class contains all document (MVC) related data and functionality of the
@@ -42,7 +47,9 @@ public class STDocumentImpl implements STDocument {
     private static final String FILENAME_EXERCISE_LIST = "exercises.xml";
     private static final String FILENAME_NOTE_LIST = "notes.xml";
     private static final String FILENAME_WEIGHT_LIST = "weights.xml";
-    private static final String FILENAME_OPTIONS = "st-options.xml";
+    private static final String FILENAME_OPTIONS = "st-options.properties";
+    /** Options file of the previous versions, it will be migrated to the new format once. */
+    private static final String FILENAME_OPTIONS_XML = "st-options.xml";
 
     private final STContext context;
 
@@ -57,6 +64,11 @@ public class STDocumentImpl implements STDocument {
      */
     private ExerciseList exerciseList;
 
+    /**
+     * The usages of all equipment in the exercise list, they will be created on first access.
+     */
+    private EquipmentUsages equipmentUsages;
+
     /**
      * The note entry list of the user.
      */
@@ -77,6 +89,14 @@ public class STDocumentImpl implements STDocument {
      */
     private String dataDirectory;
 
+    /**
+     * The directory containing local map tiles (optional).
+     */
+    private String tileDirectory;
+
+    /** Flag for the fast-start mode (optional). */
+    private boolean fastStart;
+
     /** This flag is true when data has been modified but not saved yet. */
     private boolean dirtyData;
 
@@ -133,6 +153,14 @@ public class STDocumentImpl implements STDocument {
         return exerciseList;
     }
 
+    @Override
+    public synchronized EquipmentUsages getEquipmentUsages() {
+        if (equipmentUsages == null) {
+            equipmentUsages = new EquipmentUsages(exerciseList);
+        }
+        return equipmentUsages;
+    }
+
     @Override
     public NoteList getNoteList() {
         return noteList;
@@ -178,6 +206,16 @@ public class STDocumentImpl implements STDocument {
         return dataDirectory;
     }
 
+    @Override
+    public String getTileDirectory() {
+        return tileDirectory;
+    }
+
+    @Override
+    public boolean isFastStart() {
+        return fastStart;
+    }
+
     @Override
     public void evaluateCommandLineParameters(final List<String> parameters) {
 
@@ -189,21 +227,45 @@ public class STDocumentImpl implements STDocument {
                     dataDirectory = dataDir;
                 }
             }
+
+            // check for a local map tile directory (optional)
+            if (parameter.startsWith(PARAMETER_TILE_DIR)) {
+                final String tileDir = parameter.substring(PARAMETER_TILE_DIR.length()).trim();
+                if (tileDir.length() > 0) {
+                    tileDirectory = tileDir;
+                }
+            }
+
+            // check for enabling the performance metrics (optional)
+            if (parameter.equals(PARAMETER_METRICS) || parameter.equals(PARAMETER_METRICS_JMX)) {
+                Metrics.setEnabled(true);
+                if (parameter.equals(PARAMETER_METRICS_JMX)) {
+                    Metrics.registerMBean();
+                }
+            }
+
+            // check for enabling the fast-start mode (optional)
+            if (parameter.equals(PARAMETER_FAST_START)) {
+                fastStart = true;
+            }
         }
     }
 
     @Override
     public void loadOptions() {
-        final String optionsPath = dataDirectory + File.separator + FILENAME_OPTIONS;
-        if (Files.exists(Paths.get(optionsPath))) {
+        final Path optionsPath = Paths.get(dataDirectory, FILENAME_OPTIONS);
+        final Path optionsXmlPath = Paths.get(dataDirectory, FILENAME_OPTIONS_XML);
 
+        if (Files.exists(optionsPath)) {
             LOGGER.info("Loading application options...");
-            try {
-                options = (STOptions) XmlBeanStorage.loadBean(optionsPath);
+            try (Timer.Context ignored = Metrics.timer("storage.read." + FILENAME_OPTIONS).start()) {
+                options = STOptionsCodec.read(optionsPath);
             } catch (Exception e) {
                 LOGGER.log(Level.WARNING, "Failed to load application options from '" + optionsPath
                         + "', using default values ...", e);
             }
+        } else if (Files.exists(optionsXmlPath)) {
+            migrateOptions(optionsXmlPath);
         }
 
         // use default options at first start or on load errors
@@ -213,13 +275,31 @@ public class STDocumentImpl implements STDocument {
         }
     }
 
+    /**
+     * Loads the application options from the XML file of the previous versions and stores them in
+     * the new options file. The XML file will not be removed, it can still be used by previous versions.
+     *
+     * @param optionsXmlPath path of the XML options file
+     */
+    private void migrateOptions(final Path optionsXmlPath) {
+        LOGGER.info("Migrating application options from '" + optionsXmlPath + "'...");
+        try {
+            options = (STOptions) XmlBeanStorage.loadBean(optionsXmlPath.toString());
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to load application options from '" + optionsXmlPath
+                    + "', using default values ...", e);
+            return;
+        }
+        storeOptions();
+    }
+
     @Override
     public void storeOptions() {
         LOGGER.info("Storing application options...");
-        final String optionsPath = dataDirectory + File.separator + FILENAME_OPTIONS;
+        final Path optionsPath = Paths.get(dataDirectory, FILENAME_OPTIONS);
 
-        try {
-            XmlBeanStorage.saveBean(options, optionsPath);
+        try (Timer.Context ignored = Metrics.timer("storage.store." + FILENAME_OPTIONS).start()) {
+            STOptionsCodec.write(options, optionsPath);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to store application options to '" + optionsPath + "' ...", e);
         }
@@ -276,31 +356,44 @@ public class STDocumentImpl implements STDocument {
     public void readApplicationData() throws STException {
         try {
             // read application data from XML files
-            sportTypeList = storage.readSportTypeList(dataDirectory + "/" + FILENAME_SPORT_TYPE_LIST);
-            exerciseList = storage.readExerciseList(dataDirectory + "/" + FILENAME_EXERCISE_LIST, sportTypeList);
-            noteList = storage.readNoteList(dataDirectory + "/" + FILENAME_NOTE_LIST);
-            weightList = storage.readWeightList(dataDirectory + "/" + FILENAME_WEIGHT_LIST);
+            timeStorageOperation("storage.read." + FILENAME_SPORT_TYPE_LIST, () -> sportTypeList =
+                    storage.readSportTypeList(dataDirectory + "/" + FILENAME_SPORT_TYPE_LIST));
+            timeStorageOperation("storage.read." + FILENAME_EXERCISE_LIST, () -> exerciseList =
+                    storage.readExerciseList(dataDirectory + "/" + FILENAME_EXERCISE_LIST, sportTypeList));
+            timeStorageOperation("storage.read." + FILENAME_NOTE_LIST, () -> noteList =
+                    storage.readNoteList(dataDirectory + "/" + FILENAME_NOTE_LIST));
+            timeStorageOperation("storage.read." + FILENAME_WEIGHT_LIST, () -> weightList =
+                    storage.readWeightList(dataDirectory + "/" + FILENAME_WEIGHT_LIST));
         } finally {
             // register this document as a listener for list content changes
             // (also when reading data has failed)
             registerListChangeListener(this);
             dirtyData = false;
+
+            // the equipment usages need to be created for the new exercise list
+            synchronized (this) {
+                equipmentUsages = null;
+            }
         }
     }
 
     @Override
     public void storeApplicationData() throws STException {
         // store application data in XML files
-        storage.storeSportTypeList(sportTypeList, dataDirectory + "/" + FILENAME_SPORT_TYPE_LIST);
-        storage.storeExerciseList(exerciseList, dataDirectory + "/" + FILENAME_EXERCISE_LIST);
-        storage.storeNoteList(noteList, dataDirectory + "/" + FILENAME_NOTE_LIST);
-        storage.storeWeightList(weightList, dataDirectory + "/" + FILENAME_WEIGHT_LIST);
+        timeStorageOperation("storage.store." + FILENAME_SPORT_TYPE_LIST, () ->
+                storage.storeSportTypeList(sportTypeList, dataDirectory + "/" + FILENAME_SPORT_TYPE_LIST));
+        timeStorageOperation("storage.store." + FILENAME_EXERCISE_LIST, () ->
+                storage.storeExerciseList(exerciseList, dataDirectory + "/" + FILENAME_EXERCISE_LIST));
+        timeStorageOperation("storage.store." + FILENAME_NOTE_LIST, () ->
+                storage.storeNoteList(noteList, dataDirectory + "/" + FILENAME_NOTE_LIST));
+        timeStorageOperation("storage.store." + FILENAME_WEIGHT_LIST, () ->
+                storage.storeWeightList(weightList, dataDirectory + "/" + FILENAME_WEIGHT_LIST));
         dirtyData = false;
     }
 
     @Override
-    public List<Exercise> checkExerciseFiles() {
-        return exerciseList.stream()
+    public List<Exercise> checkExerciseFiles(final List<Exercise> exercises) {
+        return exercises.stream()
                 .filter(exercise -> exercise.getHrmFile() != null && !new File(exercise.getHrmFile()).exists())
                 .collect(Collectors.toList());
     }
@@ -318,4 +411,23 @@ public class STDocumentImpl implements STDocument {
         noteList.addListChangeListener(listener);
         weightList.addListChangeListener(listener);
     }
+
+    /**
+     * Executes the specified storage operation and records its duration in the timer metric
+     * with the specified name.
+     */
+    private static void timeStorageOperation(final String metricName, final StorageOperation operation)
+            throws STException {
+        try (Timer.Context ignored = Metrics.timer(metricName).start()) {
+            operation.execute();
+        }
+    }
+
+    /**
+     * Operation of the storage, which can fail with a STException.
+     */
+    @FunctionalInterface
+    private interface StorageOperation {
+        void execute() throws STException;
+    }
 }
@@ -101,6 +101,17 @@ public abstract class AbstractDialogController {
         triggerGC();
     }
 
+    /**
+     * Loads the content of the specified dialog FXML file without displaying the dialog, the loaded
+     * content will be discarded. This speeds up the first display of the dialog, the classes, styles
+     * and resources of the dialog controls are already loaded and initialized then.
+     *
+     * @param fxmlFilename FXML filename of the dialog content
+     */
+    protected void preloadDialogContent(final String fxmlFilename) {
+        loadDialogContent(fxmlFilename);
+    }
+
     /**
      * Setups the dialog content controls before the dialog will be displayed. Usually the binding
      * between the model and the UI controls and the validation is defined here.
@@ -48,6 +48,9 @@ public class DialogProvider {
     /** Provider for the AboutDialogController */
     public Provider<AboutDialogController> prAboutDialogController;
 
+    /** Provider for the PerformanceDialogController */
+    public Provider<PerformanceDialogController> prPerformanceDialogController;
+
     /**
      * C'tor for dependency injection.
      *
@@ -62,6 +65,7 @@ public class DialogProvider {
      * @param prPreferencesDialogController provider for the PreferencesDialogController
      * @param prFilterDialogController provider for the FilterDialogController
      * @param prAboutDialogController provider for the AboutDialogController
+     * @param prPerformanceDialogController provider for the PerformanceDialogController
      */
     @Inject
     public DialogProvider(Provider<HRMFileOpenDialog> prHRMFileOpenDialog,
@@ -74,7 +78,8 @@ public class DialogProvider {
                           Provider<OverviewDialogController> prOverviewDialogController,
                           Provider<PreferencesDialogController> prPreferencesDialogController,
                           Provider<FilterDialogController> prFilterDialogController,
-                          Provider<AboutDialogController> prAboutDialogController) {
+                          Provider<AboutDialogController> prAboutDialogController,
+                          Provider<PerformanceDialogController> prPerformanceDialogController) {
         this.prHRMFileOpenDialog = prHRMFileOpenDialog;
         this.prExerciseViewer = prExerciseViewer;
         this.prExerciseDialogController = prExerciseDialogController;
@@ -86,5 +91,6 @@ public class DialogProvider {
         this.prPreferencesDialogController = prPreferencesDialogController;
         this.prFilterDialogController = prFilterDialogController;
         this.prAboutDialogController = prAboutDialogController;
+        this.prPerformanceDialogController = prPerformanceDialogController;
     }
 }
@@ -4,13 +4,18 @@ import java.io.File;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
+import javafx.scene.Cursor;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
@@ -22,6 +27,7 @@ import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextFormatter;
 import javafx.stage.Window;
+import javafx.stage.WindowEvent;
 import javafx.util.converter.NumberStringConverter;
 
 import javax.inject.Inject;
@@ -30,8 +36,6 @@ import org.controlsfx.validation.ValidationResult;
 import org.controlsfx.validation.Validator;
 
 import de.saring.exerciseviewer.data.EVExercise;
-import de.saring.exerciseviewer.parser.ExerciseParser;
-import de.saring.exerciseviewer.parser.ExerciseParserFactory;
 import de.saring.sportstracker.data.Equipment;
 import de.saring.sportstracker.data.Exercise;
 import de.saring.sportstracker.data.Exercise.IntensityType;
@@ -57,6 +61,8 @@ public class ExerciseDialogController extends AbstractDialogController {
 
     private static final Logger LOGGER = Logger.getLogger(ExerciseDialogController.class.getName());
 
+    private static final String FXML_FILE = "/fxml/dialogs/ExerciseDialog.fxml";
+
     private final STDocument document;
     private final DialogProvider dialogProvider;
 
@@ -132,6 +138,9 @@ public class ExerciseDialogController extends AbstractDialogController {
     /** Flag whether the HRM file specified in the passed exercise needs to be imported when starting the dialog. */
     private boolean importHrmFileOnStart = false;
 
+    /** Flag whether the import of the HRM file is running, the HRM actions are disabled meanwhile. */
+    private final BooleanProperty hrmImportRunning = new SimpleBooleanProperty(false);
+
     /** Equipment for selection "none", same for all sport types. */
     private final Equipment equipmentNone;
 
@@ -180,7 +189,14 @@ public class ExerciseDialogController extends AbstractDialogController {
         final String dlgTitleKey = newExercise ? "st.dlg.exercise.title.add" : "st.dlg.exercise.title";
         final String dlgTitle = context.getResources().getString(dlgTitleKey);
 
-        showEditDialog("/fxml/dialogs/ExerciseDialog.fxml", parent, dlgTitle);
+        showEditDialog(FXML_FILE, parent, dlgTitle);
+    }
+
+    /**
+     * Preloads the content of the Exercise dialog, see preloadDialogContent().
+     */
+    public void preload() {
+        preloadDialogContent(FXML_FILE);
     }
 
     @Override
@@ -199,8 +215,8 @@ public class ExerciseDialogController extends AbstractDialogController {
         setupAutoCalculation();
 
         // enable View and Import HRM buttons only when an HRM file is specified
-        btViewHrmFile.disableProperty().bind(Bindings.isEmpty(tfHrmFile.textProperty()));
-        btImportHrmFile.disableProperty().bind(Bindings.isEmpty(tfHrmFile.textProperty()));
+        btViewHrmFile.disableProperty().bind(Bindings.isEmpty(tfHrmFile.textProperty()).or(hrmImportRunning));
+        btImportHrmFile.disableProperty().bind(Bindings.isEmpty(tfHrmFile.textProperty()).or(hrmImportRunning));
 
         // don't display value '0' for optional inputs when no data available
         if (exerciseViewModel.ascent.get() == 0) {
@@ -424,7 +440,8 @@ public class ExerciseDialogController extends AbstractDialogController {
     }
 
     /**
-     * Action handler for importing the exercise data from the selected HRM file.
+     * Action handler for importing the exercise data from the selected HRM file. The file is parsed
+     * in background, the parsing will be cancelled when the dialog is closed meanwhile.
      */
     @FXML
     private void onImportHrmFile(final ActionEvent event) {
@@ -434,18 +451,47 @@ public class ExerciseDialogController extends AbstractDialogController {
             return;
         }
 
-        // parse exercise file
-        EVExercise pvExercise = null;
-        try {
-            ExerciseParser parser = ExerciseParserFactory.getParser(hrmFile);
-            pvExercise = parser.parseExercise(hrmFile);
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Failed to parse exercise file!", e);
-            context.showMessageDialog(getWindow(tfHrmFile), Alert.AlertType.ERROR, "common.error",
-                    "st.dlg.exercise.error.import_console", hrmFile);
-            return;
+        // parse exercise file in background, the HRM actions are disabled meanwhile
+        final Window window = getWindow(tfHrmFile);
+        setHrmImportRunning(true);
+        final CompletableFuture<EVExercise> parseFuture =
+                context.getExerciseParseCache().parseExerciseAsync(hrmFile, null);
+        final EventHandler<WindowEvent> cancelHandler = windowEvent -> parseFuture.cancel(true);
+        if (window != null) {
+            window.addEventHandler(WindowEvent.WINDOW_HIDDEN, cancelHandler);
         }
 
+        parseFuture.whenComplete((pvExercise, throwable) -> Platform.runLater(() -> {
+            if (window != null) {
+                window.removeEventHandler(WindowEvent.WINDOW_HIDDEN, cancelHandler);
+            }
+            if (parseFuture.isCancelled()) {
+                return;
+            }
+            setHrmImportRunning(false);
+
+            if (throwable != null) {
+                LOGGER.log(Level.SEVERE, "Failed to parse exercise file!", throwable);
+                context.showMessageDialog(window, Alert.AlertType.ERROR, "common.error",
+                        "st.dlg.exercise.error.import_console", hrmFile);
+            } else {
+                importHrmExercise(pvExercise);
+            }
+        }));
+    }
+
+    private void setHrmImportRunning(final boolean running) {
+        hrmImportRunning.set(running);
+        tfHrmFile.getScene().setCursor(running ? Cursor.WAIT : Cursor.DEFAULT);
+    }
+
+    /**
+     * Fills the dialog widgets with the values of the imported HRM exercise.
+     *
+     * @param pvExercise the parsed HRM exercise
+     */
+    private void importHrmExercise(final EVExercise pvExercise) {
+
         // fill dialog widgets with values from parsed HRM exercise
         final LocalDateTime pvExerciseDateTime = pvExercise.getDateTime();
         if (pvExerciseDateTime != null) {
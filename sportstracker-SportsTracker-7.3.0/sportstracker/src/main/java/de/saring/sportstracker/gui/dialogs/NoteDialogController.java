@@ -26,6 +26,8 @@ import de.saring.util.gui.javafx.TimeToStringConverter;
  */
 public class NoteDialogController extends AbstractDialogController {
 
+    private static final String FXML_FILE = "/fxml/dialogs/NoteDialog.fxml";
+
     private final STDocument document;
 
     @FXML
@@ -64,7 +66,14 @@ public class NoteDialogController extends AbstractDialogController {
         final String dlgTitleKey = note.getComment() == null ? "st.dlg.note.title.add" : "st.dlg.note.title";
         final String dlgTitle = context.getResources().getString(dlgTitleKey);
 
-        showEditDialog("/fxml/dialogs/NoteDialog.fxml", parent, dlgTitle);
+        showEditDialog(FXML_FILE, parent, dlgTitle);
+    }
+
+    /**
+     * Preloads the content of the Note dialog, see preloadDialogContent().
+     */
+    public void preload() {
+        preloadDialogContent(FXML_FILE);
     }
 
     @Override
@@ -47,6 +47,8 @@ import de.saring.util.gui.javafx.ColorUtils;
 import de.saring.util.gui.javafx.NameableStringConverter;
 import de.saring.util.gui.jfreechart.ChartUtils;
 import de.saring.util.gui.jfreechart.StackedRenderer;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.Timer;
 import de.saring.util.unitcalc.ConvertUtils;
 import de.saring.util.unitcalc.FormatUtils;
 import javafx.beans.binding.Bindings;
@@ -69,6 +71,8 @@ import javafx.stage.Window;
  */
 public class OverviewDialogController extends AbstractDialogController {
 
+    private static final Timer UPDATE_DIAGRAM_TIMER = Metrics.timer("overview.diagram.update");
+
     private final STDocument document;
 
     /** The viewer for the chart. */
@@ -176,6 +180,12 @@ public class OverviewDialogController extends AbstractDialogController {
      * Draws the Overview diagram according to the current selections.
      */
     private void updateDiagram() {
+        try (Timer.Context ignored = UPDATE_DIAGRAM_TIMER.start()) {
+            createDiagram();
+        }
+    }
+
+    private void createDiagram() {
         updateOptionControls();
 
         // get selected time range and value type and its name to display
@@ -630,21 +640,28 @@ public class OverviewDialogController extends AbstractDialogController {
 
             // create the EntryFilter for the time range of the current time step
             EntryFilter filter = createExerciseFilterForTimeStep(timeType, year, timeStep);
-            filter.setSportType(sportType);
-            filter.setEquipment(equipment);
-            mergeExerciseFilterIfEnabled(filter);
-
-            // get exercises for defined filter
-            EntryList<Exercise> lExercises = document.getExerciseList().getEntriesForFilter(filter);
 
-            // create distance sum of all found exercises
             double sumDistance = 0d;
-            for (Exercise tempExercise : lExercises) {
-                // when displaying series for no equipment assigned then skip exercises with assigned equipment
-                if (equipment == null && tempExercise.getEquipment() != null) {
-                    continue;
+            if (!isExerciseFilterEnabled()) {
+                // without exercise filter the distance sum is available in the equipment usages
+                sumDistance = document.getEquipmentUsages().getDistance(sportType, equipment,
+                        filter.getDateStart(), filter.getDateEnd());
+            } else {
+                filter.setSportType(sportType);
+                filter.setEquipment(equipment);
+                mergeExerciseFilterIfEnabled(filter);
+
+                // get exercises for defined filter
+                EntryList<Exercise> lExercises = document.getExerciseList().getEntriesForFilter(filter);
+
+                // create distance sum of all found exercises
+                for (Exercise tempExercise : lExercises) {
+                    // when displaying series for no equipment assigned then skip exercises with assigned equipment
+                    if (equipment == null && tempExercise.getEquipment() != null) {
+                        continue;
+                    }
+                    sumDistance += tempExercise.getDistance();
                 }
-                sumDistance += tempExercise.getDistance();
             }
 
             // convert to english unit mode when enabled
@@ -0,0 +1,110 @@
+package de.saring.sportstracker.gui.dialogs;
+
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Window;
+
+import javax.inject.Inject;
+
+import de.saring.sportstracker.gui.STContext;
+import de.saring.util.gui.javafx.FormattedNumberCellFactory;
+import de.saring.util.metrics.MetricSnapshot;
+import de.saring.util.metrics.Metrics;
+
+/**
+ * Controller (MVC) class of the Performance dialog. It displays the recorded values of all metrics,
+ * the dialog is only available when the metrics have been enabled by the command line parameter.
+ *
+ * @author Stefan Saring
+ */
+public class PerformanceDialogController extends AbstractDialogController {
+
+    @FXML
+    private TableView<MetricSnapshot> tvMetrics;
+
+    @FXML
+    private TableColumn<MetricSnapshot, String> tcName;
+    @FXML
+    private TableColumn<MetricSnapshot, String> tcType;
+    @FXML
+    private TableColumn<MetricSnapshot, Number> tcCount;
+    @FXML
+    private TableColumn<MetricSnapshot, Number> tcTotal;
+    @FXML
+    private TableColumn<MetricSnapshot, Number> tcMin;
+    @FXML
+    private TableColumn<MetricSnapshot, Number> tcMean;
+    @FXML
+    private TableColumn<MetricSnapshot, Number> tcPercentile95;
+    @FXML
+    private TableColumn<MetricSnapshot, Number> tcMax;
+
+    /**
+     * Standard c'tor for dependency injection.
+     *
+     * @param context the SportsTracker UI context
+     */
+    @Inject
+    public PerformanceDialogController(final STContext context) {
+        super(context);
+    }
+
+    /**
+     * Displays the Performance dialog.
+     *
+     * @param parent parent window of the dialog
+     */
+    public void show(final Window parent) {
+        showInfoDialog("/fxml/dialogs/PerformanceDialog.fxml", parent,
+                context.getResources().getString("st.dlg.performance.title"));
+    }
+
+    @Override
+    protected void setupDialogControls() {
+        tcName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        tcType.setCellValueFactory(new PropertyValueFactory<>("type"));
+        tcCount.setCellValueFactory(new PropertyValueFactory<>("count"));
+        tcTotal.setCellValueFactory(new PropertyValueFactory<>("total"));
+        tcMin.setCellValueFactory(new PropertyValueFactory<>("min"));
+        tcMean.setCellValueFactory(new PropertyValueFactory<>("mean"));
+        tcPercentile95.setCellValueFactory(new PropertyValueFactory<>("percentile95"));
+        tcMax.setCellValueFactory(new PropertyValueFactory<>("max"));
+
+        tcTotal.setCellFactory(new FormattedNumberCellFactory<>(this::formatValue));
+        tcMin.setCellFactory(new FormattedNumberCellFactory<>(this::formatValue));
+        tcMean.setCellFactory(new FormattedNumberCellFactory<>(this::formatValue));
+        tcPercentile95.setCellFactory(new FormattedNumberCellFactory<>(this::formatValue));
+        tcMax.setCellFactory(new FormattedNumberCellFactory<>(this::formatValue));
+
+        updateMetrics();
+    }
+
+    private void updateMetrics() {
+        tvMetrics.setItems(FXCollections.observableArrayList(Metrics.getSnapshots()));
+    }
+
+    private String formatValue(final Number value) {
+        return String.format("%.3f", value.doubleValue());
+    }
+
+    /**
+     * Action for refreshing the displayed metric values.
+     */
+    @FXML
+    private void onRefresh(final ActionEvent event) {
+        updateMetrics();
+    }
+
+    /**
+     * Action for resetting the recorded values of all metrics.
+     */
+    @FXML
+    private void onReset(final ActionEvent event) {
+        Metrics.reset();
+        updateMetrics();
+    }
+}
@@ -1,5 +1,7 @@
 package de.saring.sportstracker.gui.dialogs;
 
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -15,6 +17,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ColorPicker;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.stage.Window;
@@ -24,6 +27,7 @@ import javax.inject.Inject;
 import org.controlsfx.validation.Validator;
 
 import de.saring.sportstracker.data.Equipment;
+import de.saring.sportstracker.data.EquipmentUsage;
 import de.saring.sportstracker.data.Exercise;
 import de.saring.sportstracker.data.SportSubType;
 import de.saring.sportstracker.data.SportType;
@@ -66,6 +70,11 @@ public class SportTypeDialogController extends AbstractDialogController {
     @FXML
     private Button btEquipmentDelete;
 
+    @FXML
+    private Label laEquipmentUsage;
+
+    /** The SportType to be edited (the original instance, not modified by the dialog). */
+    private SportType sportType;
 
     /** ViewModel of the edited SportType. */
     private SportTypeViewModel sportTypeViewModel;
@@ -92,6 +101,7 @@ public class SportTypeDialogController extends AbstractDialogController {
 
         // use a copy of the SportType to be edited
         // => prevents source object modification when dialog is closed using the "Cancel" action
+        this.sportType = sportType;
         this.sportTypeViewModel = new SportTypeViewModel(sportType.clone());
 
         final String dlgTitleKey = sportType.getName() == null ?
@@ -152,6 +162,10 @@ public class SportTypeDialogController extends AbstractDialogController {
                 liEquipments.getSelectionModel().selectedItemProperty());
         btEquipmentEdit.disableProperty().bind(equipmentSelected);
         btEquipmentDelete.disableProperty().bind(equipmentSelected);
+
+        // display the usage summary of the selected equipment
+        liEquipments.getSelectionModel().selectedItemProperty().addListener(
+                (observable, oldValue, newValue) -> updateEquipmentUsage(newValue));
     }
 
     /**
@@ -192,6 +206,29 @@ public class SportTypeDialogController extends AbstractDialogController {
         return true;
     }
 
+    /**
+     * Displays the usage summary of the specified equipment, the label will be empty when there's no equipment.
+     */
+    private void updateEquipmentUsage(final Equipment equipment) {
+        String usageText = "";
+
+        if (equipment != null) {
+            final EquipmentUsage usage = document.getEquipmentUsages().getUsage(sportType, equipment);
+            if (usage.getExerciseCount() == 0) {
+                usageText = context.getResources().getString("st.dlg.sporttype.equipment_usage.unused.text");
+            } else {
+                final DateTimeFormatter dateFormatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM);
+                usageText = context.getResources().getString("st.dlg.sporttype.equipment_usage.text",
+                        usage.getExerciseCount(),
+                        dateFormatter.format(usage.getFirstUse()),
+                        dateFormatter.format(usage.getLastUse()),
+                        context.getFormatUtils().distanceToString(usage.getDistance(), 2),
+                        context.getFormatUtils().seconds2TimeString((int) usage.getDuration()));
+            }
+        }
+        laEquipmentUsage.setText(usageText);
+    }
+
     private void updateSportSubtypeList() {
         final ObservableList<SportSubType> olSportSubtypes = FXCollections.observableArrayList();
         liSportSubtypes.getItems().clear();
@@ -380,7 +417,10 @@ public class SportTypeDialogController extends AbstractDialogController {
             }
 
             // delete equipment in all exercises which use it
-            lRefExercises.forEach(exercise -> exercise.setEquipment(null));
+            lRefExercises.forEach(exercise -> {
+                exercise.setEquipment(null);
+                document.getExerciseList().set(exercise);
+            });
         }
 
         // finally delete the equipment
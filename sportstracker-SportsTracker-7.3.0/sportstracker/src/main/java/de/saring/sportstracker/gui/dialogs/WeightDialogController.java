@@ -31,6 +31,8 @@ import de.saring.util.gui.javafx.TimeToStringConverter;
  */
 public class WeightDialogController extends AbstractDialogController {
 
+    private static final String FXML_FILE = "/fxml/dialogs/WeightDialog.fxml";
+
     private final STDocument document;
 
     @FXML
@@ -76,7 +78,14 @@ public class WeightDialogController extends AbstractDialogController {
         final String dlgTitleKey = newWeight ? "st.dlg.weight.title.add" : "st.dlg.weight.title";
         final String dlgTitle = context.getResources().getString(dlgTitleKey);
 
-        showEditDialog("/fxml/dialogs/WeightDialog.fxml", parent, dlgTitle);
+        showEditDialog(FXML_FILE, parent, dlgTitle);
+    }
+
+    /**
+     * Preloads the content of the Weight dialog, see preloadDialogContent().
+     */
+    public void preload() {
+        preloadDialogContent(FXML_FILE);
     }
 
     @Override
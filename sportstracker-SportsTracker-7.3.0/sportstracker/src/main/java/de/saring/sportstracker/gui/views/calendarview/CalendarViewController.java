@@ -30,6 +30,8 @@ import de.saring.util.data.IdObject;
 import de.saring.util.gui.javafx.control.calendar.CalendarActionListener;
 import de.saring.util.gui.javafx.control.calendar.CalendarControl;
 import de.saring.util.gui.javafx.control.calendar.CalendarEntry;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.Timer;
 
 /**
  * Controller class of the Calendar View, which displays all (or a filtered list) exercises, notes and
@@ -40,6 +42,8 @@ import de.saring.util.gui.javafx.control.calendar.CalendarEntry;
 @Singleton
 public class CalendarViewController extends AbstractEntryViewController {
 
+    private static final Timer UPDATE_TIMER = Metrics.timer("calendar.update");
+
     @FXML
     private Label laDisplayedMonth;
 
@@ -80,8 +84,10 @@ public class CalendarViewController extends AbstractEntryViewController {
 
     @Override
     public void updateView() {
-        calendarControl.updateCalendar(displayedYear.get(), displayedMonth.get(), //
-                getDocument().getOptions().isWeekStartSunday());
+        try (Timer.Context ignored = UPDATE_TIMER.start()) {
+            calendarControl.updateCalendar(displayedYear.get(), displayedMonth.get(), //
+                    getDocument().getOptions().isWeekStartSunday());
+        }
     }
 
     @Override
@@ -0,0 +1,110 @@
+package de.saring.sportstracker.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.saring.util.unitcalc.FormatUtils.SpeedView;
+import de.saring.util.unitcalc.FormatUtils.UnitSystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class contains all unit tests for the STOptionsCodec class.
+ *
+ * @author Stefan Saring
+ */
+public class STOptionsCodecTest {
+
+    private Path optionsFile;
+
+    @Before
+    public void setUp() throws IOException {
+        optionsFile = Files.createTempFile("st-options", ".properties");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(optionsFile);
+    }
+
+    /**
+     * All options must be identical after writing and reading, also special characters in the
+     * directory name must be preserved.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final STOptions options = new STOptions();
+        options.setInitialView(STOptions.View.List);
+        options.setUnitSystem(UnitSystem.English);
+        options.setSpeedView(SpeedView.MinutesPerDistance);
+        options.setDefaultAutoCalcuation(STOptions.AutoCalculation.AvgSpeed);
+        options.setSaveOnExit(true);
+        options.setDisplaySecondDiagram(true);
+        options.setWeekStartSunday(true);
+        options.setListViewShowAvgHeartrate(false);
+        options.setListViewShowAscent(false);
+        options.setListViewShowEnergy(true);
+        options.setListViewShowEquipment(true);
+        options.setListViewShowComment(true);
+        options.setPreviousExerciseDirectory(" C:\\Users\\J\u00FCrgen\\HRM #1=a:b!");
+
+        STOptionsCodec.write(options, optionsFile);
+        final STOptions readOptions = STOptionsCodec.read(optionsFile);
+
+        assertEquals(STOptions.View.List, readOptions.getInitialView());
+        assertEquals(UnitSystem.English, readOptions.getUnitSystem());
+        assertEquals(SpeedView.MinutesPerDistance, readOptions.getSpeedView());
+        assertEquals(STOptions.AutoCalculation.AvgSpeed, readOptions.getDefaultAutoCalcuation());
+        assertTrue(readOptions.isSaveOnExit());
+        assertTrue(readOptions.isDisplaySecondDiagram());
+        assertTrue(readOptions.isWeekStartSunday());
+        assertFalse(readOptions.isListViewShowAvgHeartrate());
+        assertFalse(readOptions.isListViewShowAscent());
+        assertTrue(readOptions.isListViewShowEnergy());
+        assertTrue(readOptions.isListViewShowEquipment());
+        assertTrue(readOptions.isListViewShowComment());
+        assertEquals(" C:\\Users\\J\u00FCrgen\\HRM #1=a:b!", readOptions.getPreviousExerciseDirectory());
+    }
+
+    /**
+     * Missing and invalid values must be replaced by the default values.
+     */
+    @Test
+    public void testReadMissingAndInvalidValues() throws IOException {
+        Files.write(optionsFile, Arrays.asList(
+                "unitSystem=English",
+                "speedView=Foo",
+                "saveOnExit=maybe",
+                "unknownOption=true"), StandardCharsets.UTF_8);
+
+        final STOptions readOptions = STOptionsCodec.read(optionsFile);
+        final STOptions defaultOptions = new STOptions();
+
+        assertEquals(UnitSystem.English, readOptions.getUnitSystem());
+        assertEquals(defaultOptions.getSpeedView(), readOptions.getSpeedView());
+        assertEquals(defaultOptions.isSaveOnExit(), readOptions.isSaveOnExit());
+        assertEquals(defaultOptions.getInitialView(), readOptions.getInitialView());
+        assertEquals(defaultOptions.isListViewShowAscent(), readOptions.isListViewShowAscent());
+        assertNull(readOptions.getPreviousExerciseDirectory());
+    }
+
+    /**
+     * Files of newer format versions must not be read.
+     */
+    @Test(expected = IOException.class)
+    public void testReadNewerFormatVersion() throws IOException {
+        Files.write(optionsFile, Arrays.asList(STOptionsCodec.KEY_FORMAT_VERSION + "=" +
+                (STOptionsCodec.FORMAT_VERSION + 1)), StandardCharsets.UTF_8);
+        STOptionsCodec.read(optionsFile);
+    }
+}
@@ -0,0 +1,105 @@
+package de.saring.sportstracker.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains all unit tests for the EntryCommentIndex class.
+ *
+ * @author Stefan Saring
+ */
+public class EntryCommentIndexTest {
+
+    private EntryCommentIndex index;
+
+    /**
+     * Setup of test data.
+     */
+    @Before
+    public void setUp() {
+        index = new EntryCommentIndex();
+        index.put(createNote(1, "Long run in the Forest, 21 km"));
+        index.put(createNote(2, "Interval training: 10x400m"));
+        index.put(createNote(3, "forest trail run"));
+        index.put(createNote(4, null));
+    }
+
+    /**
+     * Complete tokens must be found case insensitive, multiple tokens must be intersected.
+     */
+    @Test
+    public void testFindCandidatesTokens() {
+        assertEquals(ids(1, 3), index.findCandidates(" forest "));
+        assertEquals(ids(1, 3), index.findCandidates("run"));
+        assertEquals(ids(3), index.findCandidates("forest trail"));
+        assertEquals(ids(), index.findCandidates("swimming"));
+    }
+
+    /**
+     * Tokens at the begin or end of the substring can be prefixes, suffixes or parts of comment tokens.
+     */
+    @Test
+    public void testFindCandidatesPartialTokens() {
+        assertEquals(ids(1, 3), index.findCandidates("fore"));
+        assertEquals(ids(2), index.findCandidates("0x4"));
+        assertEquals(ids(2), index.findCandidates("ing: 10"));
+        assertEquals(ids(1), index.findCandidates("st, 2"));
+        assertEquals(ids(), index.findCandidates("ing: 1k"));
+    }
+
+    /**
+     * There are no candidate restrictions for substrings without tokens.
+     */
+    @Test
+    public void testFindCandidatesNoTokens() {
+        assertNull(index.findCandidates(", "));
+    }
+
+    /**
+     * Tests the index update for modified, removed and new entries.
+     */
+    @Test
+    public void testUpdate() {
+        index.put(createNote(3, "Bike ride"));
+        assertEquals(ids(1), index.findCandidates("forest"));
+
+        index.remove(1);
+        assertEquals(ids(), index.findCandidates("forest"));
+
+        index.update(Arrays.asList(createNote(2, "Forest"), createNote(5, "Bike trainer")));
+        assertEquals(ids(2), index.findCandidates("forest"));
+        assertEquals(ids(5), index.findCandidates("bike"));
+        assertEquals(ids(), index.findCandidates("interval"));
+    }
+
+    /**
+     * Tests the literal prefix detection of regular expressions.
+     */
+    @Test
+    public void testGetLiteralPrefix() {
+        assertEquals("ote ", EntryCommentIndex.getLiteralPrefix("ote [0-2]"));
+        assertEquals("Run", EntryCommentIndex.getLiteralPrefix("^Run.*"));
+        assertEquals("Run", EntryCommentIndex.getLiteralPrefix("Runs?"));
+        assertEquals("Run", EntryCommentIndex.getLiteralPrefix("Run+"));
+        assertEquals("", EntryCommentIndex.getLiteralPrefix("Run|Bike"));
+        assertEquals("", EntryCommentIndex.getLiteralPrefix("(?i)run"));
+        assertEquals("Stra", EntryCommentIndex.getLiteralPrefix("Straße"));
+    }
+
+    private static Note createNote(int id, String comment) {
+        Note note = new Note(id);
+        note.setComment(comment);
+        return note;
+    }
+
+    private static Set<Integer> ids(Integer... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+}
@@ -0,0 +1,111 @@
+package de.saring.sportstracker.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class contains all unit tests for the EquipmentUsages class.
+ *
+ * @author Stefan Saring
+ */
+public class EquipmentUsagesTest {
+
+    private SportType sportType;
+    private Equipment equipment1;
+    private Equipment equipment2;
+    private ExerciseList exerciseList;
+    private EquipmentUsages usages;
+
+    /**
+     * Setup of test data.
+     */
+    @Before
+    public void setUp() {
+        sportType = new SportType(1);
+        SportSubType subType = new SportSubType(1);
+        sportType.getSportSubTypeList().set(subType);
+        equipment1 = new Equipment(1);
+        sportType.getEquipmentList().set(equipment1);
+        equipment2 = new Equipment(2);
+        sportType.getEquipmentList().set(equipment2);
+
+        exerciseList = new ExerciseList();
+        exerciseList.set(createExercise(1, LocalDate.of(2015, 3, 10), equipment1, 40f, 3600));
+        exerciseList.set(createExercise(2, LocalDate.of(2015, 4, 2), equipment1, 60f, 7200));
+        exerciseList.set(createExercise(3, LocalDate.of(2015, 4, 5), null, 25f, 3000));
+        usages = new EquipmentUsages(exerciseList);
+    }
+
+    /**
+     * Tests the usages created for the initial exercise list.
+     */
+    @Test
+    public void testGetUsage() {
+        EquipmentUsage usage = usages.getUsage(sportType, equipment1);
+        assertEquals(100d, usage.getDistance(), 0.001d);
+        assertEquals(10800, usage.getDuration());
+        assertEquals(2, usage.getExerciseCount());
+        assertEquals(LocalDate.of(2015, 3, 10), usage.getFirstUse());
+        assertEquals(LocalDate.of(2015, 4, 2), usage.getLastUse());
+
+        assertEquals(1, usages.getUsage(sportType, null).getExerciseCount());
+        assertSame(EquipmentUsage.UNUSED, usages.getUsage(sportType, equipment2));
+    }
+
+    /**
+     * Tests the distance sums for date ranges.
+     */
+    @Test
+    public void testGetDistance() {
+        assertEquals(60d, usages.getDistance(sportType, equipment1,
+                LocalDate.of(2015, 4, 1), LocalDate.of(2015, 4, 30)), 0.001d);
+        assertEquals(25d, usages.getDistance(sportType, null,
+                LocalDate.of(2015, 1, 1), LocalDate.of(2015, 12, 31)), 0.001d);
+        assertEquals(0d, usages.getDistance(sportType, equipment2,
+                LocalDate.of(2015, 1, 1), LocalDate.of(2015, 12, 31)), 0.001d);
+    }
+
+    /**
+     * The usages must be updated on each change of the exercise list.
+     */
+    @Test
+    public void testListChanges() {
+
+        // change the equipment of exercise 2
+        exerciseList.set(createExercise(2, LocalDate.of(2015, 4, 2), equipment2, 60f, 7200));
+        assertEquals(1, usages.getUsage(sportType, equipment1).getExerciseCount());
+        assertEquals(LocalDate.of(2015, 3, 10), usages.getUsage(sportType, equipment1).getLastUse());
+        assertEquals(60d, usages.getUsage(sportType, equipment2).getDistance(), 0.001d);
+
+        // remove exercise 1
+        exerciseList.removeByID(1);
+        assertSame(EquipmentUsage.UNUSED, usages.getUsage(sportType, equipment1));
+
+        // replace the list content
+        exerciseList.clearAndAddAll(Arrays.asList(
+                createExercise(5, LocalDate.of(2016, 1, 1), equipment1, 10f, 600),
+                createExercise(6, LocalDate.of(2016, 1, 2), equipment1, 12f, 700)));
+        assertEquals(22d, usages.getUsage(sportType, equipment1).getDistance(), 0.001d);
+        assertEquals(LocalDate.of(2016, 1, 2), usages.getUsage(sportType, equipment1).getLastUse());
+        assertSame(EquipmentUsage.UNUSED, usages.getUsage(sportType, equipment2));
+        assertSame(EquipmentUsage.UNUSED, usages.getUsage(sportType, null));
+    }
+
+    private Exercise createExercise(int id, LocalDate date, Equipment equipment, float distance, int duration) {
+        Exercise exercise = new Exercise(id);
+        exercise.setDateTime(date.atStartOfDay());
+        exercise.setSportType(sportType);
+        exercise.setSportSubType(sportType.getSportSubTypeList().getAt(0));
+        exercise.setIntensity(Exercise.IntensityType.NORMAL);
+        exercise.setEquipment(equipment);
+        exercise.setDistance(distance);
+        exercise.setDuration(duration);
+        return exercise;
+    }
+}
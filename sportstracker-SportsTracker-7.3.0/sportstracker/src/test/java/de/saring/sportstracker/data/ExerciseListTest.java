@@ -102,7 +102,7 @@ public class ExerciseListTest {
         assertNotNull(sportType2);
         assertNotNull(sportSubType22);
 
-        // clone, edit and store the SportSubType 22 (the way the GUI editor works)
+        // clone, edit and store the SportSubType 22 directly in the subtype list
         SportSubType sportSubType22New = (SportSubType) sportSubType22.clone();
         sportSubType22New.setName("SportSubType 22 - New");
         sportType2.getSportSubTypeList().set(sportSubType22New);
@@ -113,9 +113,10 @@ public class ExerciseListTest {
         list.updateSportTypes(sportTypeList);
         assertEquals("SportSubType 22 - New", exercise3.getSportSubType().getName());
 
-        // clone, edit and store the SportType 2 (the way the GUI editor works)
+        // replace the SportType 2 by a new object without using the SportTypeList
         SportType sportType2New = (SportType) sportType2.clone();
         sportType2New.setName("SportType 2 - New");
+        sportTypeList.removeByID(2);
         sportTypeList.set(sportType2New);
 
         // the exercise will still have the old sport type
@@ -124,7 +125,7 @@ public class ExerciseListTest {
         list.updateSportTypes(sportTypeList);
         assertEquals("SportType 2 - New", exercise3.getSportType().getName());
 
-        // clone, edit and store the Equipment 22 (the way the GUI editor works)
+        // clone, edit and store the Equipment 22 directly in the equipment list
         Equipment equipment22Old = sportTypeList.getByID(2).getEquipmentList().getByID(22);
         assertEquals("Equipment 22", equipment22Old.getName());
         Equipment equipment22New = (Equipment) equipment22Old.clone();
@@ -556,4 +557,63 @@ public class ExerciseListTest {
             fail("The expected System.ArgumentException was not thown!");
         }
     }
+
+    /**
+     * Test of getEntriesForFilter(): the indexes must be updated on each list change after the first
+     * filtering by indexed criteria, the found exercises must be sorted by date.
+     */
+    @Test
+    public void testGetEntriesForFilterAfterListChanges() {
+
+        EntryFilter filter = new EntryFilter();
+        filter.setDateStart(LocalDate.of(2003, 1, 1));
+        filter.setDateEnd(LocalDate.of(2003, 12, 31));
+        filter.setSportType(sportTypeList.getByID(1));
+        filter.setIntensity(Exercise.IntensityType.LOW);
+        filter.setCommentSubString("");
+        assertEquals(1, list.getEntriesForFilter(filter).size());
+
+        // change intensity of exercise 2, add exercise 4 with a date before all others
+        Exercise exe2 = list.getByID(2).clone(2);
+        exe2.setIntensity(Exercise.IntensityType.LOW);
+        list.set(exe2);
+
+        Exercise exe4 = list.getByID(1).clone(4);
+        exe4.setDateTime(LocalDateTime.of(2003, 3, 1, 0, 0, 0));
+        list.set(exe4);
+
+        EntryList<Exercise> exeList = list.getEntriesForFilter(filter);
+        assertEquals(3, exeList.size());
+        assertEquals(4, exeList.getAt(0).getId());
+        assertEquals(2, exeList.getAt(1).getId());
+        assertEquals(1, exeList.getAt(2).getId());
+
+        // remove exercise 1, filter additionally by sport subtype
+        list.removeByID(1);
+        filter.setSportSubType(filter.getSportType().getSportSubTypeList().getByID(12));
+        exeList = list.getEntriesForFilter(filter);
+        assertEquals(1, exeList.size());
+        assertEquals(4, exeList.getAt(0).getId());
+    }
+
+    /**
+     * Test of getEntriesForFilter(): the equipment index must be updated by updateSportTypes() when
+     * the equipment of an exercise has been removed.
+     */
+    @Test
+    public void testGetEntriesForFilterAfterUpdateSportTypes() {
+
+        EntryFilter filter = new EntryFilter();
+        filter.setDateStart(LocalDate.of(2003, 1, 1));
+        filter.setDateEnd(LocalDate.of(2003, 12, 31));
+        filter.setSportType(sportTypeList.getByID(2));
+        filter.setEquipment(filter.getSportType().getEquipmentList().getByID(22));
+        filter.setCommentSubString("");
+        assertEquals(1, list.getEntriesForFilter(filter).size());
+
+        sportTypeList.getByID(2).getEquipmentList().removeByID(22);
+        list.updateSportTypes(sportTypeList);
+        assertNull(list.getByID(3).getEquipment());
+        assertEquals(0, list.getEntriesForFilter(filter).size());
+    }
 }
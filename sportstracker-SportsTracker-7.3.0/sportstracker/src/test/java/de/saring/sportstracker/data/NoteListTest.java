@@ -1,10 +1,13 @@
 package de.saring.sportstracker.data;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
 import org.junit.Before;
@@ -240,4 +243,82 @@ public class NoteListTest {
             fail("The expected System.ArgumentException was not thown!");
         }
     }
+
+    /**
+     * Tests for getEntriesForFilter(): the comment index must be updated on each list change after the
+     * first filtering by comment.
+     */
+    @Test
+    public void testGetEntriesForFilterAfterListChanges() {
+
+        EntryFilter filter = new EntryFilter();
+        filter.setDateStart(LocalDate.of(2003, 1, 1));
+        filter.setDateEnd(LocalDate.of(2003, 12, 31));
+        filter.setEntryType(EntryFilter.EntryType.NOTE);
+        filter.setCommentSubString("note 2");
+        filter.setRegularExpressionMode(false);
+        assertEquals(1, list.getEntriesForFilter(filter).size());
+
+        // modify comment of note 2, add note 4
+        Note note2 = new Note(2);
+        note2.setDateTime(LocalDateTime.of(2003, 8, 20, 0, 0, 0));
+        note2.setComment("Changed");
+        list.set(note2);
+
+        Note note4 = new Note(4);
+        note4.setDateTime(LocalDateTime.of(2003, 10, 1, 0, 0, 0));
+        note4.setComment("Another note 2");
+        list.set(note4);
+
+        EntryList<Note> entryList = list.getEntriesForFilter(filter);
+        assertEquals(1, entryList.size());
+        assertEquals(4, entryList.getAt(0).getId());
+
+        // remove note 4, the regular expression is searched by the literal prefix "Chan"
+        list.removeByID(4);
+        assertEquals(0, list.getEntriesForFilter(filter).size());
+
+        filter.setCommentSubString("Chan+ged");
+        filter.setRegularExpressionMode(true);
+        entryList = list.getEntriesForFilter(filter);
+        assertEquals(1, entryList.size());
+        assertEquals(2, entryList.getAt(0).getId());
+    }
+
+    /**
+     * Tests for getEntriesForFilter(): the parallel filter evaluation must find the same entries in the
+     * same order as the sequential evaluation.
+     */
+    @Test
+    public void testGetEntriesForFilterParallel() {
+
+        // create a list of 20000 notes with ascending dates, which will be filtered in multiple chunks
+        NoteList largeList = new NoteList();
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            Note note = new Note(i + 1);
+            note.setDateTime(LocalDateTime.of(2003, 1, 1, 0, 0, 0).plusHours(i));
+            note.setComment("Dummy note " + (i % 7));
+            notes.add(note);
+        }
+        largeList.clearAndAddAll(notes);
+
+        EntryFilter filter = new EntryFilter();
+        filter.setDateStart(LocalDate.of(2003, 2, 1));
+        filter.setDateEnd(LocalDate.of(2004, 12, 31));
+        filter.setEntryType(EntryFilter.EntryType.NOTE);
+        filter.setCommentSubString("note [35]");
+        filter.setRegularExpressionMode(true);
+
+        largeList.setParallelThreshold(Integer.MAX_VALUE);
+        EntryList<Note> sequentialEntries = largeList.getEntriesForFilter(filter);
+        largeList.setParallelThreshold(0);
+        EntryList<Note> parallelEntries = largeList.getEntriesForFilter(filter);
+
+        assertEquals(4800, sequentialEntries.size());
+        assertEquals(sequentialEntries.size(), parallelEntries.size());
+        for (int i = 0; i < sequentialEntries.size(); i++) {
+            assertSame(sequentialEntries.getAt(i), parallelEntries.getAt(i));
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package de.saring.sportstracker.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javafx.scene.paint.Color;
+
+/**
+ * This class contains all unit tests for the SportTypeList class.
+ *
+ * @author Stefan Saring
+ */
+public class SportTypeListTest {
+
+    private SportTypeList list;
+    private SportType sportType;
+
+    /**
+     * This method initializes the environment for testing.
+     */
+    @Before
+    public void setUp() {
+        sportType = new SportType(1);
+        sportType.setName("Cycling");
+        sportType.setColor(Color.RED);
+
+        SportSubType subType1 = new SportSubType(1);
+        subType1.setName("MTB");
+        sportType.getSportSubTypeList().set(subType1);
+        SportSubType subType2 = new SportSubType(2);
+        subType2.setName("Road");
+        sportType.getSportSubTypeList().set(subType2);
+
+        Equipment equipment1 = new Equipment(1);
+        equipment1.setName("Bike 1");
+        sportType.getEquipmentList().set(equipment1);
+
+        list = new SportTypeList();
+        list.set(sportType);
+    }
+
+    /**
+     * An edited sport type must be copied into the stored instance, the stored subtypes and equipment
+     * must be updated, added or removed, but not replaced.
+     */
+    @Test
+    public void testSetEditedSportType() {
+        SportSubType subType1 = sportType.getSportSubTypeList().getByID(1);
+        Equipment equipment1 = sportType.getEquipmentList().getByID(1);
+
+        // edit a clone, the way the GUI editor works
+        SportType editedSportType = sportType.clone();
+        editedSportType.setName("Bike");
+        editedSportType.setColor(Color.BLUE);
+        editedSportType.getSportSubTypeList().getByID(1).setName("Mountainbike");
+        editedSportType.getSportSubTypeList().removeByID(2);
+        SportSubType subType3 = new SportSubType(3);
+        subType3.setName("Gravel");
+        editedSportType.getSportSubTypeList().set(subType3);
+        editedSportType.getEquipmentList().getByID(1).setName("Bike 1 - New");
+
+        list.set(editedSportType);
+
+        assertEquals(1, list.size());
+        assertSame(sportType, list.getByID(1));
+        assertEquals("Bike", sportType.getName());
+        assertEquals(Color.BLUE, sportType.getColor());
+
+        assertEquals(2, sportType.getSportSubTypeList().size());
+        assertSame(subType1, sportType.getSportSubTypeList().getByID(1));
+        assertEquals("Mountainbike", subType1.getName());
+        assertNull(sportType.getSportSubTypeList().getByID(2));
+        assertEquals("Gravel", sportType.getSportSubTypeList().getByID(3).getName());
+
+        assertSame(equipment1, sportType.getEquipmentList().getByID(1));
+        assertEquals("Bike 1 - New", equipment1.getName());
+    }
+
+    /**
+     * New sport types must be added to the list.
+     */
+    @Test
+    public void testSetNewSportType() {
+        SportType sportType2 = new SportType(2);
+        sportType2.setName("Running");
+        list.set(sportType2);
+
+        assertEquals(2, list.size());
+        assertSame(sportType2, list.getAt(1));
+    }
+}
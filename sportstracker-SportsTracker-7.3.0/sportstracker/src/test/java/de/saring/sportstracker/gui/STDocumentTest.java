@@ -1,12 +1,21 @@
 package de.saring.sportstracker.gui;
 
+import de.saring.sportstracker.core.STOptions;
+import de.saring.util.XmlBeanStorage;
+import de.saring.util.metrics.Metrics;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -45,5 +54,63 @@ public class STDocumentTest {
 
         document.evaluateCommandLineParameters(Arrays.asList("--foo", "--datadir=temp"));
         assertEquals("temp", documentImpl.getDataDirectory());
+        assertFalse(document.isFastStart());
+
+        document.evaluateCommandLineParameters(Arrays.asList(STDocument.PARAMETER_FAST_START));
+        assertTrue(document.isFastStart());
+    }
+
+    /**
+     * The performance metrics must only be enabled by the metrics command line parameter.
+     */
+    @Test
+    public void testEvaluateCommandLineParametersMetrics() {
+        try {
+            document.evaluateCommandLineParameters(Arrays.asList("--metricsfoo"));
+            assertFalse(Metrics.isEnabled());
+
+            document.evaluateCommandLineParameters(Arrays.asList(STDocument.PARAMETER_METRICS));
+            assertTrue(Metrics.isEnabled());
+        } finally {
+            Metrics.setEnabled(false);
+        }
+    }
+
+    /**
+     * The options of the previous XML format must be migrated to the new options file at first start.
+     */
+    @Test
+    public void testLoadOptionsMigration() throws Exception {
+        final Path dataDirectory = Files.createTempDirectory("st-data");
+        try {
+            final STOptions xmlOptions = new STOptions();
+            xmlOptions.setWeekStartSunday(true);
+            xmlOptions.setPreviousExerciseDirectory("/tmp/hrm");
+            XmlBeanStorage.saveBean(xmlOptions, dataDirectory.resolve("st-options.xml").toString());
+
+            document.evaluateCommandLineParameters(Arrays.asList("--datadir=" + dataDirectory));
+            document.loadOptions();
+            assertTrue(document.getOptions().isWeekStartSunday());
+            assertTrue(Files.exists(dataDirectory.resolve("st-options.properties")));
+
+            // the migrated options must be loaded from the new options file on next start
+            Files.delete(dataDirectory.resolve("st-options.xml"));
+            final STDocument nextDocument = new STDocumentImpl(mock(STContext.class), null);
+            nextDocument.evaluateCommandLineParameters(Arrays.asList("--datadir=" + dataDirectory));
+            nextDocument.loadOptions();
+            assertTrue(nextDocument.getOptions().isWeekStartSunday());
+            assertEquals("/tmp/hrm", nextDocument.getOptions().getPreviousExerciseDirectory());
+        } finally {
+            deleteDirectory(dataDirectory);
+        }
+    }
+
+    private static void deleteDirectory(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
     }
 }
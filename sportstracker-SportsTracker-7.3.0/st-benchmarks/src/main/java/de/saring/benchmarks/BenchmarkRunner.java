@@ -0,0 +1,60 @@
+package de.saring.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of the benchmarks jar, it executes the JMH benchmarks. All JMH command line options are
+ * supported (e.g. a regular expression for the benchmarks to execute or "-h" for help).
+ * <p/>
+ * In difference to the JMH default the results will always be written as JSON to the file
+ * "benchmark-results.json" in the current directory, unless another result format or file is specified.
+ * So the results of different commits can be compared easily (e.g. by a diff or by
+ * http://jmh.morethan.io).
+ *
+ * @author Stefan Saring
+ */
+public final class BenchmarkRunner {
+
+    /** Default name of the JSON result file. */
+    public static final String DEFAULT_RESULT_FILE = "benchmark-results.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        final CommandLineOptions commandLineOptions;
+        try {
+            commandLineOptions = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Invalid benchmark options: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()) {
+            // let the JMH runner handle these options by itself
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        final ChainedOptionsBuilder optionsBuilder = new OptionsBuilder().parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            optionsBuilder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            optionsBuilder.result(DEFAULT_RESULT_FILE);
+        }
+
+        final Options options = optionsBuilder.build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,73 @@
+package de.saring.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.saring.benchmarks.data.DataGenerator;
+import de.saring.benchmarks.data.DeviceFileGenerator;
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.parser.ExerciseParser;
+import de.saring.exerciseviewer.parser.ExerciseParserFactory;
+
+/**
+ * Benchmark for parsing large generated exercise files (one hour and 24 hours recorded at 1 Hz) in
+ * the formats FIT, GPX and TCX. The files are created in a temporary directory, it will be deleted
+ * after the benchmark.
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceFileParserBenchmark {
+
+    @Param({"FIT", "GPX", "TCX"})
+    private DeviceFileGenerator.Format format;
+
+    @Param({"3600", "86400"})
+    private int sampleCount;
+
+    private Path tempDirectory;
+    private Path deviceFile;
+    private ExerciseParser parser;
+
+    @Setup
+    public void setUp() throws IOException, EVException {
+        tempDirectory = Files.createTempDirectory("st-benchmarks");
+        deviceFile = tempDirectory.resolve("exercise." + format.getSuffix());
+        DeviceFileGenerator.writeDeviceFile(format, deviceFile, LocalDateTime.of(2016, 6, 12, 9, 30),
+                new DeviceFileGenerator(DataGenerator.DEFAULT_SEED).createSamples(sampleCount, 1, 25f));
+        parser = ExerciseParserFactory.getParser(deviceFile.toString());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(deviceFile);
+        Files.deleteIfExists(tempDirectory);
+    }
+
+    @Benchmark
+    public EVExercise parseExercise() throws EVException {
+        return parser.parseExercise(deviceFile.toString());
+    }
+}
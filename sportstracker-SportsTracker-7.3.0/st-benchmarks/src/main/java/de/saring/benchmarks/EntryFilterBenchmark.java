@@ -0,0 +1,69 @@
+package de.saring.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.saring.benchmarks.data.DataGenerator;
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.EntryList;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+
+/**
+ * Benchmarks for EntryList.getEntriesForFilter(), the filter contains a date range of all exercises and
+ * a comment search in substring or regular expression mode.
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int entryCount;
+
+    @Param({"substring", "regex"})
+    private String commentMode;
+
+    private ExerciseList exerciseList;
+    private EntryFilter filter;
+
+    @Setup
+    public void setUp() {
+        final DataGenerator dataGenerator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        exerciseList = dataGenerator.createExerciseList(dataGenerator.createSportTypeList(),
+                DataGenerator.DEFAULT_START_DATE, entryCount, 1);
+
+        filter = EntryFilter.createDefaultExerciseFilter();
+        filter.setDateStart(LocalDate.of(1990, 1, 1));
+        filter.setDateEnd(LocalDate.of(2999, 12, 31));
+        if ("regex".equals(commentMode)) {
+            filter.setRegularExpressionMode(true);
+            filter.setCommentSubString("hills.*(rain|headwind)");
+        } else {
+            filter.setRegularExpressionMode(false);
+            filter.setCommentSubString("Hills");
+        }
+    }
+
+    @Benchmark
+    public EntryList<Exercise> getEntriesForFilter() {
+        return exerciseList.getEntriesForFilter(filter);
+    }
+}
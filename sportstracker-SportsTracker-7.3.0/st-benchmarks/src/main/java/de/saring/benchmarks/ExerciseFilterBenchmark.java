@@ -0,0 +1,78 @@
+package de.saring.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.saring.benchmarks.data.DataGenerator;
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.EntryList;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.SportType;
+import de.saring.sportstracker.data.SportTypeList;
+
+/**
+ * Benchmarks for ExerciseList.getEntriesForFilter() with the exercise specific criteria, the filter
+ * contains a date range of all exercises and a sport type with a subtype or an equipment.
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExerciseFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int entryCount;
+
+    private ExerciseList exerciseList;
+    private EntryFilter sportSubTypeFilter;
+    private EntryFilter equipmentFilter;
+
+    @Setup
+    public void setUp() {
+        final DataGenerator dataGenerator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        final SportTypeList sportTypeList = dataGenerator.createSportTypeList();
+        exerciseList = dataGenerator.createExerciseList(sportTypeList, DataGenerator.DEFAULT_START_DATE,
+                entryCount, 1);
+
+        final SportType sportType = sportTypeList.getAt(0);
+        sportSubTypeFilter = createFilter(sportType);
+        sportSubTypeFilter.setSportSubType(sportType.getSportSubTypeList().getAt(0));
+        equipmentFilter = createFilter(sportType);
+        equipmentFilter.setEquipment(sportType.getEquipmentList().getAt(0));
+    }
+
+    private static EntryFilter createFilter(final SportType sportType) {
+        final EntryFilter filter = EntryFilter.createDefaultExerciseFilter();
+        filter.setDateStart(LocalDate.of(1990, 1, 1));
+        filter.setDateEnd(LocalDate.of(2999, 12, 31));
+        filter.setSportType(sportType);
+        return filter;
+    }
+
+    @Benchmark
+    public EntryList<Exercise> getEntriesForSportSubType() {
+        return exerciseList.getEntriesForFilter(sportSubTypeFilter);
+    }
+
+    @Benchmark
+    public EntryList<Exercise> getEntriesForEquipment() {
+        return exerciseList.getEntriesForFilter(equipmentFilter);
+    }
+}
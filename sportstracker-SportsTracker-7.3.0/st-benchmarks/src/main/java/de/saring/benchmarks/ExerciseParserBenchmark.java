@@ -0,0 +1,108 @@
+package de.saring.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.parser.ExerciseParser;
+import de.saring.exerciseviewer.parser.ExerciseParserFactory;
+
+/**
+ * Benchmark for all the ExerciseParser implementations. Each benchmark invocation parses all test files
+ * of the parser file suffix from the ExerciseViewer test data directory 'st-exerciseviewer/misc/testdata'
+ * (invalid test files are skipped). The parse cache is not used.
+ * <p/>
+ * The test data directory is searched in the current and the parent directory, it can also be specified
+ * by the system property 'st.testdata.dir'.
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExerciseParserBenchmark {
+
+    private static final String TESTDATA_DIR_PROPERTY = "st.testdata.dir";
+    private static final String TESTDATA_DIR = "st-exerciseviewer/misc/testdata";
+
+    /** File suffixes of all parsers. */
+    @Param({"frd", "fit", "tcx", "gpx", "tur", "ped", "xml", "hrm", "hsr", "srd", "csv", "pwx"})
+    private String suffix;
+
+    private final List<String> filenames = new ArrayList<>();
+    private final List<ExerciseParser> parsers = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        final Path testdataDirectory = getTestdataDirectory();
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(testdataDirectory)) {
+            files = paths.filter(path -> path.getFileName().toString().toLowerCase().endsWith("." + suffix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        for (Path file : files) {
+            final String filename = file.toString();
+            try {
+                final ExerciseParser parser = ExerciseParserFactory.getParser(filename);
+                parser.parseExercise(filename);
+                filenames.add(filename);
+                parsers.add(parser);
+            } catch (EVException e) {
+                // skip invalid test files
+            }
+        }
+
+        if (filenames.isEmpty()) {
+            throw new IllegalStateException("No valid test files with suffix '" + suffix + "' found in '" +
+                    testdataDirectory + "'!");
+        }
+    }
+
+    @Benchmark
+    public void parseExercises(final Blackhole blackhole) throws EVException {
+        for (int i = 0; i < filenames.size(); i++) {
+            blackhole.consume(parsers.get(i).parseExercise(filenames.get(i)));
+        }
+    }
+
+    private static Path getTestdataDirectory() {
+        final String testdataDirectory = System.getProperty(TESTDATA_DIR_PROPERTY);
+        if (testdataDirectory != null) {
+            return Paths.get(testdataDirectory);
+        }
+
+        for (String candidate : new String[]{TESTDATA_DIR, ".." + File.separator + TESTDATA_DIR}) {
+            if (Files.isDirectory(Paths.get(candidate))) {
+                return Paths.get(candidate);
+            }
+        }
+        throw new IllegalStateException("The test data directory '" + TESTDATA_DIR + "' was not found, " +
+                "it can be specified by the system property '" + TESTDATA_DIR_PROPERTY + "'!");
+    }
+}
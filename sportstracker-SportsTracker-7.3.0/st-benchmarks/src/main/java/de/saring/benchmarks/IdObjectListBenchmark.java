@@ -0,0 +1,81 @@
+package de.saring.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.saring.benchmarks.data.DataGenerator;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+
+/**
+ * Benchmarks for the ID and date based access methods of IdObjectList and IdDateObjectList. An ExerciseList
+ * is used as list implementation, it's the largest list in the application.
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdObjectListBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int entryCount;
+
+    private ExerciseList exerciseList;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        final DataGenerator dataGenerator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        exerciseList = dataGenerator.createExerciseList(dataGenerator.createSportTypeList(),
+                DataGenerator.DEFAULT_START_DATE, entryCount, 1);
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public Exercise getByID() {
+        return exerciseList.getByID(1 + random.nextInt(entryCount));
+    }
+
+    @Benchmark
+    public int getNewID() {
+        return exerciseList.getNewID();
+    }
+
+    /**
+     * Stores an existing exercise with a new date, so the list size stays the same.
+     */
+    @Benchmark
+    public ExerciseList setWithNewDate() {
+        final Exercise exercise = exerciseList.getByID(1 + random.nextInt(entryCount));
+        exercise.setDateTime(exercise.getDateTime().plusDays(random.nextInt(61) - 30));
+        exerciseList.set(exercise);
+        return exerciseList;
+    }
+
+    /**
+     * Returns the exercises of a random month.
+     */
+    @Benchmark
+    public List<Exercise> getEntriesInDateRange() {
+        final LocalDate start = exerciseList.getAt(random.nextInt(entryCount)).getDateTime().toLocalDate();
+        return exerciseList.getEntriesInDateRange(start, start.plusDays(30));
+    }
+}
@@ -0,0 +1,116 @@
+package de.saring.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.saring.sportstracker.core.STOptions;
+import de.saring.sportstracker.core.STOptionsCodec;
+import de.saring.util.XmlBeanStorage;
+
+/**
+ * Benchmark for loading the application options at startup, it compares the STOptionsCodec with
+ * the XmlBeanStorage of the previous options format. Each measurement is a single load in a new
+ * JVM, so the results contain the class loading and initialization costs like at application
+ * startup.
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class OptionsStorageBenchmark {
+
+    /** Options file content, as written by STOptionsCodec. */
+    private static final List<String> OPTIONS_PROPERTIES = Arrays.asList(
+            "# SportsTracker options",
+            "format.version=1",
+            "initialView=Calendar",
+            "unitSystem=English",
+            "speedView=DistancePerHour",
+            "defaultAutoCalculation=Duration",
+            "saveOnExit=true",
+            "displaySecondDiagram=false",
+            "weekStartSunday=true",
+            "listViewShowAvgHeartrate=true",
+            "listViewShowAscent=true",
+            "listViewShowEnergy=false",
+            "listViewShowEquipment=false",
+            "listViewShowComment=false",
+            "previousExerciseDirectory=/home/user/exercises");
+
+    /** The same options in the previous XML format, as written by XmlBeanStorage. */
+    private static final List<String> OPTIONS_XML = Arrays.asList(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+            "<java version=\"1.8.0\" class=\"java.beans.XMLDecoder\">",
+            " <object class=\"de.saring.sportstracker.core.STOptions\">",
+            "  <void property=\"previousExerciseDirectory\">",
+            "   <string>/home/user/exercises</string>",
+            "  </void>",
+            "  <void property=\"saveOnExit\">",
+            "   <boolean>true</boolean>",
+            "  </void>",
+            "  <void property=\"unitSystem\">",
+            "   <object class=\"java.lang.Enum\" method=\"valueOf\">",
+            "    <class>de.saring.util.unitcalc.FormatUtils$UnitSystem</class>",
+            "    <string>English</string>",
+            "   </object>",
+            "  </void>",
+            "  <void property=\"weekStartSunday\">",
+            "   <boolean>true</boolean>",
+            "  </void>",
+            " </object>",
+            "</java>");
+
+    private Path tempDirectory;
+    private Path optionsFile;
+    private Path optionsXmlFile;
+
+    /**
+     * Creates the options files. They are written as text, so the measured load is the first usage
+     * of the STOptionsCodec or XmlBeanStorage in the JVM.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        tempDirectory = Files.createTempDirectory("st-benchmarks");
+        optionsFile = Files.write(tempDirectory.resolve("st-options.properties"), OPTIONS_PROPERTIES,
+                StandardCharsets.UTF_8);
+        optionsXmlFile = Files.write(tempDirectory.resolve("st-options.xml"), OPTIONS_XML, StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(optionsFile);
+        Files.deleteIfExists(optionsXmlFile);
+        Files.deleteIfExists(tempDirectory);
+    }
+
+    @Benchmark
+    public STOptions loadOptionsCodec() throws IOException {
+        return STOptionsCodec.read(optionsFile);
+    }
+
+    @Benchmark
+    public STOptions loadOptionsXmlBean() throws Exception {
+        return (STOptions) XmlBeanStorage.loadBean(optionsXmlFile.toString());
+    }
+}
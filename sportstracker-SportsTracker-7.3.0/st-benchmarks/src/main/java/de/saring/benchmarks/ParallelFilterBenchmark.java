@@ -0,0 +1,71 @@
+package de.saring.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.saring.benchmarks.data.DataGenerator;
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.EntryList;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+
+/**
+ * Benchmarks for the sequential and the parallel evaluation of EntryList.getEntriesForFilter(), they
+ * show the list size for which the parallel evaluation gets faster. The filter contains a date range
+ * only (cheap evaluation) or a date range and a regular expression comment search (expensive evaluation).
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelFilterBenchmark {
+
+    @Param({"1000", "10000", "50000", "100000", "500000"})
+    private int entryCount;
+
+    @Param({"date", "regex"})
+    private String filterMode;
+
+    @Param({"sequential", "parallel"})
+    private String evaluationMode;
+
+    private ExerciseList exerciseList;
+    private EntryFilter filter;
+
+    @Setup
+    public void setUp() {
+        final DataGenerator dataGenerator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        exerciseList = dataGenerator.createExerciseList(dataGenerator.createSportTypeList(),
+                DataGenerator.DEFAULT_START_DATE, entryCount, 1);
+        exerciseList.setParallelThreshold("parallel".equals(evaluationMode) ? 0 : Integer.MAX_VALUE);
+
+        filter = EntryFilter.createDefaultExerciseFilter();
+        filter.setDateStart(LocalDate.of(1990, 1, 1));
+        filter.setDateEnd(LocalDate.of(2999, 12, 31));
+        if ("regex".equals(filterMode)) {
+            filter.setRegularExpressionMode(true);
+            filter.setCommentSubString("hills.*(rain|headwind)");
+        }
+    }
+
+    @Benchmark
+    public EntryList<Exercise> getEntriesForFilter() {
+        return exerciseList.getEntriesForFilter(filter);
+    }
+}
@@ -0,0 +1,50 @@
+package de.saring.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.saring.benchmarks.data.DataGenerator;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.statistic.StatisticCalculator;
+
+/**
+ * Benchmark for the StatisticCalculator, it calculates the statistic of all exercises.
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticCalculatorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int entryCount;
+
+    private ExerciseList exerciseList;
+
+    @Setup
+    public void setUp() {
+        final DataGenerator dataGenerator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        exerciseList = dataGenerator.createExerciseList(dataGenerator.createSportTypeList(),
+                DataGenerator.DEFAULT_START_DATE, entryCount, 1);
+    }
+
+    @Benchmark
+    public StatisticCalculator calculateStatistic() {
+        return new StatisticCalculator(exerciseList);
+    }
+}
@@ -0,0 +1,81 @@
+package de.saring.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.saring.benchmarks.data.DataGenerator;
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.storage.XMLStorage;
+
+/**
+ * Benchmarks for reading and storing the exercise list by the XMLStorage. The files are stored in a
+ * temporary directory, it will be deleted after the benchmark.
+ *
+ * @author Stefan Saring
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XMLStorageBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int entryCount;
+
+    private final XMLStorage storage = new XMLStorage();
+
+    private Path tempDirectory;
+    private String exercisesFile;
+    private String exercisesStoreFile;
+    private SportTypeList sportTypeList;
+    private ExerciseList exerciseList;
+
+    @Setup
+    public void setUp() throws IOException, STException {
+        tempDirectory = Files.createTempDirectory("st-benchmarks");
+        exercisesFile = tempDirectory.resolve("exercises.xml").toString();
+        exercisesStoreFile = tempDirectory.resolve("exercises-store.xml").toString();
+
+        final DataGenerator dataGenerator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        sportTypeList = dataGenerator.createSportTypeList();
+        exerciseList = dataGenerator.createExerciseList(sportTypeList, DataGenerator.DEFAULT_START_DATE,
+                entryCount, 1);
+        storage.storeExerciseList(exerciseList, exercisesFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempDirectory.resolve("exercises.xml"));
+        Files.deleteIfExists(tempDirectory.resolve("exercises-store.xml"));
+        Files.deleteIfExists(tempDirectory);
+    }
+
+    @Benchmark
+    public ExerciseList readExerciseList() throws STException {
+        return storage.readExerciseList(exercisesFile, sportTypeList);
+    }
+
+    @Benchmark
+    public void storeExerciseList() throws STException {
+        storage.storeExerciseList(exerciseList, exercisesStoreFile);
+    }
+}
@@ -0,0 +1,337 @@
+package de.saring.benchmarks.data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.saring.sportstracker.data.Equipment;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.Note;
+import de.saring.sportstracker.data.NoteList;
+import de.saring.sportstracker.data.SportSubType;
+import de.saring.sportstracker.data.SportType;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.data.Weight;
+import de.saring.sportstracker.data.WeightList;
+import javafx.scene.paint.Color;
+
+/**
+ * Generator for synthetic application data (sport types, exercises, notes and weights) used by the
+ * benchmarks and soak tests. The data is created by a random generator with the specified seed, so
+ * the same seed always creates the same data.
+ * <p/>
+ * The generated data is similar to real user data: the sport types are used depending on the season,
+ * the speed, duration and heartrate of the exercises depend on the sport type and intensity, the
+ * distance is computed from speed and duration and the body weight changes slowly.
+ *
+ * @author Stefan Saring
+ */
+public final class DataGenerator {
+
+    /** Words used for the exercise and note comments. */
+    public static final String[] COMMENT_WORDS = {"easy", "tempo", "intervals", "hills", "recovery", "long",
+            "race", "group", "headwind", "rain", "sunny", "trail", "track", "commute", "tired", "strong"};
+
+    /** Default seed used by the benchmarks. */
+    public static final long DEFAULT_SEED = 4711;
+
+    /** Start date of the data used by the benchmarks. */
+    public static final LocalDate DEFAULT_START_DATE = LocalDate.of(2000, 1, 1);
+
+    private static final SportProfile[] SPORT_PROFILES = {
+            new SportProfile("Cycling", Color.rgb(30, 110, 220), true, 0.4, 0.6,
+                    new String[]{"Road", "MTB", "Commute"},
+                    new String[]{"Road bike", "Mountain bike", "City bike"},
+                    22f, 32f, 45, 240, 12),
+            new SportProfile("Running", Color.rgb(220, 40, 40), true, 0.3, 0.2,
+                    new String[]{"Road", "Trail", "Track"},
+                    new String[]{"Road shoes", "Trail shoes", "Spikes"},
+                    9f, 14f, 25, 120, 8),
+            new SportProfile("Swimming", Color.rgb(20, 180, 200), true, 0.1, -0.3,
+                    new String[]{"Pool", "Open water"},
+                    new String[]{"Wetsuit"},
+                    2.5f, 4f, 30, 75, 0),
+            new SportProfile("Hiking", Color.rgb(60, 160, 60), true, 0.1, 0.5,
+                    new String[]{"Walking", "Mountains"},
+                    new String[]{"Hiking boots"},
+                    3.5f, 5.5f, 60, 360, 40),
+            new SportProfile("Strength", Color.rgb(150, 90, 40), false, 0.1, -0.5,
+                    new String[]{"Gym", "Home"},
+                    new String[0],
+                    0f, 0f, 30, 90, 0)};
+
+    /** Speed factor for each intensity type (same order as the enum constants). */
+    private static final float[] SPEED_FACTORS = {0.85f, 0.92f, 1f, 1.06f, 1.12f, 1.02f};
+
+    /** Average heartrate for each intensity type (same order as the enum constants). */
+    private static final int[] HEART_RATES = {112, 125, 138, 152, 165, 148};
+
+    /** Relative frequency for each intensity type (same order as the enum constants). */
+    private static final int[] INTENSITY_WEIGHTS = {5, 25, 40, 15, 5, 10};
+
+    private static final double INITIAL_WEIGHT = 76.0;
+
+    private final Random random;
+
+    /**
+     * Creates a data generator with the specified seed.
+     *
+     * @param seed seed of the random generator
+     */
+    public DataGenerator(final long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates the sport type list, it contains the sport types Cycling, Running, Swimming, Hiking
+     * and Strength, each of them with subtypes and (except Strength) equipment.
+     *
+     * @return the created sport type list
+     */
+    public SportTypeList createSportTypeList() {
+        final SportTypeList sportTypeList = new SportTypeList();
+
+        for (int i = 0; i < SPORT_PROFILES.length; i++) {
+            final SportProfile profile = SPORT_PROFILES[i];
+            final SportType sportType = new SportType(i + 1);
+            sportType.setName(profile.name);
+            sportType.setRecordDistance(profile.recordDistance);
+            sportType.setColor(profile.color);
+
+            for (int j = 0; j < profile.subTypes.length; j++) {
+                final SportSubType subType = new SportSubType(j + 1);
+                subType.setName(profile.subTypes[j]);
+                sportType.getSportSubTypeList().set(subType);
+            }
+            for (int j = 0; j < profile.equipment.length; j++) {
+                final Equipment equipment = new Equipment(j + 1);
+                equipment.setName(profile.equipment[j]);
+                sportType.getEquipmentList().set(equipment);
+            }
+            sportTypeList.set(sportType);
+        }
+        return sportTypeList;
+    }
+
+    /**
+     * Creates an exercise list with the specified number of exercises, starting at the specified date.
+     * The passed sport type list must have been created by this generator.
+     *
+     * @param sportTypeList the sport types to use
+     * @param startDate date of the first exercise
+     * @param exerciseCount number of exercises to create
+     * @param exercisesPerDay average number of exercises per day (e.g. 0.5 or 3)
+     * @return the created exercise list
+     */
+    public ExerciseList createExerciseList(final SportTypeList sportTypeList, final LocalDate startDate,
+            final int exerciseCount, final double exercisesPerDay) {
+
+        final List<Exercise> exercises = new ArrayList<>(exerciseCount);
+        for (int i = 0; i < exerciseCount; i++) {
+            final LocalDateTime dateTime = getEntryDateTime(startDate, i, exercisesPerDay);
+            final int profileIndex = getSeasonalProfileIndex(dateTime.toLocalDate());
+            final SportType sportType = sportTypeList.getByID(profileIndex + 1);
+            exercises.add(createExercise(i + 1, dateTime, sportType, SPORT_PROFILES[profileIndex]));
+        }
+
+        // adding all exercises at once is much faster than inserting each exercise by date
+        final ExerciseList exerciseList = new ExerciseList();
+        exerciseList.clearAndAddAll(exercises);
+        return exerciseList;
+    }
+
+    /**
+     * Creates a note list with the specified number of notes, starting at the specified date.
+     *
+     * @param startDate date of the first note
+     * @param noteCount number of notes to create
+     * @param notesPerDay average number of notes per day
+     * @return the created note list
+     */
+    public NoteList createNoteList(final LocalDate startDate, final int noteCount, final double notesPerDay) {
+        final List<Note> notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            final Note note = new Note(i + 1);
+            note.setDateTime(getEntryDateTime(startDate, i, notesPerDay));
+            note.setComment(createComment(5, 40));
+            notes.add(note);
+        }
+
+        final NoteList noteList = new NoteList();
+        noteList.clearAndAddAll(notes);
+        return noteList;
+    }
+
+    /**
+     * Creates a weight list with the specified number of weights, starting at the specified date.
+     * The weight values are a slow random walk around the initial weight.
+     *
+     * @param startDate date of the first weight
+     * @param weightCount number of weights to create
+     * @param weightsPerDay average number of weights per day
+     * @return the created weight list
+     */
+    public WeightList createWeightList(final LocalDate startDate, final int weightCount,
+            final double weightsPerDay) {
+
+        final List<Weight> weights = new ArrayList<>(weightCount);
+        double value = INITIAL_WEIGHT;
+        for (int i = 0; i < weightCount; i++) {
+            // random walk, which is slowly pulled back to the initial weight
+            value += random.nextGaussian() * 0.3 + (INITIAL_WEIGHT - value) * 0.02;
+
+            final Weight weight = new Weight(i + 1);
+            weight.setDateTime(getEntryDateTime(startDate, i, weightsPerDay));
+            weight.setValue(Math.round(value * 10) / 10f);
+            if (random.nextInt(10) == 0) {
+                weight.setComment(createComment(1, 5));
+            }
+            weights.add(weight);
+        }
+
+        final WeightList weightList = new WeightList();
+        weightList.clearAndAddAll(weights);
+        return weightList;
+    }
+
+    private Exercise createExercise(final int id, final LocalDateTime dateTime, final SportType sportType,
+            final SportProfile profile) {
+
+        final Exercise.IntensityType intensity = getRandomIntensity();
+        final int intensityIndex = intensity.ordinal();
+
+        final Exercise exercise = new Exercise(id);
+        exercise.setDateTime(dateTime);
+        exercise.setSportType(sportType);
+        exercise.setSportSubType(sportType.getSportSubTypeList().getAt(
+                random.nextInt(sportType.getSportSubTypeList().size())));
+        if (sportType.getEquipmentList().size() > 0 && random.nextInt(5) > 0) {
+            exercise.setEquipment(sportType.getEquipmentList().getAt(
+                    random.nextInt(sportType.getEquipmentList().size())));
+        }
+        exercise.setIntensity(intensity);
+
+        // hard exercises are shorter than easy exercises
+        final double durationFactor = intensityIndex >= Exercise.IntensityType.HIGH.ordinal() ? 0.7 : 1.0;
+        final int durationMinutes = (int) ((profile.minDuration +
+                random.nextDouble() * (profile.maxDuration - profile.minDuration)) * durationFactor);
+        exercise.setDuration(Math.max(10, durationMinutes) * 60);
+
+        if (profile.recordDistance) {
+            final float speed = (profile.minSpeed + random.nextFloat() * (profile.maxSpeed - profile.minSpeed)) *
+                    SPEED_FACTORS[intensityIndex];
+            final float distance = Math.round(speed * exercise.getDuration() / 3600f * 100) / 100f;
+            exercise.setDistance(distance);
+            exercise.setAvgSpeed(distance / (exercise.getDuration() / 3600f));
+            exercise.setAscent((int) (distance * profile.ascentPerKm * (0.5 + random.nextDouble())));
+        }
+
+        final int heartRate = (int) Math.round(HEART_RATES[intensityIndex] + random.nextGaussian() * 5);
+        exercise.setAvgHeartRate(heartRate);
+        exercise.setCalories((int) (exercise.getDuration() / 60 * (4 + (heartRate - 100) * 0.12)));
+
+        if (random.nextInt(5) < 3) {
+            exercise.setComment(createComment(2, 15));
+        }
+        return exercise;
+    }
+
+    /**
+     * Returns the date and time of the entry with the specified index. The entries are distributed
+     * equally, the entries of a day are spread from the morning to the evening.
+     */
+    private LocalDateTime getEntryDateTime(final LocalDate startDate, final int index, final double entriesPerDay) {
+        final double dayPosition = index / entriesPerDay;
+        final int dayIndex = (int) dayPosition;
+        final int hour = 6 + (int) ((dayPosition - dayIndex) * 14);
+        return startDate.plusDays(dayIndex).atTime(hour, random.nextInt(60));
+    }
+
+    /**
+     * Returns the index of a random sport profile, the probability of each profile depends on the
+     * season of the specified date (peak of the outdoor sports is in July).
+     */
+    private int getSeasonalProfileIndex(final LocalDate date) {
+        final double season = Math.cos(2 * Math.PI * (date.getDayOfYear() - 196) / 365d);
+
+        final double[] weights = new double[SPORT_PROFILES.length];
+        double weightSum = 0;
+        for (int i = 0; i < SPORT_PROFILES.length; i++) {
+            weights[i] = SPORT_PROFILES[i].frequency * (1 + SPORT_PROFILES[i].seasonality * season);
+            weightSum += weights[i];
+        }
+
+        double value = random.nextDouble() * weightSum;
+        for (int i = 0; i < weights.length - 1; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private Exercise.IntensityType getRandomIntensity() {
+        int value = random.nextInt(100);
+        for (int i = 0; i < INTENSITY_WEIGHTS.length; i++) {
+            value -= INTENSITY_WEIGHTS[i];
+            if (value < 0) {
+                return Exercise.IntensityType.values()[i];
+            }
+        }
+        return Exercise.IntensityType.NORMAL;
+    }
+
+    private String createComment(final int minWords, final int maxWords) {
+        final StringBuilder sbComment = new StringBuilder();
+        final int wordCount = minWords + random.nextInt(maxWords - minWords + 1);
+        for (int i = 0; i < wordCount; i++) {
+            sbComment.append(i == 0 ? "" : " ").append(COMMENT_WORDS[random.nextInt(COMMENT_WORDS.length)]);
+        }
+        return sbComment.toString();
+    }
+
+    /**
+     * Properties of a generated sport type and of its exercises.
+     */
+    private static final class SportProfile {
+
+        private final String name;
+        private final Color color;
+        private final boolean recordDistance;
+        /** Relative frequency of this sport type. */
+        private final double frequency;
+        /** Seasonal variation of the frequency, positive values are more frequent in summer. */
+        private final double seasonality;
+        private final String[] subTypes;
+        private final String[] equipment;
+        /** Speed range in km/h. */
+        private final float minSpeed;
+        private final float maxSpeed;
+        /** Duration range in minutes. */
+        private final int minDuration;
+        private final int maxDuration;
+        /** Average ascent in meters per km. */
+        private final int ascentPerKm;
+
+        SportProfile(final String name, final Color color, final boolean recordDistance, final double frequency,
+                final double seasonality, final String[] subTypes, final String[] equipment, final float minSpeed,
+                final float maxSpeed, final int minDuration, final int maxDuration, final int ascentPerKm) {
+            this.name = name;
+            this.color = color;
+            this.recordDistance = recordDistance;
+            this.frequency = frequency;
+            this.seasonality = seasonality;
+            this.subTypes = subTypes;
+            this.equipment = equipment;
+            this.minSpeed = minSpeed;
+            this.maxSpeed = maxSpeed;
+            this.minDuration = minDuration;
+            this.maxDuration = maxDuration;
+            this.ascentPerKm = ascentPerKm;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package de.saring.benchmarks.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.NoteList;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.data.WeightList;
+import de.saring.sportstracker.storage.XMLStorage;
+
+/**
+ * Generates a complete synthetic data set of a preset and writes it by the XMLStorage into a directory,
+ * the file names are the same as in the SportsTracker data directory. The exercise files are written
+ * into the subdirectory "device-files", they are assigned to the most recent exercises with a distance
+ * and use the formats FIT, GPX and TCX alternately. All data sets end at the same date, so the same
+ * seed always creates the same data set.
+ * <p/>
+ * Usage: run the main method with the arguments "preset directory [seed]", e.g. "TEN_YEARS /tmp/st-data".
+ * The generated directory can be used by the benchmarks, for soak tests or as SportsTracker data
+ * directory.
+ *
+ * @author Stefan Saring
+ */
+public final class DataSetGenerator {
+
+    public static final String FILENAME_SPORT_TYPE_LIST = "sport-types.xml";
+    public static final String FILENAME_EXERCISE_LIST = "exercises.xml";
+    public static final String FILENAME_NOTE_LIST = "notes.xml";
+    public static final String FILENAME_WEIGHT_LIST = "weights.xml";
+    public static final String DIRECTORY_DEVICE_FILES = "device-files";
+
+    /** The date of the last day of all data sets. */
+    public static final LocalDate END_DATE = LocalDate.of(2016, 12, 31);
+
+    private static final DeviceFileGenerator.Format[] DEVICE_FILE_FORMATS = DeviceFileGenerator.Format.values();
+
+    private final long seed;
+    private final XMLStorage storage = new XMLStorage();
+
+    /**
+     * Creates a data set generator with the specified seed.
+     *
+     * @param seed seed of the random generators
+     */
+    public DataSetGenerator(final long seed) {
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException, STException {
+        if (args.length < 2) {
+            System.err.println("Usage: DataSetGenerator <preset> <directory> [seed]");
+            System.err.println("Presets: " + Arrays.toString(DataSetPreset.values()));
+            System.exit(1);
+            return;
+        }
+
+        final DataSetPreset preset = DataSetPreset.valueOf(args[0]);
+        final Path directory = Paths.get(args[1]);
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : DataGenerator.DEFAULT_SEED;
+
+        final long startTime = System.currentTimeMillis();
+        new DataSetGenerator(seed).generate(preset, directory);
+        System.out.printf("Generated data set %s in %s (%d exercises, %d notes, %d weights, %d exercise " +
+                        "files) in %d ms%n", preset, directory.toAbsolutePath(), preset.getExerciseCount(),
+                preset.getNoteCount(), preset.getWeightCount(), preset.getDeviceFileCount(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Generates the data set of the specified preset and writes all files into the specified directory.
+     * Existing files will be overwritten.
+     *
+     * @param preset the data set preset
+     * @param directory the directory to write to (will be created when missing)
+     * @throws IOException on failures of writing the exercise files
+     * @throws STException on failures of storing the application data
+     */
+    public void generate(final DataSetPreset preset, final Path directory) throws IOException, STException {
+        final LocalDate startDate = END_DATE.minusDays(preset.getDays() - 1);
+        final DataGenerator dataGenerator = new DataGenerator(seed);
+
+        final SportTypeList sportTypeList = dataGenerator.createSportTypeList();
+        final ExerciseList exerciseList = dataGenerator.createExerciseList(sportTypeList, startDate,
+                preset.getExerciseCount(), preset.getExercisesPerDay());
+        final NoteList noteList = dataGenerator.createNoteList(startDate, preset.getNoteCount(),
+                preset.getNotesPerDay());
+        final WeightList weightList = dataGenerator.createWeightList(startDate, preset.getWeightCount(),
+                preset.getWeightsPerDay());
+
+        Files.createDirectories(directory);
+        writeDeviceFiles(preset, exerciseList, directory.resolve(DIRECTORY_DEVICE_FILES));
+
+        storage.storeSportTypeList(sportTypeList, directory.resolve(FILENAME_SPORT_TYPE_LIST).toString());
+        storage.storeExerciseList(exerciseList, directory.resolve(FILENAME_EXERCISE_LIST).toString());
+        storage.storeNoteList(noteList, directory.resolve(FILENAME_NOTE_LIST).toString());
+        storage.storeWeightList(weightList, directory.resolve(FILENAME_WEIGHT_LIST).toString());
+    }
+
+    /**
+     * Writes the exercise files for the most recent exercises with a distance. The duration and distance
+     * of these exercises will be updated to the values of the exercise file.
+     */
+    private void writeDeviceFiles(final DataSetPreset preset, final ExerciseList exerciseList,
+            final Path deviceFileDirectory) throws IOException {
+
+        final DeviceFileGenerator deviceFileGenerator = new DeviceFileGenerator(seed);
+        final int sampleCount = preset.getDeviceFileSamples();
+        int fileCount = 0;
+
+        for (int i = exerciseList.size() - 1; i >= 0 && fileCount < preset.getDeviceFileCount(); i--) {
+            final Exercise exercise = exerciseList.getAt(i);
+            if (exercise.getDistance() <= 0) {
+                continue;
+            }
+
+            if (fileCount == 0) {
+                Files.createDirectories(deviceFileDirectory);
+            }
+            final DeviceFileGenerator.Format format = DEVICE_FILE_FORMATS[fileCount % DEVICE_FILE_FORMATS.length];
+            final Path deviceFile = deviceFileDirectory.resolve(
+                    "exercise-" + exercise.getId() + "." + format.getSuffix());
+
+            final ExerciseSampleColumns samples = deviceFileGenerator.createSamples(
+                    sampleCount, 1, exercise.getAvgSpeed());
+            DeviceFileGenerator.writeDeviceFile(format, deviceFile, exercise.getDateTime(), samples);
+
+            final float distance = samples.getDistance(sampleCount - 1) / 1000f;
+            exercise.setDuration(sampleCount);
+            exercise.setDistance(distance);
+            exercise.setAvgSpeed(distance / (sampleCount / 3600f));
+            exercise.setHrmFile(deviceFile.toAbsolutePath().toString());
+            fileCount++;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.saring.benchmarks.data;
+
+/**
+ * Presets of the data sets created by the DataSetGenerator, they define the time range, the number of
+ * entries per day and the number and size of the exercise files.
+ *
+ * @author Stefan Saring
+ */
+public enum DataSetPreset {
+
+    /** One year of typical usage, some of the exercises have an exercise file of one hour. */
+    ONE_YEAR(365, 0.8, 0.1, 0.3, 10, 3600),
+
+    /** Ten years of typical usage, some of the exercises have an exercise file of one hour. */
+    TEN_YEARS(10 * 365, 0.8, 0.1, 0.3, 20, 3600),
+
+    /** Fifty years with three exercises and one weight per day (stress test for the lists and storage). */
+    FIFTY_YEARS_MULTI_DAILY(50 * 365, 3, 0.2, 1, 20, 3600),
+
+    /** One day with an exercise file of 24 hours recorded at 1 Hz (stress test for the parsers). */
+    ONE_HZ_24H(1, 3, 0, 1, 1, 24 * 60 * 60);
+
+    private final int days;
+    private final double exercisesPerDay;
+    private final double notesPerDay;
+    private final double weightsPerDay;
+    private final int deviceFileCount;
+    private final int deviceFileSamples;
+
+    DataSetPreset(final int days, final double exercisesPerDay, final double notesPerDay,
+            final double weightsPerDay, final int deviceFileCount, final int deviceFileSamples) {
+        this.days = days;
+        this.exercisesPerDay = exercisesPerDay;
+        this.notesPerDay = notesPerDay;
+        this.weightsPerDay = weightsPerDay;
+        this.deviceFileCount = deviceFileCount;
+        this.deviceFileSamples = deviceFileSamples;
+    }
+
+    /**
+     * Returns the number of days of the data set.
+     *
+     * @return number of days
+     */
+    public int getDays() {
+        return days;
+    }
+
+    public int getExerciseCount() {
+        return (int) Math.ceil(days * exercisesPerDay);
+    }
+
+    public double getExercisesPerDay() {
+        return exercisesPerDay;
+    }
+
+    public int getNoteCount() {
+        return (int) Math.ceil(days * notesPerDay);
+    }
+
+    public double getNotesPerDay() {
+        return notesPerDay;
+    }
+
+    public int getWeightCount() {
+        return (int) Math.ceil(days * weightsPerDay);
+    }
+
+    public double getWeightsPerDay() {
+        return weightsPerDay;
+    }
+
+    /**
+     * Returns the number of exercises with an exercise file (these are the most recent exercises with
+     * a distance, so there can be less exercise files in very small data sets).
+     *
+     * @return number of exercise files
+     */
+    public int getDeviceFileCount() {
+        return deviceFileCount;
+    }
+
+    /**
+     * Returns the number of samples in each exercise file, the recording interval is one second.
+     *
+     * @return number of samples
+     */
+    public int getDeviceFileSamples() {
+        return deviceFileSamples;
+    }
+}
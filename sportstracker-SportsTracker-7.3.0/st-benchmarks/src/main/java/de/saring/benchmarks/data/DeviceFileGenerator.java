@@ -0,0 +1,345 @@
+package de.saring.benchmarks.data;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+import com.garmin.fit.DateTime;
+import com.garmin.fit.FileEncoder;
+import com.garmin.fit.FileIdMesg;
+import com.garmin.fit.LapMesg;
+import com.garmin.fit.Manufacturer;
+import com.garmin.fit.RecordMesg;
+import com.garmin.fit.SessionMesg;
+
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
+import de.saring.util.Date310Utils;
+
+/**
+ * Generator for synthetic exercise files of heartrate monitor devices (FIT, GPX and TCX) with a
+ * configurable number of samples. The samples are created by a random generator with the specified
+ * seed, the values are similar to a real bike ride: the speed and heading vary slowly, the altitude
+ * follows rolling hills and the heartrate follows the speed and the gradient with some delay.
+ * <p/>
+ * The samples are created as ExerciseSampleColumns first, so the same samples can be written in all
+ * file formats and can be compared with the parsed exercise files.
+ *
+ * @author Stefan Saring
+ */
+public final class DeviceFileGenerator {
+
+    /**
+     * The supported file formats.
+     */
+    public enum Format {
+        FIT("fit"), GPX("gpx"), TCX("tcx");
+
+        private final String suffix;
+
+        Format(final String suffix) {
+            this.suffix = suffix;
+        }
+
+        /**
+         * Returns the filename suffix of this format (without the dot).
+         *
+         * @return the suffix
+         */
+        public String getSuffix() {
+            return suffix;
+        }
+    }
+
+    /** Duration of a lap in seconds. */
+    private static final int LAP_DURATION = 10 * 60;
+
+    private static final double START_LATITUDE = 51.05;
+    private static final double START_LONGITUDE = 13.74;
+    private static final double METERS_PER_DEGREE = 111_320;
+    private static final double SEMICIRCLES_PER_DEGREE = Math.pow(2, 31) / 180;
+
+    /** Time format of GPX and TCX files, the values are parsed as local time by the ExerciseViewer. */
+    private static final DateTimeFormatter XML_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+
+    private final Random random;
+
+    /**
+     * Creates a device file generator with the specified seed.
+     *
+     * @param seed seed of the random generator
+     */
+    public DeviceFileGenerator(final long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates the samples of an exercise. The sample timestamps are relative to the exercise start.
+     *
+     * @param sampleCount number of samples
+     * @param recordingInterval recording interval in seconds
+     * @param avgSpeed average speed in km/h
+     * @return the created samples
+     */
+    public ExerciseSampleColumns createSamples(final int sampleCount, final int recordingInterval,
+            final float avgSpeed) {
+
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(sampleCount);
+        final double hillPhase = random.nextDouble() * 2 * Math.PI;
+        final double rollerPhase = random.nextDouble() * 2 * Math.PI;
+
+        double speed = avgSpeed;
+        double heartRate = 100;
+        double heading = random.nextDouble() * 2 * Math.PI;
+        double distance = 0;
+        double latitude = START_LATITUDE;
+        double longitude = START_LONGITUDE;
+        double altitude = getAltitude(0, hillPhase, rollerPhase);
+
+        for (int i = 0; i < sampleCount; i++) {
+            final double nextAltitude = getAltitude(distance, hillPhase, rollerPhase);
+            final double gradient = i == 0 ? 0 : (nextAltitude - altitude) / Math.max(1, speed / 3.6 *
+                    recordingInterval);
+            altitude = nextAltitude;
+
+            // the speed varies around the average and is slower uphill, the heartrate follows with delay
+            final double targetSpeed = avgSpeed * (1 - Math.max(-0.3, Math.min(0.6, gradient * 8)));
+            speed = Math.max(0, speed + (targetSpeed - speed) * 0.05 + random.nextGaussian() * 0.5);
+            final double targetHeartRate = 95 + 45 * speed / avgSpeed + gradient * 300;
+            heartRate += (targetHeartRate - heartRate) * Math.min(1, 0.05 * recordingInterval) +
+                    random.nextGaussian();
+
+            samples.setTimestamp(i, i * recordingInterval * 1000L);
+            samples.setHeartRate(i, (short) Math.max(60, Math.min(200, Math.round(heartRate))));
+            samples.setSpeed(i, (float) speed);
+            samples.setAltitude(i, (short) Math.round(altitude));
+            samples.setCadence(i, (short) (speed < 1 ? 0 : 80 + random.nextInt(15)));
+            samples.setDistance(i, (int) distance);
+            samples.setPosition(i, latitude, longitude);
+
+            // move to the position of the next sample
+            final double sampleDistance = speed / 3.6 * recordingInterval;
+            heading += random.nextGaussian() * 0.05;
+            distance += sampleDistance;
+            latitude += sampleDistance * Math.cos(heading) / METERS_PER_DEGREE;
+            longitude += sampleDistance * Math.sin(heading) /
+                    (METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude)));
+        }
+        return samples;
+    }
+
+    private static double getAltitude(final double distance, final double hillPhase, final double rollerPhase) {
+        return 300 + 80 * Math.sin(2 * Math.PI * distance / 15_000 + hillPhase) +
+                15 * Math.sin(2 * Math.PI * distance / 2_300 + rollerPhase);
+    }
+
+    /**
+     * Writes the exercise file with the specified samples in the specified format. The exercise
+     * contains a lap for each 10 minutes.
+     *
+     * @param format the file format
+     * @param file the file to write
+     * @param startDateTime start date and time of the exercise
+     * @param samples the samples of the exercise
+     * @throws IOException on writing failures
+     */
+    public static void writeDeviceFile(final Format format, final Path file, final LocalDateTime startDateTime,
+            final ExerciseSampleColumns samples) throws IOException {
+
+        switch (format) {
+            case FIT:
+                writeFitFile(file, startDateTime, samples);
+                break;
+            case GPX:
+                writeGpxFile(file, startDateTime, samples);
+                break;
+            case TCX:
+                writeTcxFile(file, startDateTime, samples);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported format " + format + "!");
+        }
+    }
+
+    private static void writeFitFile(final Path file, final LocalDateTime startDateTime,
+            final ExerciseSampleColumns samples) throws IOException {
+
+        final long startMillis = Date310Utils.getMilliseconds(startDateTime);
+        final FileEncoder encoder = new FileEncoder(file.toFile());
+
+        final FileIdMesg fileIdMesg = new FileIdMesg();
+        fileIdMesg.setType(com.garmin.fit.File.ACTIVITY);
+        fileIdMesg.setManufacturer(Manufacturer.GARMIN);
+        fileIdMesg.setTimeCreated(new DateTime(new Date(startMillis)));
+        encoder.write(fileIdMesg);
+
+        final LapWriter lapWriter = new LapWriter(samples) {
+            @Override
+            void writeLap(final int startIndex, final int lastIndex, final int avgHeartRate,
+                    final int maxHeartRate, final int ascent) {
+                final LapMesg lapMesg = new LapMesg();
+                lapMesg.setTimestamp(new DateTime(new Date(startMillis + samples.getTimestamp(lastIndex))));
+                lapMesg.setStartTime(new DateTime(new Date(startMillis + samples.getTimestamp(startIndex))));
+                lapMesg.setTotalTimerTime((samples.getTimestamp(lastIndex) - samples.getTimestamp(startIndex)) /
+                        1000f);
+                lapMesg.setTotalDistance((float) (samples.getDistance(lastIndex) - samples.getDistance(startIndex)));
+                lapMesg.setAvgHeartRate((short) avgHeartRate);
+                lapMesg.setMaxHeartRate((short) maxHeartRate);
+                lapMesg.setTotalAscent(ascent);
+                encoder.write(lapMesg);
+            }
+        };
+
+        for (int i = 0; i < samples.size(); i++) {
+            final RecordMesg recordMesg = new RecordMesg();
+            recordMesg.setTimestamp(new DateTime(new Date(startMillis + samples.getTimestamp(i))));
+            recordMesg.setHeartRate(samples.getHeartRate(i));
+            recordMesg.setDistance((float) samples.getDistance(i));
+            recordMesg.setSpeed(samples.getSpeed(i) / 3.6f);
+            recordMesg.setAltitude((float) samples.getAltitude(i));
+            recordMesg.setCadence(samples.getCadence(i));
+            recordMesg.setPositionLat((int) Math.round(samples.getLatitudes()[i] * SEMICIRCLES_PER_DEGREE));
+            recordMesg.setPositionLong((int) Math.round(samples.getLongitudes()[i] * SEMICIRCLES_PER_DEGREE));
+            encoder.write(recordMesg);
+            lapWriter.addSample(i);
+        }
+
+        final int lastIndex = samples.size() - 1;
+        final SessionMesg sessionMesg = new SessionMesg();
+        sessionMesg.setTimestamp(new DateTime(new Date(startMillis + samples.getTimestamp(lastIndex))));
+        sessionMesg.setStartTime(new DateTime(new Date(startMillis)));
+        sessionMesg.setTotalTimerTime(samples.getTimestamp(lastIndex) / 1000f);
+        sessionMesg.setTotalDistance((float) samples.getDistance(lastIndex));
+        sessionMesg.setAvgSpeed(samples.getDistance(lastIndex) / Math.max(1f, samples.getTimestamp(lastIndex) / 1000f));
+        sessionMesg.setTotalAscent(lapWriter.totalAscent);
+        sessionMesg.setStartPositionLat((int) Math.round(START_LATITUDE * SEMICIRCLES_PER_DEGREE));
+        sessionMesg.setStartPositionLong((int) Math.round(START_LONGITUDE * SEMICIRCLES_PER_DEGREE));
+        encoder.write(sessionMesg);
+
+        encoder.close();
+    }
+
+    private static void writeGpxFile(final Path file, final LocalDateTime startDateTime,
+            final ExerciseSampleColumns samples) throws IOException {
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\" ?>\n");
+            writer.write("<gpx creator=\"SportsTracker DeviceFileGenerator\" version=\"1.1\" " +
+                    "xmlns=\"http://www.topografix.com/GPX/1/1\" " +
+                    "xmlns:gpxtpx=\"http://www.garmin.com/xmlschemas/TrackPointExtension/v1\">\n");
+            writer.write("<metadata><time>" + XML_TIME_FORMAT.format(startDateTime) + "</time></metadata>\n");
+            writer.write("<trk><name>Generated exercise</name><trkseg>\n");
+
+            for (int i = 0; i < samples.size(); i++) {
+                writer.write(String.format(Locale.ROOT, "<trkpt lat=\"%.7f\" lon=\"%.7f\">",
+                        samples.getLatitudes()[i], samples.getLongitudes()[i]));
+                writer.write("<ele>" + samples.getAltitude(i) + "</ele>");
+                writer.write("<time>" + getXmlTime(startDateTime, samples, i) + "</time>");
+                writer.write("<extensions><gpxtpx:TrackPointExtension><gpxtpx:hr>" + samples.getHeartRate(i) +
+                        "</gpxtpx:hr></gpxtpx:TrackPointExtension></extensions></trkpt>\n");
+            }
+            writer.write("</trkseg></trk>\n</gpx>\n");
+        }
+    }
+
+    private static void writeTcxFile(final Path file, final LocalDateTime startDateTime,
+            final ExerciseSampleColumns samples) throws IOException {
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\" ?>\n");
+            writer.write("<TrainingCenterDatabase " +
+                    "xmlns=\"http://www.garmin.com/xmlschemas/TrainingCenterDatabase/v2\">\n");
+            writer.write("<Activities>\n<Activity Sport=\"Biking\">\n");
+            writer.write("<Id>" + XML_TIME_FORMAT.format(startDateTime) + "</Id>\n");
+
+            // the lap summary is written before the trackpoints, so all laps are written to a buffer first
+            final StringBuilder sbLap = new StringBuilder();
+            final LapWriter lapWriter = new LapWriter(samples) {
+                @Override
+                void writeLap(final int startIndex, final int lastIndex, final int avgHeartRate,
+                        final int maxHeartRate, final int ascent) throws IOException {
+                    final long lapMillis = samples.getTimestamp(lastIndex) - samples.getTimestamp(startIndex);
+                    writer.write("<Lap StartTime=\"" + getXmlTime(startDateTime, samples, startIndex) + "\">\n");
+                    writer.write(String.format(Locale.ROOT, "<TotalTimeSeconds>%.1f</TotalTimeSeconds>\n",
+                            lapMillis / 1000d));
+                    writer.write("<DistanceMeters>" +
+                            (samples.getDistance(lastIndex) - samples.getDistance(startIndex)) + "</DistanceMeters>\n");
+                    writer.write("<Calories>" + (lapMillis / 1000 / 6) + "</Calories>\n");
+                    writer.write("<AverageHeartRateBpm><Value>" + avgHeartRate + "</Value></AverageHeartRateBpm>\n");
+                    writer.write("<MaximumHeartRateBpm><Value>" + maxHeartRate + "</Value></MaximumHeartRateBpm>\n");
+                    writer.write("<Track>\n");
+                    writer.write(sbLap.toString());
+                    writer.write("</Track>\n</Lap>\n");
+                    sbLap.setLength(0);
+                }
+            };
+
+            for (int i = 0; i < samples.size(); i++) {
+                sbLap.append("<Trackpoint><Time>").append(getXmlTime(startDateTime, samples, i)).append("</Time>");
+                sbLap.append(String.format(Locale.ROOT, "<Position><LatitudeDegrees>%.7f</LatitudeDegrees>" +
+                                "<LongitudeDegrees>%.7f</LongitudeDegrees></Position>",
+                        samples.getLatitudes()[i], samples.getLongitudes()[i]));
+                sbLap.append("<AltitudeMeters>").append(samples.getAltitude(i)).append("</AltitudeMeters>");
+                sbLap.append("<DistanceMeters>").append(samples.getDistance(i)).append("</DistanceMeters>");
+                sbLap.append("<HeartRateBpm><Value>").append(samples.getHeartRate(i)).append("</Value></HeartRateBpm>");
+                sbLap.append("<Cadence>").append(samples.getCadence(i)).append("</Cadence></Trackpoint>\n");
+                lapWriter.addSample(i);
+            }
+            writer.write("</Activity>\n</Activities>\n</TrainingCenterDatabase>\n");
+        }
+    }
+
+    private static String getXmlTime(final LocalDateTime startDateTime, final ExerciseSampleColumns samples,
+            final int index) {
+        return XML_TIME_FORMAT.format(startDateTime.plusNanos(samples.getTimestamp(index) * 1_000_000));
+    }
+
+    /**
+     * Helper for splitting the samples into laps of 10 minutes. It computes the lap summary of the added
+     * samples and calls writeLap() for each completed lap and for the last sample. A lap starts at the
+     * last sample of the previous lap, so there are no time gaps between the laps.
+     */
+    private abstract static class LapWriter {
+
+        private final ExerciseSampleColumns samples;
+
+        private int lapStartIndex;
+        private long heartRateSum;
+        private int maxHeartRate;
+        private int lapAscent;
+        private int totalAscent;
+
+        LapWriter(final ExerciseSampleColumns samples) {
+            this.samples = samples;
+        }
+
+        void addSample(final int index) throws IOException {
+            heartRateSum += samples.getHeartRate(index);
+            maxHeartRate = Math.max(maxHeartRate, samples.getHeartRate(index));
+            if (index > 0 && samples.getAltitude(index) > samples.getAltitude(index - 1)) {
+                lapAscent += samples.getAltitude(index) - samples.getAltitude(index - 1);
+            }
+
+            final long lapMillis = samples.getTimestamp(index) - samples.getTimestamp(lapStartIndex);
+            if (lapMillis >= LAP_DURATION * 1000L || index == samples.size() - 1) {
+                final int lapSampleCount = index - lapStartIndex + (lapStartIndex == 0 ? 1 : 0);
+                writeLap(lapStartIndex, index, (int) (heartRateSum / lapSampleCount), maxHeartRate, lapAscent);
+                totalAscent += lapAscent;
+                lapStartIndex = index;
+                heartRateSum = 0;
+                maxHeartRate = 0;
+                lapAscent = 0;
+            }
+        }
+
+        abstract void writeLap(int startIndex, int lastIndex, int avgHeartRate, int maxHeartRate, int ascent)
+                throws IOException;
+    }
+}
@@ -0,0 +1,96 @@
+package de.saring.benchmarks.data;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.data.WeightList;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the DataGenerator class.
+ *
+ * @author Stefan Saring
+ */
+public class DataGeneratorTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2010, 1, 1);
+
+    /**
+     * The same seed must create the same data, a different seed must create different data.
+     */
+    @Test
+    public void testSeed() {
+        final String data1 = createDataString(4711);
+        final String data2 = createDataString(4711);
+        final String data3 = createDataString(4712);
+
+        assertEquals(data1, data2);
+        assertNotEquals(data1, data3);
+    }
+
+    /**
+     * The exercises must be sorted by date and be distributed as requested, the exercise values must
+     * be consistent.
+     */
+    @Test
+    public void testCreateExerciseList() {
+        final DataGenerator generator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        final SportTypeList sportTypeList = generator.createSportTypeList();
+        final ExerciseList exerciseList = generator.createExerciseList(sportTypeList, START_DATE, 3000, 3);
+
+        assertEquals(3000, exerciseList.size());
+        assertEquals(START_DATE, exerciseList.getAt(0).getDateTime().toLocalDate());
+        assertEquals(START_DATE.plusDays(999), exerciseList.getAt(2999).getDateTime().toLocalDate());
+
+        for (int i = 0; i < exerciseList.size(); i++) {
+            final Exercise exercise = exerciseList.getAt(i);
+            if (i > 0) {
+                assertFalse(exercise.getDateTime().isBefore(exerciseList.getAt(i - 1).getDateTime()));
+            }
+            assertTrue(exercise.getDuration() > 0);
+            assertTrue(exercise.getAvgHeartRate() > 80 && exercise.getAvgHeartRate() < 200);
+
+            if (exercise.getSportType().isRecordDistance()) {
+                assertTrue(exercise.getDistance() > 0);
+                assertEquals(exercise.getDistance(), exercise.getAvgSpeed() * exercise.getDuration() / 3600f, 0.01f);
+            } else {
+                assertEquals(0f, exercise.getDistance(), 0f);
+            }
+        }
+    }
+
+    /**
+     * The weights must change slowly around the initial weight.
+     */
+    @Test
+    public void testCreateWeightList() {
+        final WeightList weightList = new DataGenerator(DataGenerator.DEFAULT_SEED)
+                .createWeightList(START_DATE, 1000, 1);
+
+        assertEquals(1000, weightList.size());
+        for (int i = 1; i < weightList.size(); i++) {
+            assertTrue(Math.abs(weightList.getAt(i).getValue() - weightList.getAt(i - 1).getValue()) < 2f);
+            assertTrue(weightList.getAt(i).getValue() > 60f && weightList.getAt(i).getValue() < 90f);
+        }
+    }
+
+    private static String createDataString(final long seed) {
+        final DataGenerator generator = new DataGenerator(seed);
+        final SportTypeList sportTypeList = generator.createSportTypeList();
+
+        final StringBuilder sbData = new StringBuilder();
+        // Exercise.toString() can't be used, it needs the application resources for the intensity
+        generator.createExerciseList(sportTypeList, START_DATE, 200, 1).forEach(exercise -> sbData
+                .append(exercise.getDateTime()).append(exercise.getSportType().getId())
+                .append(exercise.getIntensity().toStringEnum()).append(exercise.getDuration())
+                .append(exercise.getDistance()).append(exercise.getAvgHeartRate()).append(exercise.getComment()));
+        generator.createNoteList(START_DATE, 50, 0.5).forEach(sbData::append);
+        generator.createWeightList(START_DATE, 50, 0.5).forEach(sbData::append);
+        return sbData.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package de.saring.benchmarks.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.storage.XMLStorage;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the DataSetGenerator class.
+ *
+ * @author Stefan Saring
+ */
+public class DataSetGeneratorTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * The generated data set must be readable by the XMLStorage, the most recent exercises must
+     * reference the generated exercise files.
+     */
+    @Test
+    public void testGenerateOneYear() throws IOException, STException {
+        final Path directory = tempFolder.getRoot().toPath();
+        new DataSetGenerator(DataGenerator.DEFAULT_SEED).generate(DataSetPreset.ONE_YEAR, directory);
+
+        final XMLStorage storage = new XMLStorage();
+        final SportTypeList sportTypeList = storage.readSportTypeList(
+                directory.resolve(DataSetGenerator.FILENAME_SPORT_TYPE_LIST).toString());
+        final ExerciseList exerciseList = storage.readExerciseList(
+                directory.resolve(DataSetGenerator.FILENAME_EXERCISE_LIST).toString(), sportTypeList);
+
+        assertEquals(DataSetPreset.ONE_YEAR.getExerciseCount(), exerciseList.size());
+        assertEquals(DataSetPreset.ONE_YEAR.getNoteCount(), storage.readNoteList(
+                directory.resolve(DataSetGenerator.FILENAME_NOTE_LIST).toString()).size());
+        assertEquals(DataSetPreset.ONE_YEAR.getWeightCount(), storage.readWeightList(
+                directory.resolve(DataSetGenerator.FILENAME_WEIGHT_LIST).toString()).size());
+        assertFalse(exerciseList.getAt(exerciseList.size() - 1).getDateTime().toLocalDate()
+                .isAfter(DataSetGenerator.END_DATE));
+
+        final long exercisesWithFile = exerciseList.stream().filter(exercise -> exercise.getHrmFile() != null)
+                .peek(exercise -> assertTrue(Files.exists(Paths.get(exercise.getHrmFile()))))
+                .count();
+        assertEquals(DataSetPreset.ONE_YEAR.getDeviceFileCount(), exercisesWithFile);
+
+        final Exercise exerciseWithFile = exerciseList.stream()
+                .filter(exercise -> exercise.getHrmFile() != null).findFirst().get();
+        assertEquals(DataSetPreset.ONE_YEAR.getDeviceFileSamples(), exerciseWithFile.getDuration());
+    }
+}
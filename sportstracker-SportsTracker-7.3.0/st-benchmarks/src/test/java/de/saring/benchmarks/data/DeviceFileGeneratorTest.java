@@ -0,0 +1,99 @@
+package de.saring.benchmarks.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
+import de.saring.exerciseviewer.parser.ExerciseParser;
+import de.saring.exerciseviewer.parser.impl.GarminTcxParser;
+import de.saring.exerciseviewer.parser.impl.TopoGrafixGpxParser;
+import de.saring.exerciseviewer.parser.impl.garminfit.GarminFitParser;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the DeviceFileGenerator class. The generated exercise files
+ * are parsed by the ExerciseViewer parsers and compared with the generated samples.
+ *
+ * @author Stefan Saring
+ */
+public class DeviceFileGeneratorTest {
+
+    private static final int SAMPLE_COUNT = 1800;
+    private static final LocalDateTime START_DATE_TIME = LocalDateTime.of(2016, 6, 12, 9, 30, 0);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * The same seed must create the same samples, the sample values must be in realistic ranges.
+     */
+    @Test
+    public void testCreateSamples() {
+        final ExerciseSampleColumns samples1 = new DeviceFileGenerator(42).createSamples(SAMPLE_COUNT, 1, 25f);
+        final ExerciseSampleColumns samples2 = new DeviceFileGenerator(42).createSamples(SAMPLE_COUNT, 1, 25f);
+
+        assertArrayEquals(samples1.getHeartRates(), samples2.getHeartRates());
+        assertArrayEquals(samples1.getDistances(), samples2.getDistances());
+        assertArrayEquals(samples1.getLatitudes(), samples2.getLatitudes(), 0d);
+
+        assertEquals((SAMPLE_COUNT - 1) * 1000L, samples1.getTimestamp(SAMPLE_COUNT - 1));
+        // average speed must be close to 25 km/h
+        assertEquals(SAMPLE_COUNT / 3600d * 25_000, samples1.getDistance(SAMPLE_COUNT - 1), 2_500);
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            assertTrue(samples1.getHeartRate(i) >= 60 && samples1.getHeartRate(i) <= 200);
+            assertTrue(samples1.getAltitude(i) >= 200 && samples1.getAltitude(i) <= 400);
+        }
+    }
+
+    @Test
+    public void testWriteFitFile() throws IOException, EVException {
+        final EVExercise exercise = writeAndParse(DeviceFileGenerator.Format.FIT, new GarminFitParser());
+        assertEquals(EVExercise.ExerciseFileType.GARMIN_FIT, exercise.getFileType());
+    }
+
+    @Test
+    public void testWriteGpxFile() throws IOException, EVException {
+        final EVExercise exercise = writeAndParse(DeviceFileGenerator.Format.GPX, new TopoGrafixGpxParser());
+        assertEquals(EVExercise.ExerciseFileType.GPX, exercise.getFileType());
+    }
+
+    @Test
+    public void testWriteTcxFile() throws IOException, EVException {
+        final EVExercise exercise = writeAndParse(DeviceFileGenerator.Format.TCX, new GarminTcxParser());
+        assertEquals(EVExercise.ExerciseFileType.GARMIN_TCX, exercise.getFileType());
+        assertEquals(3, exercise.getLapList().length);
+    }
+
+    /**
+     * Writes the exercise file of generated samples and checks the parsed samples.
+     */
+    private EVExercise writeAndParse(final DeviceFileGenerator.Format format, final ExerciseParser parser)
+            throws IOException, EVException {
+
+        final ExerciseSampleColumns samples = new DeviceFileGenerator(42).createSamples(SAMPLE_COUNT, 1, 25f);
+        final Path file = tempFolder.getRoot().toPath().resolve("exercise." + format.getSuffix());
+        DeviceFileGenerator.writeDeviceFile(format, file, START_DATE_TIME, samples);
+
+        final EVExercise exercise = parser.parseExercise(file.toString());
+        assertEquals(START_DATE_TIME, exercise.getDateTime());
+        assertEquals(SAMPLE_COUNT, exercise.getSampleCount());
+
+        final ExerciseSampleColumns parsedSamples = exercise.getSampleColumns();
+        for (int i = 0; i < SAMPLE_COUNT; i += 100) {
+            assertEquals(samples.getTimestamp(i), parsedSamples.getTimestamp(i));
+            assertEquals(samples.getHeartRate(i), parsedSamples.getHeartRate(i));
+            assertEquals(samples.getAltitude(i), parsedSamples.getAltitude(i));
+            assertEquals(samples.getLatitudes()[i], parsedSamples.getLatitudes()[i], 0.00001d);
+            assertEquals(samples.getLongitudes()[i], parsedSamples.getLongitudes()[i], 0.00001d);
+        }
+        return exercise;
+    }
+}
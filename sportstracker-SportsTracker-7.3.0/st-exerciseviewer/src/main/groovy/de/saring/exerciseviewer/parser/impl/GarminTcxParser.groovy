@@ -3,6 +3,7 @@ package de.saring.exerciseviewer.parser.impl
 import de.saring.exerciseviewer.core.EVException
 import de.saring.exerciseviewer.data.*
 import de.saring.exerciseviewer.parser.AbstractExerciseParser
+import de.saring.exerciseviewer.parser.AsyncExerciseParsing
 import de.saring.exerciseviewer.parser.ExerciseParserInfo
 import de.saring.util.Date310Utils
 import de.saring.util.unitcalc.CalculationUtils
@@ -35,7 +36,7 @@ class GarminTcxParser extends AbstractExerciseParser {
 
         try {
             // get GPathResult object by using the XmlSlurper parser
-            def path = new XmlSlurper().parse(new File(filename))
+            def path = AsyncExerciseParsing.openInputStream(filename).withStream { new XmlSlurper().parse(it) }
             return parseExercisePath(path)
         }
         catch (Exception e) {
@@ -4,6 +4,7 @@ import de.saring.exerciseviewer.core.EVException
 import de.saring.exerciseviewer.data.*
 import de.saring.exerciseviewer.parser.AbstractExerciseParser
 import de.saring.exerciseviewer.parser.ExerciseParserInfo
+import de.saring.exerciseviewer.parser.SampleSummary
 import de.saring.util.unitcalc.ConvertUtils
 
 import java.time.LocalDateTime
@@ -401,70 +402,48 @@ class PolarHRMParser extends AbstractExerciseParser {
             }
         }
 
-        // when speed is recorded:
-        // - calculate distance for each recorded sample (distance is not recorded for each sample)
-        // - find the maximum speed from samples (max speed is stored in HRM files, but often a wrong value)
+        // when speed is recorded => calculate distance for each recorded sample (distance is not recorded for each sample)
         if (exercise.recordingMode.speed) {
             def distanceAccum = 0f
-            exercise.speed.speedMax = 0f
 
             for (i in 0..<exercise.sampleList.size()) {
                 exercise.sampleList[i].distance = distanceAccum
                 distanceAccum += (exercise.sampleList[i].speed * exercise.recordingInterval) / 3.6f
-                exercise.speed.speedMax = Math.max(exercise.sampleList[i].speed, exercise.speed.speedMax)
             }
         }
 
-        // compute average/maximum heartrate of exercise (not in HRM file)
-        def avgHeartrateSum = 0
-        exercise.heartRateMax = 0
+        // compute the summary of all samples in one pass, all sample values are known now
+        def sampleSummary = SampleSummary.of(exercise.sampleColumns)
 
-        for (i in 0..<exercise.sampleList.size()) {
-            avgHeartrateSum += exercise.sampleList[i].heartRate
-            exercise.heartRateMax = Math.max(exercise.sampleList[i].heartRate, exercise.heartRateMax)
+        // find the maximum speed from samples (max speed is stored in HRM files, but often a wrong value)
+        if (exercise.recordingMode.speed) {
+            exercise.speed.speedMax = Math.max(sampleSummary.speedMax, 0f)
         }
 
-        // calculate AVG heartrate
-        exercise.heartRateAVG = Math.round(avgHeartrateSum / (float) exercise.sampleList.size())
+        // compute average/maximum heartrate of exercise (not in HRM file)
+        exercise.heartRateMax = Math.max(sampleSummary.heartRateMax, (short) 0)
+        exercise.heartRateAVG = Math.round(sampleSummary.heartRateSum / (float) sampleSummary.sampleCount)
 
-        // when altitude is recorded => search minimum altitude of exercise (is not in HRM file)
+        // when altitude is recorded => use minimum altitude of exercise (is not in HRM file)
         if (exercise.recordingMode.altitude) {
-            exercise.altitude.altitudeMin = Short.MAX_VALUE
-
-            for (i in 0..<exercise.sampleList.size()) {
-                exercise.altitude.altitudeMin = Math.min(
-                        exercise.altitude.altitudeMin, exercise.sampleList[i].altitude)
-            }
+            exercise.altitude.altitudeMin = sampleSummary.sampleCount > 0 ? sampleSummary.altitudeMin : Short.MAX_VALUE
         }
 
         // compute min and max cadence when recorded (not in HRM file)
         if (exercise.recordingMode.cadence) {
             exercise.cadence = new ExerciseCadence()
+            exercise.cadence.cadenceMax = Math.max(sampleSummary.cadenceMax, (short) 0)
 
             // compute average cadence from all samples, where cadence > 0
-            def avgCadenceSum = 0
-            def avgCadenceSamples = 0
-
-            for (i in 0..<exercise.sampleList.size()) {
-                if (exercise.sampleList[i].cadence > 0) {
-                    avgCadenceSum += exercise.sampleList[i].cadence
-                    avgCadenceSamples++
-                }
-
-                exercise.cadence.cadenceMax = Math.max(
-                        exercise.sampleList[i].cadence, exercise.cadence.cadenceMax)
-            }
-
-            if (avgCadenceSum > 0 && avgCadenceSamples > 0) {
-                exercise.cadence.cadenceAVG = avgCadenceSum / avgCadenceSamples
+            if (sampleSummary.cadenceNonZeroSum > 0 && sampleSummary.cadenceNonZeroCount > 0) {
+                exercise.cadence.cadenceAVG = sampleSummary.cadenceNonZeroSum.intdiv(sampleSummary.cadenceNonZeroCount) as short
             }
         }
 
-        // repair distance values of samples
-        exercise.repairSamples()
-
-        // calculate average lap speed, the data was not recorded here
-        calculateAverageLapSpeed(exercise)
+        // repair distance values of samples and calculate average lap speed (not recorded here)
+        new SampleProcessingPipeline(
+                SampleProcessingStages.distanceRepair(),
+                SampleProcessingStages.lapSpeed()).process(exercise)
 
         // done :-)
         return exercise
@@ -6,6 +6,7 @@ import de.saring.exerciseviewer.data.ExerciseSample
 import de.saring.exerciseviewer.data.RecordingMode
 import de.saring.exerciseviewer.parser.AbstractExerciseParser
 import de.saring.exerciseviewer.parser.ExerciseParserInfo
+import de.saring.exerciseviewer.parser.SampleSummary
 
 import java.time.LocalDateTime
 
@@ -113,26 +114,19 @@ class SmartsyncCSVParser extends AbstractExerciseParser {
 
         exercise.dateTime = LocalDateTime.of(exeYear, exeMonth, exeDay, exeHour, exeMinute, exeSecond)
 
+        // compute timestamps for all recorded exercise samples
+        for (i in 0..sampleList.size - 1) {
+            sampleList[i].timestamp = i * exercise.recordingInterval * 1000L
+        }
+
         exercise.sampleList = sampleList
 
         exercise.duration = (sampleList.size - 1) * exercise.recordingInterval * 10
 
         // compute average/maximum heartrate of exercise (not in HRM file)
-        def avgHeartrateSum = 0
-        exercise.heartRateMax = 0
-
-        for (i in 0..<exercise.sampleList.size()) {
-            avgHeartrateSum += exercise.sampleList[i].heartRate
-            exercise.heartRateMax = Math.max(exercise.sampleList[i].heartRate, exercise.heartRateMax)
-        }
-
-        // calculate AVG heartrate
-        exercise.heartRateAVG = Math.round(avgHeartrateSum / (float) exercise.sampleList.size())
-
-        // compute timestamps for all recorded exercise samples
-        for (i in 0..sampleList.size - 1) {
-            sampleList[i].timestamp = i * exercise.recordingInterval * 1000L
-        }
+        def sampleSummary = SampleSummary.of(exercise.sampleColumns)
+        exercise.heartRateMax = Math.max(sampleSummary.heartRateMax, (short) 0)
+        exercise.heartRateAVG = Math.round(sampleSummary.heartRateSum / (float) sampleSummary.sampleCount)
 
         // done :-)
         return exercise
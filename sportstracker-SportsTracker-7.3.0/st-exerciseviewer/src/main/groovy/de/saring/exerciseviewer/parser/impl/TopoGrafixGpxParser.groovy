@@ -3,7 +3,9 @@ package de.saring.exerciseviewer.parser.impl
 import de.saring.exerciseviewer.core.EVException
 import de.saring.exerciseviewer.data.*
 import de.saring.exerciseviewer.parser.AbstractExerciseParser
+import de.saring.exerciseviewer.parser.AsyncExerciseParsing
 import de.saring.exerciseviewer.parser.ExerciseParserInfo
+import de.saring.exerciseviewer.parser.SampleSummary
 import de.saring.util.Date310Utils
 import de.saring.util.unitcalc.CalculationUtils
 
@@ -39,7 +41,7 @@ class TopoGrafixGpxParser extends AbstractExerciseParser {
 
         try {
             // get GPathResult object by using the XmlSlurper parser
-            def gpx = new XmlSlurper().parse(new File(filename))
+            def gpx = AsyncExerciseParsing.openInputStream(filename).withStream { new XmlSlurper().parse(it) }
             return parseExercisePath(gpx)
         }
         catch (Exception e) {
@@ -56,17 +58,20 @@ class TopoGrafixGpxParser extends AbstractExerciseParser {
         exercise.sampleList = parseSampleTrackpoints(gpx, exercise)
         calculateDistanceAndSpeedPerPoint(exercise)
         exercise.speed = null;
+
+        // all sample values are known now, compute the summary of all samples in one pass
+        def sampleSummary = SampleSummary.of(exercise.sampleColumns)
         if (exercise.recordingMode.altitude) {
-            calculateAltitudeSummary(exercise)
+            calculateAltitudeSummary(exercise, sampleSummary)
         }
         if (exercise.dateTime) {
             calculateDuration(exercise)
         }
         if (exercise.recordingMode.speed) {
-            calculateSpeedSummary(exercise)
+            calculateSpeedSummary(exercise, sampleSummary)
         }
         if (exercise.recordingMode.heartRate) {
-            calculateHeartRateSummary(exercise)
+            calculateHeartRateSummary(exercise, sampleSummary)
         }
         exercise
     }
@@ -211,29 +216,14 @@ class TopoGrafixGpxParser extends AbstractExerciseParser {
     /**
      * Calculates the min, avg and max altitude and the ascent of the exercise.
      */
-    def calculateAltitudeSummary(exercise) {
+    def calculateAltitudeSummary(exercise, sampleSummary) {
         def altitude = new ExerciseAltitude()
 
         exercise.altitude = altitude
-        altitude.altitudeMin = Short.MAX_VALUE
-        altitude.altitudeMax = Short.MIN_VALUE
-
-        long altitudeSum = 0
-        short previousAltitude = exercise.sampleList[0].altitude
-
-        exercise.sampleList.each { sample ->
-
-            altitude.altitudeMin = Math.min(sample.altitude, altitude.altitudeMin)
-            altitude.altitudeMax = Math.max(sample.altitude, altitude.altitudeMax)
-            altitudeSum += sample.altitude
-
-            if (previousAltitude < sample.altitude) {
-                altitude.ascent += sample.altitude - previousAltitude
-            }
-            previousAltitude = sample.altitude
-        }
-
-        altitude.altitudeAVG = (short) Math.round(altitudeSum / exercise.sampleList.size())
+        altitude.altitudeMin = sampleSummary.altitudeMin
+        altitude.altitudeMax = sampleSummary.altitudeMax
+        altitude.ascent = sampleSummary.ascent
+        altitude.altitudeAVG = (short) Math.round(sampleSummary.altitudeSum / sampleSummary.sampleCount)
     }
 
     /**
@@ -241,10 +231,10 @@ class TopoGrafixGpxParser extends AbstractExerciseParser {
      * (only when samples contain timestamps).
      */
     def calculateDuration(exercise) {
-        def sampleCount = exercise.sampleList.size()
+        def samples = exercise.sampleColumns
 
-        if (sampleCount > 0) {
-            def lastSampleTimestamp = exercise.sampleList[sampleCount - 1].timestamp
+        if (samples.size() > 0) {
+            def lastSampleTimestamp = samples.getTimestamp(samples.size() - 1)
             if (lastSampleTimestamp > 0) {
                 exercise.duration = lastSampleTimestamp / 100
             }
@@ -255,24 +245,19 @@ class TopoGrafixGpxParser extends AbstractExerciseParser {
      * Calculates the speed summary
      * (only when samples contain timestamps, from which speed is derived)
      */
-    def calculateSpeedSummary(exercise) {
+    def calculateSpeedSummary(exercise, sampleSummary) {
         exercise.speed = new ExerciseSpeed()
 
         // Determine maximum speed
-        exercise.speed.speedMax = 0;
-        exercise.sampleList.each { sample ->
-            if (sample.speed > exercise.speed.speedMax) {
-                exercise.speed.speedMax = sample.speed
-            }
-        }
+        exercise.speed.speedMax = Math.max(sampleSummary.speedMax, 0f)
 
         // Determine total duration and average speed
-        def sampleCount = exercise.sampleList.size()
-        if (sampleCount > 0) {
-            def lastSample = exercise.sampleList[sampleCount - 1]
-            exercise.speed.distance = Math.round(lastSample.distance)
+        def samples = exercise.sampleColumns
+        if (samples.size() > 0) {
+            def lastSampleIndex = samples.size() - 1
+            exercise.speed.distance = samples.getDistance(lastSampleIndex)
             exercise.speed.speedAVG = CalculationUtils.calculateAvgSpeed(
-                    (float) (exercise.speed.distance / 1000f), (int) Math.round(lastSample.timestamp / 1000f)
+                    (float) (exercise.speed.distance / 1000f), (int) Math.round(samples.getTimestamp(lastSampleIndex) / 1000f)
             )
         } else {
             exercise.speed.distance = 0;
@@ -285,18 +270,9 @@ class TopoGrafixGpxParser extends AbstractExerciseParser {
      * Calculates heart rate summary data of the exercise 
      * (only when samples contain heart rate data).
      */
-    def calculateHeartRateSummary(exercise) {
-        long heartRateSum = 0
-        exercise.heartRateMax = Short.MIN_VALUE
-
-        exercise.sampleList.each { sample ->
-            heartRateSum += sample.heartRate
-            if (sample.heartRate > exercise.heartRateMax) {
-                exercise.heartRateMax = sample.heartRate
-            }
-        }
-
-        exercise.heartRateAVG = (short) Math.round(heartRateSum / exercise.sampleList.size())
+    def calculateHeartRateSummary(exercise, sampleSummary) {
+        exercise.heartRateMax = sampleSummary.heartRateMax
+        exercise.heartRateAVG = (short) Math.round(sampleSummary.heartRateSum / sampleSummary.sampleCount)
     }
 
     /**
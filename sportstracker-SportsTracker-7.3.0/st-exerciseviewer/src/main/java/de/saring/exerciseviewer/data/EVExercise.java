@@ -96,8 +96,13 @@ public final class EVExercise {
     private Lap[] lapList;
     /**
      * Array containing the data of all recorded samples (for each interval) of exercise.
+     * Only one of sampleList and sampleColumns is set, the other one is created on demand.
      */
     private ExerciseSample[] sampleList;
+    /**
+     * Columnar storage of all recorded samples (alternative to sampleList).
+     */
+    private ExerciseSampleColumns sampleColumns;
 
     /**
      * This is the list of possible file types of an exercise.
@@ -271,12 +276,57 @@ public final class EVExercise {
         this.lapList = lapList;
     }
 
+    /**
+     * Returns the array of all samples. When the samples are stored in columns, then the
+     * ExerciseSample objects will be created and used as sample storage from now on, so
+     * modifications of the returned samples are possible. Read-only users should prefer
+     * getSampleColumns(), it's much faster and needs less memory.
+     *
+     * @return array of samples (can be null)
+     */
     public ExerciseSample[] getSampleList() {
+        if (sampleList == null && sampleColumns != null) {
+            sampleList = sampleColumns.toSamples();
+            sampleColumns = null;
+        }
         return sampleList;
     }
 
     public void setSampleList(ExerciseSample[] sampleList) {
         this.sampleList = sampleList;
+        this.sampleColumns = null;
+    }
+
+    /**
+     * Returns the columnar storage of all samples. When the samples are stored as ExerciseSample
+     * objects, then the columns will be created and used as sample storage from now on. Previously
+     * returned ExerciseSample objects are not connected to the columns anymore.
+     *
+     * @return the sample columns (can be null)
+     */
+    public ExerciseSampleColumns getSampleColumns() {
+        if (sampleColumns == null && sampleList != null) {
+            sampleColumns = ExerciseSampleColumns.fromSamples(sampleList);
+            sampleList = null;
+        }
+        return sampleColumns;
+    }
+
+    public void setSampleColumns(ExerciseSampleColumns sampleColumns) {
+        this.sampleColumns = sampleColumns;
+        this.sampleList = null;
+    }
+
+    /**
+     * Returns the number of samples without converting the sample storage.
+     *
+     * @return number of samples (0 when there are no samples)
+     */
+    public int getSampleCount() {
+        if (sampleColumns != null) {
+            return sampleColumns.size();
+        }
+        return sampleList == null ? 0 : sampleList.length;
     }
 
     /**
@@ -285,28 +335,12 @@ public final class EVExercise {
      * This calculation is sometimes not total precise, the distance of last sample is
      * smaller/larger then the exercise distance. So all the sample distances needs to
      * get recalculated in relation to the exercise distance.
+     * <p/>
+     * Parsers with more post-processing steps should use a SampleProcessingPipeline
+     * instead, so all steps are executed in a single pass over the samples.
      */
     public void repairSamples() {
-        // is all the required speed data available ?
-        if ((this.speed == null) || (this.speed.getDistance() == 0) ||
-                (this.sampleList == null) || (this.sampleList.length == 0)) {
-            return;
-        }
-
-        // it's possible that there are not recorded samples for the whole exercise time
-        // (e.g. connection problems) => in this case we can't repair the sample distances
-        if (this.sampleList.length < (duration / 10 / recordingInterval)) {
-            return;
-        }
-
-        // calculate relation of exercise distance to last sample distance
-        ExerciseSample lastSample = this.sampleList[this.sampleList.length - 1];
-        double fRelation = lastSample.getDistance() / (double) this.speed.getDistance();
-
-        // process all samples and recalculate the sample distance in relation to exercise distance 
-        for (ExerciseSample sample : this.sampleList) {
-            sample.setDistance((int) Math.round(sample.getDistance() / fRelation));
-        }
+        new SampleProcessingPipeline(SampleProcessingStages.distanceRepair()).process(this);
     }
 
     @Override
@@ -344,6 +378,8 @@ public final class EVExercise {
 
         if (this.sampleList != null) {
             Stream.of(this.sampleList).forEach(sBuilder::append);
+        } else if (this.sampleColumns != null) {
+            Stream.of(this.sampleColumns.toSamples()).forEach(sBuilder::append);
         }
 
         return sBuilder.toString();
@@ -0,0 +1,165 @@
+package de.saring.exerciseviewer.data;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer for collecting exercise samples while parsing, when the number of samples
+ * is not known in advance. The samples are stored in primitive arrays which grow on demand,
+ * so no object needs to be created per sample. When parsing is done, the method toColumns()
+ * creates the ExerciseSampleColumns to be stored in the exercise.
+ *
+ * @author Stefan Saring
+ * @version 1.0
+ */
+public final class ExerciseSampleBuffer {
+
+    /** Default initial capacity (number of samples). */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int size;
+
+    private long[] timestamps;
+    private short[] heartRates;
+    private short[] altitudes;
+    private float[] speeds;
+    private short[] cadences;
+    private int[] distances;
+    private short[] temperatures;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    /**
+     * Creates an empty buffer with the default initial capacity.
+     */
+    public ExerciseSampleBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty buffer with the specified initial capacity.
+     *
+     * @param capacity initial number of samples
+     */
+    public ExerciseSampleBuffer(int capacity) {
+        capacity = Math.max(capacity, 1);
+        timestamps = new long[capacity];
+        heartRates = new short[capacity];
+        altitudes = new short[capacity];
+        speeds = new float[capacity];
+        cadences = new short[capacity];
+        distances = new int[capacity];
+        temperatures = new short[capacity];
+    }
+
+    /**
+     * Appends a new sample with all values 0 and without position.
+     *
+     * @return the index of the new sample
+     */
+    public int addSample() {
+        if (size == timestamps.length) {
+            grow();
+        }
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public void setTimestamp(int index, long timestamp) {
+        timestamps[index] = timestamp;
+    }
+
+    public void setHeartRate(int index, short heartRate) {
+        heartRates[index] = heartRate;
+    }
+
+    public void setAltitude(int index, short altitude) {
+        altitudes[index] = altitude;
+    }
+
+    public void setSpeed(int index, float speed) {
+        speeds[index] = speed;
+    }
+
+    public void setCadence(int index, short cadence) {
+        cadences[index] = cadence;
+    }
+
+    public void setDistance(int index, int distance) {
+        distances[index] = distance;
+    }
+
+    public void setTemperature(int index, short temperature) {
+        temperatures[index] = temperature;
+    }
+
+    /**
+     * Sets the position of the sample at the specified index. The position arrays
+     * will be created on first call.
+     *
+     * @param index index of the sample
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     */
+    public void setPosition(int index, double latitude, double longitude) {
+        if (latitudes == null) {
+            latitudes = createPositionArray(timestamps.length);
+            longitudes = createPositionArray(timestamps.length);
+        }
+        latitudes[index] = latitude;
+        longitudes[index] = longitude;
+    }
+
+    /**
+     * Creates the sample columns with all samples of this buffer. The column arrays
+     * are trimmed to the number of samples.
+     *
+     * @return the created sample columns
+     */
+    public ExerciseSampleColumns toColumns() {
+        return new ExerciseSampleColumns(size,
+                Arrays.copyOf(timestamps, size),
+                Arrays.copyOf(heartRates, size),
+                Arrays.copyOf(altitudes, size),
+                Arrays.copyOf(speeds, size),
+                Arrays.copyOf(cadences, size),
+                Arrays.copyOf(distances, size),
+                Arrays.copyOf(temperatures, size),
+                latitudes == null ? null : Arrays.copyOf(latitudes, size),
+                longitudes == null ? null : Arrays.copyOf(longitudes, size));
+    }
+
+    private void grow() {
+        final int capacity = timestamps.length * 2;
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        heartRates = Arrays.copyOf(heartRates, capacity);
+        altitudes = Arrays.copyOf(altitudes, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        cadences = Arrays.copyOf(cadences, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        temperatures = Arrays.copyOf(temperatures, capacity);
+
+        if (latitudes != null) {
+            latitudes = growPositionArray(latitudes, capacity);
+            longitudes = growPositionArray(longitudes, capacity);
+        }
+    }
+
+    private static double[] createPositionArray(int capacity) {
+        final double[] array = new double[capacity];
+        Arrays.fill(array, Double.NaN);
+        return array;
+    }
+
+    private static double[] growPositionArray(double[] array, int capacity) {
+        final double[] grownArray = Arrays.copyOf(array, capacity);
+        Arrays.fill(grownArray, array.length, capacity, Double.NaN);
+        return grownArray;
+    }
+}
@@ -0,0 +1,351 @@
+package de.saring.exerciseviewer.data;
+
+import java.util.Arrays;
+
+/**
+ * This class contains the data of all recorded samples of an exercise in a columnar layout.
+ * Each sample attribute is stored in a separate primitive array (column), the samples are
+ * addressed by their index. Compared to an array of ExerciseSample objects this needs much
+ * less memory and allows fast sequential access to a single attribute (e.g. for diagrams).
+ * <p/>
+ * The geographical positions are stored in the latitude and longitude columns, which exist
+ * only when at least one sample contains a position. Samples without position are stored
+ * with the value Double.NaN.
+ * <p/>
+ * The column arrays returned by the getters are not copied for performance reasons, so they
+ * must not be modified by the caller. For object based access the method getSample() returns
+ * a reusable flyweight accessor, the method toSamples() creates ExerciseSample objects for all
+ * samples.
+ *
+ * @author Stefan Saring
+ * @version 1.0
+ */
+public final class ExerciseSampleColumns {
+
+    private final int size;
+
+    private final long[] timestamps;
+    private final short[] heartRates;
+    private final short[] altitudes;
+    private final float[] speeds;
+    private final short[] cadences;
+    private final int[] distances;
+    private final short[] temperatures;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    /**
+     * Creates the sample columns for the specified number of samples. All values are 0,
+     * there are no positions.
+     *
+     * @param size number of samples
+     */
+    public ExerciseSampleColumns(int size) {
+        this.size = size;
+        this.timestamps = new long[size];
+        this.heartRates = new short[size];
+        this.altitudes = new short[size];
+        this.speeds = new float[size];
+        this.cadences = new short[size];
+        this.distances = new int[size];
+        this.temperatures = new short[size];
+    }
+
+    /**
+     * Creates the sample columns for the specified column arrays, they will not be copied.
+     * The position columns must be both null when there are no positions.
+     */
+    ExerciseSampleColumns(int size, long[] timestamps, short[] heartRates, short[] altitudes, float[] speeds,
+            short[] cadences, int[] distances, short[] temperatures, double[] latitudes, double[] longitudes) {
+        this.size = size;
+        this.timestamps = timestamps;
+        this.heartRates = heartRates;
+        this.altitudes = altitudes;
+        this.speeds = speeds;
+        this.cadences = cadences;
+        this.distances = distances;
+        this.temperatures = temperatures;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * Creates the sample columns with the data of the specified ExerciseSample objects.
+     *
+     * @param samples array of exercise samples
+     * @return the created sample columns
+     */
+    public static ExerciseSampleColumns fromSamples(ExerciseSample[] samples) {
+        ExerciseSampleColumns columns = new ExerciseSampleColumns(samples.length);
+
+        for (int i = 0; i < samples.length; i++) {
+            ExerciseSample sample = samples[i];
+            columns.timestamps[i] = sample.getTimestamp();
+            columns.heartRates[i] = sample.getHeartRate();
+            columns.altitudes[i] = sample.getAltitude();
+            columns.speeds[i] = sample.getSpeed();
+            columns.cadences[i] = sample.getCadence();
+            columns.distances[i] = sample.getDistance();
+            columns.temperatures[i] = sample.getTemperature();
+
+            Position position = sample.getPosition();
+            if (position != null) {
+                columns.setPosition(i, position.getLatitude(), position.getLongitude());
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Creates new ExerciseSample objects for all samples. The created samples are not connected
+     * to these columns, modifications will not be stored here.
+     *
+     * @return array of exercise samples
+     */
+    public ExerciseSample[] toSamples() {
+        ExerciseSample[] samples = new ExerciseSample[size];
+
+        for (int i = 0; i < size; i++) {
+            ExerciseSample sample = new ExerciseSample();
+            sample.setTimestamp(timestamps[i]);
+            sample.setHeartRate(heartRates[i]);
+            sample.setAltitude(altitudes[i]);
+            sample.setSpeed(speeds[i]);
+            sample.setCadence(cadences[i]);
+            sample.setDistance(distances[i]);
+            sample.setTemperature(temperatures[i]);
+            sample.setPosition(getPosition(i));
+            samples[i] = sample;
+        }
+        return samples;
+    }
+
+    /**
+     * Returns a reusable accessor for the sample at the specified index. The accessor
+     * can be moved to other samples without creating new objects.
+     *
+     * @param index index of the sample
+     * @return the sample accessor
+     */
+    public Sample getSample(int index) {
+        return new Sample().moveTo(index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public short[] getHeartRates() {
+        return heartRates;
+    }
+
+    public short[] getAltitudes() {
+        return altitudes;
+    }
+
+    public float[] getSpeeds() {
+        return speeds;
+    }
+
+    public short[] getCadences() {
+        return cadences;
+    }
+
+    public int[] getDistances() {
+        return distances;
+    }
+
+    public short[] getTemperatures() {
+        return temperatures;
+    }
+
+    /**
+     * Returns the latitude column, it's null when no sample contains a position.
+     *
+     * @return latitude column (Double.NaN for samples without position) or null
+     */
+    public double[] getLatitudes() {
+        return latitudes;
+    }
+
+    /**
+     * Returns the longitude column, it's null when no sample contains a position.
+     *
+     * @return longitude column (Double.NaN for samples without position) or null
+     */
+    public double[] getLongitudes() {
+        return longitudes;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public void setTimestamp(int index, long timestamp) {
+        timestamps[index] = timestamp;
+    }
+
+    public short getHeartRate(int index) {
+        return heartRates[index];
+    }
+
+    public void setHeartRate(int index, short heartRate) {
+        heartRates[index] = heartRate;
+    }
+
+    public short getAltitude(int index) {
+        return altitudes[index];
+    }
+
+    public void setAltitude(int index, short altitude) {
+        altitudes[index] = altitude;
+    }
+
+    public float getSpeed(int index) {
+        return speeds[index];
+    }
+
+    public void setSpeed(int index, float speed) {
+        speeds[index] = speed;
+    }
+
+    public short getCadence(int index) {
+        return cadences[index];
+    }
+
+    public void setCadence(int index, short cadence) {
+        cadences[index] = cadence;
+    }
+
+    public int getDistance(int index) {
+        return distances[index];
+    }
+
+    public void setDistance(int index, int distance) {
+        distances[index] = distance;
+    }
+
+    public short getTemperature(int index) {
+        return temperatures[index];
+    }
+
+    public void setTemperature(int index, short temperature) {
+        temperatures[index] = temperature;
+    }
+
+    /**
+     * Returns true when at least one sample contains a position.
+     */
+    public boolean hasPositions() {
+        return latitudes != null;
+    }
+
+    /**
+     * Returns true when the sample at the specified index contains a position.
+     */
+    public boolean hasPosition(int index) {
+        return latitudes != null && !Double.isNaN(latitudes[index]);
+    }
+
+    /**
+     * Returns the position of the sample at the specified index. A new Position
+     * object will be created on each call.
+     *
+     * @param index index of the sample
+     * @return the position or null when the sample has no position
+     */
+    public Position getPosition(int index) {
+        return hasPosition(index) ? new Position(latitudes[index], longitudes[index]) : null;
+    }
+
+    /**
+     * Sets the position of the sample at the specified index. The position columns
+     * will be created on first call.
+     *
+     * @param index index of the sample
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     */
+    public void setPosition(int index, double latitude, double longitude) {
+        if (latitudes == null) {
+            latitudes = new double[size];
+            longitudes = new double[size];
+            Arrays.fill(latitudes, Double.NaN);
+            Arrays.fill(longitudes, Double.NaN);
+        }
+        latitudes[index] = latitude;
+        longitudes[index] = longitude;
+    }
+
+    /**
+     * Flyweight accessor for a single sample of the columns. It provides the same getters as
+     * ExerciseSample, but reads the values directly from the columns. One instance can be used
+     * for all samples by moving it to the needed index.
+     */
+    public final class Sample {
+
+        private int index;
+
+        private Sample() {
+        }
+
+        /**
+         * Moves this accessor to the sample at the specified index.
+         *
+         * @param index index of the sample
+         * @return this accessor
+         */
+        public Sample moveTo(int index) {
+            this.index = index;
+            return this;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getTimestamp() {
+            return timestamps[index];
+        }
+
+        public short getHeartRate() {
+            return heartRates[index];
+        }
+
+        public short getAltitude() {
+            return altitudes[index];
+        }
+
+        public float getSpeed() {
+            return speeds[index];
+        }
+
+        public short getCadence() {
+            return cadences[index];
+        }
+
+        public int getDistance() {
+            return distances[index];
+        }
+
+        public short getTemperature() {
+            return temperatures[index];
+        }
+
+        public boolean hasPosition() {
+            return ExerciseSampleColumns.this.hasPosition(index);
+        }
+
+        public double getLatitude() {
+            return latitudes == null ? Double.NaN : latitudes[index];
+        }
+
+        public double getLongitude() {
+            return longitudes == null ? Double.NaN : longitudes[index];
+        }
+    }
+}
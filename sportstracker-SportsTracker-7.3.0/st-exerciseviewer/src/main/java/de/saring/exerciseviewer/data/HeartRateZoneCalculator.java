@@ -0,0 +1,148 @@
+package de.saring.exerciseviewer.data;
+
+/**
+ * Calculator for the times spent in heartrate zones, derived from the recorded samples. It's needed for
+ * exercise files which don't contain heartrate limit data (e.g. GPX, TCX or FIT), but can be used for
+ * any zone definition.
+ * <p/>
+ * The samples are processed only once, in a single pass over the timestamp and heartrate columns. The
+ * result is a time histogram per heartrate value (bpm), so the times of any zone definition can be computed
+ * from the histogram without processing the samples again. This is fast enough for recomputing the zone
+ * times on each change of the zone boundaries, independent of the number of samples.
+ * <p/>
+ * For fixed recording intervals each sample counts for the interval time. For dynamic recording intervals
+ * the time of a sample is the delta to the timestamp of the next sample, the last sample counts for nothing.
+ * Samples without heartrate (value 0) are ignored.
+ *
+ * @author Stefan Saring
+ */
+public final class HeartRateZoneCalculator {
+
+    /** Maximum heartrate value of the histogram, higher heartrates will be counted for this value. */
+    public static final int MAX_HEARTRATE = 255;
+
+    /** Time in milliseconds spent at each heartrate value (array index is the heartrate in bpm). */
+    private final long[] heartRateTimes = new long[MAX_HEARTRATE + 1];
+
+    /**
+     * Creates the calculator for the specified samples.
+     *
+     * @param samples the recorded samples (can be null)
+     * @param recordingInterval recording interval of the samples in seconds or
+     *        EVExercise.DYNAMIC_RECORDING_INTERVAL
+     */
+    public HeartRateZoneCalculator(final ExerciseSampleColumns samples, final short recordingInterval) {
+        if (samples != null && samples.size() > 0) {
+            if (recordingInterval == EVExercise.DYNAMIC_RECORDING_INTERVAL) {
+                addDynamicIntervalSamples(samples.getHeartRates(), samples.getTimestamps(), samples.size());
+            } else {
+                addFixedIntervalSamples(samples.getHeartRates(), samples.size(), recordingInterval * 1000L);
+            }
+        }
+    }
+
+    /**
+     * Creates the calculator for the samples of the specified exercise. The sample storage of the exercise
+     * will be converted to columns, when not done yet.
+     *
+     * @param exercise the exercise
+     * @return the created calculator
+     */
+    public static HeartRateZoneCalculator forExercise(final EVExercise exercise) {
+        return new HeartRateZoneCalculator(exercise.getSampleColumns(), exercise.getRecordingInterval());
+    }
+
+    private void addFixedIntervalSamples(final short[] heartRates, final int size, final long interval) {
+        final int[] sampleCounts = new int[MAX_HEARTRATE + 1];
+        for (int i = 0; i < size; i++) {
+            sampleCounts[toHistogramIndex(heartRates[i])]++;
+        }
+        for (int heartRate = 1; heartRate <= MAX_HEARTRATE; heartRate++) {
+            heartRateTimes[heartRate] = sampleCounts[heartRate] * interval;
+        }
+    }
+
+    private void addDynamicIntervalSamples(final short[] heartRates, final long[] timestamps, final int size) {
+        for (int i = 0; i < size - 1; i++) {
+            // samples with decreasing timestamps (e.g. when unsorted) count for nothing
+            heartRateTimes[toHistogramIndex(heartRates[i])] += Math.max(0L, timestamps[i + 1] - timestamps[i]);
+        }
+        heartRateTimes[0] = 0;
+    }
+
+    private static int toHistogramIndex(final short heartRate) {
+        return Math.min(Math.max(heartRate, 0), MAX_HEARTRATE);
+    }
+
+    /**
+     * Returns true when the samples contain heartrate data.
+     *
+     * @return true when there was any time with heartrate recorded
+     */
+    public boolean hasHeartRateData() {
+        return getTotalTime() > 0;
+    }
+
+    /**
+     * Returns the total time of all samples with heartrate data.
+     *
+     * @return time in seconds
+     */
+    public int getTotalTime() {
+        return toSeconds(sumHeartRateTimes(1, MAX_HEARTRATE + 1));
+    }
+
+    /**
+     * Returns the times spent in the zones defined by the specified boundaries. The number of zones is
+     * the number of boundaries + 1, zone 0 contains all heartrates below the first boundary, zone i the
+     * heartrates from boundary i-1 (inclusive) to boundary i (exclusive) and the last zone all heartrates
+     * from the last boundary.
+     *
+     * @param zoneBoundaries the zone boundaries in bpm, must be in ascending order
+     * @return array of the zone times in seconds
+     */
+    public int[] getZoneTimes(final int... zoneBoundaries) {
+        final int[] zoneTimes = new int[zoneBoundaries.length + 1];
+        int zoneStart = 1;
+        for (int zone = 0; zone < zoneBoundaries.length; zone++) {
+            final int zoneEnd = Math.max(zoneStart, Math.min(zoneBoundaries[zone], MAX_HEARTRATE + 1));
+            zoneTimes[zone] = toSeconds(sumHeartRateTimes(zoneStart, zoneEnd));
+            zoneStart = zoneEnd;
+        }
+        zoneTimes[zoneBoundaries.length] = toSeconds(sumHeartRateTimes(zoneStart, MAX_HEARTRATE + 1));
+        return zoneTimes;
+    }
+
+    /**
+     * Creates a HeartRateLimit for the specified absolute range with the times below, within and above
+     * computed from the samples.
+     *
+     * @param lowerHeartRate lower heartrate of the range (inclusive)
+     * @param upperHeartRate upper heartrate of the range (inclusive)
+     * @return the created HeartRateLimit
+     */
+    public HeartRateLimit createHeartRateLimit(final short lowerHeartRate, final short upperHeartRate) {
+        final int[] zoneTimes = getZoneTimes(lowerHeartRate, upperHeartRate + 1);
+
+        final HeartRateLimit limit = new HeartRateLimit();
+        limit.setLowerHeartRate(lowerHeartRate);
+        limit.setUpperHeartRate(upperHeartRate);
+        limit.setAbsoluteRange(true);
+        limit.setTimeBelow(zoneTimes[0]);
+        limit.setTimeWithin(zoneTimes[1]);
+        limit.setTimeAbove(zoneTimes[2]);
+        return limit;
+    }
+
+    private long sumHeartRateTimes(final int fromHeartRate, final int toHeartRate) {
+        long sum = 0;
+        for (int heartRate = fromHeartRate; heartRate < toHeartRate; heartRate++) {
+            sum += heartRateTimes[heartRate];
+        }
+        return sum;
+    }
+
+    private static int toSeconds(final long milliseconds) {
+        return (int) Math.round(milliseconds / 1000d);
+    }
+}
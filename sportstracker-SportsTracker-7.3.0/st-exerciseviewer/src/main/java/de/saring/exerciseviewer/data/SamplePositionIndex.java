@@ -0,0 +1,292 @@
+package de.saring.exerciseviewer.data;
+
+/**
+ * Spatial index of the sample positions of an exercise, it's used for fast lookups of the samples
+ * nearby a position (e.g. the trackpoint below the mouse cursor in the track map). The index is a
+ * uniform grid over the bounding box of all positions, each cell contains a few sample indexes
+ * only. So lookups don't need to check all samples of long exercises.
+ * <p/>
+ * The index is immutable and must be created again when the sample positions have been changed.
+ * Samples without position are not contained.
+ *
+ * @author Stefan Saring
+ */
+public final class SamplePositionIndex {
+
+    /** Average number of samples per grid cell. */
+    private static final int SAMPLES_PER_CELL = 4;
+
+    /** Maximum number of rows and columns of the grid. */
+    private static final int MAX_GRID_DIMENSION = 2048;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double cellLatitudeSize;
+    private final double cellLongitudeSize;
+    private final int rows;
+    private final int columns;
+
+    /** Cosinus of the center latitude, used for longitude distance scaling. */
+    private final double longitudeScale;
+
+    /** Start offsets of all cells in the cellSampleIndexes array (one more entry than cells). */
+    private final int[] cellStarts;
+    /** Sample indexes of all cells, sorted by cell and sample index. */
+    private final int[] cellSampleIndexes;
+
+    private SamplePositionIndex(final double[] latitudes, final double[] longitudes, final int size) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+
+        // compute the bounding box of all positions
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        int positionCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (!Double.isNaN(latitudes[i])) {
+                minLat = Math.min(minLat, latitudes[i]);
+                maxLat = Math.max(maxLat, latitudes[i]);
+                minLon = Math.min(minLon, longitudes[i]);
+                maxLon = Math.max(maxLon, longitudes[i]);
+                positionCount++;
+            }
+        }
+
+        if (positionCount == 0) {
+            minLat = maxLat = minLon = maxLon = 0d;
+        }
+
+        this.minLatitude = minLat;
+        this.minLongitude = minLon;
+        this.longitudeScale = Math.cos(Math.toRadians((minLat + maxLat) / 2d));
+
+        // compute the grid dimensions, the cells should be nearly quadratic
+        final double latitudeSpan = maxLat - minLat;
+        final double longitudeSpan = (maxLon - minLon) * longitudeScale;
+        final int cellCount = Math.max(1, positionCount / SAMPLES_PER_CELL);
+
+        int gridRows;
+        int gridColumns;
+        if (latitudeSpan <= 0 && longitudeSpan <= 0) {
+            gridRows = 1;
+            gridColumns = 1;
+        } else if (latitudeSpan <= 0) {
+            gridRows = 1;
+            gridColumns = cellCount;
+        } else if (longitudeSpan <= 0) {
+            gridRows = cellCount;
+            gridColumns = 1;
+        } else {
+            gridRows = (int) Math.ceil(Math.sqrt(cellCount * latitudeSpan / longitudeSpan));
+            gridColumns = (int) Math.ceil(cellCount / (double) gridRows);
+        }
+        this.rows = Math.max(1, Math.min(MAX_GRID_DIMENSION, gridRows));
+        this.columns = Math.max(1, Math.min(MAX_GRID_DIMENSION, gridColumns));
+
+        this.cellLatitudeSize = latitudeSpan > 0 ? latitudeSpan / rows : 1d;
+        this.cellLongitudeSize = maxLon - minLon > 0 ? (maxLon - minLon) / columns : 1d;
+
+        // fill the cells by counting sort, so the sample indexes in each cell are sorted
+        this.cellStarts = new int[rows * columns + 1];
+        for (int i = 0; i < size; i++) {
+            if (!Double.isNaN(latitudes[i])) {
+                cellStarts[getCell(latitudes[i], longitudes[i]) + 1]++;
+            }
+        }
+        for (int cell = 0; cell < rows * columns; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+
+        this.cellSampleIndexes = new int[positionCount];
+        final int[] cellFillCounts = new int[rows * columns];
+        for (int i = 0; i < size; i++) {
+            if (!Double.isNaN(latitudes[i])) {
+                final int cell = getCell(latitudes[i], longitudes[i]);
+                cellSampleIndexes[cellStarts[cell] + cellFillCounts[cell]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Creates the spatial index for the positions of the specified samples.
+     *
+     * @param samples the exercise sample columns (can be null)
+     * @return the created index (empty, when there are no sample positions)
+     */
+    public static SamplePositionIndex of(final ExerciseSampleColumns samples) {
+        if (samples == null || !samples.hasPositions()) {
+            return new SamplePositionIndex(new double[0], new double[0], 0);
+        }
+        return new SamplePositionIndex(samples.getLatitudes(), samples.getLongitudes(), samples.size());
+    }
+
+    /**
+     * Returns the number of indexed sample positions.
+     *
+     * @return number of positions
+     */
+    public int size() {
+        return cellSampleIndexes.length;
+    }
+
+    /**
+     * Searches for the sample nearest to the specified position, the sample must be located within
+     * the specified latitude and longitude distance buffer. The distance is relative to the buffer
+     * sizes. When multiple samples have the same distance, the first sample will be returned.
+     *
+     * @param latitude latitude of the position
+     * @param longitude longitude of the position
+     * @param latitudeBuffer latitude distance buffer, the sample must be located closer
+     * @param longitudeBuffer longitude distance buffer, the sample must be located closer
+     * @return the index of the found sample or -1 when no sample was found
+     */
+    public int findNearestSample(final double latitude, final double longitude, final double latitudeBuffer,
+            final double longitudeBuffer) {
+        if (size() == 0 || !(latitudeBuffer > 0) || !(longitudeBuffer > 0)) {
+            return -1;
+        }
+
+        final int rowFrom = getRow(latitude - latitudeBuffer);
+        final int rowTo = getRow(latitude + latitudeBuffer);
+        final int columnFrom = getColumn(longitude - longitudeBuffer);
+        final int columnTo = getColumn(longitude + longitudeBuffer);
+
+        int nearestIndex = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int column = columnFrom; column <= columnTo; column++) {
+                final int cell = row * columns + column;
+
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    final int sampleIndex = cellSampleIndexes[i];
+                    final double latitudeDistance = Math.abs(latitudes[sampleIndex] - latitude);
+                    final double longitudeDistance = Math.abs(longitudes[sampleIndex] - longitude);
+
+                    if (latitudeDistance < latitudeBuffer && longitudeDistance < longitudeBuffer) {
+                        final double relLatitudeDistance = latitudeDistance / latitudeBuffer;
+                        final double relLongitudeDistance = longitudeDistance / longitudeBuffer;
+                        final double distance = relLatitudeDistance * relLatitudeDistance +
+                                relLongitudeDistance * relLongitudeDistance;
+
+                        if (distance < nearestDistance || (distance == nearestDistance && sampleIndex < nearestIndex)) {
+                            nearestDistance = distance;
+                            nearestIndex = sampleIndex;
+                        }
+                    }
+                }
+            }
+        }
+        return nearestIndex;
+    }
+
+    /**
+     * Searches for the sample nearest to the specified position without any distance limit. The
+     * grid cells are searched in rings around the cell of the position, until no closer sample is
+     * possible. When multiple samples have the same distance, the first sample will be returned.
+     *
+     * @param latitude latitude of the position
+     * @param longitude longitude of the position
+     * @return the index of the nearest sample or -1 when there are no sample positions
+     */
+    public int findNearestSample(final double latitude, final double longitude) {
+        if (size() == 0) {
+            return -1;
+        }
+
+        final int centerRow = getRow(latitude);
+        final int centerColumn = getColumn(longitude);
+        final int maxRing = Math.max(Math.max(centerRow, rows - 1 - centerRow),
+                Math.max(centerColumn, columns - 1 - centerColumn));
+
+        int nearestIndex = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+
+            // stop when all samples outside the already searched rings are more distant
+            if (nearestIndex >= 0) {
+                final double minRingDistance = getMinDistanceOutsideRings(latitude, longitude,
+                        centerRow, centerColumn, ring - 1);
+                if (minRingDistance * minRingDistance > nearestDistance) {
+                    break;
+                }
+            }
+
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+
+                // only the cells on the border of the ring are new
+                final boolean fullRow = row == centerRow - ring || row == centerRow + ring;
+                final int columnStep = fullRow ? 1 : Math.max(1, 2 * ring);
+
+                for (int column = centerColumn - ring; column <= centerColumn + ring; column += columnStep) {
+                    if (column < 0 || column >= columns) {
+                        continue;
+                    }
+
+                    final int cell = row * columns + column;
+                    for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                        final int sampleIndex = cellSampleIndexes[i];
+                        final double distance = getSquaredDistance(sampleIndex, latitude, longitude);
+
+                        if (distance < nearestDistance || (distance == nearestDistance && sampleIndex < nearestIndex)) {
+                            nearestDistance = distance;
+                            nearestIndex = sampleIndex;
+                        }
+                    }
+                }
+            }
+        }
+        return nearestIndex;
+    }
+
+    private double getSquaredDistance(final int sampleIndex, final double latitude, final double longitude) {
+        final double latitudeDistance = latitudes[sampleIndex] - latitude;
+        final double longitudeDistance = (longitudes[sampleIndex] - longitude) * longitudeScale;
+        return latitudeDistance * latitudeDistance + longitudeDistance * longitudeDistance;
+    }
+
+    /**
+     * Returns the minimum distance of the position to all cells outside of the specified rings around
+     * the center cell. It's 0 when the position is not located inside the rings.
+     */
+    private double getMinDistanceOutsideRings(final double latitude, final double longitude,
+            final int centerRow, final int centerColumn, final int ring) {
+
+        final double latitudeFrom = minLatitude + (centerRow - ring) * cellLatitudeSize;
+        final double latitudeTo = minLatitude + (centerRow + ring + 1) * cellLatitudeSize;
+        final double longitudeFrom = minLongitude + (centerColumn - ring) * cellLongitudeSize;
+        final double longitudeTo = minLongitude + (centerColumn + ring + 1) * cellLongitudeSize;
+
+        if (latitude < latitudeFrom || latitude > latitudeTo || longitude < longitudeFrom || longitude > longitudeTo) {
+            return 0d;
+        }
+
+        final double latitudeDistance = Math.min(latitude - latitudeFrom, latitudeTo - latitude);
+        final double longitudeDistance = Math.min(longitude - longitudeFrom, longitudeTo - longitude) * longitudeScale;
+        return Math.min(latitudeDistance, longitudeDistance);
+    }
+
+    private int getCell(final double latitude, final double longitude) {
+        return getRow(latitude) * columns + getColumn(longitude);
+    }
+
+    private int getRow(final double latitude) {
+        final int row = (int) Math.floor((latitude - minLatitude) / cellLatitudeSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private int getColumn(final double longitude) {
+        final int column = (int) Math.floor((longitude - minLongitude) / cellLongitudeSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+}
@@ -0,0 +1,69 @@
+package de.saring.exerciseviewer.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pipeline for the post-processing of parsed exercises. It consists of multiple stages (see
+ * SampleProcessingStages), which are declared once and executed in the declared order.
+ * <p/>
+ * The sample processing of all stages is fused into a single pass over the sample columns. The samples
+ * are processed in blocks, each block is passed to all stages before the next block will be processed.
+ * So the column data of a block is still in the CPU cache for the following stages, while each stage
+ * can process its block in a tight loop over the primitive column arrays. The result is the same as
+ * when each stage processes all samples separately, as long as a stage only reads sample values which
+ * were processed by the previous stages already (e.g. values of the current block or before).
+ * <p/>
+ * The stages keep their state while an exercise is processed, so a pipeline must not be used for multiple
+ * exercises at the same time.
+ *
+ * @author Stefan Saring
+ */
+public final class SampleProcessingPipeline {
+
+    /** Number of samples processed in one block by all stages. */
+    static final int BLOCK_SIZE = 1024;
+
+    private final List<SampleProcessingStage> stages;
+
+    /**
+     * Creates the pipeline for the specified stages.
+     *
+     * @param stages the stages in execution order
+     */
+    public SampleProcessingPipeline(final SampleProcessingStage... stages) {
+        this.stages = Arrays.asList(stages);
+    }
+
+    /**
+     * Executes all stages of the pipeline for the specified exercise.
+     *
+     * @param exercise the exercise to process
+     */
+    public void process(final EVExercise exercise) {
+        final List<SampleProcessingStage> sampleStages = new ArrayList<>(stages.size());
+        for (SampleProcessingStage stage : stages) {
+            if (stage.prepare(exercise)) {
+                sampleStages.add(stage);
+            }
+        }
+
+        // the sample columns will only be created when they are needed by a stage
+        if (!sampleStages.isEmpty() && exercise.getSampleCount() > 0) {
+            final ExerciseSampleColumns samples = exercise.getSampleColumns();
+            final int sampleCount = samples.size();
+
+            for (int fromIndex = 0; fromIndex < sampleCount; fromIndex += BLOCK_SIZE) {
+                final int toIndex = Math.min(fromIndex + BLOCK_SIZE, sampleCount);
+                for (SampleProcessingStage stage : sampleStages) {
+                    stage.processSamples(samples, fromIndex, toIndex);
+                }
+            }
+        }
+
+        for (SampleProcessingStage stage : stages) {
+            stage.finish(exercise);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package de.saring.exerciseviewer.data;
+
+/**
+ * A stage of the SampleProcessingPipeline, which post-processes the data of a parsed exercise (e.g. repairs
+ * the sample distances or smoothes the speed). The sample data is processed in consecutive blocks of the
+ * sample columns, all blocks are passed in ascending order.
+ * <p/>
+ * Stages keep their state while an exercise is processed, so a stage instance must not be used for
+ * multiple exercises at the same time.
+ *
+ * @author Stefan Saring
+ */
+public interface SampleProcessingStage {
+
+    /**
+     * Prepares the processing of the specified exercise, this is called before the samples are processed.
+     * The sample values of the exercise are not modified by other stages yet.
+     *
+     * @param exercise the exercise to process
+     * @return true when the samples needs to be processed by this stage, false when the stage has nothing to do
+     *         or only processes the exercise in finish()
+     */
+    boolean prepare(EVExercise exercise);
+
+    /**
+     * Processes the specified block of samples. It's only called when prepare() has returned true.
+     *
+     * @param samples the sample columns of the exercise
+     * @param fromIndex index of the first sample of the block (inclusive)
+     * @param toIndex index of the last sample of the block (exclusive)
+     */
+    void processSamples(ExerciseSampleColumns samples, int fromIndex, int toIndex);
+
+    /**
+     * Finishes the processing of the specified exercise, this is called after all samples were processed
+     * by all stages.
+     *
+     * @param exercise the processed exercise
+     */
+    void finish(EVExercise exercise);
+}
@@ -0,0 +1,330 @@
+package de.saring.exerciseviewer.data;
+
+import java.util.Arrays;
+
+import de.saring.util.unitcalc.CalculationUtils;
+
+/**
+ * Factory for all the available stages of the SampleProcessingPipeline. A new stage instance must be
+ * created for each pipeline, because the stages keep their state while processing an exercise.
+ *
+ * @author Stefan Saring
+ */
+public final class SampleProcessingStages {
+
+    private SampleProcessingStages() {
+    }
+
+    /**
+     * Creates the stage for the repair of the sample distances. In most file formats (e.g. S710Raw, HRM)
+     * there are no distance values for each recorded sample, they need to be calculated from the sample
+     * time and speed. This calculation is often not total precise, the distance of the last sample is
+     * smaller/larger then the exercise distance. So all sample distances will be recalculated in relation
+     * to the exercise distance.
+     *
+     * @return the stage
+     */
+    public static SampleProcessingStage distanceRepair() {
+        return new DistanceRepairStage();
+    }
+
+    /**
+     * Creates the stage for smoothing the sample speeds by a centered moving average. The smoothing uses
+     * the speed values as they were before the pipeline execution.
+     *
+     * @param windowSize number of samples in the averaging window (an even size will be incremented)
+     * @return the stage
+     */
+    public static SampleProcessingStage speedSmoothing(final int windowSize) {
+        return new SpeedSmoothingStage(windowSize);
+    }
+
+    /**
+     * Creates the stage for smoothing the sample altitudes by a centered moving average. The smoothing uses
+     * the altitude values as they were before the pipeline execution.
+     *
+     * @param windowSize number of samples in the averaging window (an even size will be incremented)
+     * @return the stage
+     */
+    public static SampleProcessingStage altitudeSmoothing(final int windowSize) {
+        return new AltitudeSmoothingStage(windowSize);
+    }
+
+    /**
+     * Creates the stage for filling gaps in the recorded heartrate (e.g. on connection problems of the
+     * heartrate sensor). The missing heartrates (value 0) will be interpolated linearly by the sample
+     * timestamps when there are valid heartrates before and after the gap. Gaps at the start or the end
+     * or gaps with more then the specified number of samples will not be filled.
+     *
+     * @param maxGapSamples the maximum number of samples in a gap to be filled
+     * @return the stage
+     */
+    public static SampleProcessingStage heartRateGapFilling(final int maxGapSamples) {
+        return new HeartRateGapFillingStage(maxGapSamples);
+    }
+
+    /**
+     * Creates the stage for the calculation of the average speed of all laps. This needs to be done for
+     * many models because the average lap speed is not part of the recorded data. The samples are not
+     * needed for this calculation.
+     *
+     * @return the stage
+     */
+    public static SampleProcessingStage lapSpeed() {
+        return new LapSpeedStage();
+    }
+
+    /**
+     * Stage for the recalculation of the sample distances in relation to the exercise distance.
+     */
+    private static final class DistanceRepairStage implements SampleProcessingStage {
+
+        private double relation;
+
+        @Override
+        public boolean prepare(final EVExercise exercise) {
+            // is all the required speed data available ?
+            final int sampleCount = exercise.getSampleCount();
+            if (exercise.getSpeed() == null || exercise.getSpeed().getDistance() == 0 || sampleCount == 0) {
+                return false;
+            }
+
+            // it's possible that there are not recorded samples for the whole exercise time
+            // (e.g. connection problems) => in this case we can't repair the sample distances
+            if (sampleCount < (exercise.getDuration() / 10 / exercise.getRecordingInterval())) {
+                return false;
+            }
+
+            // calculate relation of last sample distance to exercise distance
+            final int lastDistance = exercise.getSampleColumns().getDistance(sampleCount - 1);
+            relation = lastDistance / (double) exercise.getSpeed().getDistance();
+            return lastDistance != 0;
+        }
+
+        @Override
+        public void processSamples(final ExerciseSampleColumns samples, final int fromIndex, final int toIndex) {
+            final int[] distances = samples.getDistances();
+            for (int i = fromIndex; i < toIndex; i++) {
+                distances[i] = (int) Math.round(distances[i] / relation);
+            }
+        }
+
+        @Override
+        public void finish(final EVExercise exercise) {
+        }
+    }
+
+    /**
+     * Base class for stages smoothing a sample column by a centered moving average. The average window
+     * is moved along with the processed samples, so each value is added and removed only once. The
+     * subclasses contain the loops over the primitive column arrays.
+     */
+    private abstract static class AbstractSmoothingStage implements SampleProcessingStage {
+
+        protected final int halfWindowSize;
+
+        protected int windowFrom;
+        protected int windowTo;
+        protected double windowSum;
+
+        AbstractSmoothingStage(final int windowSize) {
+            this.halfWindowSize = Math.max(0, windowSize / 2);
+        }
+
+        @Override
+        public boolean prepare(final EVExercise exercise) {
+            windowFrom = 0;
+            windowTo = 0;
+            windowSum = 0;
+            return halfWindowSize > 0 && exercise.getSampleCount() > 0 && prepareColumn(exercise);
+        }
+
+        /**
+         * Prepares the column to be smoothed, the original values must be copied.
+         *
+         * @param exercise the exercise to process
+         * @return true when the column needs to be smoothed
+         */
+        protected abstract boolean prepareColumn(EVExercise exercise);
+
+        @Override
+        public void finish(final EVExercise exercise) {
+        }
+    }
+
+    /**
+     * Stage for smoothing the sample speeds.
+     */
+    private static final class SpeedSmoothingStage extends AbstractSmoothingStage {
+
+        private float[] originalSpeeds;
+
+        SpeedSmoothingStage(final int windowSize) {
+            super(windowSize);
+        }
+
+        @Override
+        protected boolean prepareColumn(final EVExercise exercise) {
+            if (!exercise.getRecordingMode().isSpeed()) {
+                return false;
+            }
+            final ExerciseSampleColumns samples = exercise.getSampleColumns();
+            originalSpeeds = Arrays.copyOf(samples.getSpeeds(), samples.size());
+            return true;
+        }
+
+        @Override
+        public void processSamples(final ExerciseSampleColumns samples, final int fromIndex, final int toIndex) {
+            final float[] speeds = samples.getSpeeds();
+            final int sampleCount = samples.size();
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                final int newWindowTo = Math.min(sampleCount, i + halfWindowSize + 1);
+                while (windowTo < newWindowTo) {
+                    windowSum += originalSpeeds[windowTo++];
+                }
+                final int newWindowFrom = Math.max(0, i - halfWindowSize);
+                while (windowFrom < newWindowFrom) {
+                    windowSum -= originalSpeeds[windowFrom++];
+                }
+                speeds[i] = (float) (windowSum / (windowTo - windowFrom));
+            }
+        }
+    }
+
+    /**
+     * Stage for smoothing the sample altitudes.
+     */
+    private static final class AltitudeSmoothingStage extends AbstractSmoothingStage {
+
+        private short[] originalAltitudes;
+
+        AltitudeSmoothingStage(final int windowSize) {
+            super(windowSize);
+        }
+
+        @Override
+        protected boolean prepareColumn(final EVExercise exercise) {
+            if (!exercise.getRecordingMode().isAltitude()) {
+                return false;
+            }
+            final ExerciseSampleColumns samples = exercise.getSampleColumns();
+            originalAltitudes = Arrays.copyOf(samples.getAltitudes(), samples.size());
+            return true;
+        }
+
+        @Override
+        public void processSamples(final ExerciseSampleColumns samples, final int fromIndex, final int toIndex) {
+            final short[] altitudes = samples.getAltitudes();
+            final int sampleCount = samples.size();
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                final int newWindowTo = Math.min(sampleCount, i + halfWindowSize + 1);
+                while (windowTo < newWindowTo) {
+                    windowSum += originalAltitudes[windowTo++];
+                }
+                final int newWindowFrom = Math.max(0, i - halfWindowSize);
+                while (windowFrom < newWindowFrom) {
+                    windowSum -= originalAltitudes[windowFrom++];
+                }
+                altitudes[i] = (short) Math.round(windowSum / (windowTo - windowFrom));
+            }
+        }
+    }
+
+    /**
+     * Stage for filling heartrate gaps by linear interpolation. When a gap gets filled, all following
+     * samples of the gap are modified (also in following blocks), they are valid then for all stages.
+     */
+    private static final class HeartRateGapFillingStage implements SampleProcessingStage {
+
+        private final int maxGapSamples;
+
+        HeartRateGapFillingStage(final int maxGapSamples) {
+            this.maxGapSamples = maxGapSamples;
+        }
+
+        @Override
+        public boolean prepare(final EVExercise exercise) {
+            return maxGapSamples > 0 && exercise.getSampleCount() > 0;
+        }
+
+        @Override
+        public void processSamples(final ExerciseSampleColumns samples, final int fromIndex, final int toIndex) {
+            final short[] heartRates = samples.getHeartRates();
+            final int sampleCount = samples.size();
+
+            for (int i = Math.max(1, fromIndex); i < toIndex; i++) {
+                if (heartRates[i] == 0 && heartRates[i - 1] > 0) {
+                    int gapEnd = i;
+                    while (gapEnd < sampleCount && gapEnd - i < maxGapSamples && heartRates[gapEnd] == 0) {
+                        gapEnd++;
+                    }
+
+                    if (gapEnd < sampleCount && heartRates[gapEnd] > 0) {
+                        fillGap(samples, i - 1, gapEnd);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Interpolates the heartrates of all samples between the specified samples with valid heartrates.
+         */
+        private void fillGap(final ExerciseSampleColumns samples, final int validBefore, final int validAfter) {
+            final short[] heartRates = samples.getHeartRates();
+            final long[] timestamps = samples.getTimestamps();
+            final int heartRateDelta = heartRates[validAfter] - heartRates[validBefore];
+            final long timeDelta = timestamps[validAfter] - timestamps[validBefore];
+
+            for (int i = validBefore + 1; i < validAfter; i++) {
+                // use the sample index for interpolation when the timestamps are not in ascending order
+                final double fraction = timeDelta > 0 ?
+                        (timestamps[i] - timestamps[validBefore]) / (double) timeDelta :
+                        (i - validBefore) / (double) (validAfter - validBefore);
+                heartRates[i] = (short) Math.round(heartRates[validBefore] + heartRateDelta * fraction);
+            }
+        }
+
+        @Override
+        public void finish(final EVExercise exercise) {
+        }
+    }
+
+    /**
+     * Stage for calculating the average speed of all laps from the lap distances and split times.
+     */
+    private static final class LapSpeedStage implements SampleProcessingStage {
+
+        @Override
+        public boolean prepare(final EVExercise exercise) {
+            return false;
+        }
+
+        @Override
+        public void processSamples(final ExerciseSampleColumns samples, final int fromIndex, final int toIndex) {
+        }
+
+        @Override
+        public void finish(final EVExercise exercise) {
+            // abort calculation when speed or lap data was not recorded
+            if (!exercise.getRecordingMode().isSpeed() || exercise.getLapList() == null) {
+                return;
+            }
+
+            // calculate AVG speed for all laps
+            int distanceBefore = 0;
+            int timeSplitBefore = 0;
+            for (Lap lap : exercise.getLapList()) {
+                final int lapDistance = lap.getSpeed().getDistance() - distanceBefore;
+                final int lapDuration = lap.getTimeSplit() - timeSplitBefore;
+
+                distanceBefore = lap.getSpeed().getDistance();
+                timeSplitBefore = lap.getTimeSplit();
+
+                lap.getSpeed().setSpeedAVG(CalculationUtils.calculateAvgSpeed(
+                        lapDistance / 1000f, Math.round(lapDuration / 10f)));
+            }
+        }
+    }
+}
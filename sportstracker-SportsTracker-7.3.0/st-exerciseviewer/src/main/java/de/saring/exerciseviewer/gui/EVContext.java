@@ -1,5 +1,7 @@
 package de.saring.exerciseviewer.gui;
 
+import de.saring.exerciseviewer.gui.panels.track.TileFactoryProvider;
+import de.saring.exerciseviewer.parser.ExerciseParseCache;
 import de.saring.util.AppResources;
 import de.saring.util.unitcalc.FormatUtils;
 import javafx.scene.control.Alert;
@@ -75,4 +77,18 @@ public interface EVContext {
      * @return the current FormatUtils instance
      */
     FormatUtils getFormatUtils();
+
+    /**
+     * Returns the cache for parsed exercise files.
+     *
+     * @return the ExerciseParseCache instance or null when no cache is used
+     */
+    ExerciseParseCache getExerciseParseCache();
+
+    /**
+     * Returns the provider of the map tiles for the track panel.
+     *
+     * @return the TileFactoryProvider instance or null when the default map tile source is used
+     */
+    TileFactoryProvider getTileFactoryProvider();
 }
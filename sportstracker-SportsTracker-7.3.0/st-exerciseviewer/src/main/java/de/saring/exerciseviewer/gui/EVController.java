@@ -1,6 +1,7 @@
 package de.saring.exerciseviewer.gui;
 
 import java.io.IOException;
+import java.util.logging.Logger;
 
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
@@ -13,6 +14,7 @@ import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 
+import de.saring.exerciseviewer.gui.panels.AbstractPanelController;
 import de.saring.exerciseviewer.gui.panels.DiagramPanelController;
 import de.saring.exerciseviewer.gui.panels.LapPanelController;
 import de.saring.exerciseviewer.gui.panels.MainPanelController;
@@ -22,12 +24,16 @@ import de.saring.exerciseviewer.gui.panels.TrackPanelController;
 import de.saring.util.gui.javafx.FxmlLoader;
 
 /**
- * Main Controller (MVC) class of the ExerciseViewer dialog window.
+ * Main Controller (MVC) class of the ExerciseViewer dialog window.<br/>
+ * Only the main panel is loaded on startup, all other panels are loaded when their tab
+ * gets selected first.
  *
  * @author Stefan Saring
  */
 public class EVController {
 
+    private static final Logger LOGGER = Logger.getLogger(EVController.class.getName());
+
     private static final String FXML_FILE = "/fxml/ExerciseViewer.fxml";
     private final EVContext context;
 
@@ -80,6 +86,7 @@ public class EVController {
      */
     public void show(final Stage stage) {
         this.stage = stage;
+        final long showStartTime = System.nanoTime();
 
         // load dialog UI from FXML
         Parent root;
@@ -99,6 +106,7 @@ public class EVController {
         final Scene scene = new Scene(root);
         setCloseOnEscape(scene);
         stage.setScene(scene);
+        logTimeToFirstPaint(showStartTime);
         stage.show();
     }
 
@@ -106,24 +114,55 @@ public class EVController {
         // load and setup main panel immediately, this tab must be visible on startup
         tabMain.setContent(mainPanelController.loadAndSetupPanelContent());
 
-        // load all other panels asynchronously, this reduces the startup time massively
-        Platform.runLater(() -> {
-            tabOptional.setContent(optionalPanelController.loadAndSetupPanelContent());
-            tabLaps.setContent(lapPanelController.loadAndSetupPanelContent());
-            tabSamples.setContent(samplePanelController.loadAndSetupPanelContent());
-            tabDiagram.setContent(diagramPanelController.loadAndSetupPanelContent());
-            tabTrack.setContent(trackPanelController.loadAndSetupPanelContent());
-
-            // display exercise track not before the user wants to see it
-            // (prevents layout problems and reduces startup time)
-            tabTrack.setOnSelectionChanged(event -> {
-                if (tabTrack.isSelected()) {
-                    trackPanelController.showTrack();
+        // load all other panels when their tab gets selected first, this reduces the startup time massively
+        setupLazyPanel(tabOptional, optionalPanelController, null);
+        setupLazyPanel(tabLaps, lapPanelController, null);
+        setupLazyPanel(tabSamples, samplePanelController, null);
+        setupLazyPanel(tabDiagram, diagramPanelController, null);
+
+        // display exercise track not before the user wants to see it
+        // (prevents layout problems and reduces startup time)
+        setupLazyPanel(tabTrack, trackPanelController, trackPanelController::showTrack);
+    }
+
+    /**
+     * Registers the loading of the panel content when the specified tab gets selected first.
+     *
+     * @param tab the tab to display the panel in
+     * @param panelController the controller of the panel
+     * @param onSelected action to be executed each time the tab has been selected (optional)
+     */
+    private void setupLazyPanel(final Tab tab, final AbstractPanelController panelController,
+            final Runnable onSelected) {
+
+        tab.setOnSelectionChanged(event -> {
+            if (tab.isSelected()) {
+                if (tab.getContent() == null) {
+                    tab.setContent(panelController.loadAndSetupPanelContent());
+
+                    // the new panel content needs a layout, some panels need their size for setup
+                    tab.getTabPane().applyCss();
+                    tab.getTabPane().layout();
                 }
-            });
+
+                if (onSelected != null) {
+                    onSelected.run();
+                }
+            }
         });
     }
 
+    /**
+     * Logs the time from the begin of the dialog setup until the main panel has been painted first.
+     * The first paint has been done, when the first pulse after showing the stage has been processed.
+     *
+     * @param showStartTime start time of the dialog setup (in nanoseconds)
+     */
+    private void logTimeToFirstPaint(final long showStartTime) {
+        stage.addEventHandler(WindowEvent.WINDOW_SHOWN, event -> Platform.runLater(() -> LOGGER.info(
+                "ExerciseViewer main panel painted after " + (System.nanoTime() - showStartTime) / 1000000 + " ms")));
+    }
+
     /**
      * Closes the dialog when the user presses the Escape key.
      *
@@ -1,10 +1,16 @@
 package de.saring.exerciseviewer.gui;
 
+import java.util.concurrent.CompletableFuture;
+
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.core.EVOptions;
 import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.parser.AsyncExerciseParsing;
+import de.saring.exerciseviewer.parser.ExerciseParseCache;
 import de.saring.exerciseviewer.parser.ExerciseParser;
 import de.saring.exerciseviewer.parser.ExerciseParserFactory;
+import de.saring.exerciseviewer.parser.ParseProgressListener;
+import de.saring.util.metrics.Timer;
 
 /**
  * This class contains all model / document (MVC) related data and functionality of the
@@ -23,19 +29,46 @@ public class EVDocument {
     /** The ExerciseViewer options. */
     private EVOptions options;
 
+    /** The cache for parsed exercise files (optional, can be null). */
+    private ExerciseParseCache parseCache;
+
     /**
-     * Reads the specified exercise file and stores it in the document.
+     * Reads the specified exercise file and stores it in the document. The parse cache will be
+     * used when available.
      *
      * @param filename exercise filename
      * @throws EVException on parsing problems
      */
     public void openExerciseFile(String filename) throws EVException {
 
-        ExerciseParser parser = ExerciseParserFactory.getParser(filename);
-        exercise = parser.parseExercise(filename);
+        if (parseCache != null) {
+            exercise = parseCache.parseExercise(filename);
+        } else {
+            ExerciseParser parser = ExerciseParserFactory.getParser(filename);
+            try (Timer.Context ignored = ExerciseParserFactory.PARSE_TIMER.start()) {
+                exercise = parser.parseExercise(filename);
+            }
+        }
         exerciseFilename = filename;
     }
 
+    /**
+     * Reads the specified exercise file in a background thread and stores it in the document,
+     * see openExerciseFile(). The exercise is stored before the returned future completes. The
+     * reading can be cancelled by cancelling the returned future.
+     *
+     * @param filename exercise filename
+     * @param progressListener listener for the parsing progress (optional, can be null)
+     * @return the CompletableFuture of the parsed exercise, it completes exceptionally on parsing problems
+     */
+    public CompletableFuture<EVExercise> openExerciseFileAsync(String filename,
+            ParseProgressListener progressListener) {
+        return AsyncExerciseParsing.parseAsync(filename, progressListener, () -> {
+            openExerciseFile(filename);
+            return exercise;
+        });
+    }
+
     public EVExercise getExercise() {
         return exercise;
     }
@@ -51,4 +84,12 @@ public class EVDocument {
     public void setOptions(EVOptions options) {
         this.options = options;
     }
+
+    public ExerciseParseCache getParseCache() {
+        return parseCache;
+    }
+
+    public void setParseCache(ExerciseParseCache parseCache) {
+        this.parseCache = parseCache;
+    }
 }
@@ -1,16 +1,29 @@
 package de.saring.exerciseviewer.gui;
 
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
 import javafx.stage.WindowEvent;
 
 import javax.inject.Inject;
 
 import de.saring.exerciseviewer.core.EVOptions;
+import de.saring.exerciseviewer.data.EVExercise;
 import de.saring.util.SystemUtils;
 import de.saring.util.gui.javafx.WindowBoundsPersistence;
 
@@ -49,7 +62,8 @@ public class EVMain {
     }
 
     /**
-     * Displays the exercise specified by the filename in the ExerciseViewer dialog.
+     * Displays the exercise specified by the filename in the ExerciseViewer dialog. The exercise
+     * file is parsed in background, a cancellable progress dialog is displayed meanwhile.
      *
      * @param exerciseFilename exercise file to display
      * @param options the options to be used in ExerciseViewer
@@ -59,17 +73,37 @@ public class EVMain {
     public void showExercise(final String exerciseFilename, final EVOptions options, final Stage parent,
             final boolean modal) {
 
-        // init document and load exercise file
+        // init document and load exercise file in background, display the parsing progress meanwhile
         document.setOptions(options);
+        document.setParseCache(context.getExerciseParseCache());
+
+        final ProgressBar pbParsing = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        final CompletableFuture<EVExercise> parseFuture = document.openExerciseFileAsync(exerciseFilename,
+                (bytesConsumed, bytesTotal) -> Platform.runLater(() -> pbParsing.setProgress(
+                        bytesTotal > 0 ? bytesConsumed / (double) bytesTotal : ProgressBar.INDETERMINATE_PROGRESS)));
+
+        final Stage parsingStage = createParsingStage(exerciseFilename, pbParsing, parent);
+        // cancel parsing when the user closes the progress dialog (does nothing when parsing is completed)
+        parsingStage.addEventHandler(WindowEvent.WINDOW_HIDDEN, event -> parseFuture.cancel(true));
+        parsingStage.show();
+
+        parseFuture.whenComplete((exercise, throwable) -> Platform.runLater(() -> {
+            if (parseFuture.isCancelled()) {
+                return;
+            }
+            parsingStage.close();
+
+            if (throwable != null) {
+                LOGGER.log(Level.SEVERE, "Failed to open exercise file " + exerciseFilename + "!", throwable);
+                context.showMessageDialog(parent, Alert.AlertType.ERROR, //
+                        "common.error", "pv.error.read_exercise_console", exerciseFilename);
+            } else {
+                showExerciseViewer(parent, modal);
+            }
+        }));
+    }
 
-        try {
-            document.openExerciseFile(exerciseFilename);
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Failed to open exercise file " + exerciseFilename + "!", e);
-            context.showMessageDialog(parent, Alert.AlertType.ERROR, //
-                    "common.error", "pv.error.read_exercise_console", exerciseFilename);
-            return;
-        }
+    private void showExerciseViewer(final Stage parent, final boolean modal) {
 
         // create stage
         final Stage stage = new Stage();
@@ -85,4 +119,37 @@ public class EVMain {
         // trigger a garbage collection when EV has been closed to avoid allocation of additional heap space
         stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, event -> SystemUtils.triggerGC());
     }
+
+    /**
+     * Creates the small dialog which displays the progress while parsing the exercise file. The
+     * parent window is blocked meanwhile, the user can cancel the parsing by closing the dialog.
+     *
+     * @param exerciseFilename exercise file to be parsed
+     * @param pbParsing progress bar for the parsing progress
+     * @param parent parent stage/window of the dialog
+     * @return the created dialog stage
+     */
+    private Stage createParsingStage(final String exerciseFilename, final ProgressBar pbParsing, final Stage parent) {
+        final Stage parsingStage = new Stage(StageStyle.UTILITY);
+        parsingStage.initOwner(parent);
+        parsingStage.initModality(Modality.WINDOW_MODAL);
+        parsingStage.setTitle(DIALOG_NAME);
+        parsingStage.setResizable(false);
+
+        final Label laParsing = new Label(context.getResources().getString("pv.info.reading_exercise",
+                Paths.get(exerciseFilename).getFileName()));
+        pbParsing.setMaxWidth(Double.MAX_VALUE);
+
+        final Button btCancel = new Button(context.getResources().getString("pv.view.cancel.Action.text"));
+        btCancel.setCancelButton(true);
+        btCancel.setOnAction(event -> parsingStage.close());
+        final HBox hbButtons = new HBox(btCancel);
+        hbButtons.setAlignment(Pos.CENTER_RIGHT);
+
+        final VBox vbParsing = new VBox(12, laParsing, pbParsing, hbButtons);
+        vbParsing.setPadding(new Insets(12));
+        vbParsing.setPrefWidth(360);
+        parsingStage.setScene(new Scene(vbParsing));
+        return parsingStage;
+    }
 }
@@ -2,14 +2,27 @@ package de.saring.exerciseviewer.gui.panels;
 
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.TimeZone;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import de.saring.exerciseviewer.gui.EVDocument;
 import de.saring.util.gui.jfreechart.ChartUtils;
+import de.saring.util.gui.jfreechart.DownsampledXYDataset;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.Timer;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.StackPane;
 import javafx.util.StringConverter;
 
@@ -28,18 +41,13 @@ import org.jfree.chart.plot.ValueMarker;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.StandardXYItemRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
-import org.jfree.data.general.Series;
+import org.jfree.data.Range;
 import org.jfree.data.time.Second;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
-import org.jfree.data.xy.XYDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 import org.jfree.ui.RectangleAnchor;
 import org.jfree.ui.TextAnchor;
 
 import de.saring.exerciseviewer.data.EVExercise;
-import de.saring.exerciseviewer.data.ExerciseSample;
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
 import de.saring.exerciseviewer.data.HeartRateLimit;
 import de.saring.exerciseviewer.data.Lap;
 import de.saring.exerciseviewer.gui.EVContext;
@@ -61,6 +69,10 @@ public class DiagramPanelController extends AbstractPanelController {
     private static final java.awt.Color COLOR_MARKER_LAP = new java.awt.Color(0f, 0.73f, 0f);
     private static final java.awt.Color COLOR_MARKER_HEARTRATE = new java.awt.Color(0.8f, 0.8f, 0.8f, 0.3f);
 
+    private static final Logger LOGGER = Logger.getLogger(DiagramPanelController.class.getName());
+
+    private static final Timer CREATE_CHART_TIMER = Metrics.timer("exerciseviewer.diagram.create");
+
     private static final TimeZone TIMEZONE_GMT = TimeZone.getTimeZone("GMT");
 
     private final AxisTypeStringConverter axisTypeStringConverter;
@@ -68,6 +80,21 @@ public class DiagramPanelController extends AbstractPanelController {
     /** The viewer for the chart. */
     private ChartViewer chartViewer;
 
+    /** The chart of the diagram, it will be recreated only when the domain axis type changes. */
+    private JFreeChart chart;
+
+    /** Flag whether the current chart uses the time domain axis. */
+    private boolean chartDomainAxisTime;
+
+    /** Cache of the computed domain values for each domain axis type. */
+    private final Map<SeriesKey, DomainValues> domainValuesCache = new HashMap<>();
+
+    /** Cache of the computed range axis values for each axis type and domain axis type. */
+    private final Map<SeriesKey, double[]> rangeValuesCache = new HashMap<>();
+
+    /** Flag whether the computation of missing diagram values is running. */
+    private boolean seriesCacheTaskRunning = false;
+
     /** The exercise heartrate range to be highlighted (null for no highlighting). */
     private HeartRateLimit highlightHeartrateRange = null;
 
@@ -178,100 +205,112 @@ public class DiagramPanelController extends AbstractPanelController {
 
     /**
      * Draws the diagram according to the current axis type selection and configuration settings.
+     * The values of the selected axes are computed in background when they are not cached yet, the
+     * diagram will be drawn afterwards. The chart will only be recreated when the domain axis type has
+     * been changed, otherwise only the datasets of the existing plot will be replaced.
      */
     private void updateDiagram() {
-        final EVExercise exercise = getDocument().getExercise();
-
         final AxisType axisTypeLeft = cbLeftAxis.getValue();
         final AxisType axisTypeRight = cbRightAxis.getValue();
         final AxisType axisTypeBottom = cbBottomAxis.getValue();
         final boolean fDomainAxisTime = axisTypeBottom == AxisType.TIME;
 
-        // create and fill data series according to axis type
-        // (right axis only when user selected a different axis type)
-        final Series sLeft = createSeries(fDomainAxisTime, "left");
-        Series sRight = null;
-        if ((axisTypeRight != AxisType.NOTHING) && (axisTypeRight != axisTypeLeft)) {
-            sRight = createSeries(fDomainAxisTime, "right");
-        }
+        // right axis only when user selected a different axis type
+        final boolean fRightAxis = (axisTypeRight != AxisType.NOTHING) && (axisTypeRight != axisTypeLeft);
 
-        // fill data series with all recorded exercise samples
-        if (exercise.getSampleList() != null) {
-            for (int i = 0; i < exercise.getSampleList().length; i++) {
+        final SeriesKey domainKey = createSeriesKey(axisTypeBottom, axisTypeBottom);
+        final SeriesKey leftKey = createSeriesKey(axisTypeLeft, axisTypeBottom);
+        final SeriesKey rightKey = fRightAxis ? createSeriesKey(axisTypeRight, axisTypeBottom) : null;
 
-                final ExerciseSample sample = exercise.getSampleList()[i];
-                final Number valueLeft = getSampleValue(axisTypeLeft, sample);
-                final Number valueRight = getSampleValue(axisTypeRight, sample);
+        if (!domainValuesCache.containsKey(domainKey) || !rangeValuesCache.containsKey(leftKey) ||
+                (rightKey != null && !rangeValuesCache.containsKey(rightKey))) {
+            startSeriesCacheTask(domainKey, leftKey, rightKey);
+            return;
+        }
 
-                if (fDomainAxisTime) {
-                    // calculate current second
-                    final int timeSeconds = (int) (sample.getTimestamp() / 1000);
-                    final Second second = createJFreeChartSecond(timeSeconds);
-                    fillDataInTimeSeries((TimeSeries) sLeft, (TimeSeries) sRight, second, valueLeft, valueRight);
-                } else {
-                    // get current distance of this sample
-                    double fDistance = sample.getDistance() / 1000f;
-                    if (getContext().getFormatUtils().getUnitSystem() != FormatUtils.UnitSystem.Metric) {
-                        fDistance = ConvertUtils.convertKilometer2Miles(fDistance, false);
-                    }
-                    fillDataInXYSeries((XYSeries) sLeft, (XYSeries) sRight, fDistance, valueLeft, valueRight);
-                }
+        if (chart == null || chartDomainAxisTime != fDomainAxisTime) {
+            try (Timer.Context ignored = CREATE_CHART_TIMER.start()) {
+                createChart(axisTypeBottom);
             }
         }
-        // some Polar models only record lap data. no samples (e.g. RS200SD)
-        else if (exercise.getLapList() != null) {
-            // data starts with first lap => add 0 values (otherwise not displayed)
-            if (fDomainAxisTime) {
-                fillDataInTimeSeries((TimeSeries) sLeft, (TimeSeries) sRight, createJFreeChartSecond(0), 0, 0);
-            } else {
-                fillDataInXYSeries((XYSeries) sLeft, (XYSeries) sRight, 0, 0, 0);
-            }
 
-            // fill data series with all recorded exercise laps
-            for (int i = 0; i < exercise.getLapList().length; i++) {
+        final XYPlot plot = (XYPlot) chart.getPlot();
+        final double[] xValues = domainValuesCache.get(domainKey).xValues;
+
+        // the datasets contain only a downsampled subset of the values for the current viewport
+        plot.setDataset(0, new DownsampledXYDataset("left", xValues, rangeValuesCache.get(leftKey)));
+        plot.getRangeAxis(0).setLabel(axisTypeStringConverter.toString(axisTypeLeft));
+        setTooltipGenerator(plot.getRenderer(0), axisTypeBottom, axisTypeLeft);
+
+        // setup right axis (hidden when not selected)
+        final ValueAxis axisRight = plot.getRangeAxis(1);
+        if (fRightAxis) {
+            plot.setDataset(1, new DownsampledXYDataset("right", xValues, rangeValuesCache.get(rightKey)));
+            axisRight.setLabel(axisTypeStringConverter.toString(axisTypeRight));
+            axisRight.setVisible(true);
+            setTooltipGenerator(plot.getRenderer(1), axisTypeBottom, axisTypeRight);
+        } else {
+            plot.setDataset(1, null);
+            axisRight.setVisible(false);
+        }
 
-                final Lap lap = exercise.getLapList()[i];
-                final Number valueLeft = getLapValue(axisTypeLeft, lap);
-                final Number valueRight = getLapValue(axisTypeRight, lap);
+        // highlight current selected (if set) heartrate range when displayed on left axis
+        plot.clearRangeMarkers();
+        if (highlightHeartrateRange != null && axisTypeLeft == AxisType.HEARTRATE) {
 
-                if (fDomainAxisTime) {
-                    // calculate current second
-                    final int timeSeconds = Math.round(lap.getTimeSplit() / 10f);
-                    final Second second = createJFreeChartSecond(timeSeconds);
-                    fillDataInTimeSeries((TimeSeries) sLeft, (TimeSeries) sRight, second, valueLeft, valueRight);
-                } else {
-                    // get current distance of this sample
-                    double fDistance = lap.getSpeed().getDistance() / 1000f;
-                    if (getContext().getFormatUtils().getUnitSystem() != FormatUtils.UnitSystem.Metric) {
-                        fDistance = ConvertUtils.convertKilometer2Miles(fDistance, false);
-                    }
-                    fillDataInXYSeries((XYSeries) sLeft, (XYSeries) sRight, fDistance, valueLeft, valueRight);
-                }
+            // don't highlight percentual ranges (is not possible, the values
+            // are absolute and the maximum heartrate is unknown)
+            if (highlightHeartrateRange.isAbsoluteRange()) {
+                final Marker hrRangeMarker = new IntervalMarker(highlightHeartrateRange.getLowerHeartRate(),
+                        highlightHeartrateRange.getUpperHeartRate());
+                hrRangeMarker.setPaint(COLOR_MARKER_HEARTRATE);
+                plot.addRangeMarker(hrRangeMarker);
             }
         }
 
-        final XYDataset dataset = createDataSet(fDomainAxisTime, sLeft);
+        updateDatasetViewports(plot);
+
+        // display chart in viewer (chart viewer will be initialized lazily, replaces the placeholder)
+        if (chartViewer == null) {
+            chartViewer = new ChartViewer(chart);
+            spDiagram.getChildren().setAll(chartViewer);
+            spDiagram.widthProperty().addListener((observable, oldValue, newValue) ->
+                    updateDatasetViewports((XYPlot) chartViewer.getChart().getPlot()));
+        } else if (chartViewer.getChart() != chart) {
+            chartViewer.setChart(chart);
+        }
+    }
+
+    /**
+     * Creates the chart for the specified domain axis type without any datasets. It contains the
+     * axes, the renderers and the lap markers.
+     *
+     * @param axisTypeBottom type of the domain axis
+     */
+    private void createChart(final AxisType axisTypeBottom) {
+        final EVExercise exercise = getDocument().getExercise();
+        final boolean fDomainAxisTime = axisTypeBottom == AxisType.TIME;
 
         // create chart depending on domain axis type
-        JFreeChart chart = null;
         if (fDomainAxisTime) {
             chart = ChartFactory.createTimeSeriesChart(null, // Title
                     axisTypeStringConverter.toString(axisTypeBottom), // Y-axis label
-                    axisTypeStringConverter.toString(axisTypeLeft), // X-axis label
-                    dataset, // primary dataset
+                    null, // X-axis label (depends on the dataset)
+                    null, // primary dataset
                     false, // display legend
                     true, // display tooltips
                     false); // URLs
         } else {
             chart = ChartFactory.createXYLineChart(null, // Title
                     axisTypeStringConverter.toString(axisTypeBottom), // Y-axis label
-                    axisTypeStringConverter.toString(axisTypeLeft), // X-axis label
-                    dataset, // primary dataset
+                    null, // X-axis label (depends on the dataset)
+                    null, // primary dataset
                     PlotOrientation.VERTICAL, // plot orientation
                     false, // display legend
                     true, // display tooltips
                     false); // URLs
         }
+        chartDomainAxisTime = fDomainAxisTime;
 
         // set format of time domain axis (if active)
         final XYPlot plot = (XYPlot) chart.getPlot();
@@ -280,31 +319,22 @@ public class DiagramPanelController extends AbstractPanelController {
         final ValueAxis axisLeft = plot.getRangeAxis(0);
         axisLeft.setLabelPaint(COLOR_AXIS_LEFT);
         axisLeft.setTickLabelPaint(COLOR_AXIS_LEFT);
-        final XYItemRenderer rendererLeft = plot.getRenderer(0);
-        rendererLeft.setSeriesPaint(0, COLOR_AXIS_LEFT);
-        setTooltipGenerator(rendererLeft, axisTypeBottom, axisTypeLeft);
-
-        // setup right axis (when selected)
-        if (sRight != null) {
-
-            final NumberAxis axisRight = new NumberAxis(axisTypeStringConverter.toString(axisTypeRight));
-            axisRight.setAutoRangeIncludesZero(false);
-            plot.setRangeAxis(1, axisRight);
-            plot.setRangeAxisLocation(1, AxisLocation.BOTTOM_OR_RIGHT);
-            axisRight.setLabelPaint(COLOR_AXIS_RIGHT);
-            axisRight.setTickLabelPaint(COLOR_AXIS_RIGHT);
-
-            // create dataset for right axis
-            final XYDataset datasetRight = createDataSet(fDomainAxisTime, sRight);
-            plot.setDataset(1, datasetRight);
-            plot.mapDatasetToRangeAxis(1, 1);
-
-            // set custom renderer
-            final StandardXYItemRenderer rendererRight = new StandardXYItemRenderer();
-            rendererRight.setSeriesPaint(0, COLOR_AXIS_RIGHT);
-            plot.setRenderer(1, rendererRight);
-            setTooltipGenerator(rendererRight, axisTypeBottom, axisTypeRight);
-        }
+        plot.getRenderer(0).setSeriesPaint(0, COLOR_AXIS_LEFT);
+
+        // setup right axis (will be displayed when selected)
+        final NumberAxis axisRight = new NumberAxis();
+        axisRight.setAutoRangeIncludesZero(false);
+        axisRight.setVisible(false);
+        plot.setRangeAxis(1, axisRight);
+        plot.setRangeAxisLocation(1, AxisLocation.BOTTOM_OR_RIGHT);
+        axisRight.setLabelPaint(COLOR_AXIS_RIGHT);
+        axisRight.setTickLabelPaint(COLOR_AXIS_RIGHT);
+        plot.mapDatasetToRangeAxis(1, 1);
+
+        // set custom renderer
+        final StandardXYItemRenderer rendererRight = new StandardXYItemRenderer();
+        rendererRight.setSeriesPaint(0, COLOR_AXIS_RIGHT);
+        plot.setRenderer(1, rendererRight);
 
         // use TimeZone GMT on the time axis, because all Date value are GMT based
         if (fDomainAxisTime) {
@@ -312,19 +342,6 @@ public class DiagramPanelController extends AbstractPanelController {
             dateAxis.setTimeZone(TIMEZONE_GMT);
         }
 
-        // highlight current selected (if set) heartrate range when displayed on left axis
-        if (highlightHeartrateRange != null && axisTypeLeft == AxisType.HEARTRATE) {
-
-            // don't highlight percentual ranges (is not possible, the values
-            // are absolute and the maximum heartrate is unknown)
-            if (highlightHeartrateRange.isAbsoluteRange()) {
-                final Marker hrRangeMarker = new IntervalMarker(highlightHeartrateRange.getLowerHeartRate(),
-                        highlightHeartrateRange.getUpperHeartRate());
-                hrRangeMarker.setPaint(COLOR_MARKER_HEARTRATE);
-                plot.addRangeMarker(hrRangeMarker);
-            }
-        }
-
         // draw a vertical marker line for each lap (not for the last)
         if (exercise.getLapList().length > 0) {
 
@@ -357,92 +374,72 @@ public class DiagramPanelController extends AbstractPanelController {
 
         ChartUtils.customizeChart(chart);
 
-        // display chart in viewer (chart viewer will be initialized lazily)
-        if (chartViewer == null) {
-            chartViewer = new ChartViewer(chart);
-            spDiagram.getChildren().addAll(chartViewer);
-        } else {
-            chartViewer.setChart(chart);
-        }
+        // recompute the downsampled datasets on each domain axis change (e.g. on zooming)
+        plot.getDomainAxis().addChangeListener(event -> updateDatasetViewports(plot));
     }
 
     /**
-     * Creates the JFreeChart Second instance for the specified number of seconds.
+     * Starts the background computation of the missing values for the specified series. A placeholder
+     * will be displayed until the first diagram is available. When the computation is already running,
+     * the diagram will be updated afterwards and the missing values will be computed then.
      *
-     * @param seconds the number of seconds
-     * @return the created Second instance
+     * @param domainKey key of the domain values
+     * @param leftKey key of the left axis values
+     * @param rightKey key of the right axis values (null when not displayed)
      */
-    private Second createJFreeChartSecond(final int seconds) {
-        return new Second(new Date(seconds * 1000L));
-    }
+    private void startSeriesCacheTask(final SeriesKey domainKey, final SeriesKey leftKey, final SeriesKey rightKey) {
+        if (chartViewer == null && spDiagram.getChildren().isEmpty()) {
+            final ProgressIndicator piPlaceholder = new ProgressIndicator();
+            piPlaceholder.setMaxSize(48, 48);
+            spDiagram.getChildren().add(piPlaceholder);
+        }
 
-    /**
-     * Creates a data series object for the specified domain axis type.
-     *
-     * @param fDomainAxisTime true when domain axis is time of false when distance
-     * @param name name of the data series
-     * @return the created data series
-     */
-    private Series createSeries(final boolean fDomainAxisTime, final String name) {
-        if (fDomainAxisTime) {
-            return new TimeSeries(name);
-        } else {
-            return new XYSeries(name);
+        if (!seriesCacheTaskRunning) {
+            seriesCacheTaskRunning = true;
+            new Thread(new SeriesCacheTask(domainKey, leftKey, rightKey)).start();
         }
     }
 
     /**
-     * Creates a dataset for the specified series and the domain axis type.
+     * Creates the cache key for the values of the specified axis type and domain axis type in the
+     * current unit system and speed view.
      *
-     * @param fDomainAxisTime true when domain axis is time of false when distance
-     * @param series the series to be addet to the dataset
-     * @return the created dataset
+     * @param axisType the axis type of the values
+     * @param domainAxisType the domain axis type
+     * @return the created key
      */
-    private XYDataset createDataSet(final boolean fDomainAxisTime, final Series series) {
-        if (fDomainAxisTime) {
-            return new TimeSeriesCollection((TimeSeries) series);
-        } else {
-            return new XYSeriesCollection((XYSeries) series);
-        }
+    private SeriesKey createSeriesKey(final AxisType axisType, final AxisType domainAxisType) {
+        final FormatUtils formatUtils = getContext().getFormatUtils();
+        return new SeriesKey(axisType, domainAxisType, formatUtils.getUnitSystem(), formatUtils.getSpeedView());
     }
 
     /**
-     * Fills the specified data to the left and right time series.
+     * Updates the viewport of all downsampled datasets of the plot to the current visible
+     * domain range and the diagram width. So the datasets contain more details when zooming in.
      *
-     * @param sLeft the left TimeSeries
-     * @param sRight the right TimeSeries (optional, can be null)
-     * @param second the second for the current values
-     * @param valueLeft the value of the left time series
-     * @param valueRight the value of the right time series
+     * @param plot the plot of the diagram
      */
-    private void fillDataInTimeSeries(final TimeSeries sLeft, final TimeSeries sRight, final Second second,
-            final Number valueLeft, final Number valueRight) {
-
-        // don't add the data when the specified second was allready added
-        if (sLeft.getValue(second) == null) {
-            sLeft.add(second, valueLeft);
-            if (sRight != null) {
-                sRight.add(second, valueRight);
+    private void updateDatasetViewports(final XYPlot plot) {
+        final Range domainRange = plot.getDomainAxis().getRange();
+        final int viewportWidth = spDiagram.getWidth() > 0 ?
+                (int) Math.ceil(spDiagram.getWidth()) : DownsampledXYDataset.DEFAULT_VIEWPORT_WIDTH;
+
+        for (int i = 0; i < plot.getDatasetCount(); i++) {
+            if (plot.getDataset(i) instanceof DownsampledXYDataset) {
+                ((DownsampledXYDataset) plot.getDataset(i)).setViewport(
+                        domainRange.getLowerBound(), domainRange.getUpperBound(), viewportWidth);
             }
         }
     }
 
     /**
-     * Fills the specified data to the left and right XY series.
+     * Creates the JFreeChart Second instance for the specified number of seconds.
      *
-     * @param sLeft the left XYSeries
-     * @param sRight the right XYSeries (optional, can be null)
-     * @param valueBottom the value of the bottom domain axis
-     * @param valueLeft the value of the left time series
-     * @param valueRight the value of the right time series
+     * @param seconds the number of seconds
+     * @return the created Second instance
      */
-    private void fillDataInXYSeries(final XYSeries sLeft, final XYSeries sRight, final double valueBottom,
-            final Number valueLeft, final Number valueRight) {
-
-        sLeft.add(valueBottom, valueLeft);
-        if (sRight != null) {
-            sRight.add(valueBottom, valueRight);
-        }
+    private Second createJFreeChartSecond(final int seconds) {
+        return new Second(new Date(seconds * 1000L));
     }
 
     /**
@@ -468,33 +465,169 @@ public class DiagramPanelController extends AbstractPanelController {
         }
     }
 
+    /**
+     * Computes the domain values for all samples (or laps, when the exercise contains no samples).
+     * The values are sorted, for the time domain only the first value of each second is used.
+     *
+     * @param domainKey key of the domain values
+     * @param samples the exercise sample columns (null when not recorded)
+     * @param laps the exercise laps
+     * @return the computed domain values
+     */
+    private DomainValues computeDomainValues(final SeriesKey domainKey, final ExerciseSampleColumns samples,
+            final Lap[] laps) {
+        final boolean fDomainAxisTime = domainKey.axisType == AxisType.TIME;
+        final int sourceCount = getSourceCount(samples, laps);
+
+        final double[] xValues = new double[sourceCount];
+        boolean sorted = true;
+        for (int i = 0; i < sourceCount; i++) {
+            xValues[i] = getSourceDomainValue(domainKey, samples, laps, i);
+            sorted &= i == 0 || xValues[i] >= xValues[i - 1];
+        }
+
+        // sort the source indexes by the domain value (the order of same values will not be changed)
+        final int[] order = new int[sourceCount];
+        if (sorted) {
+            Arrays.setAll(order, i -> i);
+        } else {
+            final Integer[] boxedOrder = new Integer[sourceCount];
+            Arrays.setAll(boxedOrder, i -> i);
+            Arrays.sort(boxedOrder, (i1, i2) -> Double.compare(xValues[i1], xValues[i2]));
+            Arrays.setAll(order, i -> boxedOrder[i]);
+        }
+
+        final double[] sortedXValues = new double[sourceCount];
+        final int[] sourceIndexes = new int[sourceCount];
+        int size = 0;
+
+        for (int index : order) {
+            // don't add the data when the same second was already added
+            if (fDomainAxisTime && size > 0 && sortedXValues[size - 1] == xValues[index]) {
+                continue;
+            }
+            sortedXValues[size] = xValues[index];
+            sourceIndexes[size] = index;
+            size++;
+        }
+        return new DomainValues(Arrays.copyOf(sortedXValues, size), Arrays.copyOf(sourceIndexes, size));
+    }
+
+    /**
+     * Computes the values of the specified axis type for all domain values.
+     *
+     * @param rangeKey key of the values
+     * @param domainValues the domain values
+     * @param samples the exercise sample columns (null when not recorded)
+     * @param laps the exercise laps
+     * @return the computed values
+     */
+    private double[] computeRangeValues(final SeriesKey rangeKey, final DomainValues domainValues,
+            final ExerciseSampleColumns samples, final Lap[] laps) {
+        final double[] yValues = new double[domainValues.sourceIndexes.length];
+        for (int i = 0; i < yValues.length; i++) {
+            yValues[i] = getSourceValue(rangeKey, samples, laps, domainValues.sourceIndexes[i]).doubleValue();
+        }
+        return yValues;
+    }
+
+    /**
+     * Returns the number of sources for the diagram values. These are the exercise samples or (when no
+     * samples were recorded, e.g. Polar RS200SD) the laps with an additional 0 value at the start.
+     *
+     * @param samples the exercise sample columns (null when not recorded)
+     * @param laps the exercise laps
+     * @return number of sources
+     */
+    private int getSourceCount(final ExerciseSampleColumns samples, final Lap[] laps) {
+        if (samples != null) {
+            return samples.size();
+        } else if (laps != null) {
+            return laps.length + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the domain value of the specified source (seconds as milliseconds or distance).
+     *
+     * @param domainKey key of the domain values
+     * @param samples the exercise sample columns (null when not recorded)
+     * @param laps the exercise laps
+     * @param index index of the source
+     * @return the domain value
+     */
+    private double getSourceDomainValue(final SeriesKey domainKey, final ExerciseSampleColumns samples,
+            final Lap[] laps, final int index) {
+
+        if (domainKey.axisType == AxisType.TIME) {
+            // calculate current second
+            final int timeSeconds;
+            if (samples != null) {
+                timeSeconds = (int) (samples.getTimestamp(index) / 1000);
+            } else {
+                // data starts with first lap => add 0 values (otherwise not displayed)
+                timeSeconds = index == 0 ? 0 : Math.round(laps[index - 1].getTimeSplit() / 10f);
+            }
+            return timeSeconds * 1000d;
+        } else {
+            // get current distance of this sample
+            double fDistance;
+            if (samples != null) {
+                fDistance = samples.getDistance(index) / 1000f;
+            } else {
+                fDistance = index == 0 ? 0 : laps[index - 1].getSpeed().getDistance() / 1000f;
+            }
+            if (domainKey.unitSystem != FormatUtils.UnitSystem.Metric) {
+                fDistance = ConvertUtils.convertKilometer2Miles(fDistance, false);
+            }
+            return fDistance;
+        }
+    }
+
+    /**
+     * Returns the value of the specified source and axis type.
+     *
+     * @param rangeKey key of the values
+     * @param samples the exercise sample columns (null when not recorded)
+     * @param laps the exercise laps
+     * @param index index of the source
+     * @return the value
+     */
+    private Number getSourceValue(final SeriesKey rangeKey, final ExerciseSampleColumns samples, final Lap[] laps,
+            final int index) {
+        if (samples != null) {
+            return getSampleValue(rangeKey, samples, index);
+        }
+        return index == 0 ? 0 : getLapValue(rangeKey, laps[index - 1]);
+    }
+
     /**
      * Returns the value specified by the axis type of the exercise sample. It
-     * also converts the value to the current unit system and speed view.
+     * also converts the value to the unit system and speed view of the key.
      *
-     * @param axisType the axis type to be displayed
-     * @param sample the exercise sample to display
+     * @param rangeKey key of the values (contains axis type, unit system and speed view)
+     * @param samples the exercise sample columns
+     * @param index index of the exercise sample to display
      * @return the requested value
      */
-    private Number getSampleValue(AxisType axisType, ExerciseSample sample) {
+    private Number getSampleValue(SeriesKey rangeKey, ExerciseSampleColumns samples, int index) {
 
-        final FormatUtils formatUtils = getContext().getFormatUtils();
-
-        switch (axisType) {
+        switch (rangeKey.axisType) {
             case HEARTRATE:
-                return sample.getHeartRate();
+                return samples.getHeartRate(index);
             case ALTITUDE:
-                if (formatUtils.getUnitSystem() == FormatUtils.UnitSystem.Metric) {
-                    return sample.getAltitude();
+                if (rangeKey.unitSystem == FormatUtils.UnitSystem.Metric) {
+                    return samples.getAltitude(index);
                 } else {
-                    return ConvertUtils.convertMeter2Feet(sample.getAltitude());
+                    return ConvertUtils.convertMeter2Feet(samples.getAltitude(index));
                 }
             case SPEED:
-                float speed = sample.getSpeed();
-                if (formatUtils.getUnitSystem() != FormatUtils.UnitSystem.Metric) {
+                float speed = samples.getSpeed(index);
+                if (rangeKey.unitSystem != FormatUtils.UnitSystem.Metric) {
                     speed = (float) ConvertUtils.convertKilometer2Miles(speed, false);
                 }
-                if (formatUtils.getSpeedView() == FormatUtils.SpeedView.MinutesPerDistance) {
+                if (rangeKey.speedView == FormatUtils.SpeedView.MinutesPerDistance) {
                     // convert speed to minutes per distance
                     if (speed != 0f) {
                         speed = 60 / speed;
@@ -502,12 +635,12 @@ public class DiagramPanelController extends AbstractPanelController {
                 }
                 return speed;
             case CADENCE:
-                return sample.getCadence();
+                return samples.getCadence(index);
             case TEMPERATURE:
-                if (formatUtils.getUnitSystem() == FormatUtils.UnitSystem.Metric) {
-                    return sample.getTemperature();
+                if (rangeKey.unitSystem == FormatUtils.UnitSystem.Metric) {
+                    return samples.getTemperature(index);
                 } else {
-                    return ConvertUtils.convertCelsius2Fahrenheit(sample.getTemperature());
+                    return ConvertUtils.convertCelsius2Fahrenheit(samples.getTemperature(index));
                 }
             default:
                 return 0;
@@ -516,25 +649,23 @@ public class DiagramPanelController extends AbstractPanelController {
 
     /**
      * Returns the value specified by the axis type of the exercise lap. It
-     * also converts the value to the current unit system and speed view.
+     * also converts the value to the unit system and speed view of the key.
      *
-     * @param axisType the axis type to be displayed
+     * @param rangeKey key of the values (contains axis type, unit system and speed view)
      * @param lap the exercise lap to display
      * @return the requested value
      */
-    private Number getLapValue(AxisType axisType, Lap lap) {
-
-        final FormatUtils formatUtils = getContext().getFormatUtils();
+    private Number getLapValue(SeriesKey rangeKey, Lap lap) {
 
-        switch (axisType) {
+        switch (rangeKey.axisType) {
             case HEARTRATE:
                 return lap.getHeartRateAVG();
             case SPEED:
                 float speed = lap.getSpeed().getSpeedAVG();
-                if (formatUtils.getUnitSystem() != FormatUtils.UnitSystem.Metric) {
+                if (rangeKey.unitSystem != FormatUtils.UnitSystem.Metric) {
                     speed = (float) ConvertUtils.convertKilometer2Miles(speed, false);
                 }
-                if (formatUtils.getSpeedView() == FormatUtils.SpeedView.MinutesPerDistance) {
+                if (rangeKey.speedView == FormatUtils.SpeedView.MinutesPerDistance) {
                     // convert speed to minutes per distance
                     if (speed != 0f) {
                         speed = 60 / speed;
@@ -546,6 +677,126 @@ public class DiagramPanelController extends AbstractPanelController {
         }
     }
 
+    /**
+     * Background task for computing the missing values of the specified series. The computed
+     * values are added to the caches on the JavaFX thread, then the diagram will be updated.
+     */
+    private class SeriesCacheTask extends Task<Void> {
+
+        private final ExerciseSampleColumns samples;
+        private final Lap[] laps;
+
+        private final SeriesKey domainKey;
+        private final List<SeriesKey> rangeKeys = new ArrayList<>();
+        private DomainValues domainValues;
+
+        private final Map<SeriesKey, double[]> computedRangeValues = new HashMap<>();
+
+        /**
+         * Creates the task, it must be called on the JavaFX thread.
+         *
+         * @param domainKey key of the domain values
+         * @param leftKey key of the left axis values
+         * @param rightKey key of the right axis values (null when not displayed)
+         */
+        SeriesCacheTask(final SeriesKey domainKey, final SeriesKey leftKey, final SeriesKey rightKey) {
+            // the sample columns must be requested on the JavaFX thread (converts the sample storage)
+            final EVExercise exercise = getDocument().getExercise();
+            this.samples = exercise.getSampleColumns();
+            this.laps = exercise.getLapList();
+
+            this.domainKey = domainKey;
+            this.domainValues = domainValuesCache.get(domainKey);
+
+            for (SeriesKey rangeKey : new SeriesKey[]{leftKey, rightKey}) {
+                if (rangeKey != null && !rangeValuesCache.containsKey(rangeKey)) {
+                    rangeKeys.add(rangeKey);
+                }
+            }
+        }
+
+        @Override
+        protected Void call() throws Exception {
+            if (domainValues == null) {
+                domainValues = computeDomainValues(domainKey, samples, laps);
+            }
+
+            for (SeriesKey rangeKey : rangeKeys) {
+                computedRangeValues.put(rangeKey, computeRangeValues(rangeKey, domainValues, samples, laps));
+            }
+            return null;
+        }
+
+        @Override
+        protected void succeeded() {
+            super.succeeded();
+            seriesCacheTaskRunning = false;
+
+            domainValuesCache.put(domainKey, domainValues);
+            rangeValuesCache.putAll(computedRangeValues);
+            updateDiagram();
+        }
+
+        @Override
+        protected void failed() {
+            super.failed();
+            seriesCacheTaskRunning = false;
+            LOGGER.log(Level.SEVERE, "Failed to compute the diagram values!", getException());
+        }
+    }
+
+    /**
+     * Key for the cached diagram values, the values depend on the axis type, the domain axis type
+     * (the values are sorted by domain), the unit system and the speed view.
+     */
+    private static final class SeriesKey {
+
+        private final AxisType axisType;
+        private final AxisType domainAxisType;
+        private final FormatUtils.UnitSystem unitSystem;
+        private final FormatUtils.SpeedView speedView;
+
+        SeriesKey(final AxisType axisType, final AxisType domainAxisType, final FormatUtils.UnitSystem unitSystem,
+                final FormatUtils.SpeedView speedView) {
+            this.axisType = axisType;
+            this.domainAxisType = domainAxisType;
+            this.unitSystem = unitSystem;
+            this.speedView = speedView;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SeriesKey)) {
+                return false;
+            }
+            final SeriesKey other = (SeriesKey) o;
+            return axisType == other.axisType && domainAxisType == other.domainAxisType &&
+                    unitSystem == other.unitSystem && speedView == other.speedView;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(axisType, domainAxisType, unitSystem, speedView);
+        }
+    }
+
+    /**
+     * The sorted domain values of the diagram and the indexes of their sources (samples or laps).
+     */
+    private static final class DomainValues {
+
+        private final double[] xValues;
+        private final int[] sourceIndexes;
+
+        DomainValues(final double[] xValues, final int[] sourceIndexes) {
+            this.xValues = xValues;
+            this.sourceIndexes = sourceIndexes;
+        }
+    }
+
     /**
      * The list of possible value types to be shown on the diagram axes. This enum also provides the
      * the localized displayed enum names.
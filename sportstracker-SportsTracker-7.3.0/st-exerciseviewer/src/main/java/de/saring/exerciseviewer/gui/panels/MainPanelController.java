@@ -11,6 +11,7 @@ import javafx.scene.control.Label;
 
 import de.saring.exerciseviewer.data.EVExercise;
 import de.saring.exerciseviewer.data.HeartRateLimit;
+import de.saring.exerciseviewer.data.HeartRateZoneCalculator;
 import de.saring.exerciseviewer.gui.EVContext;
 import de.saring.util.unitcalc.FormatUtils;
 import javafx.util.StringConverter;
@@ -22,6 +23,9 @@ import javafx.util.StringConverter;
  */
 public class MainPanelController extends AbstractPanelController {
 
+    /** Heartrate ranges in percent of the maximum heartrate, used when the exercise contains no ranges. */
+    private static final int[][] COMPUTED_HEARTRATE_RANGES = {{60, 70}, {70, 80}, {80, 90}, {90, 100}};
+
     private DiagramPanelController diagramPanelController;
 
     @FXML
@@ -157,7 +161,8 @@ public class MainPanelController extends AbstractPanelController {
 
     /**
      * Fills the heartrate range selection choicebox with the ranges stored in the exercise and selects
-     * the first one. When no ranges are available, the selection will be disabled.<br/>
+     * the first one. When the exercise contains no ranges, they will be computed from the samples. When
+     * no ranges are available, the selection will be disabled.<br/>
      */
     private void setupHeartrateRangeSelection() {
 
@@ -179,10 +184,37 @@ public class MainPanelController extends AbstractPanelController {
         final EVExercise exercise = getDocument().getExercise();
         if (exercise.getHeartRateLimits() != null && exercise.getHeartRateLimits().length > 0) {
             cbHeartrateRanges.getItems().addAll(exercise.getHeartRateLimits());
-            cbHeartrateRanges.getSelectionModel().select(0);
         } else {
+            cbHeartrateRanges.getItems().addAll(computeHeartRateRanges(exercise));
+        }
+
+        if (cbHeartrateRanges.getItems().isEmpty()) {
             cbHeartrateRanges.setDisable(true);
+        } else {
+            cbHeartrateRanges.getSelectionModel().select(0);
+        }
+    }
+
+    /**
+     * Computes the heartrate ranges with the times below, within and above from the exercise samples.
+     * The ranges are relative to the maximum heartrate of the exercise, but displayed as absolute values.
+     *
+     * @param exercise the exercise
+     * @return array of computed ranges (empty when there is no heartrate data)
+     */
+    private HeartRateLimit[] computeHeartRateRanges(final EVExercise exercise) {
+        final HeartRateZoneCalculator zoneCalculator = HeartRateZoneCalculator.forExercise(exercise);
+        if (exercise.getHeartRateMax() <= 0 || !zoneCalculator.hasHeartRateData()) {
+            return new HeartRateLimit[0];
+        }
+
+        final HeartRateLimit[] ranges = new HeartRateLimit[COMPUTED_HEARTRATE_RANGES.length];
+        for (int i = 0; i < ranges.length; i++) {
+            final short lower = (short) Math.round(exercise.getHeartRateMax() * COMPUTED_HEARTRATE_RANGES[i][0] / 100d);
+            final short upper = (short) Math.round(exercise.getHeartRateMax() * COMPUTED_HEARTRATE_RANGES[i][1] / 100d);
+            ranges[i] = zoneCalculator.createHeartRateLimit(lower, upper);
         }
+        return ranges;
     }
 
     /**
@@ -1,42 +1,57 @@
 package de.saring.exerciseviewer.gui.panels;
 
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import de.saring.exerciseviewer.gui.EVDocument;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Callback;
 
-import de.saring.exerciseviewer.data.ExerciseSample;
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
 import de.saring.exerciseviewer.data.RecordingMode;
 import de.saring.exerciseviewer.gui.EVContext;
-import de.saring.util.gui.javafx.FormattedNumberCellFactory;
+import de.saring.util.unitcalc.FormatUtils;
 
 /**
  * Controller (MVC) class of the "Samples" panel, which displays all recorded samples of the exercise in a table.
+ * <p/>
+ * The table rows are the sample indexes, the cell values are read directly from the columnar sample storage.
+ * So no sample objects need to be created and no reflection is used for the value access. The formatted
+ * cell texts are cached per sample, so scrolling in tables with many thousand samples is fast. The table rows
+ * are created in background, a progress indicator is displayed meanwhile.
  *
  * @author Stefan Saring
  */
 public class SamplePanelController extends AbstractPanelController {
 
+    private static final Logger LOGGER = Logger.getLogger(SamplePanelController.class.getName());
+
     @FXML
-    private TableView<ExerciseSample> tvSamples;
+    private TableView<Integer> tvSamples;
 
     @FXML
-    private TableColumn<ExerciseSample, Number> tcTime;
+    private TableColumn<Integer, Number> tcTime;
     @FXML
-    private TableColumn<ExerciseSample, Number> tcHeartrate;
+    private TableColumn<Integer, Number> tcHeartrate;
     @FXML
-    private TableColumn<ExerciseSample, Number> tcAltitude;
+    private TableColumn<Integer, Number> tcAltitude;
     @FXML
-    private TableColumn<ExerciseSample, Number> tcSpeed;
+    private TableColumn<Integer, Number> tcSpeed;
     @FXML
-    private TableColumn<ExerciseSample, Number> tcDistance;
+    private TableColumn<Integer, Number> tcDistance;
     @FXML
-    private TableColumn<ExerciseSample, Number> tcCadence;
+    private TableColumn<Integer, Number> tcCadence;
     @FXML
-    private TableColumn<ExerciseSample, Number> tcTemperature;
+    private TableColumn<Integer, Number> tcTemperature;
 
     /**
      * Standard c'tor for dependency injection.
@@ -55,47 +70,146 @@ public class SamplePanelController extends AbstractPanelController {
 
     @Override
     protected void setupPanel() {
+        final ExerciseSampleColumns exerciseSamples = getDocument().getExercise().getSampleColumns();
+        final ExerciseSampleColumns samples = exerciseSamples != null ? exerciseSamples : new ExerciseSampleColumns(0);
+        final int sampleCount = samples.size();
+        final RecordingMode recordingMode = getDocument().getExercise().getRecordingMode();
+        final FormatUtils formatUtils = getContext().getFormatUtils();
 
-        // setup table columns
-        tcTime.setCellValueFactory(new PropertyValueFactory<>("timestamp"));
-        tcHeartrate.setCellValueFactory(new PropertyValueFactory<>("heartRate"));
-        tcAltitude.setCellValueFactory(new PropertyValueFactory<>("altitude"));
-        tcSpeed.setCellValueFactory(new PropertyValueFactory<>("speed"));
-        tcDistance.setCellValueFactory(new PropertyValueFactory<>("distance"));
-        tcCadence.setCellValueFactory(new PropertyValueFactory<>("cadence"));
-        tcTemperature.setCellValueFactory(new PropertyValueFactory<>("temperature"));
+        // setup table columns with value access and formatting (values not recorded are not displayed)
+        setupColumn(tcTime, sampleCount, samples::getTimestamp,
+                index -> formatUtils.seconds2TimeString((int) (samples.getTimestamp(index) / 1000)));
 
-        // setup custom number cell factories for all table columns
-        final RecordingMode recordingMode = getDocument().getExercise().getRecordingMode();
+        setupColumn(tcHeartrate, sampleCount, samples::getHeartRate,
+                index -> formatUtils.heartRateToString(samples.getHeartRate(index)));
 
-        tcTime.setCellFactory(new FormattedNumberCellFactory<>(value -> getContext().getFormatUtils()
-                .seconds2TimeString(value.intValue() / 1000)));
+        setupColumn(tcAltitude, sampleCount, samples::getAltitude, !recordingMode.isAltitude() ? null :
+                index -> formatUtils.heightToString(samples.getAltitude(index)));
 
-        tcHeartrate.setCellFactory(new FormattedNumberCellFactory<>(value -> getContext().getFormatUtils()
-                .heartRateToString(value.intValue())));
+        setupColumn(tcSpeed, sampleCount, samples::getSpeed, !recordingMode.isSpeed() ? null :
+                index -> formatUtils.speedToString(samples.getSpeed(index), 2));
 
-        tcAltitude.setCellFactory(new FormattedNumberCellFactory<>(value -> recordingMode.isAltitude() ? getContext()
-                .getFormatUtils().heightToString(value.intValue()) : null));
+        setupColumn(tcDistance, sampleCount, samples::getDistance, !recordingMode.isSpeed() ? null :
+                index -> formatUtils.distanceToString(samples.getDistance(index) / 1000d, 3));
 
-        tcSpeed.setCellFactory(new FormattedNumberCellFactory<>(value -> recordingMode.isSpeed() ? getContext()
-                .getFormatUtils().speedToString(value.floatValue(), 2) : null));
+        setupColumn(tcCadence, sampleCount, samples::getCadence, !recordingMode.isCadence() ? null :
+                index -> formatUtils.cadenceToString(samples.getCadence(index)));
 
-        tcDistance.setCellFactory(new FormattedNumberCellFactory<>(value -> recordingMode.isSpeed() ? getContext()
-                .getFormatUtils().distanceToString(value.doubleValue() / 1000d, 3) : null));
+        setupColumn(tcTemperature, sampleCount, samples::getTemperature, !recordingMode.isTemperature() ? null :
+                index -> formatUtils.temperatureToString(samples.getTemperature(index)));
 
-        tcCadence.setCellFactory(new FormattedNumberCellFactory<>(value -> recordingMode.isCadence() ? getContext()
-                .getFormatUtils().cadenceToString(value.intValue()) : null));
+        // create the table rows in background, display a progress indicator meanwhile
+        final ProgressIndicator piPlaceholder = new ProgressIndicator();
+        piPlaceholder.setMaxSize(48, 48);
+        tvSamples.setPlaceholder(piPlaceholder);
+        new Thread(new SampleRowsTask(samples)).start();
+    }
 
-        tcTemperature.setCellFactory(new FormattedNumberCellFactory<>(
-                value -> recordingMode.isTemperature() ? getContext().getFormatUtils().temperatureToString(
-                        value.shortValue()) : null));
+    /**
+     * Sets up the cell value factory and the cell factory of the specified table column.
+     *
+     * @param column the table column
+     * @param sampleCount number of samples
+     * @param valueProvider provider of the cell value for the sample index (used for sorting)
+     * @param textFormatter provider of the cell text for the sample index (null when no text is displayed)
+     */
+    private void setupColumn(final TableColumn<Integer, Number> column, final int sampleCount,
+            final IntFunction<Number> valueProvider, final IntFunction<String> textFormatter) {
 
-        // set table data
-        tvSamples.setPlaceholder(new Label(getContext().getResources().getString("pv.info.no_data_available")));
-        final ExerciseSample[] samples = getDocument().getExercise().getSampleList();
-        tvSamples.setItems(FXCollections.observableArrayList(samples == null ? new ExerciseSample[0] : samples));
+        column.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(valueProvider.apply(cellData.getValue())));
+        column.setCellFactory(new SampleCellFactory(sampleCount, textFormatter));
+    }
 
-        // default sort is the time column
-        tvSamples.getSortOrder().add(tcTime);
+    private static boolean isSortedByTime(final ExerciseSampleColumns samples) {
+        final long[] timestamps = samples.getTimestamps();
+        for (int i = 1; i < samples.size(); i++) {
+            if (timestamps[i] < timestamps[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Task for creating the table rows (the sample indexes) in background and for checking whether
+     * the samples are in time order. The table data is set when the task has been finished.
+     */
+    private class SampleRowsTask extends Task<Void> {
+
+        private final ExerciseSampleColumns samples;
+
+        private Integer[] sampleIndexes;
+        private boolean sortedByTime;
+
+        SampleRowsTask(final ExerciseSampleColumns samples) {
+            this.samples = samples;
+        }
+
+        @Override
+        protected Void call() throws Exception {
+            sampleIndexes = new Integer[samples.size()];
+            for (int i = 0; i < sampleIndexes.length; i++) {
+                sampleIndexes[i] = i;
+            }
+            sortedByTime = isSortedByTime(samples);
+            return null;
+        }
+
+        @Override
+        protected void succeeded() {
+            super.succeeded();
+            tvSamples.setPlaceholder(new Label(getContext().getResources().getString("pv.info.no_data_available")));
+            tvSamples.setItems(FXCollections.observableArrayList(sampleIndexes));
+
+            // default sort is the time column, sorting is only needed when the samples are not in time order
+            if (!sortedByTime) {
+                tvSamples.getSortOrder().add(tcTime);
+            }
+        }
+
+        @Override
+        protected void failed() {
+            super.failed();
+            LOGGER.log(Level.SEVERE, "Failed to create the sample table rows!", getException());
+            tvSamples.setPlaceholder(new Label(getContext().getResources().getString("pv.info.no_data_available")));
+        }
+    }
+
+    /**
+     * Cell factory for the sample table columns. The cell text is created by the text formatter for the
+     * sample index of the table row. Each text is created only once, when the sample is displayed first.
+     */
+    private static final class SampleCellFactory implements
+            Callback<TableColumn<Integer, Number>, TableCell<Integer, Number>> {
+
+        private final IntFunction<String> textFormatter;
+        private final String[] textCache;
+
+        private SampleCellFactory(final int sampleCount, final IntFunction<String> textFormatter) {
+            this.textFormatter = textFormatter;
+            this.textCache = textFormatter == null ? null : new String[sampleCount];
+        }
+
+        @Override
+        public TableCell<Integer, Number> call(final TableColumn<Integer, Number> column) {
+            return new TableCell<Integer, Number>() {
+
+                @Override
+                protected void updateItem(final Number value, final boolean empty) {
+                    super.updateItem(value, empty);
+                    setText(empty || textFormatter == null ? null :
+                            getCellText(getTableView().getItems().get(getIndex())));
+                }
+            };
+        }
+
+        private String getCellText(final int sampleIndex) {
+            String text = textCache[sampleIndex];
+            if (text == null) {
+                text = textFormatter.apply(sampleIndex);
+                textCache[sampleIndex] = text;
+            }
+            return text;
+        }
     }
 }
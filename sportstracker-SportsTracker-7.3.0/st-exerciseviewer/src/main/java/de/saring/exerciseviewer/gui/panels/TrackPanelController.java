@@ -7,20 +7,25 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Task;
 import javafx.embed.swing.SwingNode;
 import javafx.fxml.FXML;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.Scene;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Slider;
 import javafx.scene.control.Tooltip;
 import javafx.scene.layout.StackPane;
@@ -30,20 +35,25 @@ import javafx.stage.Window;
 import org.jxmapviewer.JXMapKit;
 import org.jxmapviewer.JXMapViewer;
 import org.jxmapviewer.painter.Painter;
+import org.jxmapviewer.viewer.TileFactory;
 import org.jxmapviewer.viewer.GeoPosition;
 
 import de.saring.exerciseviewer.data.EVExercise;
-import de.saring.exerciseviewer.data.ExerciseSample;
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
 import de.saring.exerciseviewer.data.Lap;
 import de.saring.exerciseviewer.data.Position;
+import de.saring.exerciseviewer.data.SamplePositionIndex;
 import de.saring.exerciseviewer.gui.EVContext;
 import de.saring.exerciseviewer.gui.EVDocument;
+import de.saring.exerciseviewer.gui.panels.track.TileFactoryProvider;
+import de.saring.exerciseviewer.gui.panels.track.TrackPathCache;
 import de.saring.util.unitcalc.FormatUtils;
 
 /**
  * Controller (MVC) class of the "Track" panel, which displays the recorded location data of
  * the exercise (if available) in a map.<br/>
- * The map component is JXMapKit from the SwingLabs project, the data provider is OpenStreetMap.
+ * The map component is JXMapKit from the SwingLabs project, the data provider is OpenStreetMap
+ * or a local tile directory (see TileFactoryProvider).
  *
  * TODO use a JavaFX based map viewer component instead of JXMapKit!
  *
@@ -51,6 +61,8 @@ import de.saring.util.unitcalc.FormatUtils;
  */
 public class TrackPanelController extends AbstractPanelController {
 
+    private static final Logger LOGGER = Logger.getLogger(TrackPanelController.class.getName());
+
     private static final Color COLOR_START = new Color(180, 255, 180);
     private static final Color COLOR_END = new Color(255, 180, 180);
     private static final Color COLOR_POSITION = new Color(215, 110, 240);
@@ -59,6 +71,9 @@ public class TrackPanelController extends AbstractPanelController {
 
     private static final int TRACKPOINT_TOOLTIP_DISTANCE_BUFFER = 4;
 
+    /** Initial zoom level of the map viewer (before the track is shown). */
+    private static final int DEFAULT_ZOOM = 11;
+
     @FXML
     private StackPane spTrackPanel;
 
@@ -79,6 +94,14 @@ public class TrackPanelController extends AbstractPanelController {
 
     private MouseMotionAdapter mouseMotionListener;
 
+    private MouseAdapter mouseListener;
+
+    /** Spatial index of all sample positions, it's created when the track is shown. */
+    private volatile SamplePositionIndex samplePositionIndex;
+
+    /** Indexes of the samples nearest to the lap split positions (-1 when lap has no position). */
+    private volatile int[] lapSampleIndexes = new int[0];
+
     /** Flag whether the exercise track has already been shown. */
     private boolean showTrackExecuted = false;
 
@@ -107,6 +130,7 @@ public class TrackPanelController extends AbstractPanelController {
             javax.swing.SwingUtilities.invokeLater(() -> {
                 // remove relations to this controller, otherwise the GC can't remove this Panel and all EV components
                 mapKit.getMainMap().removeMouseMotionListener(mouseMotionListener);
+                mapKit.getMainMap().removeMouseListener(mouseListener);
                 mapKit.getMainMap().setOverlayPainter(null);
 
                 // dispose both TileFactory instances, otherwise the GC can't remove all the MapViewer objects
@@ -156,7 +180,8 @@ public class TrackPanelController extends AbstractPanelController {
 
     private void setupSwingMapViewer() {
         mapKit = new JXMapKit();
-        mapKit.setDefaultProvider(JXMapKit.DefaultProviders.OpenStreetMaps);
+        mapKit.setTileFactory(createTileFactory());
+        mapKit.setZoom(DEFAULT_ZOOM);
 
         // add MouseMotionListener to the map for nearby sample lookup and tooltip creation
         mouseMotionListener = new MouseMotionAdapter() {
@@ -167,12 +192,27 @@ public class TrackPanelController extends AbstractPanelController {
         };
         mapKit.getMainMap().addMouseMotionListener(mouseMotionListener);
 
+        // add MouseListener to the map for moving the track position slider to the clicked sample
+        mouseListener = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                lookupNearbySampleAndUpdatePosition(e);
+            }
+        };
+        mapKit.getMainMap().addMouseListener(mouseListener);
+
         // map viewer will be visible after the track has been displayed (otherwise the user
         // sees the world map for a short time before the track of the exercise)
         mapKit.setVisible(false);
         snMapViewer.setContent(mapKit);
     }
 
+    private TileFactory createTileFactory() {
+        final TileFactoryProvider tileFactoryProvider = getContext().getTileFactoryProvider();
+        return tileFactoryProvider != null ?
+                tileFactoryProvider.createTileFactory() : TileFactoryProvider.createDefaultTileFactory();
+    }
+
     private void setupMapViewerTooltip() {
         // create the JavaFX tooltip to be shown on the StackPane containing the Swing-based map viewer
         // (Swing tooltips have a completely different look & feel)
@@ -181,7 +221,7 @@ public class TrackPanelController extends AbstractPanelController {
     }
 
     private void setupTrackPositionSlider() {
-        slPosition.setMax(getDocument().getExercise().getSampleList().length - 1);
+        slPosition.setMax(getDocument().getExercise().getSampleCount() - 1);
 
         // on track position slider changes: update position marker in the map viewer and display tooltip with details
         slPosition.valueProperty().addListener((observable, oldValue, newValue) -> {
@@ -206,6 +246,7 @@ public class TrackPanelController extends AbstractPanelController {
     /**
      * Displays the track of the current exercise, if available. This method will be executed only
      * once and should be called when the user wants to see the track (to prevent long startup delays).
+     * The track data is prepared in background, a progress indicator is displayed meanwhile.
      */
     public void showTrack() {
         if (!showTrackExecuted) {
@@ -213,19 +254,11 @@ public class TrackPanelController extends AbstractPanelController {
 
             EVExercise exercise = getDocument().getExercise();
             if (exercise.getRecordingMode().isLocation()) {
+                final ProgressIndicator piTrackData = new ProgressIndicator();
+                piTrackData.setMaxSize(48, 48);
+                spMapViewer.getChildren().add(piTrackData);
 
-                javax.swing.SwingUtilities.invokeLater(() -> {
-                    List<GeoPosition> sampleGeoPositions = createSampleGeoPositionList(exercise);
-                    List<GeoPosition> lapGeoPositions = createLapGeoPositionList(exercise);
-
-                    if (!sampleGeoPositions.isEmpty()) {
-                        // setup map zoom and position
-                        setupZoomAndCenterPosition(sampleGeoPositions);
-                        // display track
-                        setupTrackPainter(sampleGeoPositions, lapGeoPositions);
-                    }
-                    mapKit.setVisible(true);
-                });
+                new Thread(new TrackDataTask(exercise, piTrackData)).start();
             }
         }
     }
@@ -237,8 +270,9 @@ public class TrackPanelController extends AbstractPanelController {
      * which should do the same.
      *
      * @param positions list of positions of the route
+     * @param mapViewerBounds layout bounds of the track panel
      */
-    private void setupZoomAndCenterPosition(List<GeoPosition> positions) {
+    private void setupZoomAndCenterPosition(List<GeoPosition> positions, Bounds mapViewerBounds) {
 
         // calculate and set center position of the track
         Rectangle2D gpRectangle = createGeoPositionRectangle(positions);
@@ -247,7 +281,6 @@ public class TrackPanelController extends AbstractPanelController {
 
         // calculate mapKit dimensions based on the Track StackPane dimensions (with a little offset)
         // (there's a bug in SwingNode.getLayoutBounds() and so in JXMapKit.getWidth()/getHeight())
-        Bounds mapViewerBounds = spTrackPanel.getLayoutBounds();
         int mapKitWidth = (int) mapViewerBounds.getWidth() - 30;
         int mapKitHeight = (int) mapViewerBounds.getHeight() - 30;
 
@@ -299,6 +332,9 @@ public class TrackPanelController extends AbstractPanelController {
      */
     private void setupTrackPainter(final List<GeoPosition> sampleGeoPositions, final List<GeoPosition> lapGeoPositions) {
 
+        // the projected and simplified track path will be created only once per zoom level
+        final TrackPathCache trackPathCache = new TrackPathCache(sampleGeoPositions);
+
         Painter<JXMapViewer> lineOverlay = new Painter<JXMapViewer>() {
             public void paint(Graphics2D g, JXMapViewer map, int w, int h) {
 
@@ -310,7 +346,7 @@ public class TrackPanelController extends AbstractPanelController {
                 g.translate(-rect.x, -rect.y);
 
                 // draw track line
-                drawTrackLine(g, sampleGeoPositions);
+                drawTrackLine(g, trackPathCache);
 
                 // draw waypoints for all lap split positions
                 for (int i = 0; i < lapGeoPositions.size(); i++) {
@@ -336,26 +372,16 @@ public class TrackPanelController extends AbstractPanelController {
     }
 
     /**
-     * Draws a red line which connects all GeoPosition of the track.
+     * Draws a red line which connects all GeoPosition of the track. The line is the cached track
+     * path for the current zoom level, so it's drawn by a single call.
      *
      * @param g the Graphics2D context
-     * @param geoPositions list of GeoPosition objects of this track
+     * @param trackPathCache the track path cache of this track
      */
-    private void drawTrackLine(Graphics2D g, List<GeoPosition> geoPositions) {
+    private void drawTrackLine(Graphics2D g, TrackPathCache trackPathCache) {
         g.setColor(COLOR_TRACK);
-        g.setStroke(new BasicStroke(2));
-
-        int lastX = -1;
-        int lastY = -1;
-
-        for (GeoPosition geoPosition : geoPositions) {
-            java.awt.geom.Point2D pt = convertGeoPosToPixelPos(geoPosition);
-            if (lastX != -1 && lastY != -1) {
-                g.drawLine(lastX, lastY, round(pt.getX()), round(pt.getY()));
-            }
-            lastX = round(pt.getX());
-            lastY = round(pt.getY());
-        }
+        g.setStroke(new BasicStroke(2, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g.draw(trackPathCache.getPath(mapKit.getMainMap().getTileFactory(), mapKit.getMainMap().getZoom()));
     }
 
     private int round(double value) {
@@ -399,13 +425,17 @@ public class TrackPanelController extends AbstractPanelController {
         }
     }
 
-    private List<GeoPosition> createSampleGeoPositionList(EVExercise exercise) {
-        ArrayList<GeoPosition> geoPositions = new ArrayList<>();
+    private List<GeoPosition> createSampleGeoPositionList(ExerciseSampleColumns samples) {
+        ArrayList<GeoPosition> geoPositions = new ArrayList<>(samples.size());
 
-        for (ExerciseSample exerciseSample : exercise.getSampleList()) {
-            Position pos = exerciseSample.getPosition();
-            if (pos != null) {
-                geoPositions.add(new GeoPosition(pos.getLatitude(), pos.getLongitude()));
+        if (samples.hasPositions()) {
+            double[] latitudes = samples.getLatitudes();
+            double[] longitudes = samples.getLongitudes();
+
+            for (int i = 0; i < samples.size(); i++) {
+                if (!Double.isNaN(latitudes[i])) {
+                    geoPositions.add(new GeoPosition(latitudes[i], longitudes[i]));
+                }
             }
         }
         return geoPositions;
@@ -425,6 +455,23 @@ public class TrackPanelController extends AbstractPanelController {
         return geoPositions;
     }
 
+    /**
+     * Searches the samples nearest to the split positions of all laps (except the last lap).
+     *
+     * @param exercise the exercise
+     * @return array with the sample index for each lap (-1 when the lap has no position)
+     */
+    private int[] createLapSampleIndexes(EVExercise exercise) {
+        int[] sampleIndexes = new int[Math.max(0, exercise.getLapList().length - 1)];
+
+        for (int i = 0; i < sampleIndexes.length; i++) {
+            Position pos = exercise.getLapList()[i].getPositionSplit();
+            sampleIndexes[i] = pos == null ? -1 :
+                    samplePositionIndex.findNearestSample(pos.getLatitude(), pos.getLongitude());
+        }
+        return sampleIndexes;
+    }
+
     private java.awt.geom.Point2D convertGeoPosToPixelPos(GeoPosition geoPosition) {
         return mapKit.getMainMap().getTileFactory().geoToPixel(geoPosition, mapKit.getMainMap().getZoom());
     }
@@ -434,12 +481,11 @@ public class TrackPanelController extends AbstractPanelController {
     }
 
     private GeoPosition getGeoPositionForExerciseSample(final int sampleIndex) {
-        final EVExercise exercise = getDocument().getExercise();
-        final Position samplePosition = exercise.getSampleList()[sampleIndex].getPosition();
+        final ExerciseSampleColumns samples = getDocument().getExercise().getSampleColumns();
 
         // some exercise samples don't have position data
-        if (samplePosition != null) {
-            return new GeoPosition(samplePosition.getLatitude(), samplePosition.getLongitude());
+        if (samples.hasPosition(sampleIndex)) {
+            return new GeoPosition(samples.getLatitudes()[sampleIndex], samples.getLongitudes()[sampleIndex]);
         }
         return null;
     }
@@ -453,25 +499,10 @@ public class TrackPanelController extends AbstractPanelController {
      */
     private void lookupNearbySampleAndCreateToolTip(MouseEvent e) {
 
-        // get mouse position in the map component (translation needed)
-        // => the offset of 1 pixel is needed for proper centered detection of nearby trackpoints
-        Rectangle rect = mapKit.getMainMap().getViewportBounds();
-        Point mousePos = e.getPoint();
-        mousePos.translate(rect.x - 1, rect.y - 1);
-        GeoPosition mouseGeoPos = convertPixelPosToGeoPos(mousePos);
-
-        // compute the latitude and longitude distance buffer for searching a nearby sample
-        Point bufferPos = new Point(mousePos.x + TRACKPOINT_TOOLTIP_DISTANCE_BUFFER, mousePos.y
-                - TRACKPOINT_TOOLTIP_DISTANCE_BUFFER);
-        GeoPosition bufferGeoPos = convertPixelPosToGeoPos(bufferPos);
-
-        double latitudeBuffer = Math.abs(bufferGeoPos.getLatitude() - mouseGeoPos.getLatitude());
-        double longitudeBuffer = Math.abs(bufferGeoPos.getLongitude() - mouseGeoPos.getLongitude());
-
         // lookup a nearby sample and show tooltip text when found (or delete tooltip if not found)
         String toolTipText = null;
 
-        int nearBySampleIndex = getSampleIndexNearbyGeoPos(mouseGeoPos, latitudeBuffer, longitudeBuffer);
+        int nearBySampleIndex = getSampleIndexNearbyMousePos(e);
         if (nearBySampleIndex >= 0) {
             toolTipText = createToolTipText(nearBySampleIndex);
         }
@@ -490,6 +521,46 @@ public class TrackPanelController extends AbstractPanelController {
         });
     }
 
+    /**
+     * This method must be called on mouse clicks in the map. It searches for an exercise sample
+     * nearby the mouse position. If a sample was found, then the track position slider will be
+     * moved to this sample.
+     *
+     * @param e the MouseEvent
+     */
+    private void lookupNearbySampleAndUpdatePosition(MouseEvent e) {
+        final int nearBySampleIndex = getSampleIndexNearbyMousePos(e);
+        if (nearBySampleIndex >= 0) {
+            Platform.runLater(() -> slPosition.setValue(nearBySampleIndex));
+        }
+    }
+
+    /**
+     * Searches for the exercise sample with the position nearby the mouse position.
+     *
+     * @param e the MouseEvent
+     * @return the index of the found exercise sample or -1 when no sample found
+     */
+    private int getSampleIndexNearbyMousePos(MouseEvent e) {
+
+        // get mouse position in the map component (translation needed)
+        // => the offset of 1 pixel is needed for proper centered detection of nearby trackpoints
+        Rectangle rect = mapKit.getMainMap().getViewportBounds();
+        Point mousePos = e.getPoint();
+        mousePos.translate(rect.x - 1, rect.y - 1);
+        GeoPosition mouseGeoPos = convertPixelPosToGeoPos(mousePos);
+
+        // compute the latitude and longitude distance buffer for searching a nearby sample
+        Point bufferPos = new Point(mousePos.x + TRACKPOINT_TOOLTIP_DISTANCE_BUFFER, mousePos.y
+                - TRACKPOINT_TOOLTIP_DISTANCE_BUFFER);
+        GeoPosition bufferGeoPos = convertPixelPosToGeoPos(bufferPos);
+
+        double latitudeBuffer = Math.abs(bufferGeoPos.getLatitude() - mouseGeoPos.getLatitude());
+        double longitudeBuffer = Math.abs(bufferGeoPos.getLongitude() - mouseGeoPos.getLongitude());
+
+        return getSampleIndexNearbyGeoPos(mouseGeoPos, latitudeBuffer, longitudeBuffer);
+    }
+
     private Point2D getMapViewerScreenPosition() {
         final Scene scene = spMapViewer.getScene();
         final Window window = scene.getWindow();
@@ -497,7 +568,8 @@ public class TrackPanelController extends AbstractPanelController {
     }
 
     /**
-     * Searches for the exercise sample with the position nearby the specified position.
+     * Searches for the exercise sample with the position nearby the specified position. The lookup
+     * uses the spatial index of the sample positions, so it's fast even for very long tracks.
      *
      * @param geoPos the position to search for a nearby exercise sample
      * @param latitudeBuffer longitude distance buffer, the exercise sample must be located closer
@@ -505,18 +577,13 @@ public class TrackPanelController extends AbstractPanelController {
      * @return the index of the found exercise sample or -1 when no sample found
      */
     private int getSampleIndexNearbyGeoPos(GeoPosition geoPos, double latitudeBuffer, double longitudeBuffer) {
-        EVExercise exercise = getDocument().getExercise();
-
-        for (int i = 0; i < exercise.getSampleList().length; i++) {
-            ExerciseSample sample = exercise.getSampleList()[i];
-            Position samplePos = sample.getPosition();
-
-            if (samplePos != null && Math.abs(samplePos.getLatitude() - geoPos.getLatitude()) < latitudeBuffer
-                    && Math.abs(samplePos.getLongitude() - geoPos.getLongitude()) < longitudeBuffer) {
-                return i;
-            }
+        // the index is not available before the track has been shown
+        final SamplePositionIndex positionIndex = samplePositionIndex;
+        if (positionIndex == null) {
+            return -1;
         }
-        return -1;
+        return positionIndex.findNearestSample(geoPos.getLatitude(), geoPos.getLongitude(),
+                latitudeBuffer, longitudeBuffer);
     }
 
     /**
@@ -528,10 +595,18 @@ public class TrackPanelController extends AbstractPanelController {
     private String createToolTipText(int sampleIndex) {
 
         EVExercise exercise = getDocument().getExercise();
-        ExerciseSample sample = exercise.getSampleList()[sampleIndex];
+        ExerciseSampleColumns.Sample sample = exercise.getSampleColumns().getSample(sampleIndex);
         FormatUtils formatUtils = getContext().getFormatUtils();
 
         StringBuilder sb = new StringBuilder();
+
+        // display the lap number when the sample is located at a lap split
+        final int[] currentLapSampleIndexes = lapSampleIndexes;
+        for (int i = 0; i < currentLapSampleIndexes.length; i++) {
+            if (currentLapSampleIndexes[i] == sampleIndex) {
+                sb.append(getContext().getResources().getString("pv.diagram.lap", i + 1)).append("\n");
+            }
+        }
         appendToolTipLine(sb, "pv.track.tooltip.trackpoint", String.valueOf(sampleIndex + 1));
         appendToolTipLine(sb, "pv.track.tooltip.time",
                 formatUtils.seconds2TimeString((int) (sample.getTimestamp() / 1000)));
@@ -558,4 +633,76 @@ public class TrackPanelController extends AbstractPanelController {
         sb.append(getContext().getResources().getString(resourceKey));
         sb.append(": ").append(value).append("\n");
     }
+
+    /**
+     * Task for preparing the track data of the exercise in background (sample position index and geo
+     * positions). The track will be displayed in the map viewer when the task has been finished.
+     */
+    private class TrackDataTask extends Task<Void> {
+
+        private final EVExercise exercise;
+        private final ExerciseSampleColumns samples;
+        private final ProgressIndicator piTrackData;
+
+        private List<GeoPosition> sampleGeoPositions;
+        private List<GeoPosition> lapGeoPositions;
+
+        /**
+         * Creates the task, it must be called on the JavaFX thread.
+         *
+         * @param exercise the exercise to display
+         * @param piTrackData progress indicator to be removed when finished
+         */
+        TrackDataTask(final EVExercise exercise, final ProgressIndicator piTrackData) {
+            // the sample columns must be requested on the JavaFX thread (converts the sample storage)
+            this.exercise = exercise;
+            this.samples = exercise.getSampleColumns();
+            this.piTrackData = piTrackData;
+        }
+
+        @Override
+        protected Void call() throws Exception {
+            samplePositionIndex = SamplePositionIndex.of(samples);
+            lapSampleIndexes = createLapSampleIndexes(exercise);
+
+            sampleGeoPositions = createSampleGeoPositionList(samples);
+            lapGeoPositions = createLapGeoPositionList(exercise);
+            return null;
+        }
+
+        @Override
+        protected void succeeded() {
+            super.succeeded();
+
+            // nothing to do when the panel has already been closed
+            if (spMapViewer == null) {
+                return;
+            }
+            spMapViewer.getChildren().remove(piTrackData);
+            final Bounds mapViewerBounds = spTrackPanel.getLayoutBounds();
+
+            javax.swing.SwingUtilities.invokeLater(() -> {
+                if (mapKit == null) {
+                    return;
+                }
+
+                if (!sampleGeoPositions.isEmpty()) {
+                    // setup map zoom and position
+                    setupZoomAndCenterPosition(sampleGeoPositions, mapViewerBounds);
+                    // display track
+                    setupTrackPainter(sampleGeoPositions, lapGeoPositions);
+                }
+                mapKit.setVisible(true);
+            });
+        }
+
+        @Override
+        protected void failed() {
+            super.failed();
+            LOGGER.log(Level.SEVERE, "Failed to prepare the track data!", getException());
+            if (spMapViewer != null) {
+                spMapViewer.getChildren().remove(piTrackData);
+            }
+        }
+    }
 }
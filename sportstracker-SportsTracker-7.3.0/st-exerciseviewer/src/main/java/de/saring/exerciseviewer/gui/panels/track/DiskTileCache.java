@@ -0,0 +1,56 @@
+package de.saring.exerciseviewer.gui.panels.track;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+
+import javax.imageio.ImageIO;
+
+import org.jxmapviewer.viewer.TileCache;
+
+/**
+ * TileCache of the JXMapViewer component which uses a TileDiskStore in addition to the default
+ * memory cache. Downloaded tiles will be written to the store, tiles missing in the memory cache
+ * will be read from the store before they get downloaded.
+ *
+ * @author Stefan Saring
+ */
+class DiskTileCache extends TileCache {
+
+    private final TileDiskStore tileDiskStore;
+
+    /**
+     * Creates the tile cache for the specified store.
+     *
+     * @param tileDiskStore the store of the downloaded tiles
+     */
+    DiskTileCache(final TileDiskStore tileDiskStore) {
+        this.tileDiskStore = tileDiskStore;
+    }
+
+    @Override
+    public BufferedImage get(final URI uri) throws IOException {
+        final BufferedImage image = super.get(uri);
+        if (image != null) {
+            return image;
+        }
+
+        final byte[] data = tileDiskStore.get(uri);
+        if (data == null) {
+            return null;
+        }
+
+        final BufferedImage storedImage = ImageIO.read(new ByteArrayInputStream(data));
+        if (storedImage != null) {
+            super.put(uri, data, storedImage);
+        }
+        return storedImage;
+    }
+
+    @Override
+    public void put(final URI uri, final byte[] data, final BufferedImage image) {
+        super.put(uri, data, image);
+        tileDiskStore.put(uri, data);
+    }
+}
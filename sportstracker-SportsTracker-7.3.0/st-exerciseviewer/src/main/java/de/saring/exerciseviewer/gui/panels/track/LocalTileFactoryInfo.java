@@ -0,0 +1,51 @@
+package de.saring.exerciseviewer.gui.panels.track;
+
+import java.nio.file.Path;
+
+import org.jxmapviewer.viewer.TileFactoryInfo;
+
+/**
+ * TileFactoryInfo for map tiles stored in a local directory, so the track map can be used
+ * without network access (e.g. with tiles rendered by a local tile server or exported from a
+ * MBTiles file). The directory must contain the tiles in the usual layout 'zoom/x/y.png'
+ * with the OpenStreetMap zoom levels.
+ * <p/>
+ * The Y coordinate of the tile files is counted from the top (XYZ scheme of OpenStreetMap) or from
+ * the bottom (TMS scheme, used by MBTiles). The TMS scheme will be used when the directory contains
+ * a file named 'tms'.
+ *
+ * @author Stefan Saring
+ */
+class LocalTileFactoryInfo extends TileFactoryInfo {
+
+    /** Maximum zoom level of the OpenStreetMap tiles. */
+    private static final int MAX_ZOOM = 19;
+
+    /** Name of the marker file for tile directories in TMS scheme. */
+    static final String TMS_MARKER_FILENAME = "tms";
+
+    private final boolean tmsScheme;
+
+    /**
+     * Creates the TileFactoryInfo for the specified tile directory.
+     *
+     * @param tileDirectory the directory containing the tiles
+     * @param tmsScheme true, when the tile Y coordinate is counted from the bottom
+     */
+    LocalTileFactoryInfo(final Path tileDirectory, final boolean tmsScheme) {
+        super("Local Tiles", 1, MAX_ZOOM - 2, MAX_ZOOM, 256, true, true,
+                removeTrailingSlash(tileDirectory.toUri().toString()), "x", "y", "z");
+        this.tmsScheme = tmsScheme;
+    }
+
+    @Override
+    public String getTileUrl(final int x, final int y, final int zoom) {
+        final int osmZoom = MAX_ZOOM - zoom;
+        final int tileY = tmsScheme ? (1 << osmZoom) - 1 - y : y;
+        return baseURL + "/" + osmZoom + "/" + x + "/" + tileY + ".png";
+    }
+
+    private static String removeTrailingSlash(final String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,242 @@
+package de.saring.exerciseviewer.gui.panels.track;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Persistent on-disk store for downloaded map tiles. Each tile is stored in a separate file, the
+ * path is created from the host and path of the tile URI (e.g.
+ * 'tile.openstreetmap.org/15/17123/11234.png'). So tiles which have been displayed once are
+ * available without network access and don't need to be downloaded again.
+ * <p/>
+ * The least recently used tiles will be removed when the total size of all tiles exceeds the
+ * configured maximum size. The access order is stored in the file modification times, so it's
+ * still available after a restart. The store can be used by multiple tile loader threads.
+ * <p/>
+ * The store is just an optimization, so all problems will be logged only, the tile will be
+ * downloaded again then.
+ *
+ * @author Stefan Saring
+ */
+public class TileDiskStore {
+
+    private static final Logger LOGGER = Logger.getLogger(TileDiskStore.class.getName());
+
+    /** Default maximum size of all stored tiles (in bytes). */
+    public static final long DEFAULT_MAX_SIZE = 200 * 1024 * 1024;
+
+    private final Path storeDirectory;
+    private final long maxSize;
+
+    /** Sizes of all stored tile files in access order (least recently used first), created on first use. */
+    private LinkedHashMap<Path, Long> tileSizes;
+    private long totalSize;
+
+    /**
+     * Creates a new TileDiskStore. The store directory will be created on first use.
+     *
+     * @param storeDirectory the directory to store the tiles in
+     * @param maxSize the maximum size of all stored tiles in bytes
+     */
+    public TileDiskStore(final Path storeDirectory, final long maxSize) {
+        this.storeDirectory = storeDirectory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the image data of the tile for the specified URI, if it's stored.
+     *
+     * @param uri URI of the tile
+     * @return the image data or null when the tile is not stored
+     */
+    public byte[] get(final URI uri) {
+        final Path tilePath = getTilePath(uri);
+        if (tilePath == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            initTileSizes();
+            if (tileSizes.get(tilePath) == null) {
+                return null;
+            }
+        }
+
+        try {
+            final byte[] data = Files.readAllBytes(tilePath);
+            Files.setLastModifiedTime(tilePath, FileTime.fromMillis(System.currentTimeMillis()));
+            return data;
+        } catch (NoSuchFileException e) {
+            removeTileSize(tilePath);
+            return null;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to read stored map tile '" + tilePath + "'!", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the image data of the tile for the specified URI. The least recently used tiles will
+     * be removed afterwards when the maximum size has been exceeded.
+     *
+     * @param uri URI of the tile
+     * @param data the image data
+     */
+    public void put(final URI uri, final byte[] data) {
+        final Path tilePath = getTilePath(uri);
+        if (tilePath == null || data == null || data.length > maxSize) {
+            return;
+        }
+
+        try {
+            // write to a temporary file first, so other threads will never read incomplete tiles
+            Files.createDirectories(tilePath.getParent());
+            final Path tempPath = Files.createTempFile(tilePath.getParent(), "tile", ".tmp");
+            try {
+                Files.write(tempPath, data);
+                Files.move(tempPath, tilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempPath);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to store map tile '" + tilePath + "'!", e);
+            return;
+        }
+
+        final List<Path> evictedTiles = new ArrayList<>();
+        synchronized (this) {
+            initTileSizes();
+            final Long previousSize = tileSizes.put(tilePath, (long) data.length);
+            totalSize += data.length - (previousSize == null ? 0 : previousSize);
+
+            final Iterator<Map.Entry<Path, Long>> iterator = tileSizes.entrySet().iterator();
+            while (totalSize > maxSize && iterator.hasNext()) {
+                final Map.Entry<Path, Long> entry = iterator.next();
+                if (!entry.getKey().equals(tilePath)) {
+                    totalSize -= entry.getValue();
+                    evictedTiles.add(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+
+        for (Path evictedTile : evictedTiles) {
+            try {
+                Files.deleteIfExists(evictedTile);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to delete stored map tile '" + evictedTile + "'!", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the total size of all stored tiles.
+     *
+     * @return size in bytes
+     */
+    public synchronized long getTotalSize() {
+        initTileSizes();
+        return totalSize;
+    }
+
+    /**
+     * Returns the file path for the tile of the specified URI. Only tiles of HTTP(S) URIs can be
+     * stored, the path contains only safe characters.
+     *
+     * @param uri URI of the tile
+     * @return the path or null when the tile can't be stored
+     */
+    Path getTilePath(final URI uri) {
+        final String scheme = uri.getScheme();
+        if (uri.getHost() == null || uri.getPath() == null ||
+                !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+            return null;
+        }
+
+        Path tilePath = storeDirectory.resolve(toSafeName(uri.getHost()));
+        for (String segment : uri.getPath().split("/")) {
+            if (!segment.isEmpty()) {
+                tilePath = tilePath.resolve(toSafeName(segment));
+            }
+        }
+        return tilePath.equals(storeDirectory) ? null : tilePath;
+    }
+
+    private static String toSafeName(final String name) {
+        final String safeName = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safeName.matches("\\.+") ? safeName.replace('.', '_') : safeName;
+    }
+
+    private synchronized void removeTileSize(final Path tilePath) {
+        final Long size = tileSizes.remove(tilePath);
+        if (size != null) {
+            totalSize -= size;
+        }
+    }
+
+    /**
+     * Reads the sizes and access order of all stored tiles, when not done yet.
+     */
+    private void initTileSizes() {
+        if (tileSizes != null) {
+            return;
+        }
+
+        tileSizes = new LinkedHashMap<>(256, 0.75f, true);
+        totalSize = 0;
+        if (!Files.isDirectory(storeDirectory)) {
+            return;
+        }
+
+        final List<TileFile> tileFiles = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(storeDirectory)) {
+            paths.forEach(path -> {
+                try {
+                    final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isRegularFile() && !path.getFileName().toString().endsWith(".tmp")) {
+                        tileFiles.add(new TileFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    }
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to read attributes of stored map tile '" + path + "'!", e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to read the map tile store directory '" + storeDirectory + "'!", e);
+        }
+
+        tileFiles.sort((tile1, tile2) -> Long.compare(tile1.lastModified, tile2.lastModified));
+        for (TileFile tileFile : tileFiles) {
+            tileSizes.put(tileFile.path, tileFile.size);
+            totalSize += tileFile.size;
+        }
+    }
+
+    /**
+     * Path, size and modification time of a stored tile file.
+     */
+    private static final class TileFile {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        private TileFile(final Path path, final long size, final long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package de.saring.exerciseviewer.gui.panels.track;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jxmapviewer.OSMTileFactoryInfo;
+import org.jxmapviewer.viewer.DefaultTileFactory;
+import org.jxmapviewer.viewer.TileFactory;
+
+/**
+ * Provider of the TileFactory instances for the track map. The map tiles are loaded from a local
+ * tile directory (if specified) or are downloaded from OpenStreetMap. All downloaded tiles are
+ * stored persistently in the TileDiskStore, so they are available without network access later.
+ * <p/>
+ * The TileFactory instances need to be disposed after use, so a new instance is created for each
+ * map viewer. The TileDiskStore is shared by all instances.
+ *
+ * @author Stefan Saring
+ */
+public class TileFactoryProvider {
+
+    private final TileDiskStore tileDiskStore;
+    private final Path localTileDirectory;
+
+    /**
+     * Creates the provider for the specified tile sources.
+     *
+     * @param tileDiskStore the store for the downloaded tiles (can be null, then tiles are not stored)
+     * @param localTileDirectory the directory containing local tiles (can be null, then the tiles are downloaded)
+     */
+    public TileFactoryProvider(final TileDiskStore tileDiskStore, final Path localTileDirectory) {
+        this.tileDiskStore = tileDiskStore;
+        this.localTileDirectory = localTileDirectory;
+    }
+
+    /**
+     * Creates a new TileFactory for the configured tile source, it must be disposed after use.
+     *
+     * @return the created TileFactory
+     */
+    public TileFactory createTileFactory() {
+        if (localTileDirectory != null) {
+            final boolean tmsScheme = Files.exists(localTileDirectory.resolve(LocalTileFactoryInfo.TMS_MARKER_FILENAME));
+            return new DefaultTileFactory(new LocalTileFactoryInfo(localTileDirectory, tmsScheme));
+        }
+
+        final DefaultTileFactory tileFactory = new DefaultTileFactory(new OSMTileFactoryInfo());
+        if (tileDiskStore != null) {
+            tileFactory.setTileCache(new DiskTileCache(tileDiskStore));
+        }
+        return tileFactory;
+    }
+
+    /**
+     * Creates a new TileFactory for downloading the tiles from OpenStreetMap without storing them.
+     * It's used when no TileFactoryProvider is available.
+     *
+     * @return the created TileFactory
+     */
+    public static TileFactory createDefaultTileFactory() {
+        return new DefaultTileFactory(new OSMTileFactoryInfo());
+    }
+}
@@ -0,0 +1,188 @@
+package de.saring.exerciseviewer.gui.panels.track;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jxmapviewer.viewer.GeoPosition;
+import org.jxmapviewer.viewer.TileFactory;
+
+/**
+ * Cache of the projected track path for the track map. For each zoom level the track positions
+ * are converted once to world pixel coordinates and simplified with the Douglas-Peucker algorithm
+ * (points closer than a sub-pixel tolerance to the simplified line are removed). The result is a
+ * single Path2D, which can be drawn on each repaint without any conversions. So the repaint costs
+ * are independent of the recording length.
+ * <p/>
+ * The cache must only be used on the Swing event dispatch thread.
+ *
+ * @author Stefan Saring
+ */
+public final class TrackPathCache {
+
+    /** Simplification tolerance in pixels, must be below 1 pixel to be invisible. */
+    public static final double DEFAULT_TOLERANCE = 0.5d;
+
+    private final List<GeoPosition> geoPositions;
+    private final double tolerance;
+
+    private final Map<Integer, Path2D> pathsByZoom = new HashMap<>();
+    private TileFactory cachedTileFactory;
+
+    /**
+     * Creates the cache for the specified track positions with the default tolerance.
+     *
+     * @param geoPositions list of all track positions
+     */
+    public TrackPathCache(final List<GeoPosition> geoPositions) {
+        this(geoPositions, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Creates the cache for the specified track positions.
+     *
+     * @param geoPositions list of all track positions
+     * @param tolerance simplification tolerance in pixels
+     */
+    public TrackPathCache(final List<GeoPosition> geoPositions, final double tolerance) {
+        this.geoPositions = geoPositions;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Returns the track path in world pixel coordinates for the specified zoom level. It will be
+     * created on the first request for each zoom level (or when the tile factory was changed).
+     *
+     * @param tileFactory the tile factory of the map, it's used for the projection
+     * @param zoom the zoom level
+     * @return the track path
+     */
+    public Path2D getPath(final TileFactory tileFactory, final int zoom) {
+        if (tileFactory != cachedTileFactory) {
+            pathsByZoom.clear();
+            cachedTileFactory = tileFactory;
+        }
+        return pathsByZoom.computeIfAbsent(zoom, z -> createPath(tileFactory, z));
+    }
+
+    private Path2D createPath(final TileFactory tileFactory, final int zoom) {
+        final int size = geoPositions.size();
+        final double[] xValues = new double[size];
+        final double[] yValues = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            final Point2D pt = tileFactory.geoToPixel(geoPositions.get(i), zoom);
+            xValues[i] = pt.getX();
+            yValues[i] = pt.getY();
+        }
+
+        final int[] indexes = simplify(xValues, yValues, tolerance);
+        final Path2D path = new Path2D.Float(Path2D.WIND_NON_ZERO, indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            if (i == 0) {
+                path.moveTo(xValues[indexes[i]], yValues[indexes[i]]);
+            } else {
+                path.lineTo(xValues[indexes[i]], yValues[indexes[i]]);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Simplifies the specified polyline by the Douglas-Peucker algorithm. All points with a distance
+     * to the simplified line below the tolerance are removed, the first and last point are always kept.
+     * The implementation is iterative, so there's no stack overflow for very long tracks.
+     *
+     * @param xValues the X coordinates of all points
+     * @param yValues the Y coordinates of all points
+     * @param tolerance the maximum distance of removed points
+     * @return the sorted indexes of the kept points
+     */
+    public static int[] simplify(final double[] xValues, final double[] yValues, final double tolerance) {
+        final int size = xValues.length;
+        if (size <= 2) {
+            final int[] indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = i;
+            }
+            return indexes;
+        }
+
+        final boolean[] keep = new boolean[size];
+        keep[0] = true;
+        keep[size - 1] = true;
+        int keepCount = 2;
+
+        // stack of the index ranges (start and end index) to be simplified
+        int[] stack = new int[64];
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        stack[stackSize++] = size - 1;
+
+        final double squaredTolerance = tolerance * tolerance;
+
+        while (stackSize > 0) {
+            final int end = stack[--stackSize];
+            final int start = stack[--stackSize];
+
+            int maxIndex = -1;
+            double maxDistance = squaredTolerance;
+            for (int i = start + 1; i < end; i++) {
+                final double distance = getSquaredSegmentDistance(xValues[i], yValues[i],
+                        xValues[start], yValues[start], xValues[end], yValues[end]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    maxIndex = i;
+                }
+            }
+
+            if (maxIndex >= 0) {
+                keep[maxIndex] = true;
+                keepCount++;
+
+                if (stackSize + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[stackSize++] = start;
+                stack[stackSize++] = maxIndex;
+                stack[stackSize++] = maxIndex;
+                stack[stackSize++] = end;
+            }
+        }
+
+        final int[] indexes = new int[keepCount];
+        int indexCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                indexes[indexCount++] = i;
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Returns the squared distance of the point (px, py) to the line segment (x1, y1) - (x2, y2).
+     */
+    private static double getSquaredSegmentDistance(final double px, final double py, final double x1,
+            final double y1, final double x2, final double y2) {
+
+        final double dx = x2 - x1;
+        final double dy = y2 - y1;
+        final double segmentLength = dx * dx + dy * dy;
+
+        double closestX = x1;
+        double closestY = y1;
+        if (segmentLength > 0) {
+            final double t = Math.max(0, Math.min(1, ((px - x1) * dx + (py - y1) * dy) / segmentLength));
+            closestX = x1 + t * dx;
+            closestY = y1 + t * dy;
+        }
+
+        final double distX = px - closestX;
+        final double distY = py - closestY;
+        return distX * distX + distY * distY;
+    }
+}
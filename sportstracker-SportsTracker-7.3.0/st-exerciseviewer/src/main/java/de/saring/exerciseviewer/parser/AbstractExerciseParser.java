@@ -2,15 +2,16 @@ package de.saring.exerciseviewer.parser;
 
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.EVExercise;
-import de.saring.exerciseviewer.data.Lap;
-import de.saring.util.unitcalc.CalculationUtils;
+import de.saring.exerciseviewer.data.SampleProcessingPipeline;
+import de.saring.exerciseviewer.data.SampleProcessingStages;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This abstract ExerciseParser implementation class contains the basic
@@ -21,6 +22,11 @@ import java.util.List;
  */
 public abstract class AbstractExerciseParser implements ExerciseParser {
 
+    @Override
+    public CompletableFuture<EVExercise> parseExerciseAsync(String filename, ParseProgressListener progressListener) {
+        return AsyncExerciseParsing.parseAsync(filename, progressListener, () -> parseExercise(filename));
+    }
+
     /**
      * This is a helper method for all parser implementations, which reads
      * the specified binary exercise file into a int buffer.
@@ -35,14 +41,19 @@ public abstract class AbstractExerciseParser implements ExerciseParser {
         File file = new File(filename);
 
         // open exercise file and create buffer with same length
-        try (FileInputStream fiStream = new FileInputStream(file)) {
+        try (InputStream inStream = AsyncExerciseParsing.openInputStream(filename)) {
             int fileLength = (int) file.length();
             byte[] byteBuffer = new byte[fileLength];
             int[] intBuffer = new int[fileLength];
 
             // read all bytes to buffer
-            if (fiStream.read(byteBuffer) != fileLength) {
-                throw new Exception("Failed to read complete file content ...");
+            int readLength = 0;
+            while (readLength < fileLength) {
+                int count = inStream.read(byteBuffer, readLength, fileLength - readLength);
+                if (count < 0) {
+                    throw new Exception("Failed to read complete file content ...");
+                }
+                readLength += count;
             }
 
             // convert signed byte buffer to int buffer
@@ -66,7 +77,8 @@ public abstract class AbstractExerciseParser implements ExerciseParser {
      */
     protected String[] readFileToStringArray(String filename) throws EVException {
 
-        try (BufferedReader bufReader = new BufferedReader(new FileReader(filename))) {
+        try (BufferedReader bufReader = new BufferedReader(new InputStreamReader(
+                AsyncExerciseParsing.openInputStream(filename)))) {
             List<String> lLines = new ArrayList<>();
             String strCurrentLine = null;
 
@@ -102,23 +114,6 @@ public abstract class AbstractExerciseParser implements ExerciseParser {
      * @param exercise the exercise for calculation
      */
     protected void calculateAverageLapSpeed(EVExercise exercise) {
-        // abort calculation when speed or lap data was not recorded
-        if (!exercise.getRecordingMode().isSpeed() || exercise.getLapList() == null) {
-            return;
-        }
-
-        // calculate AVG speed for all laps
-        int distanceBefore = 0;
-        int timeSplitBefore = 0;
-        for (Lap lap : exercise.getLapList()) {
-            int lapDistance = lap.getSpeed().getDistance() - distanceBefore;
-            int lapDuration = lap.getTimeSplit() - timeSplitBefore;
-
-            distanceBefore = lap.getSpeed().getDistance();
-            timeSplitBefore = lap.getTimeSplit();
-
-            lap.getSpeed().setSpeedAVG(CalculationUtils.calculateAvgSpeed(
-                    lapDistance / 1000f, Math.round(lapDuration / 10f)));
-        }
+        new SampleProcessingPipeline(SampleProcessingStages.lapSpeed()).process(exercise);
     }
 }
@@ -0,0 +1,205 @@
+package de.saring.exerciseviewer.parser;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+
+/**
+ * Helper class for parsing exercise files in background threads. The parsing can be cancelled by
+ * cancelling the returned CompletableFuture, the progress of the parsing can be monitored by a
+ * ParseProgressListener.
+ * <p/>
+ * The progress is the number of bytes consumed from the exercise file. It can only be reported in
+ * detail when the parser reads the file by using the InputStream provided by openInputStream()
+ * (e.g. by the file reading helper methods of AbstractExerciseParser). Otherwise the progress will
+ * only be reported on start and end of parsing. The cancellation will also be detected while
+ * reading from this InputStream, the parser will be aborted then.
+ *
+ * @author Stefan Saring
+ */
+public final class AsyncExerciseParsing {
+
+    /** Minimum number of consumed bytes between two progress notifications. */
+    private static final int PROGRESS_STEP_SIZE = 64 * 1024;
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ParserThreadFactory());
+
+    /** The parse context of the current thread, it's only available in asynchronous parsing threads. */
+    private static final ThreadLocal<ParseContext> PARSE_CONTEXT = new ThreadLocal<>();
+
+    private AsyncExerciseParsing() {
+    }
+
+    /**
+     * Executes the specified parse action for the exercise file in a background thread.
+     *
+     * @param filename name of the exercise file to parse
+     * @param progressListener listener for the parsing progress (optional, can be null)
+     * @param parseAction the action which parses the exercise file
+     * @return the CompletableFuture of the parsed exercise, it can be used for cancelling too
+     */
+    public static CompletableFuture<EVExercise> parseAsync(final String filename,
+            final ParseProgressListener progressListener, final ParseAction parseAction) {
+
+        final CompletableFuture<EVExercise> future = new CompletableFuture<>();
+        final long bytesTotal = new File(filename).length();
+
+        EXECUTOR.execute(() -> {
+            if (future.isCancelled()) {
+                return;
+            }
+
+            final ParseContext parseContext = new ParseContext(future, progressListener, bytesTotal);
+            PARSE_CONTEXT.set(parseContext);
+            try {
+                parseContext.notifyProgress(0);
+                final EVExercise exercise = parseAction.parse();
+                parseContext.notifyProgress(bytesTotal);
+                future.complete(exercise);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            } finally {
+                PARSE_CONTEXT.remove();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Opens a buffered InputStream for reading the specified exercise file. When called by an
+     * asynchronous parsing thread, the stream reports the progress of the consumed bytes and throws
+     * an InterruptedIOException when the parsing has been cancelled.
+     *
+     * @param filename name of the exercise file
+     * @return the opened InputStream
+     * @throws IOException on file opening problems
+     */
+    public static InputStream openInputStream(final String filename) throws IOException {
+        final InputStream fileStream = new FileInputStream(filename);
+        final ParseContext parseContext = PARSE_CONTEXT.get();
+        return new BufferedInputStream(parseContext == null ? fileStream :
+                new ProgressInputStream(fileStream, parseContext));
+    }
+
+    /**
+     * Functional interface of the action which parses the exercise file.
+     */
+    @FunctionalInterface
+    public interface ParseAction {
+
+        /**
+         * Parses the exercise file.
+         *
+         * @return the parsed exercise
+         * @throws EVException on parsing problems
+         */
+        EVExercise parse() throws EVException;
+    }
+
+    /**
+     * Context of the asynchronous parsing in the current thread.
+     */
+    private static final class ParseContext {
+
+        private final CompletableFuture<EVExercise> future;
+        private final ParseProgressListener progressListener;
+        private final long bytesTotal;
+
+        private ParseContext(final CompletableFuture<EVExercise> future,
+                final ParseProgressListener progressListener, final long bytesTotal) {
+            this.future = future;
+            this.progressListener = progressListener;
+            this.bytesTotal = bytesTotal;
+        }
+
+        private void notifyProgress(final long bytesConsumed) {
+            if (progressListener != null) {
+                progressListener.progressChanged(Math.min(bytesConsumed, bytesTotal), bytesTotal);
+            }
+        }
+    }
+
+    /**
+     * InputStream which counts the consumed bytes, reports the progress and checks for cancellation.
+     */
+    private static final class ProgressInputStream extends FilterInputStream {
+
+        private final ParseContext parseContext;
+        private long bytesConsumed;
+        private long bytesNotified;
+
+        private ProgressInputStream(final InputStream in, final ParseContext parseContext) {
+            super(in);
+            this.parseContext = parseContext;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkCancelled();
+            final int value = super.read();
+            if (value >= 0) {
+                bytesRead(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            checkCancelled();
+            final int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                bytesRead(count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(final long count) throws IOException {
+            checkCancelled();
+            final long skipped = super.skip(count);
+            bytesRead(skipped);
+            return skipped;
+        }
+
+        private void checkCancelled() throws InterruptedIOException {
+            if (parseContext.future.isCancelled()) {
+                throw new InterruptedIOException("Parsing of exercise file has been cancelled!");
+            }
+        }
+
+        private void bytesRead(final long count) {
+            bytesConsumed += count;
+            if (bytesConsumed - bytesNotified >= PROGRESS_STEP_SIZE) {
+                bytesNotified = bytesConsumed;
+                parseContext.notifyProgress(bytesConsumed);
+            }
+        }
+    }
+
+    /**
+     * Factory for the parser daemon threads, they must not prevent the application exit.
+     */
+    private static final class ParserThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "ExerciseParser-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package de.saring.exerciseviewer.parser;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.data.ExerciseAltitude;
+import de.saring.exerciseviewer.data.ExerciseCadence;
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
+import de.saring.exerciseviewer.data.ExerciseSpeed;
+import de.saring.exerciseviewer.data.ExerciseTemperature;
+import de.saring.exerciseviewer.data.HeartRateLimit;
+import de.saring.exerciseviewer.data.Lap;
+import de.saring.exerciseviewer.data.LapAltitude;
+import de.saring.exerciseviewer.data.LapSpeed;
+import de.saring.exerciseviewer.data.LapTemperature;
+import de.saring.exerciseviewer.data.Position;
+import de.saring.exerciseviewer.data.RecordingMode;
+
+/**
+ * Compact binary serialization of EVExercise objects, used by the ExerciseParseCache.
+ * The exercise samples are not written object by object, each sample attribute is written
+ * as a separate primitive column instead. Optional data (e.g. speed or positions) is
+ * prefixed by a presence flag.<br/>
+ * The FORMAT_VERSION must be incremented on each change of the written structure.
+ *
+ * @author Stefan Saring
+ */
+final class EVExerciseCodec {
+
+    /** Version of the binary format, must be changed whenever the written structure changes. */
+    static final int FORMAT_VERSION = 1;
+
+    private EVExerciseCodec() {
+    }
+
+    /**
+     * Writes the specified exercise to the passed output stream.
+     *
+     * @param exercise exercise to write
+     * @param out the output stream
+     * @throws IOException on write problems
+     */
+    static void write(final EVExercise exercise, final DataOutputStream out) throws IOException {
+
+        writeNullableString(out, exercise.getFileType() == null ? null : exercise.getFileType().name());
+        writeNullableString(out, exercise.getDeviceName());
+        writeDateTime(out, exercise.getDateTime());
+        writeNullableString(out, exercise.getType());
+        writeRecordingMode(out, exercise.getRecordingMode());
+        out.writeInt(exercise.getDuration());
+        out.writeShort(exercise.getRecordingInterval());
+        out.writeShort(exercise.getHeartRateAVG());
+        out.writeShort(exercise.getHeartRateMax());
+
+        final ExerciseSpeed speed = exercise.getSpeed();
+        out.writeBoolean(speed != null);
+        if (speed != null) {
+            out.writeFloat(speed.getSpeedAVG());
+            out.writeFloat(speed.getSpeedMax());
+            out.writeInt(speed.getDistance());
+        }
+
+        final ExerciseCadence cadence = exercise.getCadence();
+        out.writeBoolean(cadence != null);
+        if (cadence != null) {
+            out.writeShort(cadence.getCadenceAVG());
+            out.writeShort(cadence.getCadenceMax());
+        }
+
+        final ExerciseAltitude altitude = exercise.getAltitude();
+        out.writeBoolean(altitude != null);
+        if (altitude != null) {
+            out.writeShort(altitude.getAltitudeMin());
+            out.writeShort(altitude.getAltitudeAVG());
+            out.writeShort(altitude.getAltitudeMax());
+            out.writeInt(altitude.getAscent());
+        }
+
+        final ExerciseTemperature temperature = exercise.getTemperature();
+        out.writeBoolean(temperature != null);
+        if (temperature != null) {
+            out.writeShort(temperature.getTemperatureMin());
+            out.writeShort(temperature.getTemperatureAVG());
+            out.writeShort(temperature.getTemperatureMax());
+        }
+
+        out.writeInt(exercise.getEnergy());
+        out.writeInt(exercise.getEnergyTotal());
+        out.writeInt(exercise.getSumExerciseTime());
+        out.writeInt(exercise.getSumRideTime());
+        out.writeInt(exercise.getOdometer());
+
+        writeHeartRateLimits(out, exercise.getHeartRateLimits());
+        writeLaps(out, exercise.getLapList());
+        writeSamples(out, exercise.getSampleColumns());
+    }
+
+    /**
+     * Reads an exercise from the passed input stream.
+     *
+     * @param in the input stream
+     * @return the read exercise
+     * @throws IOException on read problems
+     */
+    static EVExercise read(final DataInputStream in) throws IOException {
+        final EVExercise exercise = new EVExercise();
+
+        final String fileType = readNullableString(in);
+        exercise.setFileType(fileType == null ? null : EVExercise.ExerciseFileType.valueOf(fileType));
+        exercise.setDeviceName(readNullableString(in));
+        exercise.setDateTime(readDateTime(in));
+        exercise.setType(readNullableString(in));
+        exercise.setRecordingMode(readRecordingMode(in));
+        exercise.setDuration(in.readInt());
+        exercise.setRecordingInterval(in.readShort());
+        exercise.setHeartRateAVG(in.readShort());
+        exercise.setHeartRateMax(in.readShort());
+
+        if (in.readBoolean()) {
+            final ExerciseSpeed speed = new ExerciseSpeed();
+            speed.setSpeedAVG(in.readFloat());
+            speed.setSpeedMax(in.readFloat());
+            speed.setDistance(in.readInt());
+            exercise.setSpeed(speed);
+        }
+
+        if (in.readBoolean()) {
+            final ExerciseCadence cadence = new ExerciseCadence();
+            cadence.setCadenceAVG(in.readShort());
+            cadence.setCadenceMax(in.readShort());
+            exercise.setCadence(cadence);
+        }
+
+        if (in.readBoolean()) {
+            final ExerciseAltitude altitude = new ExerciseAltitude();
+            altitude.setAltitudeMin(in.readShort());
+            altitude.setAltitudeAVG(in.readShort());
+            altitude.setAltitudeMax(in.readShort());
+            altitude.setAscent(in.readInt());
+            exercise.setAltitude(altitude);
+        }
+
+        if (in.readBoolean()) {
+            final ExerciseTemperature temperature = new ExerciseTemperature();
+            temperature.setTemperatureMin(in.readShort());
+            temperature.setTemperatureAVG(in.readShort());
+            temperature.setTemperatureMax(in.readShort());
+            exercise.setTemperature(temperature);
+        }
+
+        exercise.setEnergy(in.readInt());
+        exercise.setEnergyTotal(in.readInt());
+        exercise.setSumExerciseTime(in.readInt());
+        exercise.setSumRideTime(in.readInt());
+        exercise.setOdometer(in.readInt());
+
+        exercise.setHeartRateLimits(readHeartRateLimits(in));
+        exercise.setLapList(readLaps(in));
+        exercise.setSampleColumns(readSamples(in));
+        return exercise;
+    }
+
+    private static void writeRecordingMode(final DataOutputStream out, final RecordingMode mode)
+            throws IOException {
+        out.writeBoolean(mode != null);
+        if (mode != null) {
+            out.writeBoolean(mode.isAltitude());
+            out.writeBoolean(mode.isSpeed());
+            out.writeBoolean(mode.isCadence());
+            out.writeBoolean(mode.isPower());
+            out.writeByte(mode.getBikeNumber());
+            out.writeBoolean(mode.isTemperature());
+            out.writeBoolean(mode.isLocation());
+            out.writeBoolean(mode.isIntervalExercise());
+            out.writeBoolean(mode.isHeartRate());
+        }
+    }
+
+    private static RecordingMode readRecordingMode(final DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        final RecordingMode mode = new RecordingMode();
+        mode.setAltitude(in.readBoolean());
+        mode.setSpeed(in.readBoolean());
+        mode.setCadence(in.readBoolean());
+        mode.setPower(in.readBoolean());
+        mode.setBikeNumber(in.readByte());
+        mode.setTemperature(in.readBoolean());
+        mode.setLocation(in.readBoolean());
+        mode.setIntervalExercise(in.readBoolean());
+        mode.setHeartRate(in.readBoolean());
+        return mode;
+    }
+
+    private static void writeHeartRateLimits(final DataOutputStream out, final HeartRateLimit[] limits)
+            throws IOException {
+        out.writeInt(limits == null ? -1 : limits.length);
+        if (limits != null) {
+            for (HeartRateLimit limit : limits) {
+                out.writeShort(limit.getLowerHeartRate());
+                out.writeShort(limit.getUpperHeartRate());
+                out.writeInt(limit.getTimeBelow());
+                out.writeInt(limit.getTimeWithin());
+                out.writeInt(limit.getTimeAbove());
+                out.writeBoolean(limit.isAbsoluteRange());
+            }
+        }
+    }
+
+    private static HeartRateLimit[] readHeartRateLimits(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+
+        final HeartRateLimit[] limits = new HeartRateLimit[count];
+        for (int i = 0; i < count; i++) {
+            limits[i] = new HeartRateLimit();
+            limits[i].setLowerHeartRate(in.readShort());
+            limits[i].setUpperHeartRate(in.readShort());
+            limits[i].setTimeBelow(in.readInt());
+            limits[i].setTimeWithin(in.readInt());
+            limits[i].setTimeAbove(in.readInt());
+            limits[i].setAbsoluteRange(in.readBoolean());
+        }
+        return limits;
+    }
+
+    private static void writeLaps(final DataOutputStream out, final Lap[] laps) throws IOException {
+        out.writeInt(laps == null ? -1 : laps.length);
+        if (laps == null) {
+            return;
+        }
+
+        for (Lap lap : laps) {
+            out.writeInt(lap.getTimeSplit());
+            out.writeShort(lap.getHeartRateSplit());
+            out.writeShort(lap.getHeartRateAVG());
+            out.writeShort(lap.getHeartRateMax());
+
+            final LapSpeed speed = lap.getSpeed();
+            out.writeBoolean(speed != null);
+            if (speed != null) {
+                out.writeFloat(speed.getSpeedEnd());
+                out.writeFloat(speed.getSpeedAVG());
+                out.writeInt(speed.getDistance());
+                out.writeShort(speed.getCadence());
+            }
+
+            final LapAltitude altitude = lap.getAltitude();
+            out.writeBoolean(altitude != null);
+            if (altitude != null) {
+                out.writeShort(altitude.getAltitude());
+                out.writeInt(altitude.getAscent());
+            }
+
+            final LapTemperature temperature = lap.getTemperature();
+            out.writeBoolean(temperature != null);
+            if (temperature != null) {
+                out.writeShort(temperature.getTemperature());
+            }
+
+            final Position position = lap.getPositionSplit();
+            out.writeBoolean(position != null);
+            if (position != null) {
+                out.writeDouble(position.getLatitude());
+                out.writeDouble(position.getLongitude());
+            }
+        }
+    }
+
+    private static Lap[] readLaps(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+
+        final Lap[] laps = new Lap[count];
+        for (int i = 0; i < count; i++) {
+            final Lap lap = new Lap();
+            lap.setTimeSplit(in.readInt());
+            lap.setHeartRateSplit(in.readShort());
+            lap.setHeartRateAVG(in.readShort());
+            lap.setHeartRateMax(in.readShort());
+
+            if (in.readBoolean()) {
+                final LapSpeed speed = new LapSpeed();
+                speed.setSpeedEnd(in.readFloat());
+                speed.setSpeedAVG(in.readFloat());
+                speed.setDistance(in.readInt());
+                speed.setCadence(in.readShort());
+                lap.setSpeed(speed);
+            }
+
+            if (in.readBoolean()) {
+                final LapAltitude altitude = new LapAltitude();
+                altitude.setAltitude(in.readShort());
+                altitude.setAscent(in.readInt());
+                lap.setAltitude(altitude);
+            }
+
+            if (in.readBoolean()) {
+                final LapTemperature temperature = new LapTemperature();
+                temperature.setTemperature(in.readShort());
+                lap.setTemperature(temperature);
+            }
+
+            if (in.readBoolean()) {
+                lap.setPositionSplit(new Position(in.readDouble(), in.readDouble()));
+            }
+            laps[i] = lap;
+        }
+        return laps;
+    }
+
+    /**
+     * Writes the samples column by column, the positions column is only written when
+     * at least one sample contains a position.
+     */
+    private static void writeSamples(final DataOutputStream out, final ExerciseSampleColumns samples)
+            throws IOException {
+        out.writeInt(samples == null ? -1 : samples.size());
+        if (samples == null) {
+            return;
+        }
+
+        final int count = samples.size();
+        for (int i = 0; i < count; i++) {
+            out.writeLong(samples.getTimestamps()[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.writeShort(samples.getHeartRates()[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.writeShort(samples.getAltitudes()[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.writeFloat(samples.getSpeeds()[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.writeShort(samples.getCadences()[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.writeInt(samples.getDistances()[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.writeShort(samples.getTemperatures()[i]);
+        }
+
+        out.writeBoolean(samples.hasPositions());
+        if (samples.hasPositions()) {
+            for (int i = 0; i < count; i++) {
+                final boolean positionAvailable = samples.hasPosition(i);
+                out.writeBoolean(positionAvailable);
+                if (positionAvailable) {
+                    out.writeDouble(samples.getLatitudes()[i]);
+                    out.writeDouble(samples.getLongitudes()[i]);
+                }
+            }
+        }
+    }
+
+    private static ExerciseSampleColumns readSamples(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(count);
+        for (int i = 0; i < count; i++) {
+            samples.getTimestamps()[i] = in.readLong();
+        }
+        for (int i = 0; i < count; i++) {
+            samples.getHeartRates()[i] = in.readShort();
+        }
+        for (int i = 0; i < count; i++) {
+            samples.getAltitudes()[i] = in.readShort();
+        }
+        for (int i = 0; i < count; i++) {
+            samples.getSpeeds()[i] = in.readFloat();
+        }
+        for (int i = 0; i < count; i++) {
+            samples.getCadences()[i] = in.readShort();
+        }
+        for (int i = 0; i < count; i++) {
+            samples.getDistances()[i] = in.readInt();
+        }
+        for (int i = 0; i < count; i++) {
+            samples.getTemperatures()[i] = in.readShort();
+        }
+
+        if (in.readBoolean()) {
+            for (int i = 0; i < count; i++) {
+                if (in.readBoolean()) {
+                    samples.setPosition(i, in.readDouble(), in.readDouble());
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static void writeDateTime(final DataOutputStream out, final LocalDateTime dateTime)
+            throws IOException {
+        out.writeBoolean(dateTime != null);
+        if (dateTime != null) {
+            out.writeLong(dateTime.toLocalDate().toEpochDay());
+            out.writeLong(dateTime.toLocalTime().toNanoOfDay());
+        }
+    }
+
+    private static LocalDateTime readDateTime(final DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.of(LocalDate.ofEpochDay(in.readLong()), LocalTime.ofNanoOfDay(in.readLong()));
+    }
+
+    private static void writeNullableString(final DataOutputStream out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
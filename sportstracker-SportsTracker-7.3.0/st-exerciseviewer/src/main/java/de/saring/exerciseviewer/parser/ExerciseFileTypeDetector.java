@@ -0,0 +1,145 @@
+package de.saring.exerciseviewer.parser;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class detects the type of an exercise file by its content, it's needed for files with
+ * wrong or missing filename suffixes. Only the first few hundred bytes of the file will be read,
+ * the detected type is returned as the typical filename suffix of this type, so the proper
+ * parser can be found by the suffix.
+ * <p/>
+ * Supported are the file types with a unique signature, these are Garmin FIT (".FIT" in the
+ * header), Polar HRM ("[Params]" section at begin), HACtronic TUR and XML based formats
+ * (detected by the name of the root element). Binary formats without a signature (e.g. Polar
+ * SRD) can't be detected.
+ *
+ * @author Stefan Saring
+ */
+final class ExerciseFileTypeDetector {
+
+    /** Number of bytes to read for the detection. */
+    private static final int HEADER_LENGTH = 512;
+
+    /** Map of XML root element names to the appropriate filename suffix. */
+    private static final Map<String, String> XML_ROOT_ELEMENTS = new HashMap<>();
+
+    static {
+        XML_ROOT_ELEMENTS.put("TrainingCenterDatabase", "tcx");
+        XML_ROOT_ELEMENTS.put("gpx", "gpx");
+        XML_ROOT_ELEMENTS.put("pwx", "pwx");
+        XML_ROOT_ELEMENTS.put("polar-exercise-data", "ped");
+        XML_ROOT_ELEMENTS.put("rs200_session", "xml");
+    }
+
+    private ExerciseFileTypeDetector() {
+    }
+
+    /**
+     * Detects the type of the specified exercise file by its content.
+     *
+     * @param filename name of the exercise file
+     * @return the filename suffix (lower case) of the detected type or null when not detected
+     *         (or the file can't be read)
+     */
+    static String detectSuffix(final String filename) {
+        final byte[] header = new byte[HEADER_LENGTH];
+        int headerLength = 0;
+
+        try (InputStream in = new FileInputStream(filename)) {
+            int readLength;
+            while (headerLength < HEADER_LENGTH &&
+                    (readLength = in.read(header, headerLength, HEADER_LENGTH - headerLength)) > 0) {
+                headerLength += readLength;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        return detectSuffix(header, headerLength);
+    }
+
+    /**
+     * Detects the type of an exercise file by the passed file header.
+     *
+     * @param header the first bytes of the file
+     * @param length the number of valid bytes in the header
+     * @return the filename suffix (lower case) of the detected type or null when not detected
+     */
+    static String detectSuffix(final byte[] header, final int length) {
+
+        // Garmin FIT files contain the ASCII chars ".FIT" at the bytes 8 to 11
+        if (length >= 12 && header[8] == '.' && header[9] == 'F' && header[10] == 'I' && header[11] == 'T') {
+            return "fit";
+        }
+
+        final String text = new String(header, 0, length, StandardCharsets.ISO_8859_1);
+        final String trimmedText = skipBomAndWhitespace(text);
+
+        if (trimmedText.startsWith("[Params]")) {
+            return "hrm";
+        }
+        if (trimmedText.startsWith("HACtronic")) {
+            return "tur";
+        }
+        if (trimmedText.startsWith("<")) {
+            return XML_ROOT_ELEMENTS.get(getXmlRootElementName(trimmedText));
+        }
+        return null;
+    }
+
+    private static String skipBomAndWhitespace(final String text) {
+        int index = 0;
+        // UTF-8 byte order mark (decoded as ISO-8859-1)
+        if (text.startsWith("\u00EF\u00BB\u00BF")) {
+            index = 3;
+        }
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return text.substring(index);
+    }
+
+    /**
+     * Returns the local name of the XML root element, the XML declaration, processing
+     * instructions, comments and the DOCTYPE will be skipped.
+     *
+     * @param text the XML text of the file header
+     * @return the root element name (without namespace prefix) or null when not found
+     */
+    private static String getXmlRootElementName(final String text) {
+        int index = 0;
+        while (true) {
+            index = text.indexOf('<', index);
+            if (index < 0 || index + 1 >= text.length()) {
+                return null;
+            }
+
+            final char nextChar = text.charAt(index + 1);
+            if (nextChar == '?' || nextChar == '!') {
+                // skip XML declaration, processing instructions, comments and DOCTYPE
+                final String endMarker = text.startsWith("<!--", index) ? "-->" : ">";
+                final int endIndex = text.indexOf(endMarker, index);
+                if (endIndex < 0) {
+                    return null;
+                }
+                index = endIndex + endMarker.length();
+                continue;
+            }
+
+            int nameEnd = index + 1;
+            while (nameEnd < text.length() && !Character.isWhitespace(text.charAt(nameEnd)) &&
+                    text.charAt(nameEnd) != '>' && text.charAt(nameEnd) != '/') {
+                nameEnd++;
+            }
+
+            final String elementName = text.substring(index + 1, nameEnd);
+            final int prefixIndex = elementName.indexOf(':');
+            return prefixIndex >= 0 ? elementName.substring(prefixIndex + 1) : elementName;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package de.saring.exerciseviewer.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.util.metrics.Counter;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.Timer;
+
+/**
+ * Persistent cache for parsed exercise files. Parsing large exercise files (e.g. FIT or TCX)
+ * can take seconds, so the parsed EVExercise is stored in a compact binary format in the
+ * cache directory. The next request for the same unchanged file will be read from the cache.
+ * <p/>
+ * A cache entry is only valid when the path, size and modification time of the exercise file
+ * and the version of the parser are still the same. The parser version is created from the
+ * parser class content, so each parser update invalidates its cache entries automatically.
+ * The least recently used entries will be removed when the total cache size exceeds the
+ * configured maximum size.
+ * <p/>
+ * The cache is just an optimization, so all cache problems will be logged only, the exercise
+ * file will be parsed directly then.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseParseCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ExerciseParseCache.class.getName());
+
+    private static final Counter CACHE_HIT_COUNTER = Metrics.counter("exerciseviewer.parsecache.hit");
+    private static final Counter CACHE_MISS_COUNTER = Metrics.counter("exerciseviewer.parsecache.miss");
+
+    /** Filename suffix of the cache entries. */
+    static final String ENTRY_SUFFIX = ".evc";
+
+    /** Magic number at the begin of each cache entry. */
+    private static final int ENTRY_MAGIC = 0x45564331;
+
+    /** Default maximum size of all cache entries (in bytes). */
+    public static final long DEFAULT_MAX_SIZE = 100 * 1024 * 1024;
+
+    private final Path cacheDirectory;
+    private final long maxSize;
+
+    /** Map of the parser class name to the parser version (computed once per parser). */
+    private final Map<String, String> parserVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new ExerciseParseCache. The cache directory will be created on first use.
+     *
+     * @param cacheDirectory the directory to store the cache entries in
+     * @param maxSize the maximum size of all cache entries in bytes
+     */
+    public ExerciseParseCache(final Path cacheDirectory, final long maxSize) {
+        this.cacheDirectory = cacheDirectory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the parsed exercise of the specified file. It will be read from the cache when
+     * a valid entry exists, otherwise the file will be parsed and stored in the cache.
+     *
+     * @param filename name of exercise file to parse
+     * @return the parsed exercise
+     * @throws EVException thrown on parse problems
+     */
+    public EVExercise parseExercise(final String filename) throws EVException {
+        final ExerciseParser parser = ExerciseParserFactory.getParser(filename);
+
+        final EVExercise cachedExercise = loadCachedExercise(filename, parser);
+        if (cachedExercise != null) {
+            CACHE_HIT_COUNTER.increment();
+            return cachedExercise;
+        }
+
+        CACHE_MISS_COUNTER.increment();
+        final EVExercise exercise;
+        try (Timer.Context ignored = ExerciseParserFactory.PARSE_TIMER.start()) {
+            exercise = parser.parseExercise(filename);
+        }
+        storeCachedExercise(filename, parser, exercise);
+        return exercise;
+    }
+
+    /**
+     * Returns the parsed exercise of the specified file in a background thread, see parseExercise().
+     * The parsing can be cancelled by cancelling the returned CompletableFuture.
+     *
+     * @param filename name of exercise file to parse
+     * @param progressListener listener for the parsing progress (optional, can be null)
+     * @return the CompletableFuture of the parsed exercise, it completes exceptionally on parse problems
+     */
+    public CompletableFuture<EVExercise> parseExerciseAsync(final String filename,
+            final ParseProgressListener progressListener) {
+        return AsyncExerciseParsing.parseAsync(filename, progressListener, () -> parseExercise(filename));
+    }
+
+    /**
+     * Returns the cached exercise for the specified file and parser.
+     *
+     * @param filename name of exercise file
+     * @param parser parser for this exercise file
+     * @return the cached exercise or null when there is no valid cache entry
+     */
+    EVExercise loadCachedExercise(final String filename, final ExerciseParser parser) {
+        try {
+            final Path exercisePath = Paths.get(filename).toAbsolutePath();
+            final Path entryPath = getEntryPath(exercisePath);
+            if (!Files.exists(entryPath)) {
+                return null;
+            }
+
+            final BasicFileAttributes attributes = Files.readAttributes(exercisePath, BasicFileAttributes.class);
+            EVExercise exercise = null;
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entryPath)))) {
+                if (in.readInt() == ENTRY_MAGIC &&
+                        in.readInt() == EVExerciseCodec.FORMAT_VERSION &&
+                        in.readUTF().equals(getParserVersion(parser)) &&
+                        in.readUTF().equals(exercisePath.toString()) &&
+                        in.readLong() == attributes.size() &&
+                        in.readLong() == attributes.lastModifiedTime().toMillis()) {
+                    exercise = EVExerciseCodec.read(in);
+                }
+            }
+
+            if (exercise != null) {
+                // the modification time of an entry is the last access time for the LRU eviction
+                Files.setLastModifiedTime(entryPath, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return exercise;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to read cached exercise for file '" + filename + "'!", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the exercise of the specified file and parser in the cache. Existing entries
+     * of this file will be replaced.
+     *
+     * @param filename name of exercise file
+     * @param parser parser for this exercise file
+     * @param exercise the parsed exercise
+     */
+    void storeCachedExercise(final String filename, final ExerciseParser parser, final EVExercise exercise) {
+        try {
+            final Path exercisePath = Paths.get(filename).toAbsolutePath();
+            final BasicFileAttributes attributes = Files.readAttributes(exercisePath, BasicFileAttributes.class);
+
+            Files.createDirectories(cacheDirectory);
+            final Path entryPath = getEntryPath(exercisePath);
+            final Path tempPath = Files.createTempFile(cacheDirectory, "entry", ".tmp");
+
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                    out.writeInt(ENTRY_MAGIC);
+                    out.writeInt(EVExerciseCodec.FORMAT_VERSION);
+                    out.writeUTF(getParserVersion(parser));
+                    out.writeUTF(exercisePath.toString());
+                    out.writeLong(attributes.size());
+                    out.writeLong(attributes.lastModifiedTime().toMillis());
+                    EVExerciseCodec.write(exercise, out);
+                }
+                Files.move(tempPath, entryPath, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempPath);
+            }
+
+            evictEntries();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to store cached exercise for file '" + filename + "'!", e);
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the total cache size is not larger
+     * then the maximum size.
+     *
+     * @throws IOException on file access problems
+     */
+    synchronized void evictEntries() throws IOException {
+        final List<Path> entries = new ArrayList<>();
+        long totalSize = 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDirectory, "*" + ENTRY_SUFFIX)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+                totalSize += Files.size(entry);
+            }
+        }
+
+        if (totalSize <= maxSize) {
+            return;
+        }
+
+        final Map<Path, Long> lastAccessTimes = new HashMap<>();
+        for (Path entry : entries) {
+            lastAccessTimes.put(entry, Files.getLastModifiedTime(entry).toMillis());
+        }
+        entries.sort((e1, e2) -> Long.compare(lastAccessTimes.get(e1), lastAccessTimes.get(e2)));
+
+        for (Path entry : entries) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            final long entrySize = Files.size(entry);
+            Files.deleteIfExists(entry);
+            totalSize -= entrySize;
+        }
+    }
+
+    /**
+     * Returns the path of the cache entry for the specified exercise file. The entry filename
+     * is a hash of the exercise file path, so there is only one entry for each exercise file.
+     */
+    private Path getEntryPath(final Path exercisePath) throws NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        final byte[] hash = digest.digest(exercisePath.toString().getBytes(StandardCharsets.UTF_8));
+
+        final StringBuilder sbEntryName = new StringBuilder();
+        for (byte hashByte : hash) {
+            sbEntryName.append(String.format("%02x", hashByte));
+        }
+        return cacheDirectory.resolve(sbEntryName.append(ENTRY_SUFFIX).toString());
+    }
+
+    /**
+     * Returns the version of the specified parser, it consists of the parser class name and
+     * the checksum of the parser class content.
+     */
+    private String getParserVersion(final ExerciseParser parser) {
+        final Class<?> parserClass = parser.getClass();
+        return parserVersions.computeIfAbsent(parserClass.getName(), className -> {
+            final CRC32 crc = new CRC32();
+            try (InputStream in = parserClass.getResourceAsStream(parserClass.getSimpleName() + ".class")) {
+                final byte[] buffer = new byte[8192];
+                int length;
+                while ((length = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, length);
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to read class content of parser '" + className + "'!", e);
+            }
+            return className + ":" + Long.toHexString(crc.getValue());
+        });
+    }
+}
@@ -1,5 +1,7 @@
 package de.saring.exerciseviewer.parser;
 
+import java.util.concurrent.CompletableFuture;
+
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.EVExercise;
 
@@ -29,4 +31,14 @@ public interface ExerciseParser {
      * @throws Exception all kind of other runtime exeptions when parsing unsupported files (e.g. NullPointerException)
      */
     public EVExercise parseExercise(String filename) throws EVException;
+
+    /**
+     * This method parses the specified exercise file in a background thread. The
+     * parsing can be cancelled by cancelling the returned CompletableFuture.
+     *
+     * @param filename name of exercise file to parse
+     * @param progressListener listener for the parsing progress (optional, can be null)
+     * @return the CompletableFuture of the parsed exercise, it completes exceptionally on parse problems
+     */
+    public CompletableFuture<EVExercise> parseExerciseAsync(String filename, ParseProgressListener progressListener);
 }
@@ -1,9 +1,15 @@
 package de.saring.exerciseviewer.parser;
 
 import de.saring.exerciseviewer.core.EVException;
+import de.saring.util.metrics.Metrics;
+import de.saring.util.metrics.Timer;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.ServiceLoader;
 
 /**
@@ -19,34 +25,62 @@ import java.util.ServiceLoader;
  * compiled to class-Files too. It would also be possible to run the Groovy
  * parsers without compile using the GroovyClassLoader, but the disadvantages
  * are slower performance and no syntax check via the compiler.
+ * <p/>
+ * The parser implementations are loaded only once, they are mapped by their
+ * (case insensitive) filename suffixes.
  *
  * @author Stefan Saring
  * @version 2.0
  */
 public class ExerciseParserFactory {
 
+    /**
+     * Timer for the parser runs of all exercise files (cache hits are not included).
+     */
+    public static final Timer PARSE_TIMER = Metrics.timer("exerciseviewer.parse");
+
     /**
      * The singleton instance.
      */
     private static ExerciseParserFactory instance;
 
     /**
-     * The ServiceLoader instance for all ExerciseParser implementations.
+     * List of all available ExerciseParser implementations.
      */
-    private final ServiceLoader<ExerciseParser> exerciseParserLoader;
+    private final List<ExerciseParser> parsers;
+
+    /**
+     * Map of all ExerciseParser implementations, the key is the lower case filename suffix.
+     */
+    private final Map<String, ExerciseParser> parsersBySuffix;
 
     /**
      * Creates a new instance of ExerciseParserFactory and loads all
      * ExerciseParser implementations available in the classpath.
      */
     private ExerciseParserFactory() {
-        exerciseParserLoader = ServiceLoader.load(ExerciseParser.class);
+        final List<ExerciseParser> loadedParsers = new ArrayList<>();
+        final Map<String, ExerciseParser> loadedParsersBySuffix = new HashMap<>();
+
+        for (ExerciseParser parser : ServiceLoader.load(ExerciseParser.class)) {
+            loadedParsers.add(parser);
+            for (String suffix : parser.getInfo().getSuffixes()) {
+                // the first registered parser for a suffix wins
+                loadedParsersBySuffix.putIfAbsent(suffix.toLowerCase(Locale.ROOT), parser);
+            }
+        }
+
+        parsers = Collections.unmodifiableList(loadedParsers);
+        parsersBySuffix = Collections.unmodifiableMap(loadedParsersBySuffix);
     }
 
     /**
      * Returns the instance of the appropriate exercise parser for the specified
-     * exercise filename. The proper parser will be assigned by using the
-     * filename suffix.
+     * exercise filename. The type of the exercise file will be detected by the
+     * file content first (reads just the file header), so files with wrong or
+     * missing suffixes can be parsed too. When the type can't be detected (e.g.
+     * binary formats without signature), the proper parser will be assigned by
+     * using the filename suffix.
      *
      * @param filename name of the exercise file to parse
      * @return instance of the appropriate exercise parser
@@ -55,12 +89,22 @@ public class ExerciseParserFactory {
     public static ExerciseParser getParser(String filename) throws EVException {
         createInstance();
 
+        // return the parser implementation for the detected file content type
+        final String detectedSuffix = ExerciseFileTypeDetector.detectSuffix(filename);
+        if (detectedSuffix != null) {
+            final ExerciseParser parser = instance.parsersBySuffix.get(detectedSuffix);
+            if (parser != null) {
+                return parser;
+            }
+        }
+
         // return the parser implementation which matches the filename suffix
-        for (ExerciseParser parser : instance.exerciseParserLoader) {
-            for (String suffix : parser.getInfo().getSuffixes()) {
-                if (filename.endsWith("." + suffix)) {
-                    return parser;
-                }
+        final int suffixIndex = filename.lastIndexOf('.');
+        if (suffixIndex >= 0) {
+            final String suffix = filename.substring(suffixIndex + 1).toLowerCase(Locale.ROOT);
+            final ExerciseParser parser = instance.parsersBySuffix.get(suffix);
+            if (parser != null) {
+                return parser;
             }
         }
 
@@ -77,7 +121,7 @@ public class ExerciseParserFactory {
         createInstance();
 
         List<ExerciseParserInfo> lInfos = new ArrayList<>();
-        for (ExerciseParser parser : instance.exerciseParserLoader) {
+        for (ExerciseParser parser : instance.parsers) {
             lInfos.add(parser.getInfo());
         }
         return lInfos;
@@ -0,0 +1,112 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
+import de.saring.exerciseviewer.data.Lap;
+
+/**
+ * Helper class for parser implementations which need to find the exercise sample at the end
+ * of a lap, e.g. for taking over the heartrate, speed or altitude at the lap split time when
+ * these values are not recorded in the lap data.
+ * <p/>
+ * The samples are normally sorted by timestamp, so the closest sample will be found by a binary
+ * search. Some devices store unsorted timestamps (e.g. on transitions between sport types), then
+ * all samples will be searched (much slower for exercises with many laps).
+ *
+ * @author Stefan Saring
+ */
+public final class LapSampleAlignment {
+
+    private LapSampleAlignment() {
+    }
+
+    /**
+     * Returns the indexes of the samples closest to the split time of the specified laps.
+     *
+     * @param samples the exercise sample columns
+     * @param laps the laps of the exercise (the split time must be set)
+     * @return array with one sample index for each lap (-1 when there are no samples)
+     */
+    public static int[] findSampleIndexesForLapEnds(final ExerciseSampleColumns samples, final Lap[] laps) {
+        final long[] timestamps = samples.getTimestamps();
+        final int size = samples.size();
+        final boolean sorted = isSorted(timestamps, size);
+
+        final int[] sampleIndexes = new int[laps.length];
+        for (int i = 0; i < laps.length; i++) {
+            final long lapSplitTimestamp = laps[i].getTimeSplit() * 100L;
+            sampleIndexes[i] = sorted ?
+                    findClosestSampleIndex(timestamps, size, lapSplitTimestamp) :
+                    findClosestSampleIndexUnsorted(timestamps, size, lapSplitTimestamp);
+        }
+        return sampleIndexes;
+    }
+
+    /**
+     * Returns the index of the sample with the timestamp closest to the specified timestamp.
+     * When multiple samples have the same distance, the first one will be returned. The
+     * timestamps must be sorted in ascending order.
+     *
+     * @param timestamps sorted sample timestamps
+     * @param size number of valid timestamps in the array
+     * @param timestamp the timestamp to search for
+     * @return index of the closest sample or -1 when there are no samples
+     */
+    public static int findClosestSampleIndex(final long[] timestamps, final int size, final long timestamp) {
+        if (size == 0) {
+            return -1;
+        }
+
+        // binary search for the first sample with a timestamp not before the searched timestamp
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (timestamps[mid] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        if (low == size) {
+            return firstIndexOfTimestamp(timestamps, size - 1);
+        }
+        if (low == 0) {
+            return 0;
+        }
+
+        // the previous sample wins on same distance, use the first one of equal timestamps
+        final int previous = firstIndexOfTimestamp(timestamps, low - 1);
+        return timestamp - timestamps[previous] <= timestamps[low] - timestamp ? previous : low;
+    }
+
+    private static int findClosestSampleIndexUnsorted(final long[] timestamps, final int size, final long timestamp) {
+        int closestIndex = -1;
+        long closestTimeDistance = Long.MAX_VALUE;
+
+        for (int i = 0; i < size; i++) {
+            final long timeDistance = Math.abs(timestamps[i] - timestamp);
+            if (timeDistance < closestTimeDistance) {
+                closestTimeDistance = timeDistance;
+                closestIndex = i;
+            }
+        }
+        return closestIndex;
+    }
+
+    private static int firstIndexOfTimestamp(final long[] timestamps, int index) {
+        while (index > 0 && timestamps[index - 1] == timestamps[index]) {
+            index--;
+        }
+        return index;
+    }
+
+    private static boolean isSorted(final long[] timestamps, final int size) {
+        for (int i = 1; i < size; i++) {
+            if (timestamps[i] < timestamps[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
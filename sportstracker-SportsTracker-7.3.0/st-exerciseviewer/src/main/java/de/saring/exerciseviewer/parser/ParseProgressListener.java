@@ -0,0 +1,19 @@
+package de.saring.exerciseviewer.parser;
+
+/**
+ * Listener interface for the progress of asynchronous exercise file parsing.
+ *
+ * @author Stefan Saring
+ */
+@FunctionalInterface
+public interface ParseProgressListener {
+
+    /**
+     * Will be called when the parser has consumed more bytes of the exercise file. The listener
+     * is called on the parser thread, so UI updates need to be done on the UI thread.
+     *
+     * @param bytesConsumed number of consumed bytes of the exercise file
+     * @param bytesTotal total number of bytes of the exercise file
+     */
+    void progressChanged(long bytesConsumed, long bytesTotal);
+}
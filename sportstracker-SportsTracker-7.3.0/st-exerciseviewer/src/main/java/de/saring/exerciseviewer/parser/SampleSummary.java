@@ -0,0 +1,256 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
+
+/**
+ * This class contains the summary of all exercise samples, e.g. the minimum, maximum and sum of
+ * the heartrate, altitude, speed, cadence and temperature values. Many parsers need to calculate
+ * this data, because it's not stored in the exercise files.
+ * <p/>
+ * All values are computed in one single pass over the sample columns. The parsers are
+ * responsible for computing the average values from the sums, because the rounding differs
+ * between the exercise file formats. All minimum and maximum values are 0 when there are
+ * no samples.
+ *
+ * @author Stefan Saring
+ */
+public final class SampleSummary {
+
+    private int sampleCount;
+
+    private short heartRateMin;
+    private short heartRateMax;
+    private long heartRateSum;
+
+    private short altitudeMin;
+    private short altitudeMax;
+    private long altitudeSum;
+    private int ascent;
+
+    private float speedMax;
+    private double speedSum;
+    private double movingSpeedSum;
+    private int movingSampleCount;
+
+    private short cadenceMax;
+    private long cadenceSum;
+    private long cadenceNonZeroSum;
+    private int cadenceNonZeroCount;
+
+    private short temperatureMin;
+    private short temperatureMax;
+    private long temperatureSum;
+
+    private SampleSummary() {
+    }
+
+    /**
+     * Computes the summary of all samples in the specified sample columns.
+     *
+     * @param samples the exercise sample columns (can be null)
+     * @return the created summary
+     */
+    public static SampleSummary of(final ExerciseSampleColumns samples) {
+        final SampleSummary summary = new SampleSummary();
+        if (samples == null || samples.size() == 0) {
+            return summary;
+        }
+
+        final int count = samples.size();
+        final short[] heartRates = samples.getHeartRates();
+        final short[] altitudes = samples.getAltitudes();
+        final float[] speeds = samples.getSpeeds();
+        final short[] cadences = samples.getCadences();
+        final int[] distances = samples.getDistances();
+        final short[] temperatures = samples.getTemperatures();
+
+        short heartRateMin = heartRates[0];
+        short heartRateMax = heartRates[0];
+        long heartRateSum = 0;
+        short altitudeMin = altitudes[0];
+        short altitudeMax = altitudes[0];
+        long altitudeSum = 0;
+        int ascent = 0;
+        float speedMax = speeds[0];
+        double speedSum = 0;
+        double movingSpeedSum = 0;
+        int movingSampleCount = 0;
+        short cadenceMax = cadences[0];
+        long cadenceSum = 0;
+        long cadenceNonZeroSum = 0;
+        int cadenceNonZeroCount = 0;
+        short temperatureMin = temperatures[0];
+        short temperatureMax = temperatures[0];
+        long temperatureSum = 0;
+
+        short previousAltitude = altitudes[0];
+        int previousDistance = 0;
+
+        for (int i = 0; i < count; i++) {
+            final short heartRate = heartRates[i];
+            if (heartRate < heartRateMin) {
+                heartRateMin = heartRate;
+            }
+            if (heartRate > heartRateMax) {
+                heartRateMax = heartRate;
+            }
+            heartRateSum += heartRate;
+
+            final short altitude = altitudes[i];
+            if (altitude < altitudeMin) {
+                altitudeMin = altitude;
+            }
+            if (altitude > altitudeMax) {
+                altitudeMax = altitude;
+            }
+            altitudeSum += altitude;
+            if (altitude > previousAltitude) {
+                ascent += altitude - previousAltitude;
+            }
+            previousAltitude = altitude;
+
+            final float speed = speeds[i];
+            if (speed > speedMax) {
+                speedMax = speed;
+            }
+            speedSum += speed;
+            if (distances[i] > previousDistance) {
+                movingSpeedSum += speed;
+                movingSampleCount++;
+            }
+            previousDistance = distances[i];
+
+            final short cadence = cadences[i];
+            if (cadence > cadenceMax) {
+                cadenceMax = cadence;
+            }
+            cadenceSum += cadence;
+            if (cadence > 0) {
+                cadenceNonZeroSum += cadence;
+                cadenceNonZeroCount++;
+            }
+
+            final short temperature = temperatures[i];
+            if (temperature < temperatureMin) {
+                temperatureMin = temperature;
+            }
+            if (temperature > temperatureMax) {
+                temperatureMax = temperature;
+            }
+            temperatureSum += temperature;
+        }
+
+        summary.sampleCount = count;
+        summary.heartRateMin = heartRateMin;
+        summary.heartRateMax = heartRateMax;
+        summary.heartRateSum = heartRateSum;
+        summary.altitudeMin = altitudeMin;
+        summary.altitudeMax = altitudeMax;
+        summary.altitudeSum = altitudeSum;
+        summary.ascent = ascent;
+        summary.speedMax = speedMax;
+        summary.speedSum = speedSum;
+        summary.movingSpeedSum = movingSpeedSum;
+        summary.movingSampleCount = movingSampleCount;
+        summary.cadenceMax = cadenceMax;
+        summary.cadenceSum = cadenceSum;
+        summary.cadenceNonZeroSum = cadenceNonZeroSum;
+        summary.cadenceNonZeroCount = cadenceNonZeroCount;
+        summary.temperatureMin = temperatureMin;
+        summary.temperatureMax = temperatureMax;
+        summary.temperatureSum = temperatureSum;
+        return summary;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public short getHeartRateMin() {
+        return heartRateMin;
+    }
+
+    public short getHeartRateMax() {
+        return heartRateMax;
+    }
+
+    public long getHeartRateSum() {
+        return heartRateSum;
+    }
+
+    public short getAltitudeMin() {
+        return altitudeMin;
+    }
+
+    public short getAltitudeMax() {
+        return altitudeMax;
+    }
+
+    public long getAltitudeSum() {
+        return altitudeSum;
+    }
+
+    /**
+     * Returns the ascent, it's the sum of all altitude increases between two samples.
+     */
+    public int getAscent() {
+        return ascent;
+    }
+
+    public float getSpeedMax() {
+        return speedMax;
+    }
+
+    public double getSpeedSum() {
+        return speedSum;
+    }
+
+    /**
+     * Returns the sum of the speed of all samples with a distance larger then in the
+     * previous sample (the user was moving).
+     */
+    public double getMovingSpeedSum() {
+        return movingSpeedSum;
+    }
+
+    /**
+     * Returns the number of samples with a distance larger then in the previous sample.
+     */
+    public int getMovingSampleCount() {
+        return movingSampleCount;
+    }
+
+    public short getCadenceMax() {
+        return cadenceMax;
+    }
+
+    public long getCadenceSum() {
+        return cadenceSum;
+    }
+
+    /**
+     * Returns the sum of the cadence of all samples with a cadence larger then 0.
+     */
+    public long getCadenceNonZeroSum() {
+        return cadenceNonZeroSum;
+    }
+
+    /**
+     * Returns the number of samples with a cadence larger then 0.
+     */
+    public int getCadenceNonZeroCount() {
+        return cadenceNonZeroCount;
+    }
+
+    public short getTemperatureMin() {
+        return temperatureMin;
+    }
+
+    public short getTemperatureMax() {
+        return temperatureMax;
+    }
+
+    public long getTemperatureSum() {
+        return temperatureSum;
+    }
+}
@@ -4,6 +4,7 @@ import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.*;
 import de.saring.exerciseviewer.parser.AbstractExerciseParser;
 import de.saring.exerciseviewer.parser.ExerciseParserInfo;
+import de.saring.exerciseviewer.parser.SampleSummary;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -241,18 +242,20 @@ public class HAC4TURParser extends AbstractExerciseParser {
         exercise.setRecordingInterval((short) sampleInterval);
 
         // read all samples
-        exercise.setSampleList(readSamples(
+        exercise.setSampleColumns(readSamples(
                 FilePosition.NR_SAMPLES + nrOfLinesInNote,
                 FilePosition.BEGIN_SAMPLES + nrOfLinesInNote));
 
         // now that we have the samples, other values can be calculated.
-        exercise.setAltitude(calculateAltitudes(exercise));
-        exercise.setCadence(calculateCadence(exercise));
+        SampleSummary sampleSummary = SampleSummary.of(exercise.getSampleColumns());
+        exercise.setAltitude(calculateAltitudes(sampleSummary));
+        exercise.setCadence(calculateCadence(sampleSummary));
         recMode.setCadence(exercise.getCadence().getCadenceMax() > 0);
-        exercise.setSpeed(calculateSpeed(exercise));
-        exercise.setTemperature(calculateTemperature(exercise));
+        exercise.setSpeed(calculateSpeed(exercise, sampleSummary));
+        exercise.setTemperature(calculateTemperature(sampleSummary));
 
         // calculate heartrate limits (only one available in HAC files)
+        exercise.setHeartRateMax(sampleSummary.getHeartRateMax());
         exercise.setHeartRateLimits(new HeartRateLimit[1]);
         exercise.getHeartRateLimits()[0] = calculateHeartRate(exercise);
 
@@ -266,99 +269,49 @@ public class HAC4TURParser extends AbstractExerciseParser {
     /**
      * Calculate the altitude information.
      */
-    private ExerciseAltitude calculateAltitudes(EVExercise exercise) {
-
-        int min = Integer.MAX_VALUE;
-        int max = Integer.MIN_VALUE;
-        int ascent = 0;
-        long total = 0;
-        short prevAlt = Short.MAX_VALUE;
-
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            short alt = sample.getAltitude();
-
-            // update values
-            min = Math.min(alt, min);
-            max = Math.max(alt, max);
-            if (alt > prevAlt) {
-                ascent += (alt - prevAlt);
-            }
-            prevAlt = alt;
-            total += alt;
-        }
-
+    private ExerciseAltitude calculateAltitudes(SampleSummary sampleSummary) {
         ExerciseAltitude ea = new ExerciseAltitude();
-        ea.setAltitudeMin((short) min);
-        ea.setAltitudeMax((short) max);
-        ea.setAltitudeAVG((short) (total / exercise.getSampleList().length));
-        ea.setAscent(ascent);
+        ea.setAltitudeMin(sampleSummary.getAltitudeMin());
+        ea.setAltitudeMax(sampleSummary.getAltitudeMax());
+        ea.setAltitudeAVG((short) (sampleSummary.getAltitudeSum() / sampleSummary.getSampleCount()));
+        ea.setAscent(sampleSummary.getAscent());
         return ea;
     }
 
     /**
      * Calculates the cadence information.
      */
-    private ExerciseCadence calculateCadence(EVExercise exercise) {
-        int maximum = Integer.MIN_VALUE;
-        long total = 0;
-
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            short cadence = sample.getCadence();
-            maximum = Math.max(cadence, maximum);
-            total += cadence;
-        }
-
+    private ExerciseCadence calculateCadence(SampleSummary sampleSummary) {
         ExerciseCadence ec = new ExerciseCadence();
-        ec.setCadenceMax((short) maximum);
-        ec.setCadenceAVG((short) (total / exercise.getSampleList().length));
+        ec.setCadenceMax(sampleSummary.getCadenceMax());
+        ec.setCadenceAVG((short) (sampleSummary.getCadenceSum() / sampleSummary.getSampleCount()));
         return ec;
     }
 
     /**
-     * Calculates the speed information.
+     * Calculates the speed information, the average speed contains only the intervals
+     * where the bike was moving.
      */
-    private ExerciseSpeed calculateSpeed(EVExercise exercise) {
-
-        float max = Float.MIN_VALUE;
-        int nrMovingIntervals = 0; // nr of intervals bike was moving
-        float speedAVG = 0.0f;
-        int previousDistance = 0;
-
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            if (sample.getDistance() > previousDistance) {
-                nrMovingIntervals++;
-                speedAVG = speedAVG + ((sample.getSpeed() - speedAVG) / nrMovingIntervals);
-            }
-            max = Math.max(max, sample.getSpeed());
-            previousDistance = sample.getDistance();
-        }
+    private ExerciseSpeed calculateSpeed(EVExercise exercise, SampleSummary sampleSummary) {
+        ExerciseSampleColumns samples = exercise.getSampleColumns();
 
         ExerciseSpeed es = new ExerciseSpeed();
-        int sampleCount = exercise.getSampleList().length;
-        es.setDistance(exercise.getSampleList()[sampleCount - 1].getDistance());
-        es.setSpeedAVG(speedAVG);
-        es.setSpeedMax(max);
+        es.setDistance(samples.getDistance(samples.size() - 1));
+        if (sampleSummary.getMovingSampleCount() > 0) {
+            es.setSpeedAVG((float) (sampleSummary.getMovingSpeedSum() / sampleSummary.getMovingSampleCount()));
+        }
+        es.setSpeedMax(sampleSummary.getSpeedMax());
         return es;
     }
 
     /**
      * Calculates the temperature information.
      */
-    private ExerciseTemperature calculateTemperature(EVExercise exercise) {
-        int min = Integer.MAX_VALUE;
-        int max = Integer.MIN_VALUE;
-        long total = 0;
-
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            min = Math.min(min, sample.getTemperature());
-            max = Math.max(max, sample.getTemperature());
-            total += sample.getTemperature();
-        }
-
+    private ExerciseTemperature calculateTemperature(SampleSummary sampleSummary) {
         ExerciseTemperature et = new ExerciseTemperature();
-        et.setTemperatureMax((short) max);
-        et.setTemperatureMin((short) min);
-        et.setTemperatureAVG((short) (total / exercise.getSampleList().length));
+        et.setTemperatureMax(sampleSummary.getTemperatureMax());
+        et.setTemperatureMin(sampleSummary.getTemperatureMin());
+        et.setTemperatureAVG((short) (sampleSummary.getTemperatureSum() / sampleSummary.getSampleCount()));
         return et;
     }
 
@@ -369,16 +322,12 @@ public class HAC4TURParser extends AbstractExerciseParser {
 
         short upper = (short) readInteger(FilePosition.HR_LIMIT_UPPER + nrOfLinesInNote);
         short lower = (short) readInteger(FilePosition.HR_LIMIT_LOWER + nrOfLinesInNote);
-        int max = Integer.MIN_VALUE;
 
         int intervalsBelow = 0;
         int intervalsBetween = 0;
         int intervalsAbove = 0;
 
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            short hr = sample.getHeartRate();
-            max = Math.max(max, hr);
-
+        for (short hr : exercise.getSampleColumns().getHeartRates()) {
             if (hr < lower) {
                 intervalsBelow += 1;
             } else if (hr >= lower && hr <= upper) {
@@ -387,8 +336,6 @@ public class HAC4TURParser extends AbstractExerciseParser {
                 intervalsAbove += 1;
             }
         }
-        exercise.setHeartRateMax((short) max);
-
         HeartRateLimit hrl = new HeartRateLimit();
         hrl.setLowerHeartRate(lower);
         hrl.setUpperHeartRate(upper);
@@ -404,7 +351,8 @@ public class HAC4TURParser extends AbstractExerciseParser {
      * a Lap object with values from the complete exercise.
      */
     private Lap[] getLaps(EVExercise exercise) {
-        ExerciseSample lastSample = exercise.getSampleList()[exercise.getSampleList().length - 1];
+        ExerciseSampleColumns samples = exercise.getSampleColumns();
+        ExerciseSampleColumns.Sample lastSample = samples.getSample(samples.size() - 1);
 
         Lap lap = new Lap();
         lap.setTimeSplit(exercise.getDuration());
@@ -455,9 +403,9 @@ public class HAC4TURParser extends AbstractExerciseParser {
      *
      * @param fpNrSamples file position for the number of samples
      * @param fpBeginSamples file position for the begin of sample data
-     * @return the created array of exercise samples
+     * @return the created exercise sample columns
      */
-    private ExerciseSample[] readSamples(int fpNrSamples, int fpBeginSamples) throws EVException {
+    private ExerciseSampleColumns readSamples(int fpNrSamples, int fpBeginSamples) throws EVException {
 
         int nrSamples = readInteger(fpNrSamples);
         // find length of all strings to this point
@@ -474,22 +422,21 @@ public class HAC4TURParser extends AbstractExerciseParser {
             samples.add(new Sample(sampleBytes));
         }
 
-        ExerciseSample[] eSamples = new ExerciseSample[nrSamples];
+        ExerciseSampleColumns eSamples = new ExerciseSampleColumns(nrSamples);
         int previousDistance = 0;
         long firstTimestamp = nrSamples > 0 ? samples.get(0).getTime() : 0;
 
         for (int i = 0; i < nrSamples; i++) {
             Sample sample = samples.get(i);
-            eSamples[i] = new ExerciseSample();
-            eSamples[i].setTimestamp((sample.getTime() - firstTimestamp) * 1000L);
-            eSamples[i].setHeartRate((short) sample.getHeartRate());
-            eSamples[i].setAltitude((short) sample.getAltitude());
-            eSamples[i].setCadence((short) sample.getCadence());
+            eSamples.setTimestamp(i, (sample.getTime() - firstTimestamp) * 1000L);
+            eSamples.setHeartRate(i, (short) sample.getHeartRate());
+            eSamples.setAltitude(i, (short) sample.getAltitude());
+            eSamples.setCadence(i, (short) sample.getCadence());
             int distanceDiff = sample.getDistance() - previousDistance;
             previousDistance = sample.getDistance();
-            eSamples[i].setDistance(sample.getDistance() * 10);
-            eSamples[i].setSpeed(((float) distanceDiff / (float) sampleInterval) * (float) 3.6 * 10f);
-            eSamples[i].setTemperature((short) sample.getTemperature());
+            eSamples.setDistance(i, sample.getDistance() * 10);
+            eSamples.setSpeed(i, ((float) distanceDiff / (float) sampleInterval) * (float) 3.6 * 10f);
+            eSamples.setTemperature(i, (short) sample.getTemperature());
         }
 
         return eSamples;
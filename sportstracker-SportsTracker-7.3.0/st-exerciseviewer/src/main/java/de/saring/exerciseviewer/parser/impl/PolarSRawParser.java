@@ -475,11 +475,10 @@ public class PolarSRawParser extends AbstractExerciseParser {
             }
         }
 
-        // repair distance values of samples
-        exercise.repairSamples();
-
-        // calculate average lap speed, the data was not recorded here
-        calculateAverageLapSpeed(exercise);
+        // repair distance values of samples and calculate average lap speed (not recorded here)
+        new SampleProcessingPipeline(
+                SampleProcessingStages.distanceRepair(),
+                SampleProcessingStages.lapSpeed()).process(exercise);
 
         // done :-)
         return exercise;
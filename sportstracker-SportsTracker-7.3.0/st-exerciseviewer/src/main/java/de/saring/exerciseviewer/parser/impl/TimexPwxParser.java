@@ -3,7 +3,9 @@ package de.saring.exerciseviewer.parser.impl;
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.*;
 import de.saring.exerciseviewer.parser.AbstractExerciseParser;
+import de.saring.exerciseviewer.parser.AsyncExerciseParsing;
 import de.saring.exerciseviewer.parser.ExerciseParserInfo;
+import de.saring.exerciseviewer.parser.SampleSummary;
 import de.saring.util.unitcalc.CalculationUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
@@ -12,6 +14,8 @@ import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -732,10 +736,11 @@ public class TimexPwxParser extends AbstractExerciseParser {
 
         // some models (e.g. Timex Ironman Run Trainer) don't contain statistic date (avg, max, ...)
         // => compute the missing data   
-        if (exercise.getSampleList().length > 0) {
-            computeHeartrateStatisticIfMissing(exercise);
-            computeSpeedStatisticIfMissing(exercise);
-            computeAltitudeStatisticIfMissing(exercise);
+        if (exercise.getSampleCount() > 0) {
+            SampleSummary sampleSummary = SampleSummary.of(exercise.getSampleColumns());
+            computeHeartrateStatisticIfMissing(exercise, sampleSummary);
+            computeSpeedStatisticIfMissing(exercise, sampleSummary);
+            computeAltitudeStatisticIfMissing(exercise, sampleSummary);
         }
         return exercise;
     }
@@ -769,10 +774,10 @@ public class TimexPwxParser extends AbstractExerciseParser {
 
         NodeList children = null;
         // Open the pwx file
-        try {
+        try (InputStream inStream = AsyncExerciseParsing.openInputStream(filename)) {
             dbf = DocumentBuilderFactory.newInstance(); // DocumentBuilderFactory
             db = dbf.newDocumentBuilder(); // DocumentBuilder
-            doc = db.parse(filename); // Document
+            doc = db.parse(inStream, new File(filename).toURI().toString()); // Document
             root = findFirstPwx(doc); // Node
         } catch (Exception e) {
             throw new EVException("Failed to open pwx exercise file '" + filename + "' ...", e);
@@ -794,59 +799,39 @@ public class TimexPwxParser extends AbstractExerciseParser {
         return exercise;
     }
 
-    private void computeHeartrateStatisticIfMissing(EVExercise exercise) {
+    private void computeHeartrateStatisticIfMissing(EVExercise exercise, SampleSummary sampleSummary) {
         if (exercise.getHeartRateAVG() == 0) {
-            double sumHeartrate = 0;
-
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                sumHeartrate += sample.getHeartRate();
-                exercise.setHeartRateMax((short) Math.max(exercise.getHeartRateMax(), sample.getHeartRate()));
-            }
-            exercise.setHeartRateAVG((short) Math.round(sumHeartrate / (double) exercise.getSampleList().length));
+            exercise.setHeartRateMax((short) Math.max(exercise.getHeartRateMax(), sampleSummary.getHeartRateMax()));
+            exercise.setHeartRateAVG((short) Math.round(
+                    sampleSummary.getHeartRateSum() / (double) sampleSummary.getSampleCount()));
         }
     }
 
-    private void computeSpeedStatisticIfMissing(EVExercise exercise) {
+    private void computeSpeedStatisticIfMissing(EVExercise exercise, SampleSummary sampleSummary) {
         if (exercise.getRecordingMode().isSpeed() && exercise.getSpeed() == null) {
 
             ExerciseSpeed exSpeed = new ExerciseSpeed();
-            exSpeed.setSpeedMax(Float.MIN_VALUE);
+            exSpeed.setSpeedMax(sampleSummary.getSpeedMax());
             exercise.setSpeed(exSpeed);
 
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                exSpeed.setSpeedMax(Math.max(exSpeed.getSpeedMax(), sample.getSpeed()));
-            }
-
-            ExerciseSample lastSample = exercise.getSampleList()[exercise.getSampleList().length - 1];
-            exSpeed.setDistance(lastSample.getDistance());
+            ExerciseSampleColumns samples = exercise.getSampleColumns();
+            exSpeed.setDistance(samples.getDistance(samples.size() - 1));
             exSpeed.setSpeedAVG(CalculationUtils.calculateAvgSpeed(
                     exSpeed.getDistance() / 1000f,
                     Math.round(exercise.getDuration() / 10f)));
         }
     }
 
-    private void computeAltitudeStatisticIfMissing(EVExercise exercise) {
+    private void computeAltitudeStatisticIfMissing(EVExercise exercise, SampleSummary sampleSummary) {
         if (exercise.getRecordingMode().isAltitude() && exercise.getAltitude() == null) {
 
             ExerciseAltitude exAltitude = new ExerciseAltitude();
-            exAltitude.setAltitudeMin(Short.MAX_VALUE);
-            exAltitude.setAltitudeMax(Short.MIN_VALUE);
+            exAltitude.setAltitudeMin(sampleSummary.getAltitudeMin());
+            exAltitude.setAltitudeMax(sampleSummary.getAltitudeMax());
+            exAltitude.setAscent(sampleSummary.getAscent());
+            exAltitude.setAltitudeAVG((short) Math.round(
+                    sampleSummary.getAltitudeSum() / (double) sampleSummary.getSampleCount()));
             exercise.setAltitude(exAltitude);
-
-            double sumAltitude = 0;
-            short previousAltitude = Short.MAX_VALUE;
-
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                sumAltitude += sample.getAltitude();
-                exAltitude.setAltitudeMin((short) Math.min(exAltitude.getAltitudeMin(), sample.getAltitude()));
-                exAltitude.setAltitudeMax((short) Math.max(exAltitude.getAltitudeMax(), sample.getAltitude()));
-
-                if (previousAltitude < sample.getAltitude()) {
-                    exAltitude.setAscent(exAltitude.getAscent() + (sample.getAltitude() - previousAltitude));
-                }
-                previousAltitude = sample.getAltitude();
-            }
-            exAltitude.setAltitudeAVG((short) Math.round(sumAltitude / (double) exercise.getSampleList().length));
         }
     }
 }
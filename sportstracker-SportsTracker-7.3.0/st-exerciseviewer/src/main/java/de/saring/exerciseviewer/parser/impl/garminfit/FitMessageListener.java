@@ -1,9 +1,8 @@
 package de.saring.exerciseviewer.parser.impl.garminfit;
 
 import java.lang.reflect.Modifier;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 import com.garmin.fit.DateTime;
 import com.garmin.fit.DeviceInfoMesg;
@@ -20,7 +19,8 @@ import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.EVExercise;
 import de.saring.exerciseviewer.data.ExerciseAltitude;
 import de.saring.exerciseviewer.data.ExerciseCadence;
-import de.saring.exerciseviewer.data.ExerciseSample;
+import de.saring.exerciseviewer.data.ExerciseSampleBuffer;
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
 import de.saring.exerciseviewer.data.ExerciseSpeed;
 import de.saring.exerciseviewer.data.ExerciseTemperature;
 import de.saring.exerciseviewer.data.Lap;
@@ -29,6 +29,8 @@ import de.saring.exerciseviewer.data.LapSpeed;
 import de.saring.exerciseviewer.data.LapTemperature;
 import de.saring.exerciseviewer.data.Position;
 import de.saring.exerciseviewer.data.RecordingMode;
+import de.saring.exerciseviewer.parser.LapSampleAlignment;
+import de.saring.exerciseviewer.parser.SampleSummary;
 import de.saring.util.Date310Utils;
 import de.saring.util.unitcalc.CalculationUtils;
 import de.saring.util.unitcalc.ConvertUtils;
@@ -44,13 +46,13 @@ class FitMessageListener implements MesgListener {
      */
     private EVExercise exercise = new EVExercise();
     /**
-     * List of created laps (collected in a LinkedList and not in EVExercise array, much faster).
+     * List of created laps (collected in a List and not in EVExercise array, much faster).
      */
-    private final List<FitLap> lFitLaps = new LinkedList<>();
+    private final List<FitLap> lFitLaps = new ArrayList<>();
     /**
-     * List of created exercise samples (collected in a LinkedList and not in EVExercise array, much faster).
+     * Buffer of created exercise samples (collected in primitive arrays, no objects per sample needed).
      */
-    private final List<ExerciseSample> lSamples = new LinkedList<>();
+    private final ExerciseSampleBuffer sampleBuffer = new ExerciseSampleBuffer();
     /**
      * Flag for availability of temperature data.
      */
@@ -194,42 +196,41 @@ class FitMessageListener implements MesgListener {
      */
     private void readRecordMessage(RecordMesg mesg) {
 
-        ExerciseSample sample = new ExerciseSample();
-        lSamples.add(sample);
+        int index = sampleBuffer.addSample();
 
         // sample timestamp must be the offset from start time, will be corrected later
         // (in some cases the timestamp is missing and will be read from the next Length message)
         DateTime timestamp = mesg.getTimestamp();
         if (timestamp != null) {
-            sample.setTimestamp(timestamp.getDate().getTime());
+            sampleBuffer.setTimestamp(index, timestamp.getDate().getTime());
         }
 
         if (mesg.getHeartRate() != null) {
-            sample.setHeartRate(mesg.getHeartRate());
+            sampleBuffer.setHeartRate(index, mesg.getHeartRate());
         }
         if (mesg.getDistance() != null) {
-            sample.setDistance(Math.round(mesg.getDistance()));
+            sampleBuffer.setDistance(index, Math.round(mesg.getDistance()));
         }
         if (mesg.getSpeed() != null) {
-            sample.setSpeed(
+            sampleBuffer.setSpeed(index,
                     ConvertUtils.convertMeterPerSecond2KilometerPerHour(mesg.getSpeed()));
         }
         if (mesg.getAltitude() != null) {
-            sample.setAltitude((short) Math.round(mesg.getAltitude()));
+            sampleBuffer.setAltitude(index, (short) Math.round(mesg.getAltitude()));
         }
         if (mesg.getCadence() != null) {
-            sample.setCadence(mesg.getCadence());
+            sampleBuffer.setCadence(index, mesg.getCadence());
         }
 
         if (mesg.getPositionLat() != null && mesg.getPositionLong() != null) {
-            sample.setPosition(new Position(
+            sampleBuffer.setPosition(index,
                     ConvertUtils.convertSemicircle2Degree(mesg.getPositionLat()),
-                    ConvertUtils.convertSemicircle2Degree(mesg.getPositionLong())));
+                    ConvertUtils.convertSemicircle2Degree(mesg.getPositionLong()));
         }
 
         if (mesg.getTemperature() != null) {
             temperatureAvailable = true;
-            sample.setTemperature(mesg.getTemperature());
+            sampleBuffer.setTemperature(index, mesg.getTemperature());
         }
     }
 
@@ -247,8 +248,7 @@ class FitMessageListener implements MesgListener {
         long totalElapsedTime = Math.round(mesg.getTotalElapsedTime().doubleValue() * 1000d);
         long endTimestamp = startTimestamp + totalElapsedTime;
 
-        ExerciseSample lastSample = lSamples.get(lSamples.size() - 1);
-        lastSample.setTimestamp(endTimestamp);
+        sampleBuffer.setTimestamp(sampleBuffer.size() - 1, endTimestamp);
     }
 
     /**
@@ -283,25 +283,26 @@ class FitMessageListener implements MesgListener {
         storeSamples();
         storeLaps();
 
-        calculateAltitudeSummary();
-        calculateTemperatureSummary();
+        SampleSummary sampleSummary = SampleSummary.of(exercise.getSampleColumns());
+        calculateAltitudeSummary(sampleSummary);
+        calculateTemperatureSummary(sampleSummary);
         calculateMissingAverageSpeed();
-        calculateMissingMaxSpeed();
-        calculateMissingHeartRateAVG();
-        calculateMissingHeartRateMax();
+        calculateMissingMaxSpeed(sampleSummary);
+        calculateMissingHeartRateAVG(sampleSummary);
+        calculateMissingHeartRateMax(sampleSummary);
         return exercise;
     }
 
 	/**
      * Stores the sample data in the exercise. It also fixes the timestamps in all
-     * ExerciseSamples, it must be the offset from the start time.
+     * samples, it must be the offset from the start time.
      */
     private void storeSamples() {
         long startTime = Date310Utils.getMilliseconds(exercise.getDateTime());
-        for (ExerciseSample sample : lSamples) {
-            sample.setTimestamp(sample.getTimestamp() - startTime);
+        for (int i = 0; i < sampleBuffer.size(); i++) {
+            sampleBuffer.setTimestamp(i, sampleBuffer.getTimestamp(i) - startTime);
         }
-        exercise.setSampleList(lSamples.toArray(new ExerciseSample[lSamples.size()]));
+        exercise.setSampleColumns(sampleBuffer.toColumns());
     }
 
     /**
@@ -311,110 +312,84 @@ class FitMessageListener implements MesgListener {
         int lapDistanceSum = 0;
 
         // convert FitLap to Lap objects
-        List<Lap> lLaps = new LinkedList<>();
+        Lap[] laps = new Lap[lFitLaps.size()];
         long startTime = Date310Utils.getMilliseconds(exercise.getDateTime());
 
-        for (FitLap fitLap : lFitLaps) {
-            Lap lap = fitLap.getLap();
-            lLaps.add(lap);
+        for (int i = 0; i < laps.length; i++) {
+            FitLap fitLap = lFitLaps.get(i);
+            laps[i] = fitLap.getLap();
 
             // fix the split time in all Laps, it must be the offset from the start time
             long lapSplitDateTimeMillis = Date310Utils.getMilliseconds(fitLap.getSplitDatTime());
-            lap.setTimeSplit((int) ((lapSplitDateTimeMillis - startTime) / 100));
+            laps[i].setTimeSplit((int) ((lapSplitDateTimeMillis - startTime) / 100));
+        }
+
+        ExerciseSampleColumns samples = exercise.getSampleColumns();
+        int[] lapEndSampleIndexes = LapSampleAlignment.findSampleIndexesForLapEnds(samples, laps);
 
-            // get all the missing lap data from the sample at lap end time
-            ExerciseSample sampleAtLapEnd = getExerciseSampleForLapEnd(lap);
-            lap.setHeartRateSplit(sampleAtLapEnd.getHeartRate());
+        for (int i = 0; i < laps.length; i++) {
+            Lap lap = laps[i];
 
             if (lap.getSpeed() != null) {
                 // fix lap distance, it must be the distance from exercise start (FIT stores from Lap start)
                 lapDistanceSum += lap.getSpeed().getDistance();
                 lap.getSpeed().setDistance(lapDistanceSum);
-
-                lap.getSpeed().setSpeedEnd(sampleAtLapEnd.getSpeed());
-                lap.getSpeed().setCadence(sampleAtLapEnd.getCadence());
             }
 
-            if (lap.getAltitude() != null) {
-                lap.getAltitude().setAltitude(sampleAtLapEnd.getAltitude());
-            }
+            // get all the missing lap data from the sample at lap end time (if samples are available)
+            if (lapEndSampleIndexes[i] >= 0) {
+                ExerciseSampleColumns.Sample sampleAtLapEnd = samples.getSample(lapEndSampleIndexes[i]);
+                lap.setHeartRateSplit(sampleAtLapEnd.getHeartRate());
 
-            if (temperatureAvailable) {
-                lap.setTemperature(new LapTemperature());
-                lap.getTemperature().setTemperature(sampleAtLapEnd.getTemperature());
-            }
-        }
+                if (lap.getSpeed() != null) {
+                    lap.getSpeed().setSpeedEnd(sampleAtLapEnd.getSpeed());
+                    lap.getSpeed().setCadence(sampleAtLapEnd.getCadence());
+                }
 
-        exercise.setLapList(lLaps.toArray(new Lap[lLaps.size()]));
-    }
+                if (lap.getAltitude() != null) {
+                    lap.getAltitude().setAltitude(sampleAtLapEnd.getAltitude());
+                }
 
-    /**
-     * Returns the closest ExerciseSample for the lap end time.
-     *
-     * @param lap the lap for search
-     * @return the closest ExerciseSample
-     */
-    private ExerciseSample getExerciseSampleForLapEnd(Lap lap) {
-        long lapSplitTimestamp = lap.getTimeSplit() * 100L;
-        ExerciseSample closestSample = null;
-        long closestTimeDistance = Long.MAX_VALUE;
-
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            long timeDistance = Math.abs(sample.getTimestamp() - lapSplitTimestamp);
-            if (timeDistance < closestTimeDistance) {
-                closestTimeDistance = timeDistance;
-                closestSample = sample;
+                if (temperatureAvailable) {
+                    lap.setTemperature(new LapTemperature());
+                    lap.getTemperature().setTemperature(sampleAtLapEnd.getTemperature());
+                }
             }
         }
-        return closestSample;
+
+        exercise.setLapList(laps);
     }
 
     /**
      * Calculates the min, max and average altitude (if available) from the sample data.
+     *
+     * @param sampleSummary summary of all samples
      */
-    private void calculateAltitudeSummary() {
+    private void calculateAltitudeSummary(SampleSummary sampleSummary) {
         if (exercise.getRecordingMode().isAltitude() &&
-                exercise.getSampleList().length > 0) {
-
-            short altMin = Short.MAX_VALUE;
-            short altMax = Short.MIN_VALUE;
-            int altitudeSum = 0;
-
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                altMin = (short) Math.min(sample.getAltitude(), altMin);
-                altMax = (short) Math.max(sample.getAltitude(), altMax);
-                altitudeSum += sample.getAltitude();
-            }
+                sampleSummary.getSampleCount() > 0) {
 
-            exercise.getAltitude().setAltitudeMin(altMin);
-            exercise.getAltitude().setAltitudeMax(altMax);
-            exercise.getAltitude().setAltitudeAVG(
-                    (short) (Math.round(altitudeSum / (double) exercise.getSampleList().length)));
+            exercise.getAltitude().setAltitudeMin(sampleSummary.getAltitudeMin());
+            exercise.getAltitude().setAltitudeMax(sampleSummary.getAltitudeMax());
+            exercise.getAltitude().setAltitudeAVG((short) (Math.round(
+                    sampleSummary.getAltitudeSum() / (double) sampleSummary.getSampleCount())));
         }
     }
 
     /**
      * Calculates the min, max and average temperature (if available) from the sample data.
+     *
+     * @param sampleSummary summary of all samples
      */
-    private void calculateTemperatureSummary() {
+    private void calculateTemperatureSummary(SampleSummary sampleSummary) {
         if (temperatureAvailable) {
             exercise.getRecordingMode().setTemperature(true);
             exercise.setTemperature(new ExerciseTemperature());
 
-            short tempMin = Short.MAX_VALUE;
-            short tempMax = Short.MIN_VALUE;
-            int temperatureSum = 0;
-
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                tempMin = (short) Math.min(sample.getTemperature(), tempMin);
-                tempMax = (short) Math.max(sample.getTemperature(), tempMax);
-                temperatureSum += sample.getTemperature();
-            }
-
-            exercise.getTemperature().setTemperatureMin(tempMin);
-            exercise.getTemperature().setTemperatureMax(tempMax);
-            exercise.getTemperature().setTemperatureAVG(
-                    (short) (Math.round(temperatureSum / (double) exercise.getSampleList().length)));
+            exercise.getTemperature().setTemperatureMin(sampleSummary.getTemperatureMin());
+            exercise.getTemperature().setTemperatureMax(sampleSummary.getTemperatureMax());
+            exercise.getTemperature().setTemperatureAVG((short) (Math.round(
+                    sampleSummary.getTemperatureSum() / (double) sampleSummary.getSampleCount())));
         }
     }
 
@@ -468,40 +443,35 @@ class FitMessageListener implements MesgListener {
 
     /**
      * Calculates the max speed of the exercise, if missing (e.g. in Fenix exercise files).
+     *
+     * @param sampleSummary summary of all samples
      */
-	private void calculateMissingMaxSpeed() {
-        if (exercise.getSpeed().getSpeedMax() < 0.01) {
-
-            Stream.of(exercise.getSampleList()) //
-                .mapToDouble(sample -> sample.getSpeed()) //
-                .max() //
-                .ifPresent(maxSpeed -> exercise.getSpeed().setSpeedMax((float) maxSpeed));
+	private void calculateMissingMaxSpeed(SampleSummary sampleSummary) {
+        if (exercise.getSpeed().getSpeedMax() < 0.01 && sampleSummary.getSampleCount() > 0) {
+            exercise.getSpeed().setSpeedMax(sampleSummary.getSpeedMax());
         }
 	}
 
     /**
      * Calculates the average heartrate of the exercise, if missing (e.g. in Fenix exercise files).
+     *
+     * @param sampleSummary summary of all samples
      */
-    private void calculateMissingHeartRateAVG() {
-		if (exercise.getHeartRateAVG() == 0) {
-
-            Stream.of(exercise.getSampleList()) //
-                    .mapToDouble(sample -> sample.getHeartRate()) //
-                    .average() //
-                    .ifPresent(avgHeartRate -> exercise.setHeartRateAVG((short) Math.round(avgHeartRate)));
+    private void calculateMissingHeartRateAVG(SampleSummary sampleSummary) {
+		if (exercise.getHeartRateAVG() == 0 && sampleSummary.getSampleCount() > 0) {
+            exercise.setHeartRateAVG((short) Math.round(
+                    sampleSummary.getHeartRateSum() / (double) sampleSummary.getSampleCount()));
 		}
     }
 
     /**
      * Calculates the maximum heartrate of the exercise, if missing (e.g. in Fenix exercise files).
+     *
+     * @param sampleSummary summary of all samples
      */
-	private void calculateMissingHeartRateMax() {
-        if (exercise.getHeartRateMax() == 0) {
-
-            Stream.of(exercise.getSampleList()) //
-                    .mapToInt(sample -> sample.getHeartRate()) //
-                    .max() //
-                    .ifPresent(maxHeartRate -> exercise.setHeartRateMax((short) maxHeartRate));
+	private void calculateMissingHeartRateMax(SampleSummary sampleSummary) {
+        if (exercise.getHeartRateMax() == 0 && sampleSummary.getSampleCount() > 0) {
+            exercise.setHeartRateMax(sampleSummary.getHeartRateMax());
         }
     }
 }
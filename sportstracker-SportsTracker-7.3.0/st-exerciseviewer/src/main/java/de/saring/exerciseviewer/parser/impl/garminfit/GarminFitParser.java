@@ -5,11 +5,11 @@ import com.garmin.fit.MesgListener;
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.EVExercise;
 import de.saring.exerciseviewer.parser.AbstractExerciseParser;
+import de.saring.exerciseviewer.parser.AsyncExerciseParsing;
 import de.saring.exerciseviewer.parser.ExerciseParserInfo;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * This ExerciseParser implementation is for reading Garmin FIT files (binary
@@ -53,7 +53,7 @@ public class GarminFitParser extends AbstractExerciseParser {
      */
     private void readFitFile(String filename, MesgListener mesgListener) throws EVException {
 
-        try (FileInputStream fis = new FileInputStream(new File(filename))) {
+        try (InputStream fis = AsyncExerciseParsing.openInputStream(filename)) {
             new Decode().read(fis, mesgListener);
         } catch (IOException ioe) {
             throw new EVException("Failed to read FIT file '" + filename + "'...", ioe);
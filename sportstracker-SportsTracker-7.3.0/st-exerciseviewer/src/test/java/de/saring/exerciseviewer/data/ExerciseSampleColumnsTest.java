@@ -0,0 +1,156 @@
+package de.saring.exerciseviewer.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the ExerciseSampleColumns class and the
+ * sample storage conversions of EVExercise.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseSampleColumnsTest {
+
+    /**
+     * The conversion from samples to columns and back must not change any data.
+     */
+    @Test
+    public void testSampleConversion() {
+        final ExerciseSample[] samples = createSamples();
+        final ExerciseSampleColumns columns = ExerciseSampleColumns.fromSamples(samples);
+
+        assertEquals(3, columns.size());
+        assertArrayEquals(new long[]{0, 1000, 2000}, columns.getTimestamps());
+        assertArrayEquals(new int[]{0, 5, 10}, columns.getDistances());
+        assertTrue(columns.hasPositions());
+        assertTrue(columns.hasPosition(0));
+        assertFalse(columns.hasPosition(1));
+        assertNull(columns.getPosition(1));
+        assertEquals(51.5, columns.getPosition(2).getLatitude(), 0);
+
+        final ExerciseSample[] convertedSamples = columns.toSamples();
+        assertEquals(samples.length, convertedSamples.length);
+        for (int i = 0; i < samples.length; i++) {
+            assertEquals(samples[i].toString(), convertedSamples[i].toString());
+        }
+    }
+
+    /**
+     * The flyweight accessor must return the values of the sample it was moved to.
+     */
+    @Test
+    public void testSampleAccessor() {
+        final ExerciseSampleColumns columns = ExerciseSampleColumns.fromSamples(createSamples());
+
+        final ExerciseSampleColumns.Sample sample = columns.getSample(1);
+        assertEquals(1000, sample.getTimestamp());
+        assertEquals(121, sample.getHeartRate());
+        assertFalse(sample.hasPosition());
+        assertTrue(Double.isNaN(sample.getLatitude()));
+
+        assertSame(sample, sample.moveTo(2));
+        assertEquals(122, sample.getHeartRate());
+        assertEquals(2.5f, sample.getSpeed(), 0);
+        assertEquals(11.5, sample.getLongitude(), 0);
+    }
+
+    /**
+     * Columns without any sample position must not contain position columns.
+     */
+    @Test
+    public void testNoPositions() {
+        final ExerciseSampleColumns columns = new ExerciseSampleColumns(2);
+        assertFalse(columns.hasPositions());
+        assertNull(columns.getLatitudes());
+        assertFalse(columns.hasPosition(0));
+
+        columns.setPosition(1, 10d, 20d);
+        assertTrue(columns.hasPositions());
+        assertFalse(columns.hasPosition(0));
+        assertTrue(columns.hasPosition(1));
+    }
+
+    /**
+     * EVExercise must switch the sample storage on demand, modifications of the sample objects
+     * and of the columns must be available in the other representation.
+     */
+    @Test
+    public void testExerciseSampleStorage() {
+        final EVExercise exercise = new EVExercise();
+        assertEquals(0, exercise.getSampleCount());
+        assertNull(exercise.getSampleColumns());
+
+        exercise.setSampleList(createSamples());
+        exercise.getSampleList()[1].setHeartRate((short) 140);
+        assertEquals(3, exercise.getSampleCount());
+
+        final ExerciseSampleColumns columns = exercise.getSampleColumns();
+        assertEquals(140, columns.getHeartRate(1));
+        assertSame(columns, exercise.getSampleColumns());
+
+        columns.setAltitude(2, (short) 300);
+        assertEquals(300, exercise.getSampleList()[2].getAltitude());
+        assertEquals(3, exercise.getSampleCount());
+    }
+
+    /**
+     * The sample distances must be recalculated in relation to the exercise distance.
+     */
+    @Test
+    public void testRepairSamples() {
+        final EVExercise exercise = new EVExercise();
+        exercise.setDuration(20);
+        exercise.setRecordingInterval((short) 1);
+        exercise.setSpeed(new ExerciseSpeed());
+        exercise.getSpeed().setDistance(20);
+        exercise.setSampleList(createSamples());
+
+        exercise.repairSamples();
+        assertArrayEquals(new int[]{0, 10, 20}, exercise.getSampleColumns().getDistances());
+    }
+
+    /**
+     * The sample buffer must grow on demand and create trimmed columns.
+     */
+    @Test
+    public void testSampleBuffer() {
+        final ExerciseSampleBuffer buffer = new ExerciseSampleBuffer(2);
+        for (int i = 0; i < 5; i++) {
+            final int index = buffer.addSample();
+            assertEquals(i, index);
+            buffer.setTimestamp(index, i * 1000L);
+            buffer.setHeartRate(index, (short) (100 + i));
+            if (i == 3) {
+                buffer.setPosition(index, 51d, 11d);
+            }
+        }
+
+        final ExerciseSampleColumns columns = buffer.toColumns();
+        assertEquals(5, columns.size());
+        assertEquals(5, columns.getTimestamps().length);
+        assertEquals(4000, columns.getTimestamp(4));
+        assertEquals(104, columns.getHeartRate(4));
+        assertEquals(5, columns.getLatitudes().length);
+        assertFalse(columns.hasPosition(2));
+        assertTrue(columns.hasPosition(3));
+        assertFalse(columns.hasPosition(4));
+    }
+
+    private ExerciseSample[] createSamples() {
+        final ExerciseSample[] samples = new ExerciseSample[3];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = new ExerciseSample();
+            samples[i].setTimestamp(i * 1000L);
+            samples[i].setHeartRate((short) (120 + i));
+            samples[i].setAltitude((short) (200 + i));
+            samples[i].setSpeed(i * 1.25f);
+            samples[i].setCadence((short) (80 + i));
+            samples[i].setDistance(i * 5);
+            samples[i].setTemperature((short) (15 + i));
+        }
+        samples[0].setPosition(new Position(51.3, 11.3));
+        samples[2].setPosition(new Position(51.5, 11.5));
+        return samples;
+    }
+}
@@ -0,0 +1,84 @@
+package de.saring.exerciseviewer.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the HeartRateZoneCalculator class.
+ *
+ * @author Stefan Saring
+ */
+public class HeartRateZoneCalculatorTest {
+
+    /**
+     * For fixed recording intervals each sample counts for the interval time.
+     */
+    @Test
+    public void testFixedRecordingInterval() {
+        final ExerciseSampleColumns samples = createSamples(new long[]{0, 5000, 10000, 15000, 20000},
+                new short[]{100, 120, 140, 160, 0});
+        final HeartRateZoneCalculator calculator = new HeartRateZoneCalculator(samples, (short) 5);
+
+        assertTrue(calculator.hasHeartRateData());
+        assertEquals(20, calculator.getTotalTime());
+        assertArrayEquals(new int[]{5, 10, 5}, calculator.getZoneTimes(120, 160));
+        assertArrayEquals(new int[]{20}, calculator.getZoneTimes());
+        assertArrayEquals(new int[]{0, 5, 5, 5, 5, 0}, calculator.getZoneTimes(100, 110, 130, 150, 170));
+    }
+
+    /**
+     * For dynamic recording intervals the time of each sample is the delta to the next sample.
+     */
+    @Test
+    public void testDynamicRecordingInterval() {
+        final ExerciseSampleColumns samples = createSamples(new long[]{0, 1000, 4000, 4000, 10000, 12000},
+                new short[]{100, 130, 150, 170, 130, 300});
+        final HeartRateZoneCalculator calculator =
+                new HeartRateZoneCalculator(samples, EVExercise.DYNAMIC_RECORDING_INTERVAL);
+
+        assertEquals(12, calculator.getTotalTime());
+        assertArrayEquals(new int[]{1, 5, 0, 6}, calculator.getZoneTimes(120, 140, 160));
+    }
+
+    /**
+     * The created HeartRateLimit must contain the range (inclusive) and the computed times.
+     */
+    @Test
+    public void testCreateHeartRateLimit() {
+        final ExerciseSampleColumns samples = createSamples(new long[]{0, 2000, 4000, 6000, 8000},
+                new short[]{119, 120, 150, 151, 180});
+        final HeartRateZoneCalculator calculator = new HeartRateZoneCalculator(samples, (short) 2);
+
+        final HeartRateLimit limit = calculator.createHeartRateLimit((short) 120, (short) 150);
+        assertEquals(120, limit.getLowerHeartRate());
+        assertEquals(150, limit.getUpperHeartRate());
+        assertTrue(limit.isAbsoluteRange());
+        assertEquals(2, limit.getTimeBelow());
+        assertEquals(4, limit.getTimeWithin());
+        assertEquals(4, limit.getTimeAbove());
+    }
+
+    /**
+     * Exercises without samples or without heartrate data must not contain any zone times.
+     */
+    @Test
+    public void testNoHeartRateData() {
+        assertFalse(new HeartRateZoneCalculator(null, (short) 5).hasHeartRateData());
+
+        final ExerciseSampleColumns samples = createSamples(new long[]{0, 1000}, new short[]{0, 0});
+        final HeartRateZoneCalculator calculator =
+                new HeartRateZoneCalculator(samples, EVExercise.DYNAMIC_RECORDING_INTERVAL);
+        assertFalse(calculator.hasHeartRateData());
+        assertArrayEquals(new int[]{0, 0}, calculator.getZoneTimes(120));
+    }
+
+    private static ExerciseSampleColumns createSamples(final long[] timestamps, final short[] heartRates) {
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            samples.setTimestamp(i, timestamps[i]);
+            samples.setHeartRate(i, heartRates[i]);
+        }
+        return samples;
+    }
+}
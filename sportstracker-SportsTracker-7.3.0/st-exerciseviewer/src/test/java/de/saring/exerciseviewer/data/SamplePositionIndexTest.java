@@ -0,0 +1,127 @@
+package de.saring.exerciseviewer.data;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the SamplePositionIndex class.
+ *
+ * @author Stefan Saring
+ */
+public class SamplePositionIndexTest {
+
+    /**
+     * The index must be empty for samples without positions.
+     */
+    @Test
+    public void testNoPositions() {
+        assertEquals(0, SamplePositionIndex.of(null).size());
+
+        final SamplePositionIndex index = SamplePositionIndex.of(new ExerciseSampleColumns(10));
+        assertEquals(0, index.size());
+        assertEquals(-1, index.findNearestSample(51d, 11d));
+        assertEquals(-1, index.findNearestSample(51d, 11d, 1d, 1d));
+    }
+
+    /**
+     * Samples without positions must be ignored, samples at the same position must return the first one.
+     */
+    @Test
+    public void testSamePositions() {
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(4);
+        samples.setPosition(1, 51.5d, 11.5d);
+        samples.setPosition(2, 51.5d, 11.5d);
+        samples.setPosition(3, 51.5d, 11.5d);
+
+        final SamplePositionIndex index = SamplePositionIndex.of(samples);
+        assertEquals(3, index.size());
+        assertEquals(1, index.findNearestSample(51.5d, 11.5d, 0.001d, 0.001d));
+        assertEquals(1, index.findNearestSample(10d, 10d));
+        assertEquals(-1, index.findNearestSample(51.6d, 11.5d, 0.001d, 0.001d));
+    }
+
+    /**
+     * The lookups must return the same samples as a search over all samples.
+     */
+    @Test
+    public void testLookupsMatchFullSearch() {
+        final Random random = new Random(42);
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(5000);
+
+        // random walk track, every 10th sample without position
+        double latitude = 51.0;
+        double longitude = 11.0;
+        for (int i = 0; i < samples.size(); i++) {
+            latitude += (random.nextDouble() - 0.5) * 0.001;
+            longitude += (random.nextDouble() - 0.3) * 0.001;
+            if (i % 10 != 0) {
+                samples.setPosition(i, latitude, longitude);
+            }
+        }
+
+        final SamplePositionIndex index = SamplePositionIndex.of(samples);
+        assertEquals(4500, index.size());
+
+        for (int q = 0; q < 500; q++) {
+            final double qLatitude = 50.9 + random.nextDouble() * 0.3;
+            final double qLongitude = 10.9 + random.nextDouble() * 1.2;
+            final double buffer = 0.0005 + random.nextDouble() * 0.01;
+
+            assertEquals(findNearestFullSearch(samples, qLatitude, qLongitude, buffer),
+                    index.findNearestSample(qLatitude, qLongitude, buffer, buffer));
+            assertEquals(findNearestFullSearch(samples, qLatitude, qLongitude),
+                    index.findNearestSample(qLatitude, qLongitude));
+        }
+    }
+
+    private int findNearestFullSearch(ExerciseSampleColumns samples, double latitude, double longitude, double buffer) {
+        int nearestIndex = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < samples.size(); i++) {
+            if (samples.hasPosition(i)) {
+                final double latDistance = Math.abs(samples.getLatitudes()[i] - latitude);
+                final double lonDistance = Math.abs(samples.getLongitudes()[i] - longitude);
+                if (latDistance < buffer && lonDistance < buffer) {
+                    final double distance = (latDistance / buffer) * (latDistance / buffer) +
+                            (lonDistance / buffer) * (lonDistance / buffer);
+                    if (distance < nearestDistance) {
+                        nearestDistance = distance;
+                        nearestIndex = i;
+                    }
+                }
+            }
+        }
+        return nearestIndex;
+    }
+
+    private int findNearestFullSearch(ExerciseSampleColumns samples, double latitude, double longitude) {
+        final double[] latitudes = samples.getLatitudes();
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (double lat : latitudes) {
+            if (!Double.isNaN(lat)) {
+                minLat = Math.min(minLat, lat);
+                maxLat = Math.max(maxLat, lat);
+            }
+        }
+        final double longitudeScale = Math.cos(Math.toRadians((minLat + maxLat) / 2d));
+
+        int nearestIndex = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < samples.size(); i++) {
+            if (samples.hasPosition(i)) {
+                final double latDistance = latitudes[i] - latitude;
+                final double lonDistance = (samples.getLongitudes()[i] - longitude) * longitudeScale;
+                final double distance = latDistance * latDistance + lonDistance * lonDistance;
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearestIndex = i;
+                }
+            }
+        }
+        return nearestIndex;
+    }
+}
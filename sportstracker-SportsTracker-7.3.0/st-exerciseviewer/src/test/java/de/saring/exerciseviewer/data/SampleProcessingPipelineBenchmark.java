@@ -0,0 +1,131 @@
+package de.saring.exerciseviewer.data;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark for the SampleProcessingPipeline, it's not a unit test and will not be executed in the build.
+ * It measures the processing time of each stage separately (one pass over all samples per stage) and
+ * the total time of all stages, executed separately and fused into a single pass.
+ * <p/>
+ * Usage: run the main method, optional argument is the number of samples of the generated exercise
+ * (default is a 24 hour exercise with 1 second recording interval).
+ *
+ * @author Stefan Saring
+ */
+public class SampleProcessingPipelineBenchmark {
+
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 50;
+
+    public static void main(String[] args) {
+        final int sampleCount = args.length > 0 ? Integer.parseInt(args[0]) : 24 * 60 * 60;
+        final EVExercise template = createExercise(sampleCount);
+        System.out.printf("Sample post-processing of %d samples:%n", sampleCount);
+
+        final String[] stageNames = {"distance repair", "speed smoothing", "altitude smoothing",
+                "heartrate gap filling", "lap speed"};
+        final Supplier<SampleProcessingStage[]> stagesSupplier = () -> new SampleProcessingStage[]{
+                SampleProcessingStages.distanceRepair(),
+                SampleProcessingStages.speedSmoothing(5),
+                SampleProcessingStages.altitudeSmoothing(9),
+                SampleProcessingStages.heartRateGapFilling(30),
+                SampleProcessingStages.lapSpeed()};
+
+        // the first round warms up all pipelines, so all measurements use JIT compiled code
+        for (int round = 0; round < 2; round++) {
+            final boolean print = round > 0;
+
+            double sumStageMillis = 0;
+            for (int stageIndex = 0; stageIndex < stageNames.length; stageIndex++) {
+                final int index = stageIndex;
+                final double stageMillis = benchmark(template,
+                        () -> new SampleProcessingPipeline(stagesSupplier.get()[index]));
+                sumStageMillis += stageMillis;
+                print(print, stageNames[stageIndex], stageMillis);
+            }
+            print(print, "total (separate passes)", sumStageMillis);
+
+            final double fusedMillis = benchmark(template,
+                    () -> new SampleProcessingPipeline(stagesSupplier.get()));
+            print(print, "total (fused pass)", fusedMillis);
+        }
+    }
+
+    private static void print(boolean print, String name, double millis) {
+        if (print) {
+            System.out.printf("  %-30s %8.3f ms%n", name, millis);
+        }
+    }
+
+    /**
+     * Returns the average processing time of the created pipelines in milliseconds. Each run processes
+     * a copy of the template exercise, the copy time is not measured.
+     */
+    private static double benchmark(EVExercise template, Supplier<SampleProcessingPipeline> pipelineSupplier) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            pipelineSupplier.get().process(copyExercise(template));
+        }
+
+        long sumNanos = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            final EVExercise exercise = copyExercise(template);
+            final SampleProcessingPipeline pipeline = pipelineSupplier.get();
+            final long startTime = System.nanoTime();
+            pipeline.process(exercise);
+            sumNanos += System.nanoTime() - startTime;
+        }
+        return sumNanos / 1_000_000d / MEASURED_RUNS;
+    }
+
+    private static EVExercise createExercise(int sampleCount) {
+        final EVExercise exercise = new EVExercise();
+        exercise.setRecordingMode(new RecordingMode());
+        exercise.getRecordingMode().setSpeed(true);
+        exercise.getRecordingMode().setAltitude(true);
+        exercise.setRecordingInterval((short) 1);
+        exercise.setDuration(sampleCount * 10);
+        exercise.setSpeed(new ExerciseSpeed());
+        exercise.getSpeed().setDistance(sampleCount * 3);
+
+        final Random random = new Random(42);
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(sampleCount);
+        for (int i = 0; i < sampleCount; i++) {
+            samples.setTimestamp(i, i * 1000L);
+            samples.setHeartRate(i, random.nextInt(50) == 0 ? 0 : (short) (110 + random.nextInt(60)));
+            samples.setSpeed(i, 8f + random.nextFloat() * 6f);
+            samples.setAltitude(i, (short) (300 + random.nextInt(20)));
+            samples.setDistance(i, (int) (i * 3.1));
+        }
+        exercise.setSampleColumns(samples);
+
+        final Lap[] laps = new Lap[sampleCount / 1000 + 1];
+        for (int i = 0; i < laps.length; i++) {
+            laps[i] = new Lap();
+            laps[i].setTimeSplit(Math.min(sampleCount, (i + 1) * 1000) * 10);
+            laps[i].setSpeed(new LapSpeed());
+            laps[i].getSpeed().setDistance(Math.min(sampleCount, (i + 1) * 1000) * 3);
+        }
+        exercise.setLapList(laps);
+        return exercise;
+    }
+
+    private static EVExercise copyExercise(EVExercise template) {
+        final ExerciseSampleColumns templateSamples = template.getSampleColumns();
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(templateSamples.size());
+        System.arraycopy(templateSamples.getTimestamps(), 0, samples.getTimestamps(), 0, samples.size());
+        System.arraycopy(templateSamples.getHeartRates(), 0, samples.getHeartRates(), 0, samples.size());
+        System.arraycopy(templateSamples.getSpeeds(), 0, samples.getSpeeds(), 0, samples.size());
+        System.arraycopy(templateSamples.getAltitudes(), 0, samples.getAltitudes(), 0, samples.size());
+        System.arraycopy(templateSamples.getDistances(), 0, samples.getDistances(), 0, samples.size());
+
+        final EVExercise exercise = new EVExercise();
+        exercise.setRecordingMode(template.getRecordingMode());
+        exercise.setRecordingInterval(template.getRecordingInterval());
+        exercise.setDuration(template.getDuration());
+        exercise.setSpeed(template.getSpeed());
+        exercise.setLapList(template.getLapList());
+        exercise.setSampleColumns(samples);
+        return exercise;
+    }
+}
@@ -0,0 +1,150 @@
+package de.saring.exerciseviewer.data;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the SampleProcessingPipeline and SampleProcessingStages classes.
+ *
+ * @author Stefan Saring
+ */
+public class SampleProcessingPipelineTest {
+
+    /**
+     * The sample distances must be recalculated in relation to the exercise distance, the average lap
+     * speed must be calculated from the lap distances and split times.
+     */
+    @Test
+    public void testDistanceRepairAndLapSpeed() {
+        final EVExercise exercise = createExercise(5);
+        exercise.getSpeed().setDistance(100);
+        exercise.setLapList(new Lap[]{createLap(600, 600), createLap(1200, 1000)});
+
+        new SampleProcessingPipeline(
+                SampleProcessingStages.distanceRepair(),
+                SampleProcessingStages.lapSpeed()).process(exercise);
+
+        assertArrayEquals(new int[]{0, 25, 50, 75, 100}, exercise.getSampleColumns().getDistances());
+        assertEquals(36f, exercise.getLapList()[0].getSpeed().getSpeedAVG(), 0.001f);
+        assertEquals(54f, exercise.getLapList()[1].getSpeed().getSpeedAVG(), 0.001f);
+    }
+
+    /**
+     * The speed and altitude values must be smoothed by a centered moving average, the window is
+     * smaller at the start and the end.
+     */
+    @Test
+    public void testSmoothing() {
+        final EVExercise exercise = createExercise(5);
+        final ExerciseSampleColumns samples = exercise.getSampleColumns();
+        final float[] speeds = {10f, 20f, 30f, 10f, 20f};
+        final short[] altitudes = {100, 103, 100, 103, 100};
+        for (int i = 0; i < 5; i++) {
+            samples.setSpeed(i, speeds[i]);
+            samples.setAltitude(i, altitudes[i]);
+        }
+
+        new SampleProcessingPipeline(
+                SampleProcessingStages.speedSmoothing(3),
+                SampleProcessingStages.altitudeSmoothing(3)).process(exercise);
+
+        assertArrayEquals(new float[]{15f, 20f, 20f, 20f, 15f}, samples.getSpeeds(), 0.001f);
+        assertArrayEquals(new short[]{102, 101, 102, 101, 102}, samples.getAltitudes());
+    }
+
+    /**
+     * Heartrate gaps must be interpolated by the timestamps, gaps at the start and the end and
+     * too long gaps must not be filled.
+     */
+    @Test
+    public void testHeartRateGapFilling() {
+        final EVExercise exercise = createExercise(12);
+        final ExerciseSampleColumns samples = exercise.getSampleColumns();
+        final short[] heartRates = {0, 100, 0, 0, 0, 140, 120, 0, 0, 0, 0, 130};
+        for (int i = 0; i < heartRates.length; i++) {
+            samples.setHeartRate(i, heartRates[i]);
+        }
+
+        new SampleProcessingPipeline(SampleProcessingStages.heartRateGapFilling(3)).process(exercise);
+
+        assertArrayEquals(new short[]{0, 100, 110, 120, 130, 140, 120, 0, 0, 0, 0, 130}, samples.getHeartRates());
+    }
+
+    /**
+     * The fused processing of all stages in blocks must have the same result as the separate processing
+     * of each stage for all samples.
+     */
+    @Test
+    public void testFusedProcessingEqualsSeparateProcessing() {
+        final int sampleCount = SampleProcessingPipeline.BLOCK_SIZE * 3 + 17;
+        final EVExercise fusedExercise = createRandomExercise(sampleCount);
+        final EVExercise separateExercise = createRandomExercise(sampleCount);
+
+        new SampleProcessingPipeline(
+                SampleProcessingStages.heartRateGapFilling(10),
+                SampleProcessingStages.speedSmoothing(5),
+                SampleProcessingStages.altitudeSmoothing(7),
+                SampleProcessingStages.distanceRepair(),
+                SampleProcessingStages.lapSpeed()).process(fusedExercise);
+
+        new SampleProcessingPipeline(SampleProcessingStages.heartRateGapFilling(10)).process(separateExercise);
+        new SampleProcessingPipeline(SampleProcessingStages.speedSmoothing(5)).process(separateExercise);
+        new SampleProcessingPipeline(SampleProcessingStages.altitudeSmoothing(7)).process(separateExercise);
+        separateExercise.repairSamples();
+        new SampleProcessingPipeline(SampleProcessingStages.lapSpeed()).process(separateExercise);
+
+        final ExerciseSampleColumns fused = fusedExercise.getSampleColumns();
+        final ExerciseSampleColumns separate = separateExercise.getSampleColumns();
+        assertArrayEquals(separate.getHeartRates(), fused.getHeartRates());
+        assertArrayEquals(separate.getSpeeds(), fused.getSpeeds(), 0f);
+        assertArrayEquals(separate.getAltitudes(), fused.getAltitudes());
+        assertArrayEquals(separate.getDistances(), fused.getDistances());
+        assertEquals(separateExercise.getLapList()[0].getSpeed().getSpeedAVG(),
+                fusedExercise.getLapList()[0].getSpeed().getSpeedAVG(), 0f);
+    }
+
+    private static EVExercise createExercise(final int sampleCount) {
+        final EVExercise exercise = new EVExercise();
+        exercise.setRecordingMode(new RecordingMode());
+        exercise.getRecordingMode().setSpeed(true);
+        exercise.getRecordingMode().setAltitude(true);
+        exercise.setRecordingInterval((short) 1);
+        exercise.setDuration(sampleCount * 10);
+        exercise.setSpeed(new ExerciseSpeed());
+
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(sampleCount);
+        for (int i = 0; i < sampleCount; i++) {
+            samples.setTimestamp(i, i * 1000L);
+            samples.setDistance(i, i * 20);
+        }
+        exercise.setSampleColumns(samples);
+        return exercise;
+    }
+
+    private static EVExercise createRandomExercise(final int sampleCount) {
+        final EVExercise exercise = createExercise(sampleCount);
+        exercise.getSpeed().setDistance(sampleCount * 19);
+        exercise.setLapList(new Lap[]{createLap(sampleCount * 19, sampleCount * 10)});
+
+        // use a fixed seed, so both exercises contain the same values
+        final Random random = new Random(42);
+        final ExerciseSampleColumns samples = exercise.getSampleColumns();
+        for (int i = 0; i < sampleCount; i++) {
+            samples.setHeartRate(i, random.nextInt(10) == 0 ? 0 : (short) (100 + random.nextInt(80)));
+            samples.setSpeed(i, 10f + random.nextFloat() * 10f);
+            samples.setAltitude(i, (short) (200 + random.nextInt(50)));
+        }
+        return exercise;
+    }
+
+    private static Lap createLap(final int distance, final int timeSplit) {
+        final Lap lap = new Lap();
+        lap.setTimeSplit(timeSplit);
+        lap.setSpeed(new LapSpeed());
+        lap.getSpeed().setDistance(distance);
+        return lap;
+    }
+}
@@ -0,0 +1,106 @@
+package de.saring.exerciseviewer.gui.panels.track;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the TileDiskStore class.
+ *
+ * @author Stefan Saring
+ */
+public class TileDiskStoreTest {
+
+    private static final URI URI_TILE_1 = URI.create("http://tile.openstreetmap.org/15/17123/11234.png");
+    private static final URI URI_TILE_2 = URI.create("http://tile.openstreetmap.org/15/17124/11234.png");
+    private static final URI URI_TILE_3 = URI.create("http://tile.openstreetmap.org/15/17125/11234.png");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path storeDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        storeDirectory = tempFolder.newFolder("tiles").toPath();
+    }
+
+    /**
+     * Stored tiles must be available in a new store instance for the same directory.
+     */
+    @Test
+    public void testPutAndGet() {
+        TileDiskStore store = new TileDiskStore(storeDirectory, TileDiskStore.DEFAULT_MAX_SIZE);
+        assertNull(store.get(URI_TILE_1));
+
+        store.put(URI_TILE_1, new byte[]{1, 2, 3});
+        assertArrayEquals(new byte[]{1, 2, 3}, store.get(URI_TILE_1));
+        assertNull(store.get(URI_TILE_2));
+
+        store = new TileDiskStore(storeDirectory, TileDiskStore.DEFAULT_MAX_SIZE);
+        assertArrayEquals(new byte[]{1, 2, 3}, store.get(URI_TILE_1));
+        assertEquals(3, store.getTotalSize());
+        assertTrue(Files.exists(storeDirectory.resolve("tile.openstreetmap.org/15/17123/11234.png")));
+    }
+
+    /**
+     * The least recently used tiles must be removed when the maximum size has been exceeded.
+     */
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        final TileDiskStore store = new TileDiskStore(storeDirectory, 20);
+        store.put(URI_TILE_1, new byte[8]);
+        store.put(URI_TILE_2, new byte[8]);
+
+        // access tile 1, so tile 2 is the least recently used
+        assertNotNull(store.get(URI_TILE_1));
+        store.put(URI_TILE_3, new byte[8]);
+
+        assertNotNull(store.get(URI_TILE_1));
+        assertNull(store.get(URI_TILE_2));
+        assertNotNull(store.get(URI_TILE_3));
+        assertEquals(16, store.getTotalSize());
+    }
+
+    /**
+     * The access order of the stored tiles must be restored from the file modification times.
+     */
+    @Test
+    public void testEvictLeastRecentlyUsedAfterRestart() throws IOException {
+        TileDiskStore store = new TileDiskStore(storeDirectory, 20);
+        store.put(URI_TILE_1, new byte[8]);
+        store.put(URI_TILE_2, new byte[8]);
+
+        Files.setLastModifiedTime(store.getTilePath(URI_TILE_1), FileTime.fromMillis(2000));
+        Files.setLastModifiedTime(store.getTilePath(URI_TILE_2), FileTime.fromMillis(1000));
+
+        store = new TileDiskStore(storeDirectory, 20);
+        store.put(URI_TILE_3, new byte[8]);
+
+        assertFalse(Files.exists(store.getTilePath(URI_TILE_2)));
+        assertNotNull(store.get(URI_TILE_1));
+        assertNotNull(store.get(URI_TILE_3));
+    }
+
+    /**
+     * Only tiles of HTTP(S) URIs can be stored, the tile paths must be located in the store directory.
+     */
+    @Test
+    public void testGetTilePath() {
+        final TileDiskStore store = new TileDiskStore(storeDirectory, TileDiskStore.DEFAULT_MAX_SIZE);
+        assertNull(store.getTilePath(URI.create("file:/tmp/tiles/15/17123/11234.png")));
+
+        final Path tilePath = store.getTilePath(URI.create("https://tiles.example.com/../a%20b/1.png"));
+        assertTrue(tilePath.startsWith(storeDirectory));
+        assertEquals(storeDirectory.resolve("tiles.example.com/__/a_b/1.png"), tilePath);
+    }
+}
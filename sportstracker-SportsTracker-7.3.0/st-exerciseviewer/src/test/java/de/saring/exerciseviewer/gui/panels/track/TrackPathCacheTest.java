@@ -0,0 +1,46 @@
+package de.saring.exerciseviewer.gui.panels.track;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the TrackPathCache class.
+ *
+ * @author Stefan Saring
+ */
+public class TrackPathCacheTest {
+
+    /**
+     * Short polylines must not be simplified.
+     */
+    @Test
+    public void testSimplifyShortLines() {
+        assertArrayEquals(new int[0], TrackPathCache.simplify(new double[0], new double[0], 0.5d));
+        assertArrayEquals(new int[]{0, 1}, TrackPathCache.simplify(new double[]{0, 5}, new double[]{0, 5}, 0.5d));
+    }
+
+    /**
+     * Points on a straight line and points within the tolerance must be removed, corners must be kept.
+     */
+    @Test
+    public void testSimplify() {
+        final double[] xValues = {0, 1, 2, 3, 4, 4, 4.2, 4, 4};
+        final double[] yValues = {0, 0.1, 0, 0, 0, 1, 2, 3, 4};
+
+        assertArrayEquals(new int[]{0, 4, 8}, TrackPathCache.simplify(xValues, yValues, 0.5d));
+        assertArrayEquals(new int[]{0, 4, 6, 8}, TrackPathCache.simplify(xValues, yValues, 0.15d));
+        assertArrayEquals(new int[]{0, 1, 2, 4, 5, 6, 7, 8}, TrackPathCache.simplify(xValues, yValues, 0.05d));
+    }
+
+    /**
+     * Out and back tracks must keep the turning point.
+     */
+    @Test
+    public void testSimplifyOutAndBack() {
+        final double[] xValues = {0, 10, 20, 10, 0};
+        final double[] yValues = {0, 0, 0, 0, 0};
+
+        assertArrayEquals(new int[]{0, 2, 4}, TrackPathCache.simplify(xValues, yValues, 0.5d));
+    }
+}
@@ -0,0 +1,99 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the AsyncExerciseParsing class.
+ *
+ * @author Stefan Saring
+ */
+public class AsyncExerciseParsingTest {
+
+    private static final String FILENAME = "misc/testdata/garmin-fit/Garmin_Fenix2_running_with_hrm.fit";
+
+    /**
+     * The asynchronously parsed exercise must be the same as the synchronously parsed exercise,
+     * the progress must be reported in ascending order up to the file size.
+     */
+    @Test
+    public void testParseExerciseAsync() throws Exception {
+        final ExerciseParser parser = ExerciseParserFactory.getParser(FILENAME);
+        final String expected = parser.parseExercise(FILENAME).toString();
+
+        final List<Long> progressValues = new ArrayList<>();
+        final EVExercise exercise = parser.parseExerciseAsync(FILENAME, (bytesConsumed, bytesTotal) -> {
+            assertEquals(new File(FILENAME).length(), bytesTotal);
+            progressValues.add(bytesConsumed);
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(expected, exercise.toString());
+        assertTrue(progressValues.size() > 2);
+        assertEquals(Long.valueOf(0), progressValues.get(0));
+        assertEquals(Long.valueOf(new File(FILENAME).length()), progressValues.get(progressValues.size() - 1));
+        for (int i = 1; i < progressValues.size(); i++) {
+            assertTrue(progressValues.get(i) >= progressValues.get(i - 1));
+        }
+    }
+
+    /**
+     * Parsing problems must complete the future exceptionally.
+     */
+    @Test
+    public void testParseAsyncFailed() throws Exception {
+        final CompletableFuture<EVExercise> future = AsyncExerciseParsing.parseAsync(FILENAME, null, () -> {
+            throw new EVException("Failed to parse!");
+        });
+
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Parsing must fail!");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof EVException);
+        }
+    }
+
+    /**
+     * Reading the exercise file must be aborted when the parsing has been cancelled.
+     */
+    @Test
+    public void testParseAsyncCancelled() throws Exception {
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        final CountDownLatch cancelledLatch = new CountDownLatch(1);
+        final CountDownLatch finishedLatch = new CountDownLatch(1);
+        final AtomicReference<Exception> readException = new AtomicReference<>();
+
+        final CompletableFuture<EVExercise> future = AsyncExerciseParsing.parseAsync(FILENAME, null, () -> {
+            try (InputStream inStream = AsyncExerciseParsing.openInputStream(FILENAME)) {
+                startedLatch.countDown();
+                cancelledLatch.await();
+                inStream.read();
+            } catch (Exception e) {
+                readException.set(e);
+            } finally {
+                finishedLatch.countDown();
+            }
+            return null;
+        });
+
+        assertTrue(startedLatch.await(10, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        cancelledLatch.countDown();
+        assertTrue(finishedLatch.await(10, TimeUnit.SECONDS));
+        assertTrue(readException.get() instanceof InterruptedIOException);
+    }
+}
@@ -0,0 +1,124 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the ExerciseParseCache class.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseParseCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path cacheDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDirectory = tempFolder.newFolder("cache").toPath();
+    }
+
+    /**
+     * The cached exercise must contain the same data as the directly parsed exercise,
+     * tested for an exercise with laps and track positions.
+     */
+    @Test
+    public void testParseExerciseFromCache() throws Exception {
+        final String filename = copyTestFile("misc/testdata/garmin-fit/Garmin_Fenix2_running_with_hrm.fit");
+        final ExerciseParser parser = ExerciseParserFactory.getParser(filename);
+        final String expected = parser.parseExercise(filename).toString();
+
+        final ExerciseParseCache cache = new ExerciseParseCache(cacheDirectory, ExerciseParseCache.DEFAULT_MAX_SIZE);
+        assertNull(cache.loadCachedExercise(filename, parser));
+
+        // first call parses and stores the exercise, second call reads it from cache
+        assertEquals(expected, cache.parseExercise(filename).toString());
+        final EVExercise cachedExercise = cache.loadCachedExercise(filename, parser);
+        assertNotNull(cachedExercise);
+        assertEquals(expected, cachedExercise.toString());
+        assertEquals(expected, cache.parseExercise(filename).toString());
+    }
+
+    /**
+     * The cache entry must be invalid when the exercise file has been modified.
+     */
+    @Test
+    public void testInvalidationOnFileChange() throws Exception {
+        final String filename = copyTestFile("misc/testdata/s710/cycling-metric.srd");
+        final ExerciseParser parser = ExerciseParserFactory.getParser(filename);
+
+        final ExerciseParseCache cache = new ExerciseParseCache(cacheDirectory, ExerciseParseCache.DEFAULT_MAX_SIZE);
+        cache.parseExercise(filename);
+        assertNotNull(cache.loadCachedExercise(filename, parser));
+
+        Files.setLastModifiedTime(Paths.get(filename), FileTime.fromMillis(1000000000000L));
+        assertNull(cache.loadCachedExercise(filename, parser));
+
+        // the entry must be replaced on next parse
+        cache.parseExercise(filename);
+        assertNotNull(cache.loadCachedExercise(filename, parser));
+        assertEquals(1, countCacheEntries());
+    }
+
+    /**
+     * The least recently used entry must be removed when the maximum cache size is exceeded.
+     */
+    @Test
+    public void testEvictionOfLeastRecentlyUsedEntries() throws Exception {
+        final String filename1 = copyTestFile("misc/testdata/s710/cycling-metric.srd");
+        final String filename2 = copyTestFile("misc/testdata/s710/running-metric.srd");
+        final ExerciseParser parser = ExerciseParserFactory.getParser(filename1);
+
+        ExerciseParseCache cache = new ExerciseParseCache(cacheDirectory, ExerciseParseCache.DEFAULT_MAX_SIZE);
+        cache.parseExercise(filename1);
+        cache.parseExercise(filename2);
+        assertEquals(2, countCacheEntries());
+
+        // the new cache size is big enough for one entry only, the first entry was used recently
+        final long maxEntrySize = Files.list(cacheDirectory).mapToLong(path -> path.toFile().length()).max().getAsLong();
+        cache = new ExerciseParseCache(cacheDirectory, maxEntrySize);
+        Thread.sleep(20);
+        assertNotNull(cache.loadCachedExercise(filename1, parser));
+
+        cache.evictEntries();
+        assertEquals(1, countCacheEntries());
+        assertNotNull(cache.loadCachedExercise(filename1, parser));
+        assertNull(cache.loadCachedExercise(filename2, parser));
+    }
+
+    /**
+     * Parsing of a missing file must fail.
+     */
+    @Test(expected = EVException.class)
+    public void testParseMissingFile() throws Exception {
+        final ExerciseParseCache cache = new ExerciseParseCache(cacheDirectory, ExerciseParseCache.DEFAULT_MAX_SIZE);
+        cache.parseExercise(tempFolder.getRoot().getPath() + "/missing-file.srd");
+    }
+
+    private String copyTestFile(final String testFile) throws IOException {
+        final Path source = Paths.get(testFile);
+        final Path target = tempFolder.getRoot().toPath().resolve(source.getFileName());
+        Files.copy(source, target);
+        return target.toString();
+    }
+
+    private long countCacheEntries() throws IOException {
+        return Files.list(cacheDirectory)
+                .filter(path -> path.toString().endsWith(ExerciseParseCache.ENTRY_SUFFIX))
+                .count();
+    }
+}
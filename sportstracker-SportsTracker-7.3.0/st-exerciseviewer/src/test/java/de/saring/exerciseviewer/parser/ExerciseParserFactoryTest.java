@@ -1,10 +1,18 @@
 package de.saring.exerciseviewer.parser;
 
 import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.parser.impl.HAC4TURParser;
 import de.saring.exerciseviewer.parser.impl.PolarSRawParser;
 import de.saring.exerciseviewer.parser.impl.TimexPwxParser;
 import de.saring.exerciseviewer.parser.impl.garminfit.GarminFitParser;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import static org.junit.Assert.*;
 
@@ -15,6 +23,9 @@ import static org.junit.Assert.*;
  */
 public class ExerciseParserFactoryTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     /**
      * Tests of getParser() method.
      */
@@ -51,4 +62,67 @@ public class ExerciseParserFactoryTest {
         } catch (EVException e) {
         }
     }
+
+    /**
+     * Tests of getParser() method for files with mixed case suffixes.
+     */
+    @Test
+    public void testGetParserMixedCaseSuffix() throws EVException {
+        assertTrue(ExerciseParserFactory.getParser("exercises/exercise1.Srd") instanceof PolarSRawParser);
+        assertTrue(ExerciseParserFactory.getParser("C:\\Test 123\\Exercise3.Fit") instanceof GarminFitParser);
+    }
+
+    /**
+     * Tests of getParser() method for files with wrong or missing suffixes, the parser
+     * must be detected by the file content.
+     */
+    @Test
+    public void testGetParserByFileContent() throws Exception {
+
+        ExerciseParser parser = ExerciseParserFactory.getParser(
+                copyTestFile("misc/testdata/garmin-fit/Garmin_Fenix2_running_with_hrm.fit", "fenix2"));
+        assertTrue(parser instanceof GarminFitParser);
+
+        parser = ExerciseParserFactory.getParser(
+                copyTestFile("misc/testdata/garmin-tcx/Edge705-Running-Heartrate-2Laps.tcx", "edge705.xml"));
+        assertEquals("de.saring.exerciseviewer.parser.impl.GarminTcxParser", parser.getClass().getName());
+
+        parser = ExerciseParserFactory.getParser(
+                copyTestFile("misc/testdata/gpx/bike-tour-gpsies.gpx", "bike-tour.dat"));
+        assertEquals("de.saring.exerciseviewer.parser.impl.TopoGrafixGpxParser", parser.getClass().getName());
+
+        parser = ExerciseParserFactory.getParser(
+                copyTestFile("misc/testdata/timex-globaltrainer-pwx/Timex_Global_Trainer_5Laps.pwx", "timex.xml"));
+        assertTrue(parser instanceof TimexPwxParser);
+
+        parser = ExerciseParserFactory.getParser(
+                copyTestFile("misc/testdata/polarpersonaltrainer/polar-ped-sample.ped", "polar-ped"));
+        assertEquals("de.saring.exerciseviewer.parser.impl.PolarPedParser", parser.getClass().getName());
+
+        parser = ExerciseParserFactory.getParser(
+                copyTestFile("misc/testdata/rs200sd-sample.xml", "rs200sd"));
+        assertEquals("de.saring.exerciseviewer.parser.impl.PolarRS200SDParser", parser.getClass().getName());
+
+        parser = ExerciseParserFactory.getParser(copyTestFile("misc/testdata/s410-sample.hrm", "s410.txt"));
+        assertEquals("de.saring.exerciseviewer.parser.impl.PolarHRMParser", parser.getClass().getName());
+
+        parser = ExerciseParserFactory.getParser(copyTestFile("misc/testdata/hac4/hac5.tur", "hac5"));
+        assertTrue(parser instanceof HAC4TURParser);
+
+        // the SRD format can't be detected by content, so the suffix must be used
+        parser = ExerciseParserFactory.getParser(copyTestFile("misc/testdata/s710/cycling-metric.srd", "s710.srd"));
+        assertTrue(parser instanceof PolarSRawParser);
+
+        try {
+            ExerciseParserFactory.getParser(copyTestFile("misc/testdata/s710/cycling-metric.srd", "s710"));
+            fail("Parser for undetectable file without suffix must not be found!");
+        } catch (EVException e) {
+        }
+    }
+
+    private String copyTestFile(final String testFile, final String targetFilename) throws IOException {
+        final Path target = tempFolder.getRoot().toPath().resolve(targetFilename);
+        Files.copy(Paths.get(testFile), target);
+        return target.toString();
+    }
 }
@@ -0,0 +1,67 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
+import de.saring.exerciseviewer.data.Lap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the LapSampleAlignment class.
+ *
+ * @author Stefan Saring
+ */
+public class LapSampleAlignmentTest {
+
+    /**
+     * Tests the binary search for the closest sample, on same distance the first sample must be found.
+     */
+    @Test
+    public void testFindClosestSampleIndex() {
+        final long[] timestamps = {0, 1000, 2000, 2000, 4000, 0};
+        final int size = 5;
+
+        assertEquals(-1, LapSampleAlignment.findClosestSampleIndex(timestamps, 0, 1000));
+        assertEquals(0, LapSampleAlignment.findClosestSampleIndex(timestamps, size, -500));
+        assertEquals(0, LapSampleAlignment.findClosestSampleIndex(timestamps, size, 400));
+        assertEquals(0, LapSampleAlignment.findClosestSampleIndex(timestamps, size, 500));
+        assertEquals(1, LapSampleAlignment.findClosestSampleIndex(timestamps, size, 501));
+        assertEquals(1, LapSampleAlignment.findClosestSampleIndex(timestamps, size, 1000));
+        assertEquals(2, LapSampleAlignment.findClosestSampleIndex(timestamps, size, 2000));
+        assertEquals(2, LapSampleAlignment.findClosestSampleIndex(timestamps, size, 3000));
+        assertEquals(4, LapSampleAlignment.findClosestSampleIndex(timestamps, size, 3001));
+        assertEquals(4, LapSampleAlignment.findClosestSampleIndex(timestamps, size, 9000));
+    }
+
+    /**
+     * Tests the lap end alignment for sorted and unsorted sample timestamps, both must
+     * return the same results as a full search.
+     */
+    @Test
+    public void testFindSampleIndexesForLapEnds() {
+        final Lap[] laps = {createLap(12), createLap(25), createLap(100)};
+
+        final ExerciseSampleColumns sortedSamples = createSamples(0, 1000, 2000, 3000, 4000);
+        assertArrayEquals(new int[]{1, 2, 4}, LapSampleAlignment.findSampleIndexesForLapEnds(sortedSamples, laps));
+
+        final ExerciseSampleColumns unsortedSamples = createSamples(0, 3000, 1000, 2000, 2600);
+        assertArrayEquals(new int[]{2, 4, 1}, LapSampleAlignment.findSampleIndexesForLapEnds(unsortedSamples, laps));
+
+        final ExerciseSampleColumns noSamples = createSamples();
+        assertArrayEquals(new int[]{-1, -1, -1}, LapSampleAlignment.findSampleIndexesForLapEnds(noSamples, laps));
+    }
+
+    private Lap createLap(final int timeSplit) {
+        final Lap lap = new Lap();
+        lap.setTimeSplit(timeSplit);
+        return lap;
+    }
+
+    private ExerciseSampleColumns createSamples(final long... timestamps) {
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            samples.setTimestamp(i, timestamps[i]);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,78 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.data.ExerciseSampleColumns;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the SampleSummary class.
+ *
+ * @author Stefan Saring
+ */
+public class SampleSummaryTest {
+
+    /**
+     * Test of the summary for sample columns without any samples.
+     */
+    @Test
+    public void testNoSamples() {
+        SampleSummary summary = SampleSummary.of(null);
+        assertEquals(0, summary.getSampleCount());
+        assertEquals(0, summary.getHeartRateMax());
+
+        summary = SampleSummary.of(new ExerciseSampleColumns(0));
+        assertEquals(0, summary.getSampleCount());
+        assertEquals(0, summary.getAltitudeMin());
+        assertEquals(0f, summary.getSpeedMax(), 0f);
+    }
+
+    /**
+     * Test of the summary for multiple samples, all values must be computed in one pass.
+     */
+    @Test
+    public void testSummary() {
+        final ExerciseSampleColumns samples = new ExerciseSampleColumns(4);
+        final short[] heartRates = {120, 140, 135, 150};
+        final short[] altitudes = {200, 210, 205, 215};
+        final float[] speeds = {0f, 12.5f, 20f, 15f};
+        final short[] cadences = {0, 80, 90, 0};
+        final int[] distances = {0, 100, 100, 250};
+        final short[] temperatures = {18, 17, 16, 19};
+
+        for (int i = 0; i < samples.size(); i++) {
+            samples.setHeartRate(i, heartRates[i]);
+            samples.setAltitude(i, altitudes[i]);
+            samples.setSpeed(i, speeds[i]);
+            samples.setCadence(i, cadences[i]);
+            samples.setDistance(i, distances[i]);
+            samples.setTemperature(i, temperatures[i]);
+        }
+
+        final SampleSummary summary = SampleSummary.of(samples);
+        assertEquals(4, summary.getSampleCount());
+
+        assertEquals(120, summary.getHeartRateMin());
+        assertEquals(150, summary.getHeartRateMax());
+        assertEquals(545, summary.getHeartRateSum());
+
+        assertEquals(200, summary.getAltitudeMin());
+        assertEquals(215, summary.getAltitudeMax());
+        assertEquals(830, summary.getAltitudeSum());
+        assertEquals(20, summary.getAscent());
+
+        assertEquals(20f, summary.getSpeedMax(), 0f);
+        assertEquals(47.5d, summary.getSpeedSum(), 0.0001d);
+        assertEquals(27.5d, summary.getMovingSpeedSum(), 0.0001d);
+        assertEquals(2, summary.getMovingSampleCount());
+
+        assertEquals(90, summary.getCadenceMax());
+        assertEquals(170, summary.getCadenceSum());
+        assertEquals(170, summary.getCadenceNonZeroSum());
+        assertEquals(2, summary.getCadenceNonZeroCount());
+
+        assertEquals(16, summary.getTemperatureMin());
+        assertEquals(19, summary.getTemperatureMax());
+        assertEquals(70, summary.getTemperatureSum());
+    }
+}
@@ -0,0 +1,127 @@
+package de.saring.exerciseviewer.parser.impl;
+
+import java.io.File;
+import java.util.Date;
+
+import com.garmin.fit.DateTime;
+import com.garmin.fit.FileEncoder;
+import com.garmin.fit.FileIdMesg;
+import com.garmin.fit.LapMesg;
+import com.garmin.fit.Manufacturer;
+import com.garmin.fit.RecordMesg;
+import com.garmin.fit.SessionMesg;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.parser.impl.garminfit.GarminFitParser;
+
+/**
+ * Benchmark for the GarminFitParser, it's not a unit test and will not be executed in the build.
+ * It measures the parse time of the FIT test files and of a generated interval workout with many
+ * laps and samples (long exercises with 100+ laps were very slow before the lap to sample alignment
+ * was done by binary search).
+ * <p/>
+ * Usage: run the main method in the st-exerciseviewer directory (the test files are read from
+ * misc/testdata), optional arguments are the number of samples and laps of the generated workout.
+ *
+ * @author Stefan Saring
+ */
+public class GarminFitParserBenchmark {
+
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+
+    private static final String[] TEST_FILES = {
+            "misc/testdata/garmin-fit/Garmin_Fenix2_running_with_hrm.fit",
+            "misc/testdata/garmin-fit/2010-07-04-06-07-36.fit",
+            "misc/testdata/garmin-fit/Garmin_Forerunner_910XT-Running.fit"};
+
+    public static void main(String[] args) throws Exception {
+        final int sampleCount = args.length > 0 ? Integer.parseInt(args[0]) : 6 * 60 * 60;
+        final int lapCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        for (String testFile : TEST_FILES) {
+            if (new File(testFile).exists()) {
+                benchmark(testFile);
+            }
+        }
+
+        final File generatedFile = File.createTempFile("fit-benchmark", ".fit");
+        generatedFile.deleteOnExit();
+        createIntervalWorkout(generatedFile, sampleCount, lapCount);
+        benchmark(generatedFile.getPath());
+    }
+
+    private static void benchmark(String filename) throws EVException {
+        final GarminFitParser parser = new GarminFitParser();
+
+        EVExercise exercise = null;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            exercise = parser.parseExercise(filename);
+        }
+
+        final long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            parser.parseExercise(filename);
+        }
+        final double avgMillis = (System.nanoTime() - startTime) / 1_000_000d / MEASURED_RUNS;
+
+        System.out.printf("%-70s samples: %6d, laps: %4d, avg parse time: %8.2f ms%n", new File(filename).getName(),
+                exercise.getSampleCount(), exercise.getLapList().length, avgMillis);
+    }
+
+    /**
+     * Creates a FIT file of an interval workout with one sample per second and laps of same length.
+     */
+    private static void createIntervalWorkout(File file, int sampleCount, int lapCount) {
+        final long startMillis = new Date().getTime() / 1000 * 1000;
+        final FileEncoder encoder = new FileEncoder(file);
+
+        final FileIdMesg fileIdMesg = new FileIdMesg();
+        fileIdMesg.setType(com.garmin.fit.File.ACTIVITY);
+        fileIdMesg.setManufacturer(Manufacturer.GARMIN);
+        fileIdMesg.setTimeCreated(new DateTime(new Date(startMillis)));
+        encoder.write(fileIdMesg);
+
+        final int samplesPerLap = Math.max(1, sampleCount / lapCount);
+        float lapStartDistance = 0f;
+
+        for (int i = 0; i < sampleCount; i++) {
+            final float distance = i * 3.5f;
+            final RecordMesg recordMesg = new RecordMesg();
+            recordMesg.setTimestamp(new DateTime(new Date(startMillis + i * 1000L)));
+            recordMesg.setHeartRate((short) (120 + (i / samplesPerLap % 2) * 40 + i % 7));
+            recordMesg.setDistance(distance);
+            recordMesg.setSpeed(3.5f);
+            recordMesg.setAltitude(200f + (i % 600) / 10f);
+            recordMesg.setCadence((short) (85 + i % 5));
+            recordMesg.setPositionLat(612_000_000 + i * 10);
+            recordMesg.setPositionLong(135_000_000 + i * 10);
+            encoder.write(recordMesg);
+
+            if ((i + 1) % samplesPerLap == 0 || i == sampleCount - 1) {
+                final LapMesg lapMesg = new LapMesg();
+                lapMesg.setTimestamp(new DateTime(new Date(startMillis + i * 1000L)));
+                lapMesg.setTotalDistance(distance - lapStartDistance);
+                lapMesg.setAvgHeartRate((short) 140);
+                lapMesg.setMaxHeartRate((short) 170);
+                lapMesg.setTotalAscent(10);
+                encoder.write(lapMesg);
+                lapStartDistance = distance;
+            }
+        }
+
+        final SessionMesg sessionMesg = new SessionMesg();
+        sessionMesg.setTimestamp(new DateTime(new Date(startMillis + sampleCount * 1000L)));
+        sessionMesg.setStartTime(new DateTime(new Date(startMillis)));
+        sessionMesg.setTotalTimerTime((float) sampleCount);
+        sessionMesg.setTotalDistance(sampleCount * 3.5f);
+        sessionMesg.setAvgSpeed(3.5f);
+        sessionMesg.setTotalAscent(500);
+        sessionMesg.setStartPositionLat(612_000_000);
+        sessionMesg.setStartPositionLong(135_000_000);
+        encoder.write(sessionMesg);
+
+        encoder.close();
+    }
+}
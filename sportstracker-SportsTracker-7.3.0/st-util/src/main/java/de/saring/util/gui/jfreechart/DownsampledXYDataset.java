@@ -0,0 +1,297 @@
+package de.saring.util.gui.jfreechart;
+
+import java.util.Arrays;
+
+import org.jfree.data.DomainInfo;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractXYDataset;
+
+/**
+ * XYDataset with a single series, which contains only a level-of-detail subset of the original
+ * data for the current chart viewport. Charts with many thousands of values (e.g. 1 Hz recordings
+ * of long exercises) can't display more values than the available pixels anyway, but the rendering
+ * of all values is very slow.
+ * <p/>
+ * The visible domain range is divided into one bucket per pixel, for each bucket only the values
+ * with the minimum and maximum Y value are contained (min/max downsampling). So the shape of the
+ * curve and all peaks are still visible. The contained values are always original values, so
+ * tooltips display the exact data. When the user zooms in, the viewport needs to be updated, then
+ * the data will be recomputed at the higher resolution.
+ * <p/>
+ * The domain and range bounds are always the bounds of the complete data, so the auto range of the
+ * chart axes is not affected by the current viewport. The X values must be sorted in ascending order.
+ *
+ * @author Stefan Saring
+ */
+public class DownsampledXYDataset extends AbstractXYDataset implements DomainInfo, RangeInfo {
+
+    private static final long serialVersionUID = -2716379417614325418L;
+
+    /** Default viewport width in pixels, used when the real width is not known yet. */
+    public static final int DEFAULT_VIEWPORT_WIDTH = 1000;
+
+    private final Comparable<?> seriesKey;
+    private final double[] xValues;
+    private final double[] yValues;
+
+    private final Range domainBounds;
+    private final Range rangeBounds;
+
+    /** Indexes of the original values contained in the current viewport. */
+    private int[] viewportIndexes = new int[0];
+
+    private int viewportFromIndex = -1;
+    private int viewportToIndex = -1;
+    private int viewportWidth = -1;
+
+    /**
+     * Creates the dataset for the specified values, the viewport is the complete domain range
+     * with the default viewport width.
+     *
+     * @param seriesKey the key of the series
+     * @param xValues the X values (must be sorted ascending)
+     * @param yValues the Y values (must have the same length as the X values)
+     */
+    public DownsampledXYDataset(final Comparable<?> seriesKey, final double[] xValues, final double[] yValues) {
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException("The X and Y values must have the same length!");
+        }
+
+        this.seriesKey = seriesKey;
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.domainBounds = xValues.length == 0 ? null : new Range(xValues[0], xValues[xValues.length - 1]);
+        this.rangeBounds = computeBounds(yValues);
+
+        if (xValues.length > 0) {
+            setViewport(domainBounds.getLowerBound(), domainBounds.getUpperBound(), DEFAULT_VIEWPORT_WIDTH);
+        }
+    }
+
+    /**
+     * Updates the viewport of this dataset, the contained data will be recomputed for the visible
+     * domain range. One value before and after the visible range will be contained too, otherwise the
+     * lines to the chart borders are missing. Listeners are only notified when the contained data
+     * has been changed.
+     *
+     * @param lowerBound lower bound of the visible domain range
+     * @param upperBound upper bound of the visible domain range
+     * @param width width of the viewport in pixels
+     * @return true when the contained data has been changed
+     */
+    public boolean setViewport(final double lowerBound, final double upperBound, final int width) {
+        final int fromIndex = Math.max(0, findFirstIndexNotBelow(xValues, lowerBound) - 1);
+        final int toIndex = Math.min(xValues.length, findFirstIndexAbove(xValues, upperBound) + 1);
+        final int bucketCount = Math.max(1, width);
+
+        if (fromIndex == viewportFromIndex && toIndex == viewportToIndex && bucketCount == viewportWidth) {
+            return false;
+        }
+
+        viewportFromIndex = fromIndex;
+        viewportToIndex = toIndex;
+        viewportWidth = bucketCount;
+        viewportIndexes = downsample(xValues, yValues, fromIndex, toIndex, bucketCount);
+        fireDatasetChanged();
+        return true;
+    }
+
+    /**
+     * Returns the index of the original value for the specified item of the current viewport.
+     *
+     * @param item the item index in the current viewport
+     * @return the index of the original value
+     */
+    public int getSourceIndex(final int item) {
+        return viewportIndexes[item];
+    }
+
+    /**
+     * Returns the number of original values.
+     *
+     * @return number of values
+     */
+    public int getSourceItemCount() {
+        return xValues.length;
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return 1;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Comparable getSeriesKey(final int series) {
+        return seriesKey;
+    }
+
+    @Override
+    public int getItemCount(final int series) {
+        return viewportIndexes.length;
+    }
+
+    @Override
+    public Number getX(final int series, final int item) {
+        return xValues[viewportIndexes[item]];
+    }
+
+    @Override
+    public double getXValue(final int series, final int item) {
+        return xValues[viewportIndexes[item]];
+    }
+
+    @Override
+    public Number getY(final int series, final int item) {
+        return yValues[viewportIndexes[item]];
+    }
+
+    @Override
+    public double getYValue(final int series, final int item) {
+        return yValues[viewportIndexes[item]];
+    }
+
+    @Override
+    public double getDomainLowerBound(final boolean includeInterval) {
+        return domainBounds == null ? Double.NaN : domainBounds.getLowerBound();
+    }
+
+    @Override
+    public double getDomainUpperBound(final boolean includeInterval) {
+        return domainBounds == null ? Double.NaN : domainBounds.getUpperBound();
+    }
+
+    @Override
+    public Range getDomainBounds(final boolean includeInterval) {
+        return domainBounds;
+    }
+
+    @Override
+    public double getRangeLowerBound(final boolean includeInterval) {
+        return rangeBounds == null ? Double.NaN : rangeBounds.getLowerBound();
+    }
+
+    @Override
+    public double getRangeUpperBound(final boolean includeInterval) {
+        return rangeBounds == null ? Double.NaN : rangeBounds.getUpperBound();
+    }
+
+    @Override
+    public Range getRangeBounds(final boolean includeInterval) {
+        return rangeBounds;
+    }
+
+    /**
+     * Computes the indexes of the values to display for the specified index range. The domain range
+     * is divided into buckets of same width, for each bucket the indexes of the minimum and maximum
+     * Y value are returned in ascending order. The first and last index are always contained. When the
+     * index range is not larger than 2 values per bucket, all indexes are returned.
+     *
+     * @param xValues the X values (sorted ascending)
+     * @param yValues the Y values
+     * @param fromIndex the first index of the range (inclusive)
+     * @param toIndex the last index of the range (exclusive)
+     * @param bucketCount number of buckets (e.g. pixels of the viewport)
+     * @return indexes of the values to display
+     */
+    public static int[] downsample(final double[] xValues, final double[] yValues, final int fromIndex,
+            final int toIndex, final int bucketCount) {
+
+        final int valueCount = toIndex - fromIndex;
+        if (valueCount <= 0) {
+            return new int[0];
+        }
+        if (valueCount <= 2 * bucketCount + 2) {
+            final int[] indexes = new int[valueCount];
+            for (int i = 0; i < valueCount; i++) {
+                indexes[i] = fromIndex + i;
+            }
+            return indexes;
+        }
+
+        final double xStart = xValues[fromIndex];
+        final double bucketWidth = (xValues[toIndex - 1] - xStart) / bucketCount;
+
+        final int[] indexes = new int[2 * bucketCount + 2];
+        int indexCount = 0;
+        indexes[indexCount++] = fromIndex;
+
+        int currentBucket = -1;
+        int minIndex = -1;
+        int maxIndex = -1;
+
+        for (int i = fromIndex + 1; i < toIndex - 1; i++) {
+            final int bucket = bucketWidth > 0 ?
+                    Math.min(bucketCount - 1, (int) ((xValues[i] - xStart) / bucketWidth)) : 0;
+
+            if (bucket != currentBucket) {
+                indexCount = addBucketIndexes(indexes, indexCount, minIndex, maxIndex);
+                currentBucket = bucket;
+                minIndex = i;
+                maxIndex = i;
+            } else {
+                if (yValues[i] < yValues[minIndex]) {
+                    minIndex = i;
+                }
+                if (yValues[i] > yValues[maxIndex]) {
+                    maxIndex = i;
+                }
+            }
+        }
+
+        indexCount = addBucketIndexes(indexes, indexCount, minIndex, maxIndex);
+        indexes[indexCount++] = toIndex - 1;
+        return Arrays.copyOf(indexes, indexCount);
+    }
+
+    private static int addBucketIndexes(final int[] indexes, int indexCount, final int minIndex, final int maxIndex) {
+        if (minIndex >= 0) {
+            indexes[indexCount++] = Math.min(minIndex, maxIndex);
+            if (minIndex != maxIndex) {
+                indexes[indexCount++] = Math.max(minIndex, maxIndex);
+            }
+        }
+        return indexCount;
+    }
+
+    private static int findFirstIndexNotBelow(final double[] values, final double value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int findFirstIndexAbove(final double[] values, final double value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Range computeBounds(final double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        return min <= max ? new Range(min, max) : null;
+    }
+}
@@ -0,0 +1,51 @@
+package de.saring.util.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metric for counting events (e.g. cache hits). It can be used by multiple threads concurrently.
+ *
+ * @author Stefan Saring
+ */
+public final class Counter extends Metric {
+
+    private final LongAdder count = new LongAdder();
+
+    Counter(final String name) {
+        super(name);
+    }
+
+    /**
+     * Increments the counter by one.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Adds the specified value to the counter.
+     *
+     * @param value value to add
+     */
+    public void add(final long value) {
+        if (Metrics.isEnabled()) {
+            count.add(value);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public MetricSnapshot getSnapshot() {
+        final long currentCount = getCount();
+        return new MetricSnapshot(getName(), MetricSnapshot.TYPE_COUNTER, currentCount, currentCount,
+                0, 0, 0, 0);
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,113 @@
+package de.saring.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metric for the distribution of recorded values (e.g. result sizes). Besides count, sum, minimum and
+ * maximum it stores the number of values in buckets with power of 2 boundaries, so percentiles can be
+ * estimated without storing all values. It can be used by multiple threads concurrently.
+ *
+ * @author Stefan Saring
+ */
+public class Histogram extends Metric {
+
+    /** Bucket i contains the values from 2^(i-1) to 2^i - 1, bucket 0 contains all values <= 0. */
+    private static final int BUCKET_COUNT = 64;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    Histogram(final String name) {
+        super(name);
+    }
+
+    /**
+     * Records the specified value.
+     *
+     * @param value value to record
+     */
+    public void record(final long value) {
+        if (Metrics.isEnabled()) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+            buckets.incrementAndGet(getBucketIndex(value));
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the estimated value for the specified percentile. The value is interpolated linearly
+     * inside the bucket of the percentile, so the precision depends on the bucket size.
+     *
+     * @param percentile the percentile (0 - 100)
+     * @return the estimated value or 0 when no values were recorded
+     */
+    public double getPercentile(final double percentile) {
+        final long currentCount = getCount();
+        if (currentCount == 0) {
+            return 0;
+        }
+
+        final double rank = Math.max(1, Math.ceil(currentCount * percentile / 100d));
+        long countBefore = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            final long bucketCount = buckets.get(i);
+            if (bucketCount > 0 && countBefore + bucketCount >= rank) {
+                final double lower = i == 0 ? 0 : Math.pow(2, i - 1);
+                final double upper = i == 0 ? 0 : Math.pow(2, i) - 1;
+                final double value = lower + (upper - lower) * (rank - countBefore) / bucketCount;
+                return Math.max(min.get(), Math.min(max.get(), value));
+            }
+            countBefore += bucketCount;
+        }
+        return max.get();
+    }
+
+    @Override
+    public MetricSnapshot getSnapshot() {
+        return createSnapshot(MetricSnapshot.TYPE_HISTOGRAM, 1d);
+    }
+
+    /**
+     * Creates the snapshot of the recorded values, they will be divided by the specified scale.
+     *
+     * @param type metric type
+     * @param scale value scale (e.g. 1_000_000 for nanoseconds to milliseconds)
+     * @return the snapshot
+     */
+    protected MetricSnapshot createSnapshot(final String type, final double scale) {
+        final long currentCount = getCount();
+        if (currentCount == 0) {
+            return new MetricSnapshot(getName(), type, 0, 0, 0, 0, 0, 0);
+        }
+
+        final long currentSum = sum.sum();
+        return new MetricSnapshot(getName(), type, currentCount, currentSum / scale, min.get() / scale,
+                currentSum / scale / currentCount, getPercentile(95) / scale, max.get() / scale);
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+    private static int getBucketIndex(final long value) {
+        return value <= 0 ? 0 : Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+}
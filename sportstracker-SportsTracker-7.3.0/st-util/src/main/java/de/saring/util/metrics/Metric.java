@@ -0,0 +1,37 @@
+package de.saring.util.metrics;
+
+/**
+ * Base class of all metrics, each metric has an unique name. The metric values are only recorded
+ * when the metrics are enabled, see Metrics.setEnabled().
+ *
+ * @author Stefan Saring
+ */
+public abstract class Metric {
+
+    private final String name;
+
+    /**
+     * Creates a new metric with the specified name.
+     *
+     * @param name metric name
+     */
+    protected Metric(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns a snapshot of the current metric values.
+     *
+     * @return the snapshot
+     */
+    public abstract MetricSnapshot getSnapshot();
+
+    /**
+     * Resets all recorded values of this metric.
+     */
+    public abstract void reset();
+}
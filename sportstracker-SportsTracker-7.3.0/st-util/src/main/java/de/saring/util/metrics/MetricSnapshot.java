@@ -0,0 +1,88 @@
+package de.saring.util.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Immutable snapshot of the values of a metric. The values of timers are in milliseconds. For counters
+ * only the count and total values are used.
+ *
+ * @author Stefan Saring
+ */
+public final class MetricSnapshot {
+
+    public static final String TYPE_COUNTER = "counter";
+    public static final String TYPE_HISTOGRAM = "histogram";
+    public static final String TYPE_TIMER = "timer";
+
+    private final String name;
+    private final String type;
+    private final long count;
+    private final double total;
+    private final double min;
+    private final double mean;
+    private final double percentile95;
+    private final double max;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param name metric name
+     * @param type metric type
+     * @param count number of recorded values
+     * @param total sum of recorded values
+     * @param min minimum recorded value
+     * @param mean average of recorded values
+     * @param percentile95 95th percentile of recorded values
+     * @param max maximum recorded value
+     */
+    @ConstructorProperties({"name", "type", "count", "total", "min", "mean", "percentile95", "max"})
+    public MetricSnapshot(final String name, final String type, final long count, final double total,
+            final double min, final double mean, final double percentile95, final double max) {
+        this.name = name;
+        this.type = type;
+        this.count = count;
+        this.total = total;
+        this.min = min;
+        this.mean = mean;
+        this.percentile95 = percentile95;
+        this.max = max;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getPercentile95() {
+        return percentile95;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [%s] count: %d, total: %.3f, min: %.3f, mean: %.3f, p95: %.3f, max: %.3f",
+                name, type, count, total, min, mean, percentile95, max);
+    }
+}
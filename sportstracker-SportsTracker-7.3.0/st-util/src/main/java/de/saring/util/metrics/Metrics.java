@@ -0,0 +1,158 @@
+package de.saring.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of all metrics (counters, timers and histograms) of the application. The metrics are
+ * created on first usage and are usually stored in static fields of the measured classes. Example:
+ * <pre>
+ * private static final Timer LOAD_TIMER = Metrics.timer("storage.load");
+ * </pre>
+ * The metrics are disabled by default, then no values are recorded and the measurement has nearly
+ * no overhead (just the check of a volatile flag). The recorded values can be displayed in the
+ * application or by JMX clients, when the MBean has been registered.
+ *
+ * @author Stefan Saring
+ */
+public final class Metrics {
+    private static final Logger LOGGER = Logger.getLogger(Metrics.class.getName());
+
+    /** Object name of the metrics MBean. */
+    public static final String MBEAN_NAME = "de.saring.util:type=Metrics";
+
+    private static final Map<String, Metric> METRICS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the recording of metric values. The already recorded values will be kept.
+     *
+     * @param enabled true for enabling
+     */
+    public static void setEnabled(final boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Returns the counter with the specified name, it will be created when not registered yet.
+     *
+     * @param name metric name
+     * @return the counter
+     * @throws IllegalArgumentException when a metric of another type is registered for this name
+     */
+    public static Counter counter(final String name) {
+        return getOrCreate(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * Returns the timer with the specified name, it will be created when not registered yet.
+     *
+     * @param name metric name
+     * @return the timer
+     * @throws IllegalArgumentException when a metric of another type is registered for this name
+     */
+    public static Timer timer(final String name) {
+        return getOrCreate(name, Timer.class, Timer::new);
+    }
+
+    /**
+     * Returns the histogram with the specified name, it will be created when not registered yet.
+     *
+     * @param name metric name
+     * @return the histogram
+     * @throws IllegalArgumentException when a metric of another type is registered for this name
+     */
+    public static Histogram histogram(final String name) {
+        return getOrCreate(name, Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Returns the snapshots of all registered metrics, sorted by name.
+     *
+     * @return list of snapshots
+     */
+    public static List<MetricSnapshot> getSnapshots() {
+        return METRICS.values().stream()
+                .sorted(Comparator.comparing(Metric::getName))
+                .map(Metric::getSnapshot)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resets the recorded values of all registered metrics.
+     */
+    public static void reset() {
+        METRICS.values().forEach(Metric::reset);
+    }
+
+    /**
+     * Registers the metrics MBean at the platform MBean server (when not registered yet). Registration
+     * failures will only be logged, the metrics can be used anyway.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(new MetricsMXBeanImpl(), objectName);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Failed to register the metrics MBean!", e);
+        }
+    }
+
+    private static <T extends Metric> T getOrCreate(final String name, final Class<T> type,
+            final Function<String, T> factory) {
+        final Metric metric = METRICS.computeIfAbsent(name, factory);
+        if (metric.getClass() != type) {
+            throw new IllegalArgumentException("The metric '" + name + "' is registered as " +
+                    metric.getClass().getSimpleName() + "!");
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * Implementation of the metrics MBean, it delegates to the static Metrics methods.
+     */
+    private static final class MetricsMXBeanImpl implements MetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(final boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public List<MetricSnapshot> getMetrics() {
+            return Metrics.getSnapshots();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package de.saring.util.metrics;
+
+import java.util.List;
+
+/**
+ * JMX interface of the metrics, it can be used by JMX clients like JConsole or VisualVM.
+ * The MBean is registered by Metrics.registerMBean().
+ *
+ * @author Stefan Saring
+ */
+public interface MetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the snapshots of all metrics, sorted by name.
+     *
+     * @return list of snapshots
+     */
+    List<MetricSnapshot> getMetrics();
+
+    /**
+     * Resets the recorded values of all metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,92 @@
+package de.saring.util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timeline of the application startup. The startup is divided in phases, the end of each phase
+ * is marked by calling mark(), the phase duration is the time since the end of the previous phase
+ * (or since the creation of the timeline for the first phase). The phases can be marked in
+ * different threads.
+ * <p/>
+ * The phase durations are also recorded in the timers 'startup.&lt;phase&gt;', so they are
+ * available in the metrics when enabled.
+ *
+ * @author Stefan Saring
+ */
+public final class StartupTimeline {
+
+    private final long startNanos;
+    private long lastMarkNanos;
+
+    /** Map of the phase names to the phase durations in nanoseconds (in marking order). */
+    private final Map<String, Long> phaseDurations = new LinkedHashMap<>();
+
+    /**
+     * Creates a new StartupTimeline, the first phase starts now.
+     */
+    public StartupTimeline() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Creates a new StartupTimeline, the first phase starts at the specified time.
+     *
+     * @param startNanos start time of the first phase (from System.nanoTime())
+     */
+    StartupTimeline(final long startNanos) {
+        this.startNanos = startNanos;
+        this.lastMarkNanos = startNanos;
+    }
+
+    /**
+     * Marks the end of the specified phase, the next phase starts now.
+     *
+     * @param phase name of the phase
+     */
+    public void mark(final String phase) {
+        mark(phase, System.nanoTime());
+    }
+
+    synchronized void mark(final String phase, final long nowNanos) {
+        final long duration = nowNanos - lastMarkNanos;
+        lastMarkNanos = nowNanos;
+
+        phaseDurations.merge(phase, duration, Long::sum);
+        Metrics.timer("startup." + phase).record(duration);
+    }
+
+    /**
+     * Returns the durations of all marked phases in milliseconds (in marking order).
+     *
+     * @return map of phase names to phase durations
+     */
+    public synchronized Map<String, Long> getPhaseDurations() {
+        final Map<String, Long> durations = new LinkedHashMap<>();
+        phaseDurations.forEach((phase, duration) -> durations.put(phase, TimeUnit.NANOSECONDS.toMillis(duration)));
+        return durations;
+    }
+
+    /**
+     * Returns the duration from the timeline start until the end of the last marked phase in milliseconds.
+     *
+     * @return total duration
+     */
+    public synchronized long getTotalDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(lastMarkNanos - startNanos);
+    }
+
+    /**
+     * Creates the report of the timeline, it contains one line for each phase and the total duration.
+     *
+     * @return the report text
+     */
+    public String createReport() {
+        final StringBuilder sb = new StringBuilder("Startup timeline:");
+        getPhaseDurations().forEach((phase, duration) ->
+                sb.append(String.format("%n  %-28s %6d ms", phase, duration)));
+        sb.append(String.format("%n  %-28s %6d ms", "total", getTotalDuration()));
+        return sb.toString();
+    }
+}
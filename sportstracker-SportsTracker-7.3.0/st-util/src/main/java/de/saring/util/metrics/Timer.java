@@ -0,0 +1,55 @@
+package de.saring.util.metrics;
+
+/**
+ * Metric for measuring the duration of operations. The durations are recorded in nanoseconds, the
+ * snapshot values are in milliseconds. Usage:
+ * <pre>
+ * try (Timer.Context ignored = timer.start()) {
+ *     // measured code
+ * }
+ * </pre>
+ * When the metrics are disabled, start() returns a shared context which does nothing.
+ *
+ * @author Stefan Saring
+ */
+public final class Timer extends Histogram {
+
+    private static final Context NOOP_CONTEXT = () -> {
+    };
+
+    Timer(final String name) {
+        super(name);
+    }
+
+    /**
+     * Starts the time measurement, the duration will be recorded when the returned context is closed.
+     *
+     * @return the context of the measurement
+     */
+    public Context start() {
+        if (!Metrics.isEnabled()) {
+            return NOOP_CONTEXT;
+        }
+
+        final long startNanos = System.nanoTime();
+        return () -> record(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public MetricSnapshot getSnapshot() {
+        return createSnapshot(MetricSnapshot.TYPE_TIMER, 1_000_000d);
+    }
+
+    /**
+     * Context of a running time measurement.
+     */
+    @FunctionalInterface
+    public interface Context extends AutoCloseable {
+
+        /**
+         * Stops the measurement and records the duration.
+         */
+        @Override
+        void close();
+    }
+}
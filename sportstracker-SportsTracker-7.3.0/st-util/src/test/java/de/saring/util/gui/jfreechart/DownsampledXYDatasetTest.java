@@ -0,0 +1,86 @@
+package de.saring.util.gui.jfreechart;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the DownsampledXYDataset class.
+ *
+ * @author Stefan Saring
+ */
+public class DownsampledXYDatasetTest {
+
+    /**
+     * All values must be returned when there are not more values than 2 per bucket.
+     */
+    @Test
+    public void testDownsampleSmallRange() {
+        final double[] xValues = {0, 1, 2, 3, 4};
+        final double[] yValues = {5, 3, 8, 1, 4};
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, DownsampledXYDataset.downsample(xValues, yValues, 0, 5, 2));
+        assertArrayEquals(new int[]{1, 2}, DownsampledXYDataset.downsample(xValues, yValues, 1, 3, 2));
+        assertEquals(0, DownsampledXYDataset.downsample(xValues, yValues, 3, 3, 2).length);
+    }
+
+    /**
+     * For each bucket the minimum and maximum value must be returned in ascending order,
+     * the first and last value must always be contained.
+     */
+    @Test
+    public void testDownsampleMinMax() {
+        final double[] xValues = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        final double[] yValues = {5, 6, 9, 2, 7, 7, 1, 3, 8, 4, 5};
+
+        // 2 buckets: [1..4] and [5..9]
+        assertArrayEquals(new int[]{0, 2, 3, 6, 8, 10}, DownsampledXYDataset.downsample(xValues, yValues, 0, 11, 2));
+    }
+
+    /**
+     * The dataset must contain only the downsampled values of the viewport, but the bounds
+     * must be the bounds of all values.
+     */
+    @Test
+    public void testViewport() {
+        final int count = 10000;
+        final double[] xValues = new double[count];
+        final double[] yValues = new double[count];
+        for (int i = 0; i < count; i++) {
+            xValues[i] = i * 1000d;
+            yValues[i] = 100 + (i % 50);
+        }
+
+        final DownsampledXYDataset dataset = new DownsampledXYDataset("test", xValues, yValues);
+        assertEquals(1, dataset.getSeriesCount());
+        assertEquals("test", dataset.getSeriesKey(0));
+        assertEquals(count, dataset.getSourceItemCount());
+        assertTrue(dataset.getItemCount(0) <= 2 * DownsampledXYDataset.DEFAULT_VIEWPORT_WIDTH + 2);
+        assertEquals(0d, dataset.getXValue(0, 0), 0d);
+        assertEquals((count - 1) * 1000d, dataset.getXValue(0, dataset.getItemCount(0) - 1), 0d);
+
+        // zoom in, all values of the visible range and one value outside on each side are contained
+        assertTrue(dataset.setViewport(100_000d, 150_000d, 500));
+        assertEquals(53, dataset.getItemCount(0));
+        assertEquals(99, dataset.getSourceIndex(0));
+        assertEquals(99_000d, dataset.getXValue(0, 0), 0d);
+        assertEquals(151_000d, dataset.getXValue(0, 52), 0d);
+        assertFalse(dataset.setViewport(100_000d, 150_000d, 500));
+
+        assertEquals(0d, dataset.getDomainLowerBound(false), 0d);
+        assertEquals((count - 1) * 1000d, dataset.getDomainUpperBound(false), 0d);
+        assertEquals(100d, dataset.getRangeLowerBound(false), 0d);
+        assertEquals(149d, dataset.getRangeUpperBound(false), 0d);
+    }
+
+    /**
+     * The dataset must support empty data.
+     */
+    @Test
+    public void testEmptyDataset() {
+        final DownsampledXYDataset dataset = new DownsampledXYDataset("test", new double[0], new double[0]);
+        assertEquals(0, dataset.getItemCount(0));
+        assertNull(dataset.getDomainBounds(false));
+        assertNull(dataset.getRangeBounds(false));
+    }
+}
@@ -0,0 +1,154 @@
+package de.saring.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the Metrics class and the metric types.
+ *
+ * @author Stefan Saring
+ */
+public class MetricsTest {
+
+    @Before
+    public void setUp() {
+        Metrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    /**
+     * No values must be recorded when the metrics are disabled.
+     */
+    @Test
+    public void testDisabled() {
+        Metrics.setEnabled(false);
+        final Counter counter = Metrics.counter("test.disabled.counter");
+        final Timer timer = Metrics.timer("test.disabled.timer");
+
+        counter.increment();
+        try (Timer.Context ignored = timer.start()) {
+            assertNotNull(ignored);
+        }
+
+        assertEquals(0, counter.getCount());
+        assertEquals(0, timer.getCount());
+    }
+
+    /**
+     * The same metric instance must be returned for the same name, another type must not be allowed.
+     */
+    @Test
+    public void testRegistry() {
+        final Counter counter = Metrics.counter("test.registry.counter");
+        assertSame(counter, Metrics.counter("test.registry.counter"));
+
+        try {
+            Metrics.timer("test.registry.counter");
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCounter() {
+        final Counter counter = Metrics.counter("test.counter");
+        counter.increment();
+        counter.add(4);
+
+        final MetricSnapshot snapshot = counter.getSnapshot();
+        assertEquals(MetricSnapshot.TYPE_COUNTER, snapshot.getType());
+        assertEquals(5, snapshot.getCount());
+
+        Metrics.reset();
+        assertEquals(0, counter.getCount());
+    }
+
+    /**
+     * The snapshot must contain the exact count, sum, min and max, the percentile is estimated.
+     */
+    @Test
+    public void testHistogram() {
+        final Histogram histogram = Metrics.histogram("test.histogram");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        final MetricSnapshot snapshot = histogram.getSnapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(5050, snapshot.getTotal(), 0d);
+        assertEquals(1, snapshot.getMin(), 0d);
+        assertEquals(50.5, snapshot.getMean(), 0d);
+        assertEquals(100, snapshot.getMax(), 0d);
+        assertEquals(95, snapshot.getPercentile95(), 10d);
+        assertEquals(50, histogram.getPercentile(50), 15d);
+    }
+
+    /**
+     * The timer snapshot values must be in milliseconds.
+     */
+    @Test
+    public void testTimer() {
+        final Timer timer = Metrics.timer("test.timer");
+        timer.record(2_000_000);
+        timer.record(4_000_000);
+        try (Timer.Context ignored = timer.start()) {
+            assertNotNull(ignored);
+        }
+
+        final MetricSnapshot snapshot = timer.getSnapshot();
+        assertEquals(MetricSnapshot.TYPE_TIMER, snapshot.getType());
+        assertEquals(3, snapshot.getCount());
+        assertEquals(4, snapshot.getMax(), 0d);
+        assertTrue(snapshot.getTotal() >= 6);
+    }
+
+    /**
+     * The snapshots of all metrics must be sorted by name.
+     */
+    @Test
+    public void testGetSnapshots() {
+        Metrics.counter("test.snapshots.b").increment();
+        Metrics.counter("test.snapshots.a").increment();
+
+        final List<MetricSnapshot> snapshots = Metrics.getSnapshots();
+        for (int i = 1; i < snapshots.size(); i++) {
+            assertTrue(snapshots.get(i - 1).getName().compareTo(snapshots.get(i).getName()) < 0);
+        }
+    }
+
+    /**
+     * The metrics must be available as attribute of the registered MBean.
+     */
+    @Test
+    public void testMBean() throws Exception {
+        Metrics.counter("test.mbean.counter").add(3);
+        Metrics.registerMBean();
+        Metrics.registerMBean();
+
+        final CompositeData[] metrics = (CompositeData[]) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(Metrics.MBEAN_NAME), "Metrics");
+        boolean found = false;
+        for (CompositeData metric : metrics) {
+            if ("test.mbean.counter".equals(metric.get("name"))) {
+                assertEquals(3L, metric.get("count"));
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+}
@@ -0,0 +1,62 @@
+package de.saring.util.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the StartupTimeline class.
+ *
+ * @author Stefan Saring
+ */
+public class StartupTimelineTest {
+
+    private static final long MS = 1_000_000L;
+
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    /**
+     * Each phase duration must be the time since the previous mark, repeated phases are summed up.
+     */
+    @Test
+    public void testPhaseDurations() {
+        final StartupTimeline timeline = new StartupTimeline(1000 * MS);
+        timeline.mark("init", 1010 * MS);
+        timeline.mark("window", 1040 * MS);
+        timeline.mark("init", 1045 * MS);
+        timeline.mark("data", 1145 * MS);
+
+        final Map<String, Long> durations = timeline.getPhaseDurations();
+        assertEquals(Arrays.asList("init", "window", "data"), Arrays.asList(durations.keySet().toArray()));
+        assertEquals(Long.valueOf(15), durations.get("init"));
+        assertEquals(Long.valueOf(30), durations.get("window"));
+        assertEquals(Long.valueOf(100), durations.get("data"));
+        assertEquals(145, timeline.getTotalDuration());
+
+        final String report = timeline.createReport();
+        assertTrue(report.contains("window"));
+        assertTrue(report.contains("145 ms"));
+    }
+
+    /**
+     * The phase durations must be recorded in the startup timers when the metrics are enabled.
+     */
+    @Test
+    public void testMetrics() {
+        Metrics.setEnabled(true);
+        final StartupTimeline timeline = new StartupTimeline(0);
+        timeline.mark("options", 20 * MS);
+
+        final MetricSnapshot snapshot = Metrics.timer("startup.options").getSnapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(20, snapshot.getTotal(), 0d);
+    }
+}